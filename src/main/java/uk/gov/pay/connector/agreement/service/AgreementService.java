@@ -12,7 +12,7 @@ import uk.gov.pay.connector.agreement.model.AgreementResponse;
 import uk.gov.pay.connector.agreement.model.builder.AgreementResponseBuilder;
 import uk.gov.pay.connector.charge.exception.AgreementNotFoundRuntimeException;
 import uk.gov.pay.connector.charge.exception.ChargeException;
-import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.events.model.agreement.AgreementCancelledByService;
 import uk.gov.pay.connector.events.model.agreement.AgreementCancelledByUser;
 import uk.gov.pay.connector.events.model.agreement.AgreementCreated;
@@ -35,16 +35,16 @@ public class AgreementService {
 
     private final GatewayAccountService gatewayAccountService;
     private final AgreementDao agreementDao;
-    private final LedgerService ledgerService;
+    private final LedgerEventPublisher ledgerEventPublisher;
     private final InstantSource instantSource;
     private final TaskQueueService taskQueueService;
 
     @Inject
-    public AgreementService(AgreementDao agreementDao, GatewayAccountService gatewayAccountService, LedgerService ledgerService,
+    public AgreementService(AgreementDao agreementDao, GatewayAccountService gatewayAccountService, LedgerEventPublisher ledgerEventPublisher,
                             InstantSource instantSource, TaskQueueService taskQueueService) {
         this.agreementDao = agreementDao;
         this.gatewayAccountService = gatewayAccountService;
-        this.ledgerService = ledgerService;
+        this.ledgerEventPublisher = ledgerEventPublisher;
         this.instantSource = instantSource;
         this.taskQueueService = taskQueueService;
     }
@@ -93,7 +93,7 @@ public class AgreementService {
         agreementEntity.setGatewayAccount(gatewayAccountEntity);
 
         agreementDao.persist(agreementEntity);
-        ledgerService.postEvent(AgreementCreated.from(agreementEntity));
+        ledgerEventPublisher.publish(AgreementCreated.from(agreementEntity));
 
         return new AgreementResponseBuilder()
                 .withAgreementId(agreementEntity.getExternalId())
@@ -133,9 +133,9 @@ public class AgreementService {
                     agreement.setCancelledDate(now);
                     taskQueueService.addDeleteStoredPaymentDetailsTask(agreement, paymentInstrument);
                     if (agreementCancelRequest != null && agreementCancelRequest.userEmail() != null && agreementCancelRequest.userExternalId() != null) {
-                        ledgerService.postEvent(AgreementCancelledByUser.from(agreement, agreementCancelRequest, now));
+                        ledgerEventPublisher.publish(AgreementCancelledByUser.from(agreement, agreementCancelRequest, now));
                     } else {
-                        ledgerService.postEvent(AgreementCancelledByService.from(agreement, now));
+                        ledgerEventPublisher.publish(AgreementCancelledByService.from(agreement, now));
                     }
                 }, () -> {
                     throw new ChargeException("Payment instrument not active.", AGREEMENT_NOT_ACTIVE, HttpStatus.SC_BAD_REQUEST);
@@ -4,6 +4,7 @@ package uk.gov.pay.connector.app;
 import io.dropwizard.core.Configuration;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 public class CaptureProcessConfig extends Configuration {
@@ -20,6 +21,18 @@ public class CaptureProcessConfig extends Configuration {
     private int queueSchedulerNumberOfThreads;
     private int queueSchedulerShutdownTimeoutInSeconds;
 
+    @Min(1)
+    private int workerThreadsPerGateway = 4;
+
+    @Min(1)
+    private int workerQueueCapacityPerGateway = 10;
+
+    @Min(1)
+    private int maximumCapturesInFlight = 40;
+
+    @Min(1)
+    private int maximumQueuedTimeInMilliseconds = 10000;
+
     public int getChargesConsideredOverdueForCaptureAfter() {
         return chargesConsideredOverdueForCaptureAfter;
     }
@@ -45,4 +58,20 @@ public class CaptureProcessConfig extends Configuration {
     public int getQueueSchedulerShutdownTimeoutInSeconds() {
         return queueSchedulerShutdownTimeoutInSeconds;
     }
+
+    public int getWorkerThreadsPerGateway() {
+        return workerThreadsPerGateway;
+    }
+
+    public int getWorkerQueueCapacityPerGateway() {
+        return workerQueueCapacityPerGateway;
+    }
+
+    public int getMaximumCapturesInFlight() {
+        return maximumCapturesInFlight;
+    }
+
+    public int getMaximumQueuedTimeInMilliseconds() {
+        return maximumQueuedTimeInMilliseconds;
+    }
 }
@@ -1,6 +1,7 @@
 package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
+import jakarta.validation.constraints.Min;
 
 import java.time.Duration;
 
@@ -11,6 +12,12 @@ public class ChargeSweepConfig extends Configuration {
     private int tokenExpiryThresholdInSeconds;
     private int skipExpiringChargesLastUpdatedInSeconds;
     private int idempotencyKeyExpiryThresholdInSeconds;
+
+    @Min(1)
+    private int sweepPageSize = 500;
+
+    @Min(1)
+    private int maximumConcurrentGatewayCancelsPerProvider = 4;
     
     public Duration getDefaultChargeExpiryThreshold() {
         return Duration.ofSeconds(defaultChargeExpiryThreshold);
@@ -31,4 +38,12 @@ public class ChargeSweepConfig extends Configuration {
     public Duration getIdempotencyKeyExpiryThresholdInSeconds() {
         return Duration.ofSeconds(idempotencyKeyExpiryThresholdInSeconds);
     }
+
+    public int getSweepPageSize() {
+        return sweepPageSize;
+    }
+
+    public int getMaximumConcurrentGatewayCancelsPerProvider() {
+        return maximumConcurrentGatewayCancelsPerProvider;
+    }
 }
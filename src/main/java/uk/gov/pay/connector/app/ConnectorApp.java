@@ -47,16 +47,29 @@ import uk.gov.pay.connector.charge.exception.motoapi.OneTimeTokenUsageInvalidFor
 import uk.gov.pay.connector.charge.resource.ChargesApiResource;
 import uk.gov.pay.connector.charge.resource.ChargesFrontendResource;
 import uk.gov.pay.connector.charge.resource.GatewayCleanupResource;
+import uk.gov.pay.connector.charge.service.ChargeStatusChangeListener;
 import uk.gov.pay.connector.chargeevent.resource.ChargeEventsResource;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.command.RenderStateTransitionGraphCommand;
 import uk.gov.pay.connector.common.exception.ConstraintViolationExceptionMapper;
 import uk.gov.pay.connector.common.exception.UnsupportedOperationExceptionMapper;
 import uk.gov.pay.connector.common.exception.ValidationExceptionMapper;
+import uk.gov.pay.connector.common.service.ReferenceDataCacheRefresher;
 import uk.gov.pay.connector.events.resource.EmittedEventResource;
 import uk.gov.pay.connector.expunge.resource.ExpungeResource;
+import uk.gov.pay.connector.filters.DatabaseActivityFilter;
+import uk.gov.pay.connector.filters.LedgerLookupRequestScopeFilter;
 import uk.gov.pay.connector.filters.LoggingMDCRequestFilter;
 import uk.gov.pay.connector.filters.LoggingMDCResponseFilter;
+import uk.gov.pay.connector.filters.ResourceMethodNameFilter;
 import uk.gov.pay.connector.filters.SchemeRewriteFilter;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayCaptureResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayNotification;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayQueryResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayRefundResponse;
 import uk.gov.pay.connector.gatewayaccount.resource.AdyenAccountResource;
 import uk.gov.pay.connector.gatewayaccount.resource.AdyenAccountSetupResource;
 import uk.gov.pay.connector.gatewayaccount.resource.GatewayAccountResource;
@@ -134,7 +147,8 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
 
         injector.getInstance(PersistenceServiceInitialiser.class);
 
-        initialiseMetrics(configuration, environment);
+        initialiseMetrics(configuration, environment, injector.getInstance(InstrumentedDataSource.class));
+        warmUpXmlUnmarshaller();
 
         environment.jersey().register(new ConstraintViolationExceptionMapper());
         environment.jersey().register(new ValidationExceptionMapper());
@@ -194,6 +208,7 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         environment.jersey().register(injector.getInstance(ParityCheckerResource.class));
         environment.jersey().register(injector.getInstance(LoggingMDCRequestFilter.class));
         environment.jersey().register(injector.getInstance(LoggingMDCResponseFilter.class));
+        environment.jersey().register(new ResourceMethodNameFilter());
         environment.jersey().register(injector.getInstance(AgreementsApiResource.class));
         environment.jersey().register(injector.getInstance(AdyenAccountResource.class));
         environment.jersey().register(injector.getInstance(AdyenAccountSetupResource.class));
@@ -203,9 +218,16 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         }
         environment.lifecycle().manage(injector.getInstance(PayoutReconcileMessageReceiver.class));
         environment.lifecycle().manage(injector.getInstance(TaskQueueMessageReceiver.class));
+        environment.lifecycle().manage(injector.getInstance(ReferenceDataCacheRefresher.class));
+        environment.lifecycle().manage(injector.getInstance(ChargeStatusChangeListener.class));
+        environment.lifecycle().manage(injector.getInstance(LedgerEventPublisher.class));
 
         environment.servlets().addFilter("LoggingFilter", injector.getInstance(LoggingFilter.class))
                 .addMappingForUrlPatterns(of(REQUEST), true, "/v1/*");
+        environment.servlets().addFilter("LedgerLookupRequestScopeFilter", new LedgerLookupRequestScopeFilter())
+                .addMappingForUrlPatterns(of(REQUEST), true, "/v1/*");
+        environment.servlets().addFilter("DatabaseActivityFilter", new DatabaseActivityFilter())
+                .addMappingForUrlPatterns(of(REQUEST), true, "/v1/*");
 
         environment.healthChecks().register("ping", new Ping());
         environment.healthChecks().register("database", new DatabaseHealthCheck(configuration.getDataSourceFactory()));
@@ -223,7 +245,7 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         return injector;
     }
 
-    private void initialiseMetrics(ConnectorConfiguration configuration, Environment environment) {
+    private void initialiseMetrics(ConnectorConfiguration configuration, Environment environment, InstrumentedDataSource jpaDataSource) {
         DatabaseMetricsService metricsService = new DatabaseMetricsService(configuration.getDataSourceFactory(), environment.metrics(), "connector");
 
         environment
@@ -237,9 +259,19 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
 
         CollectorRegistry collectorRegistry = CollectorRegistry.defaultRegistry;
         collectorRegistry.register(new DropwizardExports(environment.metrics()));
+        collectorRegistry.register(jpaDataSource.poolMetricsCollector());
         environment.admin().addServlet("prometheusMetrics", new MetricsServlet(collectorRegistry.defaultRegistry)).addMapping("/metrics");
     }
 
+    private void warmUpXmlUnmarshaller() {
+        try {
+            XMLUnmarshaller.warmUp(WorldpayOrderStatusResponse.class, WorldpayCaptureResponse.class,
+                    WorldpayRefundResponse.class, WorldpayQueryResponse.class, WorldpayNotification.class);
+        } catch (XMLUnmarshallerException e) {
+            logger.warn("Failed to warm up XML unmarshaller, contexts will be created on first use", e);
+        }
+    }
+
     /**
      * Graphite metric config to be deleted when we've completely moved to Prometheus
      */
@@ -7,11 +7,18 @@ import io.dropwizard.db.DataSourceFactory;
 import uk.gov.pay.connector.app.adyen.AdyenGatewayConfig;
 import uk.gov.pay.connector.app.config.Authorisation3dsConfig;
 import uk.gov.pay.connector.app.config.AuthorisationConfig;
+import uk.gov.pay.connector.app.config.ChargeStatusWaitConfig;
 import uk.gov.pay.connector.app.config.EmittedEventSweepConfig;
 import uk.gov.pay.connector.app.config.EventEmitterConfig;
 import uk.gov.pay.connector.app.config.ExpungeConfig;
+import uk.gov.pay.connector.app.config.GatewayConcurrencyLimitConfig;
+import uk.gov.pay.connector.app.config.LedgerEventPublisherConfig;
+import uk.gov.pay.connector.app.config.LedgerLookupCacheConfig;
+import uk.gov.pay.connector.app.config.ParityCheckerConfig;
 import uk.gov.pay.connector.app.config.PayoutReconcileProcessConfig;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
 import uk.gov.pay.connector.app.config.RestClientConfig;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
 import uk.gov.pay.connector.app.config.TaskQueueConfig;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
 
@@ -95,6 +102,34 @@ public class ConnectorConfiguration extends Configuration {
     @JsonProperty("expungeConfig")
     private ExpungeConfig expungeConfig;
 
+    @Valid
+    @NotNull
+    private ParityCheckerConfig parityCheckerConfig = new ParityCheckerConfig();
+
+    @Valid
+    @NotNull
+    private ReverseDnsCacheConfig reverseDnsCacheConfig = new ReverseDnsCacheConfig();
+
+    @Valid
+    @NotNull
+    private ReferenceDataCacheConfig referenceDataCacheConfig = new ReferenceDataCacheConfig();
+
+    @Valid
+    @NotNull
+    private ChargeStatusWaitConfig chargeStatusWaitConfig = new ChargeStatusWaitConfig();
+
+    @Valid
+    @NotNull
+    private LedgerEventPublisherConfig ledgerEventPublisherConfig = new LedgerEventPublisherConfig();
+
+    @Valid
+    @NotNull
+    private LedgerLookupCacheConfig ledgerLookupCacheConfig = new LedgerLookupCacheConfig();
+
+    @Valid
+    @NotNull
+    private GatewayConcurrencyLimitConfig gatewayConcurrencyLimitConfig = new GatewayConcurrencyLimitConfig();
+
     @NotNull
     @JsonProperty("authorisation3dsConfig")
     private Authorisation3dsConfig authorisation3dsConfig;
@@ -283,6 +318,34 @@ public class ConnectorConfiguration extends Configuration {
         return expungeConfig;
     }
 
+    public ParityCheckerConfig getParityCheckerConfig() {
+        return parityCheckerConfig;
+    }
+
+    public ReverseDnsCacheConfig getReverseDnsCacheConfig() {
+        return reverseDnsCacheConfig;
+    }
+
+    public ReferenceDataCacheConfig getReferenceDataCacheConfig() {
+        return referenceDataCacheConfig;
+    }
+
+    public ChargeStatusWaitConfig getChargeStatusWaitConfig() {
+        return chargeStatusWaitConfig;
+    }
+
+    public LedgerEventPublisherConfig getLedgerEventPublisherConfig() {
+        return ledgerEventPublisherConfig;
+    }
+
+    public LedgerLookupCacheConfig getLedgerLookupCacheConfig() {
+        return ledgerLookupCacheConfig;
+    }
+
+    public GatewayConcurrencyLimitConfig getGatewayConcurrencyLimitConfig() {
+        return gatewayConcurrencyLimitConfig;
+    }
+
     public Authorisation3dsConfig getAuthorisation3dsConfig() {
         return authorisation3dsConfig;
     }
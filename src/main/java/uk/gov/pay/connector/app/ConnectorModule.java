@@ -7,7 +7,6 @@ import com.google.inject.assistedinject.FactoryModuleBuilder;
 import com.google.inject.name.Named;
 import com.google.inject.persist.jpa.JpaPersistModule;
 import io.dropwizard.core.setup.Environment;
-import io.dropwizard.db.DataSourceFactory;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.client.Client;
 import org.apache.commons.validator.routines.InetAddressValidator;
@@ -18,8 +17,12 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 import uk.gov.pay.connector.app.adyen.AdyenGatewayConfig;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.charge.util.JwtGenerator;
+import uk.gov.pay.connector.client.ledger.service.CachingLedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.common.service.ReferenceDataCache;
 import uk.gov.pay.connector.common.validator.RequestValidator;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
@@ -38,6 +41,7 @@ import uk.gov.pay.connector.refund.service.DefaultRefundEntityFactory;
 import uk.gov.pay.connector.refund.service.RefundEntityFactory;
 import uk.gov.pay.connector.refund.service.WorldpayRefundEntityFactory;
 import uk.gov.pay.connector.usernotification.govuknotify.NotifyClientFactory;
+import uk.gov.pay.connector.util.CachingReverseDnsLookup;
 import uk.gov.pay.connector.util.CidrUtils;
 import uk.gov.pay.connector.util.HashUtil;
 import uk.gov.pay.connector.util.IpAddressMatcher;
@@ -89,18 +93,15 @@ public class ConnectorModule extends AbstractModule {
         bind(WorldpayCardAuthoriseRequestFactory.class).in(Singleton.class);
         bind(CardAuthoriseRequestFactory.class).in(Singleton.class);
 
-        install(jpaModule(configuration));
+        InstrumentedDataSource dataSource = InstrumentedDataSource.build(configuration.getDataSourceFactory(), environment);
+        bind(InstrumentedDataSource.class).toInstance(dataSource);
+        install(jpaModule(configuration, dataSource));
         install(new FactoryModuleBuilder().build(GatewayAccountServicesFactory.class));
     }
 
-    private JpaPersistModule jpaModule(ConnectorConfiguration configuration) {
-        DataSourceFactory dbConfig = configuration.getDataSourceFactory();
-
+    private JpaPersistModule jpaModule(ConnectorConfiguration configuration, InstrumentedDataSource dataSource) {
         final Properties properties = new Properties();
-        properties.put("jakarta.persistence.jdbc.driver", dbConfig.getDriverClass());
-        properties.put("jakarta.persistence.jdbc.url", dbConfig.getUrl());
-        properties.put("jakarta.persistence.jdbc.user", dbConfig.getUser());
-        properties.put("jakarta.persistence.jdbc.password", dbConfig.getPassword());
+        properties.put("jakarta.persistence.nonJtaDataSource", dataSource);
 
         JPAConfiguration jpaConfiguration = configuration.getJpaConfiguration();
         properties.put("eclipselink.logging.level", jpaConfiguration.getJpaLoggingLevel());
@@ -108,6 +109,17 @@ public class ConnectorModule extends AbstractModule {
         properties.put("eclipselink.query-results-cache", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.cache.shared.default", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.ddl-generation.output-mode", jpaConfiguration.getDdlGenerationOutputMode());
+        properties.put("eclipselink.jdbc.batch-writing", jpaConfiguration.getBatchWriting());
+        properties.put("eclipselink.jdbc.batch-writing.size", String.valueOf(jpaConfiguration.getBatchWritingSize()));
+
+        ReferenceDataCacheConfig referenceDataCacheConfig = configuration.getReferenceDataCacheConfig();
+        if (referenceDataCacheConfig.isEnabled()) {
+            for (Class<?> entityClass : ReferenceDataCache.cachedEntityClasses()) {
+                properties.put("eclipselink.cache.shared." + entityClass.getSimpleName(), "true");
+                properties.put("eclipselink.cache.size." + entityClass.getSimpleName(),
+                        String.valueOf(referenceDataCacheConfig.getMaximumSizePerEntity()));
+            }
+        }
 
         if (configuration.isXrayEnabled()) {
             properties.put("eclipselink.session.customizer", "uk.gov.pay.connector.util.ConnectorSessionCustomiserWithXrayProfiling");
@@ -133,7 +145,14 @@ public class ConnectorModule extends AbstractModule {
     }
 
     protected ReverseDnsLookup getReverseDnsLookup() {
-        return new ReverseDnsLookup();
+        return new CachingReverseDnsLookup(new ReverseDnsLookup(), configuration.getReverseDnsCacheConfig(), environment.metrics());
+    }
+
+    @Provides
+    @Singleton
+    @Named("CachingLedgerService")
+    public LedgerService cachingLedgerService(Client client, @Named("ledgerClient") Client ledgerClient) {
+        return new CachingLedgerService(client, ledgerClient, configuration, environment.metrics());
     }
 
     @Provides
@@ -321,6 +340,7 @@ public class ConnectorModule extends AbstractModule {
     }
 
     @Provides
+    @Singleton
     public SqsClient sqsClient(ConnectorConfiguration connectorConfiguration) {
         
         SqsClientBuilder clientBuilder = SqsClient
@@ -2,10 +2,24 @@ package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
 
+import jakarta.validation.constraints.Min;
+
 public class EventQueueConfig extends Configuration {
     private Boolean eventQueueEnabled;
     private int paymentStateTransitionPollerNumberOfThreads;
 
+    private boolean stateTransitionOutboxEnabled = false;
+    @Min(1)
+    private int stateTransitionOutboxBatchSize = 100;
+    @Min(1)
+    private long stateTransitionOutboxPollIntervalInMilliseconds = 200;
+    @Min(1)
+    private long stateTransitionOutboxRetryDelayInMilliseconds = 200;
+    @Min(1)
+    private int stateTransitionOutboxMaxAttempts = 10;
+    @Min(1)
+    private long stateTransitionOutboxClaimDurationInMilliseconds = 60_000;
+
     public Boolean getEventQueueEnabled() {
         return eventQueueEnabled;
     }
@@ -13,4 +27,28 @@ public class EventQueueConfig extends Configuration {
     public int getPaymentStateTransitionPollerNumberOfThreads() {
         return paymentStateTransitionPollerNumberOfThreads;
     }
+
+    public boolean isStateTransitionOutboxEnabled() {
+        return stateTransitionOutboxEnabled;
+    }
+
+    public int getStateTransitionOutboxBatchSize() {
+        return stateTransitionOutboxBatchSize;
+    }
+
+    public long getStateTransitionOutboxPollIntervalInMilliseconds() {
+        return stateTransitionOutboxPollIntervalInMilliseconds;
+    }
+
+    public long getStateTransitionOutboxRetryDelayInMilliseconds() {
+        return stateTransitionOutboxRetryDelayInMilliseconds;
+    }
+
+    public int getStateTransitionOutboxMaxAttempts() {
+        return stateTransitionOutboxMaxAttempts;
+    }
+
+    public long getStateTransitionOutboxClaimDurationInMilliseconds() {
+        return stateTransitionOutboxClaimDurationInMilliseconds;
+    }
 }
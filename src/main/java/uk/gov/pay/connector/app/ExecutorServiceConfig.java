@@ -2,11 +2,37 @@ package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
 
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
 public class ExecutorServiceConfig extends Configuration {
 
+    public enum ExecutionMode {
+        PLATFORM_THREADS,
+        VIRTUAL_THREADS
+    }
+
     private int threadsPerCpu;
 
+    @NotNull
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+
+    @Min(1)
+    private int maximumConcurrentAuthorisationsPerGateway = 200;
+
     public int getThreadsPerCpu() {
         return threadsPerCpu;
     }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Only applies in VIRTUAL_THREADS mode, where the number of threads is unbounded and the
+     * limit on concurrent gateway calls has to come from somewhere else.
+     */
+    public int getMaximumConcurrentAuthorisationsPerGateway() {
+        return maximumConcurrentAuthorisationsPerGateway;
+    }
 }
@@ -0,0 +1,119 @@
+package uk.gov.pay.connector.app;
+
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+import io.prometheus.client.Collector;
+import io.prometheus.client.GaugeMetricFamily;
+import io.prometheus.client.Histogram;
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+
+/**
+ * The connection pool used by the JPA persistence unit, built from the {@code database} configuration so that its
+ * size, wait timeout, eviction, statement cache and abandoned connection settings all apply. Connection acquisition
+ * latency is recorded in a histogram and the state of the pool is exposed through {@link #poolMetricsCollector()}.
+ */
+public class InstrumentedDataSource implements DataSource {
+
+    private static final String POOL_NAME = "connector-jpa";
+
+    private static final Histogram connectionAcquisitionDuration = Histogram.build()
+            .name("connector_db_connection_acquisition_duration_seconds")
+            .help("Time taken to get a connection from the JPA connection pool")
+            .buckets(0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5)
+            .register();
+
+    private final ManagedDataSource delegate;
+
+    InstrumentedDataSource(ManagedDataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    public static InstrumentedDataSource build(DataSourceFactory dataSourceFactory, Environment environment) {
+        ManagedDataSource managedDataSource = dataSourceFactory.build(environment.metrics(), POOL_NAME);
+        environment.lifecycle().manage(managedDataSource);
+        return new InstrumentedDataSource(managedDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try (Histogram.Timer ignored = connectionAcquisitionDuration.startTimer()) {
+            return delegate.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        try (Histogram.Timer ignored = connectionAcquisitionDuration.startTimer()) {
+            return delegate.getConnection(username, password);
+        }
+    }
+
+    /**
+     * @return a collector reporting the active, idle, pending and total connections of the pool, to be registered
+     * with the Prometheus registry once the persistence unit has started
+     */
+    public Collector poolMetricsCollector() {
+        return new Collector() {
+            @Override
+            public List<MetricFamilySamples> collect() {
+                return List.of(
+                        gauge("connector_db_pool_active_connections", "Connections in use", ConnectionPool::getActive),
+                        gauge("connector_db_pool_idle_connections", "Connections idle in the pool", ConnectionPool::getIdle),
+                        gauge("connector_db_pool_pending_connections", "Threads waiting for a connection", ConnectionPool::getWaitCount),
+                        gauge("connector_db_pool_connections", "Connections open, whether in use or idle", ConnectionPool::getSize));
+            }
+        };
+    }
+
+    private GaugeMetricFamily gauge(String name, String help, ToIntFunction<ConnectionPool> value) {
+        // The tomcat pool is only created when the first connection is requested
+        ConnectionPool pool = delegate instanceof DataSourceProxy proxy ? proxy.getPool() : null;
+        return new GaugeMetricFamily(name, help, pool == null ? 0 : value.applyAsInt(pool));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+}
@@ -9,6 +9,8 @@ public class JPAConfiguration extends Configuration {
     private String ddlGenerationOutputMode;
     private String queryResultsCache;
     private String cacheSharedDefault;
+    private String batchWriting = "None";
+    private int batchWritingSize = 100;
 
     public String getJpaLoggingLevel() {
         return jpaLoggingLevel;
@@ -29,4 +31,12 @@ public class JPAConfiguration extends Configuration {
     public String getCacheSharedDefault() {
         return cacheSharedDefault;
     }
+
+    public String getBatchWriting() {
+        return batchWriting;
+    }
+
+    public int getBatchWritingSize() {
+        return batchWritingSize;
+    }
 }
@@ -0,0 +1,22 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ChargeStatusWaitConfig extends Configuration {
+
+    @Min(1)
+    private long maximumWaitInMilliseconds = 5000;
+
+    @Min(1)
+    private int responseThreads = 4;
+
+    public long getMaximumWaitInMilliseconds() {
+        return maximumWaitInMilliseconds;
+    }
+
+    public int getResponseThreads() {
+        return responseThreads;
+    }
+}
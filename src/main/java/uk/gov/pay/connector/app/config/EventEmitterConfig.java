@@ -2,11 +2,34 @@ package uk.gov.pay.connector.app.config;
 
 import io.dropwizard.core.Configuration;
 
+import jakarta.validation.constraints.Min;
+
 public class EventEmitterConfig extends Configuration {
     
     private long defaultDoNotRetryEmittingEventUntilDurationInSeconds;
 
+    @Min(1)
+    private int historicalEventEmitterParallelism = 4;
+
+    @Min(1)
+    private long historicalEventEmitterShardSize = 100_000;
+
+    @Min(1)
+    private int historicalEventEmitterPageSize = 100;
+
     public long getDefaultDoNotRetryEmittingEventUntilDurationInSeconds() {
         return defaultDoNotRetryEmittingEventUntilDurationInSeconds;
     }
+
+    public int getHistoricalEventEmitterParallelism() {
+        return historicalEventEmitterParallelism;
+    }
+
+    public long getHistoricalEventEmitterShardSize() {
+        return historicalEventEmitterShardSize;
+    }
+
+    public int getHistoricalEventEmitterPageSize() {
+        return historicalEventEmitterPageSize;
+    }
 }
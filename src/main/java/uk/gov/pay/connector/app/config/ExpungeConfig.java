@@ -3,6 +3,7 @@ package uk.gov.pay.connector.app.config;
 import io.dropwizard.core.Configuration;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
@@ -43,6 +44,13 @@ public class ExpungeConfig extends Configuration {
     @NotNull
     private int minimumAgeOfRefundInDays;
 
+    @Min(1)
+    @Max(1000)
+    private int expungePageSize = 100;
+
+    @Min(0)
+    private int pauseBetweenExpungePagesInMillis = 0;
+
     public int getMinimumAgeOfChargeInDays() {
         return minimumAgeOfChargeInDays;
     }
@@ -78,4 +86,12 @@ public class ExpungeConfig extends Configuration {
     public int getMinimumAgeOfRefundInDays() {
         return minimumAgeOfRefundInDays;
     }
+
+    public int getExpungePageSize() {
+        return expungePageSize;
+    }
+
+    public int getPauseBetweenExpungePagesInMillis() {
+        return pauseBetweenExpungePagesInMillis;
+    }
 }
@@ -0,0 +1,52 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+
+public class GatewayConcurrencyLimitConfig extends Configuration {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private int initialLimit = 100;
+
+    @Min(1)
+    private int minimumLimit = 10;
+
+    @Min(1)
+    private int maximumLimit = 1000;
+
+    @Min(1)
+    private long slowResponseThresholdInMilliseconds = 20000;
+
+    @DecimalMin("0.5")
+    @DecimalMax("0.99")
+    private double backoffRatio = 0.9;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinimumLimit() {
+        return minimumLimit;
+    }
+
+    public int getMaximumLimit() {
+        return maximumLimit;
+    }
+
+    public long getSlowResponseThresholdInMilliseconds() {
+        return slowResponseThresholdInMilliseconds;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+}
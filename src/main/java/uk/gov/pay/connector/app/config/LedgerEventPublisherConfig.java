@@ -0,0 +1,50 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class LedgerEventPublisherConfig extends Configuration {
+
+    @Min(1)
+    private int bufferCapacity = 10000;
+
+    @Min(1)
+    private int maximumBatchSize = 100;
+
+    @Min(0)
+    private long lingerInMilliseconds = 50;
+
+    @Min(1)
+    private int maximumPostAttempts = 3;
+
+    @Min(0)
+    private long retryDelayInMilliseconds = 500;
+
+    @Min(1)
+    private int shutdownTimeoutInSeconds = 10;
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public int getMaximumBatchSize() {
+        return maximumBatchSize;
+    }
+
+    public long getLingerInMilliseconds() {
+        return lingerInMilliseconds;
+    }
+
+    public int getMaximumPostAttempts() {
+        return maximumPostAttempts;
+    }
+
+    public long getRetryDelayInMilliseconds() {
+        return retryDelayInMilliseconds;
+    }
+
+    public int getShutdownTimeoutInSeconds() {
+        return shutdownTimeoutInSeconds;
+    }
+}
@@ -0,0 +1,22 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class LedgerLookupCacheConfig extends Configuration {
+
+    @Min(1)
+    private long maximumSize = 5000;
+
+    @Min(1)
+    private long timeToLiveInSeconds = 60;
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getTimeToLiveInSeconds() {
+        return timeToLiveInSeconds;
+    }
+}
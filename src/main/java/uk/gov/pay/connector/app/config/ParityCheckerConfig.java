@@ -0,0 +1,36 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ParityCheckerConfig extends Configuration {
+
+    @Min(1)
+    private int parallelism = 4;
+
+    @Min(1)
+    private long shardSize = 100_000;
+
+    @Min(1)
+    private int pageSize = 100;
+
+    @Min(1)
+    private int ledgerBatchSize = 25;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getShardSize() {
+        return shardSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getLedgerBatchSize() {
+        return ledgerBatchSize;
+    }
+}
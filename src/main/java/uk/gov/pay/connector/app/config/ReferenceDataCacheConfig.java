@@ -0,0 +1,35 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ReferenceDataCacheConfig extends Configuration {
+
+    private boolean enabled = false;
+
+    @Min(1)
+    private int versionPollIntervalInSeconds = 5;
+
+    @Min(1)
+    private int maximumAgeInSeconds = 600;
+
+    @Min(1)
+    private int maximumSizePerEntity = 2000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getVersionPollIntervalInSeconds() {
+        return versionPollIntervalInSeconds;
+    }
+
+    public int getMaximumAgeInSeconds() {
+        return maximumAgeInSeconds;
+    }
+
+    public int getMaximumSizePerEntity() {
+        return maximumSizePerEntity;
+    }
+}
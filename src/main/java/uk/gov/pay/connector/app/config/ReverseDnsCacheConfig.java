@@ -0,0 +1,29 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ReverseDnsCacheConfig extends Configuration {
+
+    @Min(1)
+    private long maximumSize = 1000;
+
+    @Min(1)
+    private long timeToLiveInSeconds = 300;
+
+    @Min(1)
+    private long negativeTimeToLiveInSeconds = 30;
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getTimeToLiveInSeconds() {
+        return timeToLiveInSeconds;
+    }
+
+    public long getNegativeTimeToLiveInSeconds() {
+        return negativeTimeToLiveInSeconds;
+    }
+}
@@ -1,6 +1,9 @@
 package uk.gov.pay.connector.app.config;
 
 import io.dropwizard.core.Configuration;
+import jakarta.validation.constraints.Min;
+
+import java.util.Map;
 
 public class TaskQueueConfig extends Configuration {
 
@@ -11,6 +14,11 @@ public class TaskQueueConfig extends Configuration {
     private int queueSchedulerShutdownTimeoutInSeconds;
     private int deliveryDelayInSeconds;
 
+    @Min(1)
+    private int defaultConcurrencyPerTaskType = 2;
+
+    private Map<String, Integer> concurrencyPerTaskType = Map.of();
+
     public Boolean getTaskQueueEnabled() {
         return taskQueueEnabled;
     }
@@ -34,4 +42,15 @@ public class TaskQueueConfig extends Configuration {
     public int getDeliveryDelayInSeconds() {
         return deliveryDelayInSeconds;
     }
+
+    public int getDefaultConcurrencyPerTaskType() {
+        return defaultConcurrencyPerTaskType;
+    }
+
+    /**
+     * Overrides {@link #getDefaultConcurrencyPerTaskType()} for individual task types, keyed by task type name
+     */
+    public Map<String, Integer> getConcurrencyPerTaskType() {
+        return concurrencyPerTaskType;
+    }
 }
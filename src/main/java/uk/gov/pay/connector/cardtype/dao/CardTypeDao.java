@@ -4,6 +4,7 @@ import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
 import uk.gov.pay.connector.common.dao.JpaDao;
+import uk.gov.pay.connector.common.service.ReferenceDataCache;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -14,20 +15,24 @@ import java.util.UUID;
 @Transactional
 public class CardTypeDao extends JpaDao<CardTypeEntity> {
 
+    private final ReferenceDataCache referenceDataCache;
+
     @Inject
-    public CardTypeDao(final Provider<EntityManager> entityManager) {
+    public CardTypeDao(final Provider<EntityManager> entityManager, ReferenceDataCache referenceDataCache) {
         super(entityManager);
+        this.referenceDataCache = referenceDataCache;
     }
 
     public Optional<CardTypeEntity> findById(UUID id) {
+        referenceDataCache.recordLookup(CardTypeEntity.class, id);
         return super.findById(CardTypeEntity.class, id);
     }
 
     public List<CardTypeEntity> findAll() {
         String query = "SELECT ct FROM CardTypeEntity ct";
 
-        return super.entityManager.get()
-                .createQuery(query, CardTypeEntity.class)
+        return referenceDataCache.cacheResults(super.entityManager.get()
+                        .createQuery(query, CardTypeEntity.class))
                 .getResultList();
     }
 
@@ -35,8 +40,8 @@ public class CardTypeDao extends JpaDao<CardTypeEntity> {
         String query = "SELECT ct FROM CardTypeEntity ct " +
                 "WHERE ct.brand = :brand ";
 
-        return entityManager.get()
-                .createQuery(query, CardTypeEntity.class)
+        return referenceDataCache.cacheResults(entityManager.get()
+                        .createQuery(query, CardTypeEntity.class))
                 .setParameter("brand", brand)
                 .getResultList();
     }
@@ -45,8 +50,8 @@ public class CardTypeDao extends JpaDao<CardTypeEntity> {
         String query = "SELECT ct FROM CardTypeEntity ct " +
                 "WHERE ct.requires3ds = false ";
 
-        return entityManager.get()
-                .createQuery(query, CardTypeEntity.class)
+        return referenceDataCache.cacheResults(entityManager.get()
+                        .createQuery(query, CardTypeEntity.class))
                 .getResultList();
     }
 }
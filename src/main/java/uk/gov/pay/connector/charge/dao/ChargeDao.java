@@ -4,11 +4,12 @@ import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.QueryHints;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
@@ -23,7 +24,9 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
 
@@ -145,28 +148,21 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .setParameter("provider", provider).getResultList().stream().findFirst();
     }
 
-    public List<ChargeEntity> findBeforeDateWithStatusIn(Instant date, List<ChargeStatus> statuses) {
-        CriteriaBuilder cb = entityManager.get().getCriteriaBuilder();
-        CriteriaQuery<ChargeEntity> cq = cb.createQuery(ChargeEntity.class);
-        Root<ChargeEntity> charge = cq.from(ChargeEntity.class);
-
-        List<Predicate> predicates = buildParamPredicates(cb, charge, date, statuses);
-        cq.select(charge)
-                .where(predicates.toArray(new Predicate[]{}))
-                .orderBy(cb.desc(charge.get(CREATED_DATE)));
-        Query query = entityManager.get().createQuery(cq);
-
-        return query.getResultList();
-    }
-
-    public List<ChargeEntity> findChargesByCreatedUpdatedDatesAndWithStatusIn(Instant createdBeforeDate,
-                                                                              Instant updatedBeforeDate,
-                                                                              List<ChargeStatus> statuses) {
+    /**
+     * Keyset page of charges with one of the given statuses created before {@code createdBeforeDate}, and, when
+     * {@code updatedBeforeDate} is given, not updated since then, in id order starting after {@code afterId}.
+     */
+    public List<ChargeEntity> findChargesToExpireAfterId(Long afterId,
+                                                         Instant createdBeforeDate,
+                                                         Instant updatedBeforeDate,
+                                                         List<ChargeStatus> statuses,
+                                                         int limit) {
         CriteriaBuilder cb = entityManager.get().getCriteriaBuilder();
         CriteriaQuery<ChargeEntity> cq = cb.createQuery(ChargeEntity.class);
         Root<ChargeEntity> charge = cq.from(ChargeEntity.class);
 
         List<Predicate> predicates = buildParamPredicates(cb, charge, createdBeforeDate, statuses);
+        predicates.add(cb.greaterThan(charge.get("id"), afterId));
 
         if (updatedBeforeDate != null) {
             predicates.add(cb.or(
@@ -177,10 +173,23 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
 
         cq.select(charge)
                 .where(predicates.toArray(new Predicate[]{}))
-                .orderBy(cb.desc(charge.get(CREATED_DATE)));
-        Query query = entityManager.get().createQuery(cq);
+                .orderBy(cb.asc(charge.get("id")));
+
+        return entityManager.get()
+                .createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 
-        return query.getResultList();
+    public List<ChargeEntity> findByIds(List<Long> chargeIds) {
+        if (chargeIds.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.get()
+                .createQuery("SELECT c FROM ChargeEntity c WHERE c.id IN :chargeIds ORDER BY c.id", ChargeEntity.class)
+                .setParameter("chargeIds", chargeIds)
+                .getResultList();
     }
 
     private List<Predicate> buildParamPredicates(CriteriaBuilder cb, Root<ChargeEntity> charge,
@@ -272,6 +281,37 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .getResultList();
     }
 
+    public List<ChargeEntity> findByIdRange(Long afterId, Long maxId, int limit) {
+        return entityManager.get()
+                .createQuery("SELECT c FROM ChargeEntity c WHERE c.id > :afterId AND c.id <= :maxId ORDER BY c.id", ChargeEntity.class)
+                .setParameter("afterId", afterId)
+                .setParameter("maxId", maxId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Keyset page of charges with their charge events and fees read in one batched query each, rather than as each
+     * charge's collections are first touched.
+     */
+    public List<ChargeEntity> findByIdRangeWithEventsAndFees(Long afterId, Long maxId, int limit) {
+        List<ChargeEntity> charges = entityManager.get()
+                .createQuery("SELECT c FROM ChargeEntity c WHERE c.id > :afterId AND c.id <= :maxId ORDER BY c.id", ChargeEntity.class)
+                .setParameter("afterId", afterId)
+                .setParameter("maxId", maxId)
+                .setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN)
+                .setHint(QueryHints.BATCH, "c.events")
+                .setHint(QueryHints.BATCH, "c.fees")
+                .setMaxResults(limit)
+                .getResultList();
+
+        charges.forEach(charge -> {
+            charge.getEvents().size();
+            charge.getFees().size();
+        });
+        return charges;
+    }
+
     public Long findMaxId() {
         String query = "SELECT c.id FROM ChargeEntity c ORDER BY c.id DESC";
 
@@ -292,10 +332,19 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
 
     public Optional<ChargeEntity> findChargeToExpunge(int minimumAgeOfChargeInDays,
                                                       int excludeChargesParityCheckedWithInDays) {
+        return findChargesToExpunge(minimumAgeOfChargeInDays, excludeChargesParityCheckedWithInDays, 0L, 1)
+                .stream().findFirst();
+    }
+
+    public List<ChargeEntity> findChargesToExpunge(int minimumAgeOfChargeInDays,
+                                                   int excludeChargesParityCheckedWithInDays,
+                                                   long afterId,
+                                                   int limit) {
         String query = "SELECT c FROM ChargeEntity c " +
                 "WHERE (c.parityCheckDate is null or c.parityCheckDate < :parityCheckedBeforeDate)" +
                 " AND c.createdDate < :createdBeforeDate " +
-                " ORDER BY c.createdDate asc";
+                " AND c.id > :afterId " +
+                " ORDER BY c.id asc";
 
         ZonedDateTime parityCheckedBeforeDate = ZonedDateTime.now()
                 .minus(Duration.ofDays(excludeChargesParityCheckedWithInDays))
@@ -307,37 +356,41 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .createQuery(query, ChargeEntity.class)
                 .setParameter("parityCheckedBeforeDate", parityCheckedBeforeDate)
                 .setParameter("createdBeforeDate", createdBeforeDate)
-                .setMaxResults(1)
-                .getResultList().stream().findFirst();
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public List<String> findExistingExternalIds(Collection<String> externalIds) {
+        if (externalIds.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.get()
+                .createQuery("SELECT c.externalId FROM ChargeEntity c WHERE c.externalId IN :externalIds", String.class)
+                .setParameter("externalIds", externalIds)
+                .getResultList();
     }
 
     public void expungeCharge(Long id, String externalId) {
+        expungeCharges(Map.of(id, externalId));
+    }
+
+    /**
+     * Deletes the charges, keyed by id with their external ids as values, along with their events, tokens, emitted
+     * events and fees using one statement per table.
+     */
+    public void expungeCharges(Map<Long, String> externalIdsById) {
+        if (externalIdsById.isEmpty()) {
+            return;
+        }
 
-        entityManager.get()
-                .createNativeQuery("delete from charge_events where charge_id = ?1")
-                .setParameter(1, id)
-                .executeUpdate();
-
-        entityManager.get()
-                .createNativeQuery("delete from tokens where charge_id = ?1")
-                .setParameter(1, id)
-                .executeUpdate();
-
-        entityManager.get()
-                .createNativeQuery("delete from emitted_events where resource_type = ?1 AND resource_external_id = ?2")
-                .setParameter(1, ResourceType.PAYMENT.getLowercase())
-                .setParameter(2, externalId)
-                .executeUpdate();
-
-        entityManager.get()
-                .createNativeQuery("delete from fees where charge_id = ?1")
-                .setParameter(1, id)
-                .executeUpdate();
-
-        entityManager.get()
-                .createNativeQuery("delete from charges where id = ?1")
-                .setParameter(1, id)
-                .executeUpdate();
+        executeNativeUpdateWithInList("delete from charge_events where charge_id in (%s)", externalIdsById.keySet());
+        executeNativeUpdateWithInList("delete from tokens where charge_id in (%s)", externalIdsById.keySet());
+        executeNativeUpdateWithInList("delete from emitted_events where resource_type = ?1 AND resource_external_id in (%s)",
+                externalIdsById.values(), ResourceType.PAYMENT.getLowercase());
+        executeNativeUpdateWithInList("delete from fees where charge_id in (%s)", externalIdsById.keySet());
+        executeNativeUpdateWithInList("delete from charges where id in (%s)", externalIdsById.keySet());
     }
 
     public List<ChargeEntity> findWithPaymentProviderAndStatusIn(String provider, List<ChargeStatus> statuses, int limit) {
@@ -77,9 +77,10 @@ import static uk.gov.service.payments.logging.LoggingKeys.PROVIDER;
 @Table(name = "charges")
 @Access(AccessType.FIELD)
 @SequenceGenerator(name = "charges_charge_id_seq",
-        sequenceName = "charges_charge_id_seq", allocationSize = 1)
+        sequenceName = "charges_charge_id_seq", allocationSize = 50)
 public class ChargeEntity extends AbstractVersionedEntity {
     private static final Logger logger = LoggerFactory.getLogger(ChargeEntity.class);
+    private static final Event UNSPECIFIED_EVENT = new UnspecifiedEvent();
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "charges_charge_id_seq")
@@ -394,7 +395,7 @@ public class ChargeEntity extends AbstractVersionedEntity {
     }
 
     public void setStatus(ChargeStatus targetStatus) {
-        Event event = new UnspecifiedEvent();
+        Event event = UNSPECIFIED_EVENT;
         if (isValidTransition(fromString(this.status), targetStatus, event)) {
             var logMessage = format("Changing charge status for externalId [%s] [%s]->[%s] [event=%s]",
                     this.externalId, this.status, targetStatus.getValue(), event);
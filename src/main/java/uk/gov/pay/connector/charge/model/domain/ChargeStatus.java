@@ -3,7 +3,9 @@ package uk.gov.pay.connector.charge.model.domain;
 import uk.gov.pay.connector.common.model.Status;
 import uk.gov.pay.connector.common.model.api.ExternalChargeState;
 
-import static org.apache.commons.lang3.Strings.CS;
+import java.util.HashMap;
+import java.util.Map;
+
 import static uk.gov.pay.connector.common.model.api.ExternalChargeState.EXTERNAL_CANCELLED;
 import static uk.gov.pay.connector.common.model.api.ExternalChargeState.EXTERNAL_CAPTURABLE;
 import static uk.gov.pay.connector.common.model.api.ExternalChargeState.EXTERNAL_CREATED;
@@ -65,6 +67,14 @@ public enum ChargeStatus implements Status {
     AUTHORISATION_ERROR_REJECTED("AUTHORISATION ERROR REJECTED", EXTERNAL_ERROR_GATEWAY, true),
     AUTHORISATION_ERROR_CHARGE_MISSING("AUTHORISATION ERROR CHARGE MISSING", EXTERNAL_ERROR_GATEWAY, true);
 
+    private static final Map<String, ChargeStatus> STATUSES_BY_VALUE = new HashMap<>();
+
+    static {
+        for (ChargeStatus status : values()) {
+            STATUSES_BY_VALUE.put(status.getValue(), status);
+        }
+    }
+
     private String value;
     private ExternalChargeState externalStatus;
     private boolean expungeable;
@@ -92,11 +102,10 @@ public enum ChargeStatus implements Status {
     }
 
     public static ChargeStatus fromString(String status) {
-        for (ChargeStatus stat : values()) {
-            if (CS.equals(stat.getValue(), status)) {
-                return stat;
-            }
+        ChargeStatus chargeStatus = STATUSES_BY_VALUE.get(status);
+        if (chargeStatus == null) {
+            throw new IllegalArgumentException("charge status not recognized: " + status);
         }
-        throw new IllegalArgumentException("charge status not recognized: " + status);
+        return chargeStatus;
     }
 }
@@ -22,6 +22,7 @@ import uk.gov.pay.connector.charge.model.NewChargeStatusRequest;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusWaitService;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.common.model.api.ExternalTransactionStateFactory;
 import uk.gov.pay.connector.common.service.PatchRequestBuilder;
@@ -35,6 +36,8 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
@@ -60,18 +63,21 @@ public class ChargesFrontendResource {
     private final Worldpay3dsFlexJwtService worldpay3dsFlexJwtService;
     private final AgreementService agreementService;
     private final ExternalTransactionStateFactory externalTransactionStateFactory;
+    private final ChargeStatusWaitService chargeStatusWaitService;
 
     @Inject
     public ChargesFrontendResource(ChargeDao chargeDao, ChargeService chargeService, CardTypeDao cardTypeDao,
                                    Worldpay3dsFlexJwtService worldpay3dsFlexJwtService,
                                    AgreementService agreementService,
-                                   ExternalTransactionStateFactory externalTransactionStateFactory) {
+                                   ExternalTransactionStateFactory externalTransactionStateFactory,
+                                   ChargeStatusWaitService chargeStatusWaitService) {
         this.chargeDao = chargeDao;
         this.chargeService = chargeService;
         this.cardTypeDao = cardTypeDao;
         this.worldpay3dsFlexJwtService = worldpay3dsFlexJwtService;
         this.agreementService = agreementService;
         this.externalTransactionStateFactory = externalTransactionStateFactory;
+        this.chargeStatusWaitService = chargeStatusWaitService;
     }
 
     @GET
@@ -93,6 +99,37 @@ public class ChargesFrontendResource {
                 .orElseGet(() -> responseWithChargeNotFound(chargeId));
     }
 
+    @GET
+    @Path("/v1/frontend/charges/{chargeId}/await-processing")
+    @Produces(APPLICATION_JSON)
+    @Operation(
+            summary = "Find a charge, waiting for any authorisation or capture in progress to finish",
+            description = "If the charge is locked by an authorisation or capture, holds the request open until the " +
+                    "charge leaves its locking status or the configured maximum wait has passed, then returns the " +
+                    "charge as it is at that point. Otherwise returns the charge straight away.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(schema = @Schema(implementation = FrontendChargeResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Not found - charge not found")
+            }
+    )
+    public void awaitChargeProcessing(@Parameter(example = "b02b63b370fd35418ad66b0101", description = "Charge external ID")
+                                      @PathParam("chargeId") String chargeId, @Context UriInfo uriInfo,
+                                      @Suspended AsyncResponse asyncResponse) {
+
+        chargeStatusWaitService.awaitUnlocked(chargeId)
+                .thenApply(charge -> charge
+                        .map(chargeEntity -> Response.ok(chargeService.buildChargeResponse(uriInfo, chargeEntity)).build())
+                        .orElseGet(() -> responseWithChargeNotFound(chargeId)))
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        asyncResponse.resume(throwable);
+                    } else {
+                        asyncResponse.resume(response);
+                    }
+                });
+    }
+
     @GET
     @Path("/v1/frontend/charges/{chargeId}/worldpay/3ds-flex/ddc")
     @Produces(APPLICATION_JSON)
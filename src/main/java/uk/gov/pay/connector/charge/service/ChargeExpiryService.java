@@ -1,11 +1,14 @@
 package uk.gov.pay.connector.charge.service;
 
-import com.google.common.collect.ImmutableList;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.persist.Transactional;
-import org.apache.commons.lang3.tuple.Pair;
+import com.google.inject.persist.UnitOfWork;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import uk.gov.pay.connector.app.ChargeSweepConfig;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
@@ -20,6 +23,7 @@ import uk.gov.pay.connector.common.exception.InvalidForceStateTransitionExceptio
 import uk.gov.pay.connector.common.exception.InvalidStateTransitionException;
 import uk.gov.pay.connector.common.exception.OperationAlreadyInProgressRuntimeException;
 import uk.gov.pay.connector.gateway.GatewayException;
+import uk.gov.pay.connector.gateway.PaymentGatewayName;
 import uk.gov.pay.connector.gateway.PaymentProviders;
 import uk.gov.pay.connector.gateway.model.request.CancelGatewayRequest;
 import uk.gov.pay.connector.gateway.model.response.BaseCancelResponse;
@@ -29,6 +33,7 @@ import uk.gov.pay.connector.idempotency.dao.IdempotencyDao;
 import uk.gov.pay.connector.paymentprocessor.model.OperationType;
 import uk.gov.pay.connector.paymentprocessor.service.QueryService;
 import uk.gov.pay.connector.token.dao.TokenDao;
+import uk.gov.pay.connector.util.DatabaseActivity;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
@@ -36,12 +41,19 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -62,6 +74,7 @@ public class ChargeExpiryService {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private static final String EXPIRY_SUCCESS = "expiry-success";
     private static final String EXPIRY_FAILED = "expiry-failed";
+    private static final String METRIC_PREFIX = "charge-expiry-sweep";
     private final ChargeDao chargeDao;
     private final ChargeService chargeService;
     private final TokenDao tokenDao;
@@ -70,6 +83,8 @@ public class ChargeExpiryService {
     private final QueryService queryService;
     private final ChargeSweepConfig chargeSweepConfig;
     private final InstantSource instantSource;
+    private final MetricRegistry metricRegistry;
+    private final UnitOfWork unitOfWork;
 
     @Inject
     public ChargeExpiryService(ChargeDao chargeDao,
@@ -79,7 +94,9 @@ public class ChargeExpiryService {
                                PaymentProviders providers,
                                QueryService queryService,
                                ConnectorConfiguration config,
-                               InstantSource instantSource) {
+                               InstantSource instantSource,
+                               Environment environment,
+                               UnitOfWork unitOfWork) {
         this.chargeDao = chargeDao;
         this.chargeService = chargeService;
         this.tokenDao = tokenDao;
@@ -88,6 +105,8 @@ public class ChargeExpiryService {
         this.chargeSweepConfig = config.getChargeSweepConfig();
         this.queryService = queryService;
         this.instantSource = instantSource;
+        this.metricRegistry = environment.metrics();
+        this.unitOfWork = unitOfWork;
     }
 
     private enum ExpiryMethod {
@@ -96,18 +115,36 @@ public class ChargeExpiryService {
         CHECK_STATUS_WITH_GATEWAY_BEFORE_EXPIRING
     }
 
+    private enum ExpiryOutcome {
+        SUCCEEDED,
+        FAILED,
+        PENDING
+    }
+
     Map<String, Integer> expire(List<ChargeEntity> charges) {
+        try (GatewayWorkers gatewayWorkers = new GatewayWorkers()) {
+            return expire(charges, gatewayWorkers);
+        }
+    }
+
+    private Map<String, Integer> expire(List<ChargeEntity> charges, GatewayWorkers gatewayWorkers) {
         Map<ExpiryMethod, List<ChargeEntity>> chargesGroupedByExpiryMethod = charges
                 .stream()
                 .collect(Collectors.groupingBy(this::getExpiryMethod));
 
         int expiredWithoutGatewaySuccess = expireChargesWithoutGateway(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITHOUT_GATEWAY)));
-        Pair<Integer, Integer> expireWithCancellationResult = expireChargesWithGateway(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITH_GATEWAY)));
-        Pair<Integer, Integer> expireOrForceTransitionResult = expireChargesOrPotentiallyForceTransitionState(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.CHECK_STATUS_WITH_GATEWAY_BEFORE_EXPIRING)));
+        List<ExpiryOutcome> gatewayOutcomes = expireChargesWithGateway(gatewayWorkers,
+                getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITH_GATEWAY)),
+                getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.CHECK_STATUS_WITH_GATEWAY_BEFORE_EXPIRING)));
+
+        int expiredSuccess = expiredWithoutGatewaySuccess + (int) gatewayOutcomes.stream().filter(ExpiryOutcome.SUCCEEDED::equals).count();
+        int expiredFailed = (int) gatewayOutcomes.stream().filter(ExpiryOutcome.FAILED::equals).count();
+        metricRegistry.meter(METRIC_PREFIX + ".expired").mark(expiredSuccess);
+        metricRegistry.meter(METRIC_PREFIX + ".expiry-failed").mark(expiredFailed);
 
         return ImmutableMap.of(
-                EXPIRY_SUCCESS, expiredWithoutGatewaySuccess + expireWithCancellationResult.getLeft() + expireOrForceTransitionResult.getLeft(),
-                EXPIRY_FAILED, expireWithCancellationResult.getRight() + expireOrForceTransitionResult.getRight()
+                EXPIRY_SUCCESS, expiredSuccess,
+                EXPIRY_FAILED, expiredFailed
         );
     }
 
@@ -133,45 +170,98 @@ public class ChargeExpiryService {
     }
 
     public Map<String, Integer> sweepAndExpireChargesAndTokensAndIdempotencyKeys() {
-        List<ChargeEntity> chargesToExpire = new ImmutableList.Builder<ChargeEntity>()
-                .addAll(getChargesToExpireWithRegularExpiryThreshold())
-                .addAll(getChargesToExpireWithDelayedExpiryThreshold())
-                .build();
         Instant tokenExpiryThreshold = getExpiryThresholdForTokens();
         int numberOfTokensDeleted = deleteTokensOlderThanSpecifiedDate(tokenExpiryThreshold);
         Instant idempotencyExpiryThreshold = instantSource.instant().minus(chargeSweepConfig.getIdempotencyKeyExpiryThresholdInSeconds());
         int numberOfIdempotencyKeysDeleted = idempotencyDao.deleteIdempotencyKeysOlderThanSpecifiedDateTime(idempotencyExpiryThreshold);
         logger.info("Tokens deleted - number_of_tokens={}, since_date={}", numberOfTokensDeleted, tokenExpiryThreshold);
         logger.info("Idempotency keys deleted - number_of_idempotency_keys={}, since_date={}", numberOfIdempotencyKeysDeleted, idempotencyExpiryThreshold);
+
+        Instant expiryDateForRegularCharges = getExpiryDateForRegularCharges();
+        Instant dateToExpireChargesUpdatedBefore = getDateToExpireChargesUpdatedBefore();
+        Instant expiryDateForAwaitingCaptureRequest = getExpiryDateForAwaitingCaptureRequest();
+
+        SweepProgress progress = new SweepProgress(instantSource.instant());
+        try (Timer.Context ignored = metricRegistry.timer(METRIC_PREFIX + ".duration").time();
+             GatewayWorkers gatewayWorkers = new GatewayWorkers()) {
+            sweep(progress, gatewayWorkers, expiryDateForRegularCharges, dateToExpireChargesUpdatedBefore,
+                    ExpirableChargeStatus.getValuesAsStream()
+                            .filter(ExpirableChargeStatus::isRegularThresholdType)
+                            .map(ExpirableChargeStatus::getChargeStatus)
+                            .collect(Collectors.toList()));
+            sweep(progress, gatewayWorkers, expiryDateForAwaitingCaptureRequest, null,
+                    ExpirableChargeStatus.getValuesAsStream()
+                            .filter(ExpirableChargeStatus::isDelayedThresholdType)
+                            .map(ExpirableChargeStatus::getChargeStatus)
+                            .collect(Collectors.toList()));
+        }
+
         logger.info("Charges found for expiry - number_of_charges={}, since_date={}, updated_before={}, awaiting_capture_date={}",
-                chargesToExpire.size(), getExpiryDateForRegularCharges(), getDateToExpireChargesUpdatedBefore(),
-                getExpiryDateForAwaitingCaptureRequest());
+                progress.chargesFound, expiryDateForRegularCharges, dateToExpireChargesUpdatedBefore,
+                expiryDateForAwaitingCaptureRequest);
 
-        return expire(chargesToExpire);
+        return ImmutableMap.of(
+                EXPIRY_SUCCESS, progress.expired,
+                EXPIRY_FAILED, progress.failed
+        );
     }
 
-    private int deleteTokensOlderThanSpecifiedDate(Instant tokenExpiryDate) {
-        return tokenDao.deleteTokensOlderThanSpecifiedDate(tokenExpiryDate.atZone(ZoneId.of("UTC")));
-    }
+    /**
+     * Works through the matching charges a page at a time in id order, so only one page is held in memory and a charge
+     * that could not be expired is not picked up again by a later page.
+     */
+    private void sweep(SweepProgress progress, GatewayWorkers gatewayWorkers, Instant createdBeforeDate, Instant updatedBeforeDate, List<ChargeStatus> statuses) {
+        int pageSize = chargeSweepConfig.getSweepPageSize();
+        long lastProcessedId = 0L;
+        List<ChargeEntity> page;
+        do {
+            page = chargeDao.findChargesToExpireAfterId(lastProcessedId, createdBeforeDate, updatedBeforeDate, statuses, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
 
-    private List<ChargeEntity> getChargesToExpireWithDelayedExpiryThreshold() {
-        return chargeDao.findBeforeDateWithStatusIn(getExpiryDateForAwaitingCaptureRequest(),
-                ExpirableChargeStatus.getValuesAsStream()
-                        .filter(ExpirableChargeStatus::isDelayedThresholdType)
-                        .map(ExpirableChargeStatus::getChargeStatus)
-                        .collect(Collectors.toList()));
+            Map<String, Integer> pageResult = expire(page, gatewayWorkers);
+            lastProcessedId = page.get(page.size() - 1).getId();
+            metricRegistry.meter(METRIC_PREFIX + ".charges-processed").mark(page.size());
+            progress.pageCompleted(page.size(), pageResult.get(EXPIRY_SUCCESS), pageResult.get(EXPIRY_FAILED));
+        } while (page.size() == pageSize);
     }
 
-    private List<ChargeEntity> getChargesToExpireWithRegularExpiryThreshold() {
-        return chargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(getExpiryDateForRegularCharges(),
-                getDateToExpireChargesUpdatedBefore(),
-                ExpirableChargeStatus.getValuesAsStream()
-                        .filter(ExpirableChargeStatus::isRegularThresholdType)
-                        .map(ExpirableChargeStatus::getChargeStatus)
-                        .collect(Collectors.toList()));
+    private class SweepProgress {
+        private final Instant startedAt;
+        private int pages;
+        private int chargesFound;
+        private int expired;
+        private int failed;
+
+        private SweepProgress(Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void pageCompleted(int chargesInPage, int expiredInPage, int failedInPage) {
+            pages++;
+            chargesFound += chargesInPage;
+            expired += expiredInPage;
+            failed += failedInPage;
+
+            long elapsedMillis = Math.max(1, Duration.between(startedAt, instantSource.instant()).toMillis());
+            logger.info("Charge expiry sweep progress - pages={}, charges_processed={}, expired={}, failed={}, charges_per_second={}",
+                    pages, chargesFound, expired, failed, chargesFound * 1000L / elapsedMillis);
+        }
     }
 
     private int expireChargesWithoutGateway(List<ChargeEntity> nonAuthSuccessCharges) {
+        if (nonAuthSuccessCharges.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return chargeService.transitionChargeStates(nonAuthSuccessCharges, EXPIRED).size();
+        } catch (RuntimeException e) {
+            logger.warn("Expiring charges together failed, expiring them one at a time - number_of_charges={}, error={}",
+                    nonAuthSuccessCharges.size(), e.getMessage());
+        }
+
         List<ChargeEntity> processedEntities = nonAuthSuccessCharges
                 .stream().map(chargeEntity -> chargeService.transitionChargeState(chargeEntity.getExternalId(), EXPIRED))
                 .collect(Collectors.toList());
@@ -179,79 +269,132 @@ public class ChargeExpiryService {
         return processedEntities.size();
     }
 
-    private Pair<Integer, Integer> expireChargesWithGateway(List<ChargeEntity> gatewayAuthorizedCharges) {
+    /**
+     * Charges that need a call to their gateway are expired in parallel, with at most
+     * {@link ChargeSweepConfig#getMaximumConcurrentGatewayCancelsPerProvider()} calls in flight to any one provider so
+     * that a slow gateway holds up only its own charges.
+     */
+    private List<ExpiryOutcome> expireChargesWithGateway(GatewayWorkers gatewayWorkers,
+                                                         List<ChargeEntity> gatewayAuthorizedCharges,
+                                                         List<ChargeEntity> chargesToCheckWithGateway) {
+        if (gatewayAuthorizedCharges.isEmpty() && chargesToCheckWithGateway.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        List<Future<ExpiryOutcome>> outcomes = new ArrayList<>();
+        gatewayAuthorizedCharges.forEach(chargeEntity -> outcomes.add(gatewayWorkers.forProvider(chargeEntity.getPaymentGatewayName())
+                .submit(inWorker(mdcContext, chargeEntity, this::expireWithGateway))));
+        chargesToCheckWithGateway.forEach(chargeEntity -> outcomes.add(gatewayWorkers.forProvider(chargeEntity.getPaymentGatewayName())
+                .submit(inWorker(mdcContext, chargeEntity, this::expireOrPotentiallyForceTransitionState))));
 
-        AtomicInteger expireCancelled = new AtomicInteger();
-        AtomicInteger expireCancelFailed = new AtomicInteger();
+        List<ExpiryOutcome> results = new ArrayList<>();
+        for (Future<ExpiryOutcome> outcome : outcomes) {
+            results.add(awaitOutcome(outcome));
+        }
+        return results;
+    }
 
-        gatewayAuthorizedCharges.forEach(chargeEntity -> {
+    /**
+     * A pool of threads for each payment provider, shared by all the pages of a sweep and shut down when it ends.
+     */
+    private class GatewayWorkers implements AutoCloseable {
+        private final Map<PaymentGatewayName, ExecutorService> workersByProvider = new EnumMap<>(PaymentGatewayName.class);
 
-            ChargeEntity expiredCharge = expireChargeWithGatewayCleanup(chargeEntity);
+        private ExecutorService forProvider(PaymentGatewayName paymentGatewayName) {
+            return workersByProvider.computeIfAbsent(paymentGatewayName,
+                    ignored -> Executors.newFixedThreadPool(chargeSweepConfig.getMaximumConcurrentGatewayCancelsPerProvider()));
+        }
 
-            if (EXPIRED.getValue().equals(expiredCharge.getStatus())) {
-                expireCancelled.getAndIncrement();
-            } else if (EXPIRE_CANCEL_FAILED.getValue().equals(expiredCharge.getStatus())) {
-                expireCancelFailed.getAndIncrement();
+        @Override
+        public void close() {
+            workersByProvider.values().forEach(ExecutorService::shutdown);
+        }
+    }
+
+    /**
+     * Entities loaded by the sweep belong to its own unit of work, so a worker is given only the external id and
+     * loads the charge again in a unit of work of its own. Its database activity is added to the sweep's.
+     */
+    private Callable<ExpiryOutcome> inWorker(Map<String, String> mdcContext, ChargeEntity chargeEntity,
+                                             Function<String, ExpiryOutcome> expiry) {
+        String chargeExternalId = chargeEntity.getExternalId();
+        String paymentProvider = chargeEntity.getPaymentProvider();
+        return DatabaseActivity.carriedOver("charge-expiry", () -> {
+            if (mdcContext != null) {
+                MDC.setContextMap(mdcContext);
+            }
+            unitOfWork.begin();
+            try {
+                return expiry.apply(chargeExternalId);
+            } catch (RuntimeException e) {
+                logger.error("Error expiring charge with gateway - error={}", e.getMessage(),
+                        kv(PAYMENT_EXTERNAL_ID, chargeExternalId),
+                        kv(PROVIDER, paymentProvider));
+                return ExpiryOutcome.FAILED;
+            } finally {
+                unitOfWork.end();
+                MDC.clear();
             }
         });
+    }
 
-        return Pair.of(
-                expireCancelled.intValue(),
-                expireCancelFailed.intValue()
-        );
+    private ExpiryOutcome awaitOutcome(Future<ExpiryOutcome> outcome) {
+        try {
+            return outcome.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ExpiryOutcome.FAILED;
+        } catch (ExecutionException e) {
+            return ExpiryOutcome.FAILED;
+        }
     }
 
-    private Pair<Integer, Integer> expireChargesOrPotentiallyForceTransitionState(List<ChargeEntity> charges) {
-        AtomicInteger expireCancelled = new AtomicInteger();
-        AtomicInteger expireCancelFailed = new AtomicInteger();
-
-        charges.forEach(chargeEntity -> {
-            Optional<ChargeStatus> gatewayStatus = queryService.getMappedGatewayStatus(chargeEntity);
-            gatewayStatus.ifPresentOrElse(status ->
-                    {
-                        if (status.toExternal().isFinished()) {
-                            logger.info(format("Expiring charge skipped as charge is in a terminal state on the gateway " +
-                                            "provider. Attempting to update charge state to [%s]", status.getValue()),
-                                    kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()),
-                                    kv(GATEWAY_ACCOUNT_ID, chargeEntity.getGatewayAccount().getId()),
-                                    kv(PROVIDER, chargeEntity.getPaymentProvider()));
-
-                            // first try to transition to the terminal state gracefully if allowed, otherwise force the
-                            // transition
-                            try {
-                                chargeService.transitionChargeState(chargeEntity.getExternalId(), status);
-                                expireCancelled.getAndIncrement();
-                            } catch (InvalidStateTransitionException e) {
-                                if (forceTransitionChargeState(chargeEntity, status)) {
-                                    expireCancelled.getAndIncrement();
-                                } else {
-                                    expireCancelFailed.getAndIncrement();
-                                }
-                            }
-                        } else {
-                            ChargeEntity expiredCharge = expireChargeWithGatewayCleanup(chargeEntity);
-
-                            if (EXPIRED.getValue().equals(expiredCharge.getStatus())) {
-                                expireCancelled.getAndIncrement();
-                            } else if (EXPIRE_CANCEL_FAILED.getValue().equals(expiredCharge.getStatus())) {
-                                expireCancelFailed.getAndIncrement();
-                            }
-                        }
-                    },
-                    () -> {
-                        logger.info(format("Gateway status does not map to any charge " +
-                                        "status in %s, expiring without cancelling on the gateway.",
-                                ChargeStatus.class.getCanonicalName()),
-                                kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
-                        chargeService.transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
-                        expireCancelled.getAndIncrement();
-                    });
-        });
+    private ExpiryOutcome expireWithGateway(String chargeExternalId) {
+        return outcomeOf(expireChargeWithGatewayCleanup(chargeExternalId));
+    }
 
-        return Pair.of(
-                expireCancelled.intValue(),
-                expireCancelFailed.intValue()
-        );
+    private ExpiryOutcome outcomeOf(ChargeEntity expiredCharge) {
+        if (EXPIRED.getValue().equals(expiredCharge.getStatus())) {
+            return ExpiryOutcome.SUCCEEDED;
+        } else if (EXPIRE_CANCEL_FAILED.getValue().equals(expiredCharge.getStatus())) {
+            return ExpiryOutcome.FAILED;
+        }
+        return ExpiryOutcome.PENDING;
+    }
+
+    private ExpiryOutcome expireOrPotentiallyForceTransitionState(String chargeExternalId) {
+        ChargeEntity chargeEntity = chargeDao.findByExternalId(chargeExternalId)
+                .orElseThrow(() -> new ChargeNotFoundRuntimeException(chargeExternalId));
+        Optional<ChargeStatus> gatewayStatus = queryService.getMappedGatewayStatus(chargeEntity);
+        if (gatewayStatus.isEmpty()) {
+            logger.info(format("Gateway status does not map to any charge " +
+                            "status in %s, expiring without cancelling on the gateway.",
+                    ChargeStatus.class.getCanonicalName()),
+                    kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+            chargeService.transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
+            return ExpiryOutcome.SUCCEEDED;
+        }
+
+        ChargeStatus status = gatewayStatus.get();
+        if (!status.toExternal().isFinished()) {
+            return expireWithGateway(chargeExternalId);
+        }
+
+        logger.info(format("Expiring charge skipped as charge is in a terminal state on the gateway " +
+                        "provider. Attempting to update charge state to [%s]", status.getValue()),
+                kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()),
+                kv(GATEWAY_ACCOUNT_ID, chargeEntity.getGatewayAccount().getId()),
+                kv(PROVIDER, chargeEntity.getPaymentProvider()));
+
+        // first try to transition to the terminal state gracefully if allowed, otherwise force the
+        // transition
+        try {
+            chargeService.transitionChargeState(chargeEntity.getExternalId(), status);
+            return ExpiryOutcome.SUCCEEDED;
+        } catch (InvalidStateTransitionException e) {
+            return forceTransitionChargeState(chargeEntity, status) ? ExpiryOutcome.SUCCEEDED : ExpiryOutcome.FAILED;
+        }
     }
     
     private boolean forceTransitionChargeState(ChargeEntity chargeEntity, ChargeStatus status) {
@@ -268,8 +411,8 @@ public class ChargeExpiryService {
         }
     }
 
-    private ChargeEntity expireChargeWithGatewayCleanup(ChargeEntity chargeEntity) {
-        ChargeEntity processedEntity = prepareForTermination(chargeEntity.getExternalId());
+    private ChargeEntity expireChargeWithGatewayCleanup(String chargeExternalId) {
+        ChargeEntity processedEntity = prepareForTermination(chargeExternalId);
         ChargeStatus newStatus;
 
         try {
@@ -278,7 +421,7 @@ public class ChargeExpiryService {
         } catch (GatewayException e) {
             newStatus = EXPIRE_FLOW.getFailureTerminalState();
             logger.error("Gateway error while cancelling the Charge - charge_external_id={}, gateway_error={}",
-                    chargeEntity.getExternalId(), e.getMessage());
+                    chargeExternalId, e.getMessage());
         }
 
         return chargeService.transitionChargeState(processedEntity.getExternalId(), newStatus);
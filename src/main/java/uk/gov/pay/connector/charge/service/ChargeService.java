@@ -2,6 +2,7 @@ package uk.gov.pay.connector.charge.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.name.Named;
 import com.google.inject.persist.Transactional;
 import jakarta.inject.Inject;
 import jakarta.persistence.RollbackException;
@@ -56,6 +57,7 @@ import uk.gov.pay.connector.charge.util.RefundCalculator;
 import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.client.cardid.service.CardidService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.client.ledger.service.LedgerService;
 import uk.gov.pay.connector.common.exception.IllegalStateRuntimeException;
 import uk.gov.pay.connector.common.exception.InvalidForceStateTransitionException;
@@ -180,6 +182,7 @@ public class ChargeService {
 
     private final StateTransitionService stateTransitionService;
     private final LedgerService ledgerService;
+    private final LedgerEventPublisher ledgerEventPublisher;
     private final Boolean shouldEmitPaymentStateTransitionEvents;
     private final RefundService refundService;
     private final EventService eventService;
@@ -207,7 +210,8 @@ public class ChargeService {
                          ConnectorConfiguration config,
                          PaymentProviders providers,
                          StateTransitionService stateTransitionService,
-                         LedgerService ledgerService,
+                         @Named("CachingLedgerService") LedgerService ledgerService,
+                         LedgerEventPublisher ledgerEventPublisher,
                          RefundService refundService,
                          EventService eventService,
                          PaymentInstrumentService paymentInstrumentService,
@@ -232,6 +236,7 @@ public class ChargeService {
         this.stateTransitionService = stateTransitionService;
         this.shouldEmitPaymentStateTransitionEvents = config.getEmitPaymentStateTransitionEvents();
         this.ledgerService = ledgerService;
+        this.ledgerEventPublisher = ledgerEventPublisher;
         this.refundService = refundService;
         this.eventService = eventService;
         this.paymentInstrumentService = paymentInstrumentService;
@@ -898,7 +903,7 @@ public class ChargeService {
         charge.getAgreement().ifPresent(agreementEntity -> {
             AgreementInactivated inactivatedEvent = AgreementInactivated
                     .from(agreementEntity, rejectedReason, Instant.now());
-            ledgerService.postEvent(inactivatedEvent);
+            ledgerEventPublisher.publish(inactivatedEvent);
         });
         charge.getPaymentInstrument().ifPresent(paymentInstrumentEntity ->
                 paymentInstrumentEntity.setStatus(PaymentInstrumentStatus.INACTIVE)
@@ -1048,6 +1053,48 @@ public class ChargeService {
         ).orElseThrow(() -> new ChargeNotFoundRuntimeException(chargeExternalId));
     }
 
+    /**
+     * Moves a batch of charges to {@code targetChargeState} in one transaction. The charges are re-read together and
+     * any whose status has changed since the given copies were loaded are left alone. Charge events are written with
+     * a single flush and state transitions are offered as they would be by
+     * {@link #transitionChargeState(ChargeEntity, ChargeStatus)}.
+     *
+     * @return the charges that were transitioned
+     */
+    @Transactional
+    public List<ChargeEntity> transitionChargeStates(List<ChargeEntity> charges, ChargeStatus targetChargeState) {
+        Map<Long, String> statusWhenLoaded = charges.stream()
+                .collect(Collectors.toMap(ChargeEntity::getId, ChargeEntity::getStatus));
+
+        List<ChargeEntity> chargesToTransition = chargeDao.findByIds(List.copyOf(statusWhenLoaded.keySet()))
+                .stream()
+                .filter(charge -> charge.getStatus().equals(statusWhenLoaded.get(charge.getId())))
+                .toList();
+
+        Instant now = Instant.now();
+        List<ChargeStatus> fromChargeStates = chargesToTransition.stream()
+                .map(charge -> {
+                    ChargeStatus fromChargeState = ChargeStatus.fromString(charge.getStatus());
+                    charge.setStatus(targetChargeState);
+                    charge.setUpdatedDate(now);
+                    return fromChargeState;
+                })
+                .toList();
+
+        List<ChargeEventEntity> chargeEventEntities = chargeEventDao.persistChargeEventsOf(chargesToTransition);
+
+        for (int i = 0; i < chargesToTransition.size(); i++) {
+            ChargeEntity charge = chargesToTransition.get(i);
+            if (shouldEmitPaymentStateTransitionEvents) {
+                stateTransitionService.offerPaymentStateTransition(charge.getExternalId(), fromChargeStates.get(i),
+                        targetChargeState, chargeEventEntities.get(i));
+            }
+            taskQueueService.offerTasksOnStateTransition(charge);
+        }
+
+        return chargesToTransition;
+    }
+
     @Transactional
     public ChargeEntity forceTransitionChargeState(String chargeExternalId, ChargeStatus targetChargeState) {
         return chargeDao.findByExternalId(chargeExternalId).map(chargeEntity ->
@@ -0,0 +1,201 @@
+package uk.gov.pay.connector.charge.service;
+
+import com.google.inject.Provider;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.charge.service.ChargeStatusCommitListener.ChargeStatusChange;
+import uk.gov.pay.connector.util.ApplicationStartupDependentResource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
+
+/**
+ * Passes charge status changes to {@link ChargeStatusChangeNotifier} once the transaction that made them has
+ * committed, on this node straight away and on other nodes through a Postgres NOTIFY on the charge_status_changed
+ * channel.
+ * <br>
+ * Other nodes can only be waiting for a charge to reach {@link ChargeStatus#AUTHORISATION_3DS_READY} or to leave a
+ * locking status, so only those changes are sent to them. The NOTIFY is sent on a connection of its own after the
+ * change has committed, so the transaction making the change never waits on the lock Postgres takes to queue it.
+ * <br>
+ * A second dedicated connection LISTENs for the notifications. It is checked with a query whenever it has been quiet
+ * for a while, so a connection that has silently gone away is noticed and replaced. Notifications sent while it is
+ * being replaced are lost and the waiters they were for time out instead.
+ */
+public class ChargeStatusChangeListener implements Managed {
+
+    static final String CHANNEL = "charge_status_changed";
+
+    private static final String LISTENER_THREAD_NAME = "charge-status-change-listener";
+    private static final String PUBLISHER_THREAD_NAME = "charge-status-change-publisher";
+    private static final int NOTIFICATION_POLL_TIMEOUT_IN_MILLIS = 500;
+    private static final int NETWORK_TIMEOUT_IN_MILLIS = 10_000;
+    private static final long KEEPALIVE_INTERVAL_IN_MILLIS = 30_000;
+    private static final long RECONNECT_DELAY_IN_MILLIS = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChargeStatusChangeListener.class);
+
+    private final ChargeStatusChangeNotifier chargeStatusChangeNotifier;
+    private final ApplicationStartupDependentResource databaseConnectionProvider;
+    private final Provider<EntityManagerFactory> entityManagerFactory;
+    private final ExecutorService executorService;
+    private final ExecutorService publisherExecutorService;
+    private volatile boolean running;
+    private Connection publisherConnection;
+
+    @Inject
+    public ChargeStatusChangeListener(ChargeStatusChangeNotifier chargeStatusChangeNotifier,
+                                      ApplicationStartupDependentResource databaseConnectionProvider,
+                                      Provider<EntityManagerFactory> entityManagerFactory,
+                                      Environment environment) {
+        this.chargeStatusChangeNotifier = chargeStatusChangeNotifier;
+        this.databaseConnectionProvider = databaseConnectionProvider;
+        this.entityManagerFactory = entityManagerFactory;
+        this.executorService = environment
+                .lifecycle()
+                .executorService(LISTENER_THREAD_NAME)
+                .minThreads(1)
+                .maxThreads(1)
+                .build();
+        this.publisherExecutorService = environment
+                .lifecycle()
+                .executorService(PUBLISHER_THREAD_NAME)
+                .minThreads(1)
+                .maxThreads(1)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        new ChargeStatusCommitListener(this::committed)
+                .register(entityManagerFactory.get().unwrap(JpaEntityManagerFactory.class).getServerSession());
+        executorService.execute(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executorService.shutdownNow();
+        publisherExecutorService.shutdown();
+    }
+
+    void committed(List<ChargeStatusChange> changes) {
+        for (ChargeStatusChange change : changes) {
+            chargeStatusChangeNotifier.statusChanged(change.chargeExternalId(), change.status());
+            if (running && mayBeAwaitedOnOtherNodes(change)) {
+                publisherExecutorService.execute(() -> publish(change));
+            }
+        }
+    }
+
+    static boolean mayBeAwaitedOnOtherNodes(ChargeStatusChange change) {
+        return change.status() == AUTHORISATION_3DS_READY
+                || change.previousStatus() == null
+                || ChargeStatusWaitService.LOCKING_STATUSES.contains(change.previousStatus());
+    }
+
+    private void publish(ChargeStatusChange change) {
+        try {
+            if (publisherConnection == null) {
+                publisherConnection = databaseConnectionProvider.getDatabaseConnection();
+            }
+            try (PreparedStatement statement = publisherConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, change.chargeExternalId() + ":" + change.status().getValue());
+                statement.execute();
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Failed to send charge status change to other nodes",
+                    kv(PAYMENT_EXTERNAL_ID, change.chargeExternalId()),
+                    kv("error", e.getMessage()));
+            closePublisherConnection();
+        }
+    }
+
+    private void closePublisherConnection() {
+        try {
+            if (publisherConnection != null) {
+                publisherConnection.close();
+            }
+        } catch (SQLException ignored) {
+            // the connection is being thrown away
+        } finally {
+            publisherConnection = null;
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = databaseConnectionProvider.getDatabaseConnection();
+                 Statement statement = connection.createStatement()) {
+                connection.setNetworkTimeout(Runnable::run, NETWORK_TIMEOUT_IN_MILLIS);
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                LOGGER.info("Listening for charge status changes");
+
+                long lastHeardFromDatabase = System.currentTimeMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_POLL_TIMEOUT_IN_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                        lastHeardFromDatabase = System.currentTimeMillis();
+                    } else if (System.currentTimeMillis() - lastHeardFromDatabase > KEEPALIVE_INTERVAL_IN_MILLIS) {
+                        statement.execute("SELECT 1");
+                        lastHeardFromDatabase = System.currentTimeMillis();
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    LOGGER.warn("Lost connection listening for charge status changes, reconnecting",
+                            kv("error", e.getMessage()));
+                    if (!pauseBeforeReconnecting()) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            LOGGER.warn("Ignoring malformed charge status change notification", kv("payload", payload));
+            return;
+        }
+        try {
+            ChargeStatus status = ChargeStatus.fromString(payload.substring(separator + 1));
+            chargeStatusChangeNotifier.statusChanged(payload.substring(0, separator), status);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ignoring charge status change notification with unknown status", kv("payload", payload));
+        }
+    }
+
+    private boolean pauseBeforeReconnecting() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_IN_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.pay.connector.charge.service;
+
+import jakarta.inject.Singleton;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Lets threads on this node wait for a charge to reach a status without polling the database. Status changes are
+ * fed in by {@link ChargeStatusChangeListener} once they have been committed, whichever node made them.
+ * <p>
+ * Callers should register with {@link #onStatus} or {@link #onStatusMatching} before checking the charge's current status, so that a change made
+ * between the check and the wait is not missed, and should always {@link #cancel} the returned future when they are
+ * done waiting.
+ */
+@Singleton
+public class ChargeStatusChangeNotifier {
+
+    private final Map<String, Set<StatusWaiter>> waitersByChargeExternalId = new ConcurrentHashMap<>();
+
+    public CompletableFuture<ChargeStatus> onStatus(String chargeExternalId, ChargeStatus status) {
+        return onStatusMatching(chargeExternalId, status::equals);
+    }
+
+    public CompletableFuture<ChargeStatus> onStatusMatching(String chargeExternalId, Predicate<ChargeStatus> condition) {
+        StatusWaiter waiter = new StatusWaiter(condition, new CompletableFuture<>());
+        waitersByChargeExternalId.computeIfAbsent(chargeExternalId, key -> ConcurrentHashMap.newKeySet()).add(waiter);
+        return waiter.future();
+    }
+
+    public void cancel(String chargeExternalId, CompletableFuture<ChargeStatus> future) {
+        future.cancel(false);
+        waitersByChargeExternalId.computeIfPresent(chargeExternalId, (key, waiters) -> {
+            waiters.removeIf(waiter -> waiter.future() == future);
+            return waiters.isEmpty() ? null : waiters;
+        });
+    }
+
+    public void statusChanged(String chargeExternalId, ChargeStatus status) {
+        Set<StatusWaiter> waiters = waitersByChargeExternalId.get(chargeExternalId);
+        if (waiters != null) {
+            waiters.stream()
+                    .filter(waiter -> waiter.condition().test(status))
+                    .forEach(waiter -> waiter.future().complete(status));
+        }
+    }
+
+    int numberOfChargesWaitedOn() {
+        return waitersByChargeExternalId.size();
+    }
+
+    private record StatusWaiter(Predicate<ChargeStatus> condition, CompletableFuture<ChargeStatus> future) {
+    }
+}
@@ -0,0 +1,80 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.changesets.ChangeRecord;
+import org.eclipse.persistence.sessions.changesets.DirectToFieldChangeRecord;
+import org.eclipse.persistence.sessions.changesets.ObjectChangeSet;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Notices EclipseLink updating the status of a charge and, once the transaction that made the change has committed,
+ * hands the changes to a callback. Nothing is handed over if the transaction rolls back.
+ * <br>
+ * EclipseLink raises both kinds of event on the thread doing the work, so the changes made are kept per thread.
+ * Native queries and bulk JPQL updates do not raise descriptor events and are not noticed.
+ */
+class ChargeStatusCommitListener extends DescriptorEventAdapter {
+
+    private static final String STATUS_ATTRIBUTE = "status";
+
+    private final ThreadLocal<List<ChargeStatusChange>> statusChanges = ThreadLocal.withInitial(ArrayList::new);
+    private final Consumer<List<ChargeStatusChange>> afterCommit;
+
+    ChargeStatusCommitListener(Consumer<List<ChargeStatusChange>> afterCommit) {
+        this.afterCommit = afterCommit;
+    }
+
+    /**
+     * Sessions copy the listeners of the session they are acquired from, so register before serving any work.
+     */
+    void register(Session session) {
+        session.getDescriptor(ChargeEntity.class).getEventManager().addListener(this);
+        session.getEventManager().addListener(new SessionEventAdapter() {
+            @Override
+            public void postCommitTransaction(SessionEvent event) {
+                List<ChargeStatusChange> changes = statusChanges.get();
+                if (!changes.isEmpty()) {
+                    statusChanges.remove();
+                    afterCommit.accept(changes);
+                }
+            }
+
+            @Override
+            public void postRollbackTransaction(SessionEvent event) {
+                statusChanges.remove();
+            }
+        });
+    }
+
+    @Override
+    public void postUpdate(DescriptorEvent event) {
+        ObjectChangeSet changeSet = event.getChangeSet();
+        ChangeRecord statusChange = changeSet == null ? null : changeSet.getChangesForAttributeNamed(STATUS_ATTRIBUTE);
+        if (changeSet != null && statusChange == null) {
+            return;
+        }
+
+        ChargeEntity charge = (ChargeEntity) event.getSource();
+        ChargeStatus previousStatus = statusChange instanceof DirectToFieldChangeRecord directToFieldChange
+                && directToFieldChange.getOldValue() != null
+                ? ChargeStatus.fromString(directToFieldChange.getOldValue().toString())
+                : null;
+        statusChanges.get().add(new ChargeStatusChange(charge.getExternalId(), previousStatus,
+                ChargeStatus.fromString(charge.getStatus())));
+    }
+
+    /**
+     * @param previousStatus the status before the change, or {@code null} if EclipseLink did not record it
+     */
+    record ChargeStatusChange(String chargeExternalId, ChargeStatus previousStatus, ChargeStatus status) {
+    }
+}
@@ -0,0 +1,97 @@
+package uk.gov.pay.connector.charge.service;
+
+import io.dropwizard.core.setup.Environment;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.paymentprocessor.model.OperationType;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toCollection;
+
+/**
+ * Lets frontend wait for a charge that is locked by an authorisation or capture to come out of its locking status,
+ * rather than polling for it. Nothing blocks while waiting: the returned future is completed by
+ * {@link ChargeStatusChangeNotifier} when the status changes, or when the maximum wait has passed, and the charge is
+ * then read again on a small pool of response threads.
+ */
+@Singleton
+public class ChargeStatusWaitService {
+
+    static final Set<ChargeStatus> LOCKING_STATUSES = Arrays.stream(OperationType.values())
+            .map(OperationType::getLockingStatus)
+            .filter(Objects::nonNull)
+            .collect(toCollection(() -> EnumSet.noneOf(ChargeStatus.class)));
+
+    private final ChargeDao chargeDao;
+    private final ChargeStatusChangeNotifier chargeStatusChangeNotifier;
+    private final Executor responseExecutor;
+    private final long maximumWaitInMillis;
+
+    @Inject
+    public ChargeStatusWaitService(ChargeDao chargeDao,
+                                   ChargeStatusChangeNotifier chargeStatusChangeNotifier,
+                                   ConnectorConfiguration configuration,
+                                   Environment environment) {
+        this(chargeDao, chargeStatusChangeNotifier,
+                environment.lifecycle()
+                        .executorService("charge-status-wait-%d")
+                        .minThreads(configuration.getChargeStatusWaitConfig().getResponseThreads())
+                        .maxThreads(configuration.getChargeStatusWaitConfig().getResponseThreads())
+                        .build(),
+                configuration.getChargeStatusWaitConfig().getMaximumWaitInMilliseconds());
+    }
+
+    ChargeStatusWaitService(ChargeDao chargeDao,
+                            ChargeStatusChangeNotifier chargeStatusChangeNotifier,
+                            Executor responseExecutor,
+                            long maximumWaitInMillis) {
+        this.chargeDao = chargeDao;
+        this.chargeStatusChangeNotifier = chargeStatusChangeNotifier;
+        this.responseExecutor = responseExecutor;
+        this.maximumWaitInMillis = maximumWaitInMillis;
+    }
+
+    /**
+     * Completes with the charge as soon as it is not in a locking status, or with the charge as it is once the
+     * maximum wait has passed. Completes with an empty optional if there is no such charge.
+     */
+    public CompletableFuture<Optional<ChargeEntity>> awaitUnlocked(String chargeExternalId) {
+        // Registering before reading the charge means an unlock that lands in between is not missed
+        CompletableFuture<ChargeStatus> unlocked = chargeStatusChangeNotifier
+                .onStatusMatching(chargeExternalId, status -> !LOCKING_STATUSES.contains(status));
+
+        Optional<ChargeEntity> charge;
+        try {
+            charge = chargeDao.findByExternalId(chargeExternalId);
+        } catch (RuntimeException e) {
+            chargeStatusChangeNotifier.cancel(chargeExternalId, unlocked);
+            throw e;
+        }
+
+        if (charge.isEmpty() || !isLocked(charge.get())) {
+            chargeStatusChangeNotifier.cancel(chargeExternalId, unlocked);
+            return CompletableFuture.completedFuture(charge);
+        }
+
+        return unlocked
+                .completeOnTimeout(null, maximumWaitInMillis, MILLISECONDS)
+                .whenComplete((status, throwable) -> chargeStatusChangeNotifier.cancel(chargeExternalId, unlocked))
+                .thenApplyAsync(status -> chargeDao.findByExternalId(chargeExternalId), responseExecutor);
+    }
+
+    private static boolean isLocked(ChargeEntity charge) {
+        return LOCKING_STATUSES.contains(ChargeStatus.fromString(charge.getStatus()));
+    }
+}
@@ -6,7 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.connector.agreement.model.AgreementEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
-import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.events.model.agreement.AgreementSetUp;
 import uk.gov.pay.connector.events.model.charge.PaymentInstrumentConfirmed;
 import uk.gov.pay.connector.paymentinstrument.dao.PaymentInstrumentDao;
@@ -27,17 +27,17 @@ public class LinkPaymentInstrumentToAgreementService {
     private static final Logger LOGGER = LoggerFactory.getLogger(LinkPaymentInstrumentToAgreementService.class);
 
     private final PaymentInstrumentDao paymentInstrumentDao;
-    private final LedgerService ledgerService;
+    private final LedgerEventPublisher ledgerEventPublisher;
     private final TaskQueueService taskQueueService;
     private final InstantSource instantSource;
 
     @Inject
     public LinkPaymentInstrumentToAgreementService(PaymentInstrumentDao paymentInstrumentDao,
-                                                   LedgerService ledgerService,
+                                                   LedgerEventPublisher ledgerEventPublisher,
                                                    TaskQueueService taskQueueService,
                                                    InstantSource instantSource) {
         this.paymentInstrumentDao = paymentInstrumentDao;
-        this.ledgerService = ledgerService;
+        this.ledgerEventPublisher = ledgerEventPublisher;
         this.taskQueueService = taskQueueService;
         this.instantSource = instantSource;
     }
@@ -61,7 +61,7 @@ public class LinkPaymentInstrumentToAgreementService {
         agreementEntity.setPaymentInstrument(paymentInstrumentEntity);
         paymentInstrumentEntity.setAgreementExternalId(agreementEntity.getExternalId());
         paymentInstrumentEntity.setStatus(PaymentInstrumentStatus.ACTIVE);
-        ledgerService.postEvent(List.of(
+        ledgerEventPublisher.publish(List.of(
                 AgreementSetUp.from(agreementEntity, instantSource.instant()),
                 PaymentInstrumentConfirmed.from(agreementEntity, instantSource.instant())
         ));
@@ -9,6 +9,9 @@ import uk.gov.pay.connector.common.dao.JpaDao;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+
 import java.time.ZonedDateTime;
 import java.util.List;
 
@@ -34,6 +37,32 @@ public class ChargeEventDao extends JpaDao<ChargeEventEntity> {
         return chargeEventEntity;
     }
 
+    /**
+     * Records the current status of each charge with a single flush, then reloads the database populated columns of
+     * the new events in one query rather than refreshing them one at a time.
+     */
+    public List<ChargeEventEntity> persistChargeEventsOf(List<ChargeEntity> chargeEntities) {
+        List<ChargeEventEntity> chargeEventEntities = chargeEntities.stream()
+                .map(chargeEntity -> aChargeEventEntity()
+                        .withChargeEntity(chargeEntity)
+                        .withStatus(ChargeStatus.fromString(chargeEntity.getStatus()))
+                        .build())
+                .toList();
+        if (chargeEventEntities.isEmpty()) {
+            return chargeEventEntities;
+        }
+
+        chargeEventEntities.forEach(this::persist);
+        this.flush();
+
+        entityManager.get()
+                .createQuery("SELECT ce FROM ChargeEventEntity ce WHERE ce.id IN :ids", ChargeEventEntity.class)
+                .setParameter("ids", chargeEventEntities.stream().map(ChargeEventEntity::getId).toList())
+                .setHint(QueryHints.REFRESH, HintValues.TRUE)
+                .getResultList();
+        return chargeEventEntities;
+    }
+
     public List<ChargeEventEntity> findChargeEvents(ZonedDateTime startDate, ZonedDateTime endDate, int page, int size) {
         String query = "SELECT ce FROM ChargeEventEntity ce " +
                 "WHERE ce.updated >= :startDate and ce.updated <= :endDate" +
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class TransactionState {
     private String status;
+    private boolean finished;
 
     public TransactionState() {
     }
@@ -13,7 +14,16 @@ public class TransactionState {
         this.status = status;
     }
 
+    public TransactionState(String status, boolean finished) {
+        this.status = status;
+        this.finished = finished;
+    }
+
     public String getStatus() {
         return status;
     }
+
+    public boolean isFinished() {
+        return finished;
+    }
 }
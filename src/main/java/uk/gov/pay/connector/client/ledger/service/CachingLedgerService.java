@@ -0,0 +1,177 @@
+package uk.gov.pay.connector.client.ledger.service;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.ws.rs.client.Client;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.LedgerLookupCacheConfig;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
+import uk.gov.pay.connector.client.ledger.model.RefundTransactionsForPayment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A {@link LedgerService} for looking up payments and refunds that only exist in ledger because they have been
+ * expunged from connector's database.
+ * <br>
+ * Every lookup is remembered for the rest of the request it was made in, so a request that needs the same
+ * transaction or refunds more than once only asks ledger once. Transactions that ledger says are finished are also
+ * kept for a short time to live across requests, which saves a round trip for each retry of a gateway notification for
+ * an expunged payment; concurrent lookups of a transaction that is not cached share a single GET. Refunds for a payment
+ * are never shared between requests because refund availability has to take account of the latest refunds.
+ * <br>
+ * Parity checks must see what ledger has now, so they use a plain {@link LedgerService}.
+ */
+public class CachingLedgerService extends LedgerService {
+
+    private static final String METRIC_PREFIX = "ledger-lookup";
+    private static final ThreadLocal<Map<Lookup, Object>> REQUEST_SCOPE = new ThreadLocal<>();
+
+    private final Cache<Lookup, LedgerTransaction> finishedTransactions;
+    private final Map<Lookup, CompletableFuture<Optional<LedgerTransaction>>> inFlightLookups = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter requestScopeHits;
+    private final Timer lookupTimer;
+
+    public CachingLedgerService(Client client, Client ledgerClient, ConnectorConfiguration configuration,
+                                MetricRegistry metricRegistry) {
+        this(client, ledgerClient, configuration, metricRegistry, Ticker.systemTicker());
+    }
+
+    CachingLedgerService(Client client, Client ledgerClient, ConnectorConfiguration configuration,
+                         MetricRegistry metricRegistry, Ticker ticker) {
+        super(client, ledgerClient, configuration);
+        LedgerLookupCacheConfig config = configuration.getLedgerLookupCacheConfig();
+        this.finishedTransactions = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLiveInSeconds(), TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+        this.hits = metricRegistry.counter(METRIC_PREFIX + ".cache.hits");
+        this.misses = metricRegistry.counter(METRIC_PREFIX + ".cache.misses");
+        this.requestScopeHits = metricRegistry.counter(METRIC_PREFIX + ".request-scope.hits");
+        this.lookupTimer = metricRegistry.timer(METRIC_PREFIX + ".response_time");
+    }
+
+    /**
+     * Starts remembering lookups made on this thread, until {@link #endRequestScope()} is called.
+     */
+    public static void beginRequestScope() {
+        REQUEST_SCOPE.set(new HashMap<>());
+    }
+
+    public static void endRequestScope() {
+        REQUEST_SCOPE.remove();
+    }
+
+    @Override
+    public Optional<LedgerTransaction> getTransaction(String id) {
+        return lookUpTransaction(new Lookup("transaction", id, null),
+                () -> super.getTransaction(id));
+    }
+
+    @Override
+    public Optional<LedgerTransaction> getTransactionForGatewayAccount(String id, Long gatewayAccountId) {
+        return lookUpTransaction(new Lookup("transaction-for-gateway-account", id, String.valueOf(gatewayAccountId)),
+                () -> super.getTransactionForGatewayAccount(id, gatewayAccountId));
+    }
+
+    @Override
+    public Optional<LedgerTransaction> getTransactionForProviderAndGatewayTransactionId(String paymentGatewayName,
+                                                                                        String gatewayTransactionId) {
+        return lookUpTransaction(new Lookup("transaction-for-gateway-transaction", gatewayTransactionId, paymentGatewayName),
+                () -> super.getTransactionForProviderAndGatewayTransactionId(paymentGatewayName, gatewayTransactionId));
+    }
+
+    @Override
+    public RefundTransactionsForPayment getRefundsForPayment(Long gatewayAccountId, String paymentExternalId) {
+        return inRequestScope(new Lookup("refunds-for-payment", paymentExternalId, String.valueOf(gatewayAccountId)),
+                () -> {
+                    try (Timer.Context ignored = lookupTimer.time()) {
+                        return super.getRefundsForPayment(gatewayAccountId, paymentExternalId);
+                    }
+                });
+    }
+
+    private Optional<LedgerTransaction> lookUpTransaction(Lookup lookup, Supplier<Optional<LedgerTransaction>> fromLedger) {
+        return inRequestScope(lookup, () -> {
+            LedgerTransaction cached = finishedTransactions.getIfPresent(lookup);
+            if (cached != null) {
+                hits.inc();
+                return Optional.of(cached);
+            }
+            misses.inc();
+            return loadOnce(lookup, fromLedger);
+        });
+    }
+
+    private Optional<LedgerTransaction> loadOnce(Lookup lookup, Supplier<Optional<LedgerTransaction>> fromLedger) {
+        var pending = new CompletableFuture<Optional<LedgerTransaction>>();
+        var inFlight = inFlightLookups.putIfAbsent(lookup, pending);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            Optional<LedgerTransaction> transaction;
+            try (Timer.Context ignored = lookupTimer.time()) {
+                transaction = fromLedger.get();
+            }
+            // Ledger may not have heard about a payment yet, or may still be updating it, so only keep finished ones
+            transaction.filter(CachingLedgerService::isFinished)
+                    .ifPresent(finished -> finishedTransactions.put(lookup, finished));
+            pending.complete(transaction);
+            return transaction;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(lookup, pending);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T inRequestScope(Lookup lookup, Supplier<T> lookUp) {
+        Map<Lookup, Object> requestScope = REQUEST_SCOPE.get();
+        if (requestScope == null) {
+            return lookUp.get();
+        }
+        if (requestScope.containsKey(lookup)) {
+            requestScopeHits.inc();
+            return (T) requestScope.get(lookup);
+        }
+        T result = lookUp.get();
+        requestScope.put(lookup, result);
+        return result;
+    }
+
+    private static Optional<LedgerTransaction> await(CompletableFuture<Optional<LedgerTransaction>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isFinished(LedgerTransaction transaction) {
+        return transaction.getState() != null && transaction.getState().isFinished();
+    }
+
+    private record Lookup(String type, String id, String qualifier) {
+    }
+}
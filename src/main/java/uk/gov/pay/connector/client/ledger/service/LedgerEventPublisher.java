@@ -0,0 +1,254 @@
+package uk.gov.pay.connector.client.ledger.service;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.LedgerEventPublisherConfig;
+import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.model.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Posts events to ledger from a background thread so that requests do not wait on ledger. Events are held in a
+ * bounded buffer and sent together once there are enough of them to fill a batch or the linger time has passed.
+ * Events that cannot be posted after retrying are recorded as not emitted, together with their JSON, so that the
+ * emitted events sweep posts them later. If the buffer is full, or the publisher is not running, events are posted
+ * on the calling thread.
+ */
+@Singleton
+public class LedgerEventPublisher implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerEventPublisher.class);
+    private static final String METRIC_PREFIX = "ledger-events";
+    private static final String SENDER_THREAD_NAME = "ledger-event-publisher";
+    private static final long IDLE_POLL_TIMEOUT_IN_MILLIS = 500;
+
+    private final LedgerService ledgerService;
+    private final EmittedEventDao emittedEventDao;
+    private final ExecutorService executorService;
+    private final BlockingQueue<List<Event>> buffer;
+    private final int maximumBatchSize;
+    private final long lingerInMillis;
+    private final int maximumPostAttempts;
+    private final long retryDelayInMillis;
+    private final Histogram bufferDepth;
+    private final Histogram batchSize;
+    private final Timer postTimer;
+    private final Meter bufferFull;
+    private final Meter notPosted;
+    private volatile boolean running;
+
+    @Inject
+    public LedgerEventPublisher(LedgerService ledgerService,
+                                EmittedEventDao emittedEventDao,
+                                ConnectorConfiguration configuration,
+                                Environment environment) {
+        this(ledgerService, emittedEventDao, configuration.getLedgerEventPublisherConfig(), environment.metrics(),
+                environment.lifecycle()
+                        .executorService(SENDER_THREAD_NAME)
+                        .minThreads(1)
+                        .maxThreads(1)
+                        .shutdownTime(Duration.seconds(configuration.getLedgerEventPublisherConfig().getShutdownTimeoutInSeconds()))
+                        .build());
+    }
+
+    LedgerEventPublisher(LedgerService ledgerService,
+                         EmittedEventDao emittedEventDao,
+                         LedgerEventPublisherConfig config,
+                         MetricRegistry metricRegistry,
+                         ExecutorService executorService) {
+        this.ledgerService = ledgerService;
+        this.emittedEventDao = emittedEventDao;
+        this.executorService = executorService;
+        this.buffer = new ArrayBlockingQueue<>(config.getBufferCapacity());
+        this.maximumBatchSize = config.getMaximumBatchSize();
+        this.lingerInMillis = config.getLingerInMilliseconds();
+        this.maximumPostAttempts = config.getMaximumPostAttempts();
+        this.retryDelayInMillis = config.getRetryDelayInMilliseconds();
+        this.bufferDepth = metricRegistry.histogram(METRIC_PREFIX + ".buffer-depth");
+        this.batchSize = metricRegistry.histogram(METRIC_PREFIX + ".batch-size");
+        this.postTimer = metricRegistry.timer(METRIC_PREFIX + ".post");
+        this.bufferFull = metricRegistry.meter(METRIC_PREFIX + ".buffer-full");
+        this.notPosted = metricRegistry.meter(METRIC_PREFIX + ".not-posted");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        executorService.execute(this::send);
+    }
+
+    @Override
+    public void stop() {
+        // The sender keeps going until the buffer is empty; the executor's shutdown time bounds how long that takes
+        running = false;
+    }
+
+    public void publish(Event event) {
+        publish(List.of(event));
+    }
+
+    /**
+     * Events published together are always posted in the same batch, in order.
+     */
+    public void publish(List<Event> events) {
+        if (!running) {
+            ledgerService.postEvent(events);
+            return;
+        }
+        if (!buffer.offer(events)) {
+            bufferFull.mark();
+            LOGGER.warn("Ledger event buffer is full, posting events on the calling thread",
+                    kv("events", events.stream().map(Event::getEventType).toList()));
+            ledgerService.postEvent(events);
+        }
+    }
+
+    private void send() {
+        List<List<Event>> submissions = new ArrayList<>();
+        try {
+            while (running || !buffer.isEmpty()) {
+                List<Event> first = buffer.poll(IDLE_POLL_TIMEOUT_IN_MILLIS, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                bufferDepth.update(buffer.size());
+                submissions.add(first);
+                int events = first.size();
+                long deadline = System.nanoTime() + MILLISECONDS.toNanos(lingerInMillis);
+                while (events < maximumBatchSize) {
+                    List<Event> next = buffer.poll(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    submissions.add(next);
+                    events += next.size();
+                }
+                postOrRecordNotPosted(submissions);
+                submissions.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            postOrRecordNotPosted(submissions);
+            recordRemainingNotPosted();
+        } catch (RuntimeException e) {
+            // Publishers fall back to posting on their own threads once the sender is no longer running
+            LOGGER.error("Ledger event publisher stopped unexpectedly", e);
+            running = false;
+            submissions.stream().flatMap(List::stream).forEach(this::recordNotPosted);
+            recordRemainingNotPosted();
+        }
+    }
+
+    private void postOrRecordNotPosted(List<List<Event>> submissions) {
+        try {
+            post(submissions);
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected error posting {} submissions to ledger, recording them as not emitted",
+                    submissions.size(), e);
+            submissions.stream().flatMap(List::stream).forEach(this::recordNotPosted);
+        }
+    }
+
+    private void recordRemainingNotPosted() {
+        List<List<Event>> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        remaining.stream().flatMap(List::stream).forEach(this::recordNotPosted);
+    }
+
+    private void post(List<List<Event>> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        List<Event> batch = submissions.stream().flatMap(List::stream).toList();
+        batchSize.update(batch.size());
+        if (tryPost(batch)) {
+            return;
+        }
+        if (submissions.size() == 1) {
+            batch.forEach(this::recordNotPosted);
+            return;
+        }
+        // One bad event should not hold back the rest of the batch, so retry each submission on its own
+        for (List<Event> submission : submissions) {
+            if (!tryPost(submission)) {
+                submission.forEach(this::recordNotPosted);
+            }
+        }
+    }
+
+    private boolean tryPost(List<Event> events) {
+        for (int attempt = 1; attempt <= maximumPostAttempts; attempt++) {
+            try (Timer.Context ignored = postTimer.time()) {
+                ledgerService.postEvent(events).close();
+                return true;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to post {} events to ledger [attempt={}]: {}", events.size(), attempt, e.getMessage());
+            }
+            if (attempt < maximumPostAttempts && !sleep(retryDelayInMillis * attempt)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void recordNotPosted(Event event) {
+        notPosted.mark();
+        try {
+            LOGGER.error("Could not post event to ledger, recording it as not emitted",
+                    kv("resource_type", event.getResourceType().getLowercase()),
+                    kv("resource_external_id", event.getResourceExternalId()),
+                    kv("event_type", event.getEventType()));
+            String payload = serialiseForSweep(event);
+            if (payload != null) {
+                emittedEventDao.recordNotPosted(event, payload);
+            } else {
+                emittedEventDao.recordEmission(event.getResourceType(), event.getResourceExternalId(),
+                        event.getEventType(), event.getTimestamp(), null);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not record event {} for {} as not emitted: {}",
+                    event.getEventType(), event.getResourceExternalId(), e.getMessage());
+        }
+    }
+
+    private String serialiseForSweep(Event event) {
+        try {
+            return event.toJsonString();
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Could not serialise event {} for {} to keep it for the emitted events sweep, it will not be " +
+                    "posted to ledger unless the sweep can rebuild it: {}",
+                    event.getEventType(), event.getResourceExternalId(), e.getMessage());
+            return null;
+        }
+    }
+}
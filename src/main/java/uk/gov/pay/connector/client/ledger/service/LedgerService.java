@@ -17,8 +17,14 @@ import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.connector.client.ledger.model.RefundTransactionsForPayment;
 import uk.gov.pay.connector.events.model.Event;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -49,12 +55,31 @@ public class LedgerService {
     }
 
     public Optional<LedgerTransaction> getTransaction(String id) {
-        var uri = UriBuilder
-                .fromPath(ledgerUrl)
-                .path(format("/v1/transaction/%s", id))
-                .queryParam("override_account_id_restriction", "true");
+        return getTransactionFromLedger(transactionUri(id));
+    }
 
-        return getTransactionFromLedger(uri);
+    /**
+     * Ledger has no bulk lookup, so the GETs for all ids are issued asynchronously and then collected,
+     * letting a batch of lookups share one round trip's worth of wall-clock time.
+     * Ids that ledger does not know about are absent from the returned map.
+     */
+    public Map<String, LedgerTransaction> getTransactions(Collection<String> ids) {
+        Map<String, Future<Response>> pendingResponses = new LinkedHashMap<>();
+        for (String id : ids) {
+            pendingResponses.put(id, client
+                    .target(transactionUri(id))
+                    .request()
+                    .async()
+                    .get());
+        }
+
+        Map<String, LedgerTransaction> transactions = new HashMap<>();
+        for (Map.Entry<String, Future<Response>> pendingResponse : pendingResponses.entrySet()) {
+            String id = pendingResponse.getKey();
+            readTransaction(transactionUri(id), awaitResponse(pendingResponse.getValue()))
+                    .ifPresent(transaction -> transactions.put(id, transaction));
+        }
+        return transactions;
     }
 
     public Optional<LedgerTransaction> getTransactionForProviderAndGatewayTransactionId(String paymentGatewayName,
@@ -111,6 +136,24 @@ public class LedgerService {
         return postEvents(events);
     }
     
+    /**
+     * Posts events that have already been serialised to JSON, such as events kept for replay after they could not be
+     * posted.
+     */
+    public Response postSerialisedEvents(List<String> eventPayloads) {
+        logger.info("Making POST request to send {} serialised events to ledger", eventPayloads.size());
+        var response = postEventClient.target(eventUri)
+                .request()
+                .accept(MediaType.APPLICATION_JSON)
+                .post(Entity.json("[" + String.join(",", eventPayloads) + "]"));
+
+        if (response.getStatus() == SC_ACCEPTED) {
+            return response;
+        } else {
+            throw new LedgerException(response);
+        }
+    }
+
     private Response postEvents(List<Event> events) {
         String eventsList = events.stream().map(Event::getEventType).collect(Collectors.joining(", "));
         logger.info("Making POST request to send events to ledger for: [" + eventsList + "]", 
@@ -127,9 +170,29 @@ public class LedgerService {
         }
     }
 
+    private UriBuilder transactionUri(String id) {
+        return UriBuilder
+                .fromPath(ledgerUrl)
+                .path(format("/v1/transaction/%s", id))
+                .queryParam("override_account_id_restriction", "true");
+    }
+
+    private Response awaitResponse(Future<Response> pendingResponse) {
+        try {
+            return pendingResponse.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LedgerException(e);
+        } catch (ExecutionException e) {
+            throw new LedgerException(e);
+        }
+    }
+
     private Optional<LedgerTransaction> getTransactionFromLedger(UriBuilder uri) {
-        Response response = getResponse(uri);
+        return readTransaction(uri, getResponse(uri));
+    }
 
+    private Optional<LedgerTransaction> readTransaction(UriBuilder uri, Response response) {
         if (response.getStatus() == SC_OK) {
             return Optional.of(response.readEntity(LedgerTransaction.class));
         } 
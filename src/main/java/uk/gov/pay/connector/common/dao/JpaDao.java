@@ -3,9 +3,13 @@ package uk.gov.pay.connector.common.dao;
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Transactional
 public abstract class JpaDao<T> {
@@ -52,4 +56,41 @@ public abstract class JpaDao<T> {
             anEntityManager.refresh(mergedObject);
         }
     }
+
+    /**
+     * Runs a native statement whose {@code %s} is replaced by one positional parameter per value, numbered after the
+     * {@code leadingParameters} which bind to {@code ?1}, {@code ?2} and so on.
+     */
+    protected int executeNativeUpdateWithInList(String statement, Collection<?> values, Object... leadingParameters) {
+        return bindInList(entityManager.get().createNativeQuery(inListStatement(statement, values, leadingParameters)),
+                values, leadingParameters).executeUpdate();
+    }
+
+    /**
+     * As {@link #executeNativeUpdateWithInList(String, Collection, Object...)} for a native query whose rows are mapped
+     * with the named {@code resultSetMapping}.
+     */
+    protected List<?> findNativeWithInList(String statement, String resultSetMapping, Collection<?> values, Object... leadingParameters) {
+        return bindInList(entityManager.get().createNativeQuery(inListStatement(statement, values, leadingParameters), resultSetMapping),
+                values, leadingParameters).getResultList();
+    }
+
+    private static String inListStatement(String statement, Collection<?> values, Object... leadingParameters) {
+        int firstValuePosition = leadingParameters.length + 1;
+        String placeholders = IntStream.range(firstValuePosition, firstValuePosition + values.size())
+                .mapToObj(position -> "?" + position)
+                .collect(Collectors.joining(", "));
+        return String.format(statement, placeholders);
+    }
+
+    private static Query bindInList(Query query, Collection<?> values, Object... leadingParameters) {
+        for (int i = 0; i < leadingParameters.length; i++) {
+            query.setParameter(i + 1, leadingParameters[i]);
+        }
+        int position = leadingParameters.length + 1;
+        for (Object value : values) {
+            query.setParameter(position++, value);
+        }
+        return query;
+    }
 }
@@ -0,0 +1,39 @@
+package uk.gov.pay.connector.common.dao;
+
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Transactional
+public class ReferenceDataVersionDao {
+
+    private final Provider<EntityManager> entityManager;
+
+    @Inject
+    public ReferenceDataVersionDao(Provider<EntityManager> entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Map<String, Long> findVersions() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.get()
+                .createNativeQuery("SELECT name, version FROM reference_data_versions")
+                .getResultList();
+
+        return rows.stream().collect(Collectors.toMap(
+                row -> (String) row[0],
+                row -> ((Number) row[1]).longValue()));
+    }
+
+    public void incrementVersion(String name) {
+        entityManager.get()
+                .createNativeQuery("UPDATE reference_data_versions SET version = version + 1, updated_date = now() WHERE name = ?1")
+                .setParameter(1, name)
+                .executeUpdate();
+    }
+}
@@ -109,8 +109,15 @@ public class PaymentGatewayStateTransitions {
 
     private ImmutableValueGraph<ChargeStatus, ModelledEvent> graph;
 
+    // Lookup tables derived from the graph, indexed by [fromStatus.ordinal()][toStatus.ordinal()], so that the checks
+    // made on every status change are an array access. A null ModelledEvent means there is no such transition.
+    private final ModelledEvent[][] transitionTable;
+    private final Optional<Class<? extends Event>>[][] eventClassTable;
+
     private PaymentGatewayStateTransitions() {
         graph = buildGraph();
+        transitionTable = buildTransitionTable(graph);
+        eventClassTable = buildEventClassTable(transitionTable);
     }
 
     private static ImmutableValueGraph<ChargeStatus, ModelledEvent> buildGraph() {
@@ -235,6 +242,30 @@ public class PaymentGatewayStateTransitions {
         return ImmutableValueGraph.copyOf(graph);
     }
 
+    private static ModelledEvent[][] buildTransitionTable(ImmutableValueGraph<ChargeStatus, ModelledEvent> graph) {
+        ChargeStatus[] statuses = ChargeStatus.values();
+        ModelledEvent[][] table = new ModelledEvent[statuses.length][statuses.length];
+        for (ChargeStatus fromStatus : statuses) {
+            for (ChargeStatus toStatus : statuses) {
+                table[fromStatus.ordinal()][toStatus.ordinal()] = graph.edgeValueOrDefault(fromStatus, toStatus, null);
+            }
+        }
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Class<? extends Event>>[][] buildEventClassTable(ModelledEvent[][] transitionTable) {
+        Optional<Class<? extends Event>>[][] table = new Optional[transitionTable.length][transitionTable.length];
+        for (int from = 0; from < transitionTable.length; from++) {
+            for (int to = 0; to < transitionTable.length; to++) {
+                table[from][to] = transitionTable[from][to] instanceof ModelledTypedEvent<?> modelledTypedEvent
+                        ? Optional.of(modelledTypedEvent.getClazz())
+                        : Optional.empty();
+            }
+        }
+        return table;
+    }
+
     public Set<ChargeStatus> allStatuses() {
         return graph.nodes();
     }
@@ -250,7 +281,16 @@ public class PaymentGatewayStateTransitions {
                 .collect(Collectors.toSet());
     }
 
+    @SuppressWarnings("unchecked")
     public <T extends Event> Optional<Class<T>> getEventForTransition(ChargeStatus fromStatus, ChargeStatus toStatus) {
+        return (Optional<Class<T>>) (Optional<?>) eventClassTable[fromStatus.ordinal()][toStatus.ordinal()];
+    }
+
+    /**
+     * Looks the event up by walking the graph rather than the lookup table. Kept so that tests and benchmarks can
+     * check the table against the graph.
+     */
+    <T extends Event> Optional<Class<T>> getEventForTransitionFromGraph(ChargeStatus fromStatus, ChargeStatus toStatus) {
         return graph.edgeValue(fromStatus, toStatus)
                 .map(modelledEvent -> {
                     try {
@@ -306,6 +346,15 @@ public class PaymentGatewayStateTransitions {
     }
 
     private boolean isValidTransitionImpl(ChargeStatus state, ChargeStatus targetState, Event event) {
+        ModelledEvent modelledEvent = transitionTable[state.ordinal()][targetState.ordinal()];
+        return modelledEvent != null && ((event instanceof UnspecifiedEvent) || modelledEvent.permits(event));
+    }
+
+    /**
+     * Checks the transition by walking the graph rather than the lookup table. Kept so that tests and benchmarks can
+     * check the table against the graph.
+     */
+    boolean isValidTransitionInGraph(ChargeStatus state, ChargeStatus targetState, Event event) {
         return graph.edgeValue(state, targetState)
                 .map(modelledEvent ->
                         (event instanceof UnspecifiedEvent) || modelledEvent.permits(event)
@@ -0,0 +1,207 @@
+package uk.gov.pay.connector.common.service;
+
+import com.google.inject.Provider;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.sessions.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
+import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
+import uk.gov.pay.connector.common.dao.ReferenceDataVersionDao;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.gatewayaccount.model.Worldpay3dsFlexCredentialsEntity;
+import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+import uk.gov.pay.connector.usernotification.model.domain.EmailNotificationEntity;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps card types, gateway accounts and their credentials in the EclipseLink shared cache when
+ * {@link ReferenceDataCacheConfig#isEnabled()} is set, so request paths stop reloading them from the database.
+ * <br>
+ * JPA writes to a region, or to the entities loaded with it, are noticed by a {@link ReferenceDataWriteListener}. Once
+ * the writing transaction commits, the region is evicted on the pod that wrote it and its version in the
+ * reference_data_versions table is bumped. Every pod polls the versions, evicting any region whose version has moved.
+ * Everything is also evicted once it reaches the configured maximum age, which bounds staleness for writes made
+ * outside JPA.
+ */
+@Singleton
+public class ReferenceDataCache {
+
+    public enum Region {
+        GATEWAY_ACCOUNTS("gateway_accounts",
+                List.of(GatewayAccountEntity.class, GatewayAccountCredentialsEntity.class),
+                List.of(Worldpay3dsFlexCredentialsEntity.class, EmailNotificationEntity.class)),
+        CARD_TYPES("card_types", List.of(CardTypeEntity.class), List.of());
+
+        private final String versionName;
+        private final List<Class<?>> entityClasses;
+        private final List<Class<?>> writtenClasses;
+
+        Region(String versionName, List<Class<?>> entityClasses, List<Class<?>> relatedClasses) {
+            this.versionName = versionName;
+            this.entityClasses = entityClasses;
+            this.writtenClasses = Stream.concat(entityClasses.stream(), relatedClasses.stream()).toList();
+        }
+
+        public List<Class<?>> getEntityClasses() {
+            return entityClasses;
+        }
+
+        /**
+         * The cached entities and the entities loaded with them, a write to any of which invalidates the region.
+         */
+        public List<Class<?>> getWrittenClasses() {
+            return writtenClasses;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private static final Counter LOOKUPS = Counter.build()
+            .name("reference_data_cache_lookups_total")
+            .help("Count of reference data lookups by id, by whether the entity was in the shared cache")
+            .labelNames("entity", "result")
+            .register();
+
+    private static final Gauge HIT_RATIO = Gauge.build()
+            .name("reference_data_cache_hit_ratio")
+            .help("Proportion of reference data lookups by id served from the shared cache")
+            .labelNames("entity")
+            .register();
+
+    private final ReferenceDataVersionDao referenceDataVersionDao;
+    private final Provider<EntityManagerFactory> entityManagerFactory;
+    private final InstantSource instantSource;
+    private final boolean enabled;
+    private final Duration maximumAge;
+    private final Map<Region, Long> seenVersions = new EnumMap<>(Region.class);
+    private final List<Runnable> gatewayAccountsInvalidationListeners = new CopyOnWriteArrayList<>();
+    private Instant lastFullEviction;
+
+    @Inject
+    public ReferenceDataCache(ReferenceDataVersionDao referenceDataVersionDao,
+                              Provider<EntityManagerFactory> entityManagerFactory,
+                              ConnectorConfiguration connectorConfiguration,
+                              InstantSource instantSource) {
+        this.referenceDataVersionDao = referenceDataVersionDao;
+        this.entityManagerFactory = entityManagerFactory;
+        this.instantSource = instantSource;
+
+        ReferenceDataCacheConfig config = connectorConfiguration.getReferenceDataCacheConfig();
+        this.enabled = config.isEnabled();
+        this.maximumAge = Duration.ofSeconds(config.getMaximumAgeInSeconds());
+        this.lastFullEviction = instantSource.instant();
+    }
+
+    public static List<Class<?>> cachedEntityClasses() {
+        return Arrays.stream(Region.values()).flatMap(region -> region.getEntityClasses().stream()).toList();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordLookup(Class<?> entityClass, Object id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        String entity = entityClass.getSimpleName();
+        boolean hit = entityManagerFactory.get().getCache().contains(entityClass, id);
+        LOOKUPS.labels(entity, hit ? "hit" : "miss").inc();
+
+        double hits = LOOKUPS.labels(entity, "hit").get();
+        double misses = LOOKUPS.labels(entity, "miss").get();
+        HIT_RATIO.labels(entity).set(hits / (hits + misses));
+    }
+
+    /**
+     * Registers a listener to run whenever cached gateway accounts or credentials are invalidated, whether by a committed
+     * write on this pod or by a version bump from another, for caches kept outside EclipseLink that are derived from them.
+     */
+    public void onGatewayAccountsInvalidated(Runnable listener) {
+        gatewayAccountsInvalidationListeners.add(listener);
+    }
+
+    public <T> TypedQuery<T> cacheResults(TypedQuery<T> query) {
+        if (enabled) {
+            query.setHint(QueryHints.QUERY_RESULTS_CACHE, HintValues.TRUE);
+            query.setHint(QueryHints.QUERY_RESULTS_CACHE_EXPIRY, String.valueOf(maximumAge.toMillis()));
+        }
+        return query;
+    }
+
+    /**
+     * Starts noticing JPA writes to reference data. After a transaction that wrote to a region commits, the region is
+     * evicted here and handed to {@code versionUpdater}, which should bump its version for other pods. The committing
+     * thread is still inside EclipseLink's commit, so the version has to be bumped in a unit of work of its own.
+     */
+    public void listenForWrites(Consumer<Set<Region>> versionUpdater) {
+        if (!enabled) {
+            return;
+        }
+        Session session = entityManagerFactory.get().unwrap(JpaEntityManagerFactory.class).getServerSession();
+        new ReferenceDataWriteListener(regions -> {
+            committed(regions);
+            versionUpdater.accept(regions);
+        }).register(session);
+    }
+
+    public void incrementVersions(Set<Region> regions) {
+        regions.forEach(region -> referenceDataVersionDao.incrementVersion(region.versionName));
+    }
+
+    void committed(Set<Region> regions) {
+        regions.forEach(this::evict);
+        LOGGER.debug("Evicted {} from reference data cache after a write", regions);
+    }
+
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Long> versions = referenceDataVersionDao.findVersions();
+        Instant now = instantSource.instant();
+        boolean maximumAgeReached = !now.isBefore(lastFullEviction.plus(maximumAge));
+
+        for (Region region : Region.values()) {
+            Long version = versions.get(region.versionName);
+            Long seenVersion = seenVersions.put(region, version);
+            if (maximumAgeReached || !Objects.equals(seenVersion, version)) {
+                evict(region);
+                LOGGER.debug("Evicted {} from reference data cache [version={}] [previousVersion={}]", region, version, seenVersion);
+            }
+        }
+
+        if (maximumAgeReached) {
+            lastFullEviction = now;
+        }
+    }
+
+    private void evict(Region region) {
+        region.getEntityClasses().forEach(entityClass -> entityManagerFactory.get().getCache().evict(entityClass));
+        if (region == Region.GATEWAY_ACCOUNTS) {
+            gatewayAccountsInvalidationListeners.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package uk.gov.pay.connector.common.service;
+
+import com.google.inject.persist.UnitOfWork;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
+import uk.gov.pay.connector.common.service.ReferenceDataCache.Region;
+
+import jakarta.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReferenceDataCacheRefresher implements Managed {
+
+    private static final String REFRESHER_THREAD_NAME = "reference-data-cache-refresher";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataCacheRefresher.class);
+
+    private final ReferenceDataCache referenceDataCache;
+    private final UnitOfWork unitOfWork;
+    private final ReferenceDataCacheConfig referenceDataCacheConfig;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @Inject
+    public ReferenceDataCacheRefresher(ReferenceDataCache referenceDataCache, UnitOfWork unitOfWork,
+                                       Environment environment, ConnectorConfiguration connectorConfiguration) {
+        this.referenceDataCache = referenceDataCache;
+        this.unitOfWork = unitOfWork;
+        this.referenceDataCacheConfig = connectorConfiguration.getReferenceDataCacheConfig();
+        this.scheduledExecutorService = environment
+                .lifecycle()
+                .scheduledExecutorService(REFRESHER_THREAD_NAME)
+                .threads(1)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (referenceDataCacheConfig.isEnabled()) {
+            referenceDataCache.listenForWrites(regions -> scheduledExecutorService.execute(() -> incrementVersions(regions)));
+            int interval = referenceDataCacheConfig.getVersionPollIntervalInSeconds();
+            scheduledExecutorService.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        scheduledExecutorService.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            unitOfWork.begin();
+            referenceDataCache.refresh();
+        } catch (Exception e) {
+            LOGGER.error("Failed to refresh reference data cache [message={}]", e.getMessage());
+        } finally {
+            unitOfWork.end();
+        }
+    }
+
+    private void incrementVersions(Set<Region> regions) {
+        try {
+            unitOfWork.begin();
+            referenceDataCache.incrementVersions(regions);
+        } catch (Exception e) {
+            LOGGER.error("Failed to bump reference data versions for {} [message={}]", regions, e.getMessage());
+        } finally {
+            unitOfWork.end();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package uk.gov.pay.connector.common.service;
+
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import uk.gov.pay.connector.common.service.ReferenceDataCache.Region;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Notices the inserts, updates and deletes EclipseLink makes to the entities behind each {@link Region} and, once
+ * the transaction that made them has committed, hands the regions written to a callback. Nothing is handed over if
+ * the transaction rolls back.
+ * <br>
+ * EclipseLink raises both kinds of event on the thread doing the work, so the regions written are kept per thread.
+ * Native queries and bulk JPQL updates do not raise descriptor events and are not noticed.
+ */
+class ReferenceDataWriteListener extends DescriptorEventAdapter {
+
+    private final Map<Class<?>, Region> regionsByWrittenClass = new HashMap<>();
+    private final ThreadLocal<Set<Region>> writtenRegions = ThreadLocal.withInitial(() -> EnumSet.noneOf(Region.class));
+    private final Consumer<Set<Region>> afterCommit;
+
+    ReferenceDataWriteListener(Consumer<Set<Region>> afterCommit) {
+        this.afterCommit = afterCommit;
+        for (Region region : Region.values()) {
+            region.getWrittenClasses().forEach(writtenClass -> regionsByWrittenClass.put(writtenClass, region));
+        }
+    }
+
+    /**
+     * Sessions copy the listeners of the session they are acquired from, so register before serving any work.
+     */
+    void register(Session session) {
+        regionsByWrittenClass.keySet().forEach(writtenClass ->
+                session.getDescriptor(writtenClass).getEventManager().addListener(this));
+        session.getEventManager().addListener(new SessionEventAdapter() {
+            @Override
+            public void postCommitTransaction(SessionEvent event) {
+                Set<Region> regions = writtenRegions.get();
+                if (!regions.isEmpty()) {
+                    writtenRegions.remove();
+                    afterCommit.accept(regions);
+                }
+            }
+
+            @Override
+            public void postRollbackTransaction(SessionEvent event) {
+                writtenRegions.remove();
+            }
+        });
+    }
+
+    @Override
+    public void postInsert(DescriptorEvent event) {
+        written(event);
+    }
+
+    @Override
+    public void postUpdate(DescriptorEvent event) {
+        written(event);
+    }
+
+    @Override
+    public void postDelete(DescriptorEvent event) {
+        written(event);
+    }
+
+    private void written(DescriptorEvent event) {
+        Region region = regionsByWrittenClass.get(event.getDescriptor().getJavaClass());
+        if (region != null) {
+            writtenRegions.get().add(region);
+        }
+    }
+}
@@ -15,6 +15,7 @@ class EmittedEventBatchIterator implements Iterator<EmittedEventBatchIterator.Ev
     private Long currentBatchStartId;
     private final int batchSize;
     private final ZonedDateTime batchStartTime;
+    private final int outboxMaxAttempts;
     private EventBatch currentBatch;
     private Optional<Long> maybeMaximumIdOfEventsEligibleForReEmission;
     private Instant cutoffDate;
@@ -23,11 +24,13 @@ class EmittedEventBatchIterator implements Iterator<EmittedEventBatchIterator.Ev
                               EmittedEventSweepConfig sweepConfig,
                               Long startId,
                               int batchSize,
-                              ZonedDateTime batchStartTime) {
+                              ZonedDateTime batchStartTime,
+                              int outboxMaxAttempts) {
         this.emittedEventDao = emittedEventDao;
         this.sweepConfig = sweepConfig;
         this.batchSize = batchSize;
         this.batchStartTime = batchStartTime;
+        this.outboxMaxAttempts = outboxMaxAttempts;
         currentBatch = getFirstBatch(startId);
     }
     
@@ -57,14 +60,14 @@ class EmittedEventBatchIterator implements Iterator<EmittedEventBatchIterator.Ev
 
     private EventBatch getFirstBatch(Long startFromId) {
         cutoffDate = getCutoffDateForProcessingNotEmittedEvents(batchStartTime);
-        maybeMaximumIdOfEventsEligibleForReEmission = emittedEventDao.findNotEmittedEventMaxIdOlderThan(cutoffDate, batchStartTime);
+        maybeMaximumIdOfEventsEligibleForReEmission = emittedEventDao.findNotEmittedEventMaxIdOlderThan(cutoffDate, batchStartTime, outboxMaxAttempts);
         return getNextBatch(startFromId);
     }
 
     private EventBatch getNextBatch(Long startFromId) {
         final List<EmittedEventEntity> emittedEventEntities = maybeMaximumIdOfEventsEligibleForReEmission
                 .map(maxId ->
-                        emittedEventDao.findNotEmittedEventsOlderThan(cutoffDate, batchSize, startFromId, maxId, batchStartTime))
+                        emittedEventDao.findNotEmittedEventsOlderThan(cutoffDate, batchSize, startFromId, maxId, batchStartTime, outboxMaxAttempts))
                 .orElse(List.of());
         this.currentBatchStartId = startFromId;
         return new EventBatch(emittedEventEntities, startFromId);
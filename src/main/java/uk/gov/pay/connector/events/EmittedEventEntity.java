@@ -17,7 +17,7 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "emitted_events")
 @SequenceGenerator(name = "emitted_events_id_seq",
-        sequenceName = "emitted_events_id_seq", allocationSize = 1)
+        sequenceName = "emitted_events_id_seq", allocationSize = 50)
 public class EmittedEventEntity {
 
     @Id
@@ -45,6 +45,29 @@ public class EmittedEventEntity {
     @Column(name = "do_not_retry_emit_until")
     private ZonedDateTime doNotRetryEmitUntil;
 
+    @Column(name = "state_transition_event_class")
+    private String stateTransitionEventClass;
+
+    @Column(name = "charge_event_id")
+    private Long chargeEventId;
+
+    @Column(name = "refund_status")
+    private String refundStatus;
+
+    @Column(name = "outbox_attempts")
+    private int outboxAttempts;
+
+    @Convert(converter = UTCDateTimeConverter.class)
+    @Column(name = "outbox_retry_after")
+    private ZonedDateTime outboxRetryAfter;
+
+    @Convert(converter = UTCDateTimeConverter.class)
+    @Column(name = "outbox_claimed_until")
+    private ZonedDateTime outboxClaimedUntil;
+
+    @Column(name = "event_payload")
+    private String eventPayload;
+
     protected EmittedEventEntity() {
     }
 
@@ -87,6 +110,34 @@ public class EmittedEventEntity {
         return doNotRetryEmitUntil;
     }
 
+    public String getStateTransitionEventClass() {
+        return stateTransitionEventClass;
+    }
+
+    public Long getChargeEventId() {
+        return chargeEventId;
+    }
+
+    public String getRefundStatus() {
+        return refundStatus;
+    }
+
+    public int getOutboxAttempts() {
+        return outboxAttempts;
+    }
+
+    public ZonedDateTime getOutboxRetryAfter() {
+        return outboxRetryAfter;
+    }
+
+    public ZonedDateTime getOutboxClaimedUntil() {
+        return outboxClaimedUntil;
+    }
+
+    public String getEventPayload() {
+        return eventPayload;
+    }
+
     public void setEmittedDate(Instant emittedDate) {
         this.emittedDate = emittedDate;
     }
@@ -99,6 +150,24 @@ public class EmittedEventEntity {
         this.doNotRetryEmitUntil = doNotRetryEmitUntil;
     }
 
+    public void setEventDate(Instant eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public void setPaymentStateTransition(String stateTransitionEventClass, Long chargeEventId) {
+        this.stateTransitionEventClass = stateTransitionEventClass;
+        this.chargeEventId = chargeEventId;
+    }
+
+    public void setRefundStateTransition(String stateTransitionEventClass, String refundStatus) {
+        this.stateTransitionEventClass = stateTransitionEventClass;
+        this.refundStatus = refundStatus;
+    }
+
+    public void setEventPayload(String eventPayload) {
+        this.eventPayload = eventPayload;
+    }
+
     @Override
     public String toString() {
         return "EmittedEventEntity{" +
@@ -109,6 +178,8 @@ public class EmittedEventEntity {
                 ", eventDate=" + eventDate +
                 ", emittedDate=" + emittedDate +
                 ", doNotRetryEmitUntil=" + doNotRetryEmitUntil +
+                ", stateTransitionEventClass='" + stateTransitionEventClass + '\'' +
+                ", outboxAttempts=" + outboxAttempts +
                 '}';
     }
 }
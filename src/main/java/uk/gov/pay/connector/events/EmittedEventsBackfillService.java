@@ -5,9 +5,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.app.config.EmittedEventSweepConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.client.ledger.service.LedgerService;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.events.model.ResourceType;
 import uk.gov.pay.connector.refund.dao.RefundDao;
@@ -17,6 +19,7 @@ import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
 import jakarta.inject.Inject;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.now;
@@ -29,13 +32,16 @@ public class EmittedEventsBackfillService {
     private final EmittedEventDao emittedEventDao;
     private final ChargeService chargeService;
     private final HistoricalEventEmitter historicalEventEmitter;
+    private final LedgerService ledgerService;
     private RefundDao refundDao;
     private final EmittedEventSweepConfig sweepConfig;
     private long doNotRetryEmittingEventUntilDurationInSeconds;
+    private final int outboxMaxAttempts;
 
     @Inject
     public EmittedEventsBackfillService(EmittedEventDao emittedEventDao, ChargeService chargeService, RefundDao refundDao,
-                                        HistoricalEventEmitter historicalEventEmitter, ConnectorConfiguration configuration) {
+                                        HistoricalEventEmitter historicalEventEmitter, LedgerService ledgerService,
+                                        ConnectorConfiguration configuration) {
         this.emittedEventDao = emittedEventDao;
         this.chargeService = chargeService;
         this.refundDao = refundDao;
@@ -43,10 +49,16 @@ public class EmittedEventsBackfillService {
         this.doNotRetryEmittingEventUntilDurationInSeconds = configuration.getEventEmitterConfig()
                 .getDefaultDoNotRetryEmittingEventUntilDurationInSeconds();
         this.historicalEventEmitter = historicalEventEmitter;
+        this.ledgerService = ledgerService;
+        EventQueueConfig eventQueueConfig = configuration.getEventQueueConfig();
+        // state transitions the outbox is still retrying are left to it
+        this.outboxMaxAttempts = eventQueueConfig.isStateTransitionOutboxEnabled()
+                ? eventQueueConfig.getStateTransitionOutboxMaxAttempts() : 0;
     }
 
     public void backfillNotEmittedEvents() {
-        EmittedEventBatchIterator emittedEventBatchIterator = new EmittedEventBatchIterator(emittedEventDao, sweepConfig, 0L, PAGE_SIZE, now());
+        EmittedEventBatchIterator emittedEventBatchIterator = new EmittedEventBatchIterator(emittedEventDao, sweepConfig, 0L, PAGE_SIZE, now(),
+                outboxMaxAttempts);
 
         emittedEventBatchIterator.forEachRemaining(batch -> {
             logger.info(
@@ -66,6 +78,17 @@ public class EmittedEventsBackfillService {
 
     @Transactional
     public void backfillEvent(EmittedEventEntity event) {
+        if (event.getEventPayload() != null) {
+            replayEvent(event);
+            return;
+        }
+        if (!isPaymentEvent(event) && !isRefundEvent(event)) {
+            // Only payment and refund events can be rebuilt here, anything else must have been kept with its payload
+            logger.error("Cannot backfill {} event {} as it has no payload to replay [externalId={}] [event_type={}]",
+                    event.getResourceType(), event.getId(), event.getResourceExternalId(), event.getEventType());
+            event.setDoNotRetryEmitUntil(ZonedDateTime.now(UTC).plusSeconds(doNotRetryEmittingEventUntilDurationInSeconds));
+            return;
+        }
         try {
             String chargeId = chargeIdForEvent(event);
 
@@ -92,6 +115,24 @@ public class EmittedEventsBackfillService {
         }
     }
 
+    private void replayEvent(EmittedEventEntity event) {
+        try {
+            ledgerService.postSerialisedEvents(List.of(event.getEventPayload())).close();
+            event.setEmittedDate(Instant.now());
+        } catch (RuntimeException e) {
+            logger.error(
+                    "Failed to replay {} event {} to ledger due to {} [externalId={}] [event_type={}] [event_date={}]",
+                    event.getResourceType(),
+                    event.getId(),
+                    e.getMessage(),
+                    event.getResourceExternalId(),
+                    event.getEventType(),
+                    event.getEventDate()
+            );
+            event.setDoNotRetryEmitUntil(ZonedDateTime.now(UTC).plusSeconds(doNotRetryEmittingEventUntilDurationInSeconds));
+        }
+    }
+
     private String chargeIdForEvent(EmittedEventEntity event) {
         if (isPaymentEvent(event)) {
             return event.getResourceExternalId();
@@ -107,4 +148,8 @@ public class EmittedEventsBackfillService {
         return ResourceType.valueOf(event.getResourceType().toUpperCase()).equals(ResourceType.PAYMENT);
     }
 
+    private boolean isRefundEvent(EmittedEventEntity event) {
+        return ResourceType.valueOf(event.getResourceType().toUpperCase()).equals(ResourceType.REFUND);
+    }
+
 }
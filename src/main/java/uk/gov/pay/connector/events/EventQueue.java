@@ -1,25 +1,41 @@
 package uk.gov.pay.connector.events;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
 import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EventQueue {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventQueue.class);
+
+    static final int MAX_SQS_BATCH_SIZE = 10;
+
     private final SqsQueueService sqsQueueService;
+    private final SqsClient sqsClient;
     private final String eventQueueUrl;
     private final Boolean eventQueueEnabled;
 
     @Inject
     public EventQueue (
             SqsQueueService sqsQueueService,
+            SqsClient sqsClient,
             ConnectorConfiguration connectorConfiguration
     ) {
         this.sqsQueueService = sqsQueueService;
+        this.sqsClient = sqsClient;
         this.eventQueueUrl = connectorConfiguration.getSqsConfig().getEventQueueUrl();
         this.eventQueueEnabled = connectorConfiguration.getEventQueueConfig().getEventQueueEnabled();
     }
@@ -33,4 +49,61 @@ public class EventQueue {
             }
         }
     }
+
+    /**
+     * Sends the events using SQS batch requests of up to {@value #MAX_SQS_BATCH_SIZE} messages each.
+     *
+     * @return the events which could not be serialised or were not accepted by SQS, so that the caller can
+     * retry only those
+     */
+    public List<Event> emitEvents(List<Event> events) {
+        if (!eventQueueEnabled) {
+            return List.of();
+        }
+
+        List<Event> failedEvents = new ArrayList<>();
+        for (int batchStart = 0; batchStart < events.size(); batchStart += MAX_SQS_BATCH_SIZE) {
+            failedEvents.addAll(sendBatch(events.subList(batchStart, Math.min(batchStart + MAX_SQS_BATCH_SIZE, events.size()))));
+        }
+        return failedEvents;
+    }
+
+    private List<Event> sendBatch(List<Event> batch) {
+        List<Event> failedEvents = new ArrayList<>();
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Event event = batch.get(i);
+            try {
+                entries.add(SendMessageBatchRequestEntry.builder()
+                        .id(String.valueOf(i))
+                        .messageBody(event.toJsonString())
+                        .build());
+            } catch (JsonProcessingException e) {
+                logger.error("Error serialising event {} to json: {} [externalId={}]",
+                        event.getEventType(), e.getMessage(), event.getResourceExternalId());
+                failedEvents.add(event);
+            }
+        }
+
+        if (entries.isEmpty()) {
+            return failedEvents;
+        }
+
+        try {
+            SendMessageBatchResponse response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(eventQueueUrl)
+                    .entries(entries)
+                    .build());
+            response.failed().forEach(failure -> {
+                Event event = batch.get(Integer.parseInt(failure.id()));
+                logger.error("Failed to emit event {} due to {} [externalId={}]",
+                        event.getEventType(), failure.message(), event.getResourceExternalId());
+                failedEvents.add(event);
+            });
+        } catch (SdkException e) {
+            logger.error("Failed to emit batch of {} events due to {}", entries.size(), e.getMessage());
+            entries.forEach(entry -> failedEvents.add(batch.get(Integer.parseInt(entry.id()))));
+        }
+        return failedEvents;
+    }
 }
@@ -5,11 +5,16 @@ import org.slf4j.LoggerFactory;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.ResourceType;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import jakarta.inject.Inject;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 public class EventService {
     private static final Logger logger = LoggerFactory.getLogger(EventService.class);
@@ -77,17 +82,41 @@ public class EventService {
         this.emitAndRecordEvent(event, null);
     }
 
+    /**
+     * Sends the events in SQS batches and records each of them as {@link #emitAndRecordEvent(Event, ZonedDateTime)}
+     * does: those SQS did not accept are recorded without an emitted date so the emitted events sweep retries them.
+     */
+    public void emitAndRecordEvents(List<Event> events, ZonedDateTime doNotRetryEmitUntilDate) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Set<Event> failedEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+        failedEvents.addAll(eventQueue.emitEvents(events));
+
+        for (Event event : events) {
+            if (failedEvents.contains(event)) {
+                emittedEventDao.recordEmission(event.getResourceType(), event.getResourceExternalId(),
+                        event.getEventType(), event.getTimestamp(), doNotRetryEmitUntilDate);
+            } else {
+                emittedEventDao.recordEmission(event, doNotRetryEmitUntilDate);
+            }
+        }
+    }
+
     public void emitAndMarkEventAsEmitted(Event event) throws QueueException {
         eventQueue.emitEvent(event);
         emittedEventDao.markEventAsEmitted(event);
     }
 
-    public void recordOfferedEvent(ResourceType resourceType, String externalId, String eventType, Instant eventDate) {
-        this.recordOfferedEvent(resourceType, externalId, eventType, eventDate, null);
+    public void recordOfferedStateTransition(StateTransition stateTransition, ResourceType resourceType, String externalId,
+                                             String eventType, Instant eventDate) {
+        this.recordOfferedStateTransition(stateTransition, resourceType, externalId, eventType, eventDate, null);
     }
 
-    public void recordOfferedEvent(ResourceType resourceType, String externalId, String eventType,
-                                   Instant eventDate, ZonedDateTime doNotRetryEmitUntilDate) {
-        emittedEventDao.recordEmission(resourceType, externalId, eventType, eventDate, doNotRetryEmitUntilDate);
+    public void recordOfferedStateTransition(StateTransition stateTransition, ResourceType resourceType, String externalId,
+                                             String eventType, Instant eventDate, ZonedDateTime doNotRetryEmitUntilDate) {
+        emittedEventDao.recordOfferedStateTransition(stateTransition, resourceType, externalId, eventType, eventDate,
+                doNotRetryEmitUntilDate);
     }
 }
@@ -15,17 +15,31 @@ import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.model.EmittedEventKey;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
+import uk.gov.pay.connector.tasks.HistoricalEventBatch;
 import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
+import uk.gov.pay.connector.tasks.dao.ShardCheckpointDao;
+import uk.gov.pay.connector.tasks.service.IdRangeShard;
+import uk.gov.pay.connector.tasks.service.IdRangeShardRunner;
 
 import java.time.ZonedDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static uk.gov.pay.connector.events.model.ResourceType.PAYMENT;
+import static uk.gov.pay.connector.events.model.ResourceType.REFUND;
+import static uk.gov.pay.connector.tasks.ShardedTask.HISTORICAL_EVENT_EMITTER;
 import static uk.gov.service.payments.logging.LoggingKeys.MDC_REQUEST_ID_KEY;
 import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 
@@ -40,6 +54,8 @@ public class HistoricalEventEmitterService {
     private final StateTransitionService stateTransitionService;
     private final EventService eventService;
     private final RefundDao refundDao;
+    private final ShardCheckpointDao checkpointDao;
+    private final IdRangeShardRunner shardRunner;
     private HistoricalEventEmitter historicalEventEmitter;
     private final EventEmitterConfig eventEmitterConfig;
     private long maxId;
@@ -48,6 +64,7 @@ public class HistoricalEventEmitterService {
     HistoricalEventEmitterService(ChargeDao chargeDao, RefundDao refundDao, ChargeEventDao chargeEventDao,
                                   EmittedEventDao emittedEventDao, StateTransitionService stateTransitionService,
                                   EventService eventService, ChargeService chargeService,
+                                  ShardCheckpointDao checkpointDao, IdRangeShardRunner shardRunner,
                                   ConnectorConfiguration connectorConfiguration) {
         this.chargeDao = chargeDao;
         this.refundDao = refundDao;
@@ -56,6 +73,8 @@ public class HistoricalEventEmitterService {
         this.stateTransitionService = stateTransitionService;
         this.eventService = eventService;
         this.chargeService = chargeService;
+        this.checkpointDao = checkpointDao;
+        this.shardRunner = shardRunner;
         this.eventEmitterConfig = connectorConfiguration.getEventEmitterConfig();
     }
 
@@ -82,6 +101,91 @@ public class HistoricalEventEmitterService {
         logger.info("Terminating");
     }
 
+    /**
+     * Splits {@code [startId, maxId]} into shards worked through by
+     * {@link EventEmitterConfig#getHistoricalEventEmitterParallelism()} threads. Each shard is read in keyset pages of
+     * charges with their charge events and fees; the refund history and emitted events for a page are each read with
+     * one query, and the events for the page are sent in SQS batches and recorded in a single transaction. The last
+     * processed id is checkpointed in that same transaction so that an interrupted run carries on from the first page
+     * it did not finish.
+     */
+    public void emitHistoricEventsInBulk(long startId, OptionalLong maybeMaxId, Long doNotRetryEmitUntilDuration,
+                                         boolean resumeFromCheckpoint) {
+        long bulkMaxId = maybeMaxId.orElseGet(chargeDao::findMaxId);
+        List<IdRangeShard> shards = IdRangeShard.split(startId, bulkMaxId, eventEmitterConfig.getHistoricalEventEmitterShardSize());
+        int parallelism = IdRangeShardRunner.parallelism(eventEmitterConfig.getHistoricalEventEmitterParallelism(), shards);
+        LongAdder chargesProcessed = new LongAdder();
+        LongAdder eventsEmitted = new LongAdder();
+
+        MDC.put(MDC_REQUEST_ID_KEY, "HistoricalEventEmitterWorker-" + RandomUtils.secure().randomLong(0, 10000));
+        logger.info("Starting from {} up to {} in {} shards with parallelism {}", startId, bulkMaxId, shards.size(), parallelism);
+        int failedShards = shardRunner.run(HISTORICAL_EVENT_EMITTER, shards, parallelism, resumeFromCheckpoint,
+                (shard, lastProcessedId) -> emitEventsForNextPage(shard, lastProcessedId, doNotRetryEmitUntilDuration,
+                        chargesProcessed, eventsEmitted));
+
+        logger.info("Finished emitting historical events from {} up to {} [charges={}] [events={}] [failed shards={}]",
+                startId, bulkMaxId, chargesProcessed.sum(), eventsEmitted.sum(), failedShards);
+        MDC.remove(MDC_REQUEST_ID_KEY);
+    }
+
+    /**
+     * Sends the events for the page of charges after {@code lastProcessedId} in {@code shard}, records them as emitted
+     * and saves the page's checkpoint, so a page is either wholly recorded and checkpointed or not at all. Public so
+     * that the transactional annotation applies when called from {@link #emitHistoricEventsInBulk}.
+     *
+     * @return the last id processed, which is the end of the shard once there are no more charges in it
+     */
+    @Transactional
+    public long emitEventsForNextPage(IdRangeShard shard, long lastProcessedId, Long doNotRetryEmitUntilDuration,
+                                      LongAdder chargesProcessed, LongAdder eventsEmitted) {
+        List<ChargeEntity> charges = chargeDao.findByIdRangeWithEventsAndFees(lastProcessedId, shard.endId(),
+                eventEmitterConfig.getHistoricalEventEmitterPageSize());
+        if (charges.isEmpty()) {
+            checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, shard, shard.endId());
+            return shard.endId();
+        }
+
+        long lastIdInPage = charges.getLast().getId();
+        int pageEvents = emitEventsForPage(charges, doNotRetryEmitUntilDuration);
+        checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, shard, lastIdInPage);
+        chargesProcessed.add(charges.size());
+        eventsEmitted.add(pageEvents);
+
+        logger.info("Processed charges up to {} of shard [start={}] [end={}] [charges={}] [events={}]",
+                lastIdInPage, shard.startId(), shard.endId(), charges.size(), pageEvents);
+        return lastIdInPage;
+    }
+
+    private int emitEventsForPage(List<ChargeEntity> charges, Long doNotRetryEmitUntilDuration) {
+        List<String> chargeExternalIds = charges.stream().map(ChargeEntity::getExternalId).collect(toList());
+        List<RefundHistory> refundHistories = refundDao.searchAllHistoryByChargeExternalIds(chargeExternalIds);
+        Map<String, List<RefundHistory>> refundHistoriesByCharge = refundHistories.stream()
+                .collect(groupingBy(RefundEntity::getChargeExternalId));
+
+        Set<EmittedEventKey> emittedEvents = new HashSet<>(emittedEventDao.findEmittedEventKeys(PAYMENT, chargeExternalIds));
+        emittedEvents.addAll(emittedEventDao.findEmittedEventKeys(REFUND,
+                refundHistories.stream().map(RefundEntity::getExternalId).distinct().collect(toList())));
+
+        HistoricalEventBatch eventBatch = new HistoricalEventBatch(eventService, stateTransitionService, emittedEvents);
+        HistoricalEventEmitter pageEventEmitter = new HistoricalEventEmitter(refundDao, chargeService, eventBatch,
+                doNotRetryEmitUntilDuration);
+
+        for (ChargeEntity charge : charges) {
+            try {
+                MDC.put(PAYMENT_EXTERNAL_ID, charge.getExternalId());
+                pageEventEmitter.processPaymentEvents(charge, false);
+                pageEventEmitter.processRefundEvents(Charge.from(charge),
+                        refundHistoriesByCharge.getOrDefault(charge.getExternalId(), List.of()), false);
+            } catch (Exception e) {
+                logger.error("Error attempting to process event for charge [chargeId={}] [error={}]", charge.getId(), e.getMessage(), e);
+            } finally {
+                MDC.remove(PAYMENT_EXTERNAL_ID);
+            }
+        }
+
+        return eventBatch.flush();
+    }
+
     public void emitHistoricEventsByDate(ZonedDateTime startDate, ZonedDateTime endDate, Long doNotRetryEmitUntilDuration) {
         MDC.put(MDC_REQUEST_ID_KEY, "HistoricalEventEmitterWorker-" + RandomUtils.secure().randomLong(0, 10000));
 
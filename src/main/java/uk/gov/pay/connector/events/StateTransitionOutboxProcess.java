@@ -0,0 +1,141 @@
+package uk.gov.pay.connector.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
+import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.exception.EventCreationException;
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.events.model.EventFactory;
+import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
+import uk.gov.pay.connector.refund.model.domain.RefundStatus;
+
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Emits state transition events from the emitted_events table rather than from the in-memory
+ * {@link uk.gov.pay.connector.queue.statetransition.StateTransitionQueue}. A row is only visible here once the
+ * transaction which recorded the state transition has committed, so events are never sent for work that was rolled
+ * back, and anything not yet emitted when an instance shuts down is picked up by the next poll on any instance.
+ * <br>
+ * Rows are claimed for a while in one short transaction, sent with no transaction open and released in another, so no
+ * row locks are held during the SQS calls. Only the earliest pending transition of a resource can be claimed, which
+ * keeps the events for a payment or refund in order across pollers.
+ * <br>
+ * Rows that fail are retried with an exponential backoff up to the configured maximum number of attempts, after which
+ * they are left for {@link EmittedEventsBackfillService}.
+ */
+public class StateTransitionOutboxProcess {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateTransitionOutboxProcess.class);
+
+    private final EmittedEventDao emittedEventDao;
+    private final EventFactory eventFactory;
+    private final EventQueue eventQueue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayInMilliseconds;
+    private final Duration claimDuration;
+
+    @Inject
+    public StateTransitionOutboxProcess(EmittedEventDao emittedEventDao,
+                                        EventFactory eventFactory,
+                                        EventQueue eventQueue,
+                                        ConnectorConfiguration connectorConfiguration) {
+        this.emittedEventDao = emittedEventDao;
+        this.eventFactory = eventFactory;
+        this.eventQueue = eventQueue;
+
+        EventQueueConfig eventQueueConfig = connectorConfiguration.getEventQueueConfig();
+        this.batchSize = eventQueueConfig.getStateTransitionOutboxBatchSize();
+        this.maxAttempts = eventQueueConfig.getStateTransitionOutboxMaxAttempts();
+        this.retryDelayInMilliseconds = eventQueueConfig.getStateTransitionOutboxRetryDelayInMilliseconds();
+        this.claimDuration = Duration.ofMillis(eventQueueConfig.getStateTransitionOutboxClaimDurationInMilliseconds());
+    }
+
+    /**
+     * Claims one batch of state transitions, emits their events and records which were emitted. The claim and the
+     * release are each a transaction of their own in {@link EmittedEventDao}.
+     *
+     * @return the number of rows claimed, so callers can keep polling while there is a backlog
+     */
+    public int emitPendingStateTransitions() {
+        List<EmittedEventEntity> claimedRows = emittedEventDao.claimStateTransitionsToEmit(batchSize, maxAttempts,
+                ZonedDateTime.now(UTC).plus(claimDuration));
+        if (claimedRows.isEmpty()) {
+            return 0;
+        }
+
+        List<Event> events = new ArrayList<>();
+        Map<Event, EmittedEventEntity> rowsByEvent = new IdentityHashMap<>();
+        Map<Long, Instant> correctedEventDates = new HashMap<>();
+        Set<EmittedEventEntity> failedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (EmittedEventEntity row : claimedRows) {
+            try {
+                for (Event event : eventFactory.createEvents(toStateTransition(row))) {
+                    events.add(event);
+                    rowsByEvent.put(event, row);
+                    if (event.getEventType().equals(row.getEventType()) && !event.getTimestamp().equals(row.getEventDate())) {
+                        correctedEventDates.put(row.getId(), event.getTimestamp());
+                    }
+                }
+            } catch (EventCreationException | ClassNotFoundException | IllegalArgumentException e) {
+                LOGGER.warn("Failed to create events for state transition [emittedEventId={}] [eventType={}] [error={}]",
+                        row.getId(), row.getEventType(), e.getMessage());
+                failedRows.add(row);
+            }
+        }
+
+        eventQueue.emitEvents(events).forEach(failedEvent -> failedRows.add(rowsByEvent.get(failedEvent)));
+
+        List<Long> emittedIds = new ArrayList<>();
+        Map<Long, ZonedDateTime> retryAfterByFailedId = new HashMap<>();
+        for (EmittedEventEntity row : claimedRows) {
+            if (failedRows.contains(row)) {
+                retryAfterByFailedId.put(row.getId(), recordFailedAttempt(row));
+                correctedEventDates.remove(row.getId());
+            } else {
+                emittedIds.add(row.getId());
+            }
+        }
+        emittedEventDao.releaseStateTransitions(emittedIds, correctedEventDates, Instant.now(), retryAfterByFailedId);
+
+        LOGGER.info("Emitted state transition events from outbox [claimed={}] [emitted={}] [failed={}]",
+                claimedRows.size(), emittedIds.size(), failedRows.size());
+        return claimedRows.size();
+    }
+
+    private ZonedDateTime recordFailedAttempt(EmittedEventEntity row) {
+        long delay = retryDelayInMilliseconds << Math.min(row.getOutboxAttempts(), 16);
+
+        if (row.getOutboxAttempts() + 1 >= maxAttempts) {
+            LOGGER.error("State transition failed to emit beyond max retries, leaving it for the emitted events sweep " +
+                    "[emittedEventId={}] [resourceExternalId={}] [eventType={}]",
+                    row.getId(), row.getResourceExternalId(), row.getEventType());
+        }
+        return ZonedDateTime.now(UTC).plus(Duration.ofMillis(delay));
+    }
+
+    private static StateTransition toStateTransition(EmittedEventEntity row) throws ClassNotFoundException {
+        Class<?> eventClass = Class.forName(row.getStateTransitionEventClass());
+        if (row.getChargeEventId() != null) {
+            return new PaymentStateTransition(row.getChargeEventId(), eventClass);
+        }
+        return new RefundStateTransition(row.getResourceExternalId(), RefundStatus.valueOf(row.getRefundStatus()), eventClass);
+    }
+}
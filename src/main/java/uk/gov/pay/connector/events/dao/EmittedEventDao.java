@@ -5,15 +5,23 @@ import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 import uk.gov.pay.connector.common.dao.JpaDao;
 import uk.gov.pay.connector.events.EmittedEventEntity;
+import uk.gov.pay.connector.events.model.EmittedEventKey;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.ResourceType;
+import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Transactional
 public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
@@ -39,6 +47,28 @@ public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
         return !singleResult.isEmpty();
     }
 
+    /**
+     * Set equivalent of {@link #hasBeenEmittedBefore(Event)} for many resources at once: returns the keys of every
+     * event recorded for the given resources, for callers to check events against in memory.
+     */
+    public Set<EmittedEventKey> findEmittedEventKeys(ResourceType resourceType, Collection<String> resourceExternalIds) {
+        if (resourceExternalIds.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Object[]> rows = entityManager.get()
+                .createQuery("select e.resourceExternalId, e.eventType, e.eventDate from EmittedEventEntity e where " +
+                        "e.resourceType = :resource_type AND " +
+                        "e.resourceExternalId IN :resource_external_ids", Object[].class)
+                .setParameter("resource_type", resourceType.getLowercase())
+                .setParameter("resource_external_ids", resourceExternalIds)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new EmittedEventKey(resourceType.getLowercase(), (String) row[0], (String) row[1], (Instant) row[2]))
+                .collect(Collectors.toSet());
+    }
+
     public void recordEmission(Event event, ZonedDateTime doNotRetryEmitUntilDate) {
         final EmittedEventEntity emittedEvent = new EmittedEventEntity(event.getResourceType().getLowercase(),
                 event.getResourceExternalId(),
@@ -64,6 +94,108 @@ public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
         persist(emittedEvent);
     }
 
+    /**
+     * Records an event that could not be posted to ledger along with the JSON it would have been posted as, so that
+     * the emitted events sweep can post it as it was even if it cannot be rebuilt from the database.
+     */
+    public void recordNotPosted(Event event, String eventPayload) {
+        final EmittedEventEntity emittedEvent = new EmittedEventEntity(
+                event.getResourceType().getLowercase(),
+                event.getResourceExternalId(),
+                event.getEventType(),
+                event.getTimestamp(),
+                null,
+                null
+        );
+        emittedEvent.setEventPayload(eventPayload);
+        persist(emittedEvent);
+    }
+
+    public void recordOfferedStateTransition(StateTransition stateTransition, ResourceType resourceType, String externalId,
+                                             String eventType, Instant eventDate, ZonedDateTime doNotRetryEmitUntil) {
+        final EmittedEventEntity emittedEvent = new EmittedEventEntity(
+                resourceType.getLowercase(),
+                externalId,
+                eventType,
+                eventDate,
+                null,
+                doNotRetryEmitUntil
+        );
+        String eventClass = stateTransition.getStateTransitionEventClass().getName();
+        switch (stateTransition) {
+            case PaymentStateTransition payment -> emittedEvent.setPaymentStateTransition(eventClass, payment.getChargeEventId());
+            case RefundStateTransition refund -> emittedEvent.setRefundStateTransition(eventClass, refund.getRefundStatus().name());
+            default -> {
+                // left for the emitted events sweep, which rebuilds events from the charge or refund
+            }
+        }
+        persist(emittedEvent);
+    }
+
+    /**
+     * Claims up to {@code limit} offered state transitions that have not been emitted yet until {@code claimedUntil}.
+     * Only the earliest transition not yet emitted for each resource can be claimed, so while it is being sent no
+     * poller, on this or another instance, can send a later one for the same resource. The rows are only locked
+     * while they are claimed, and a claim that is never released, say because the instance stopped, runs out.
+     */
+    public List<EmittedEventEntity> claimStateTransitionsToEmit(int limit, int maxAttempts, ZonedDateTime claimedUntil) {
+        String query = "SELECT * FROM emitted_events e " +
+                "WHERE e.emitted_date IS NULL AND e.state_transition_event_class IS NOT NULL " +
+                "AND e.outbox_attempts < ?1 " +
+                "AND (e.outbox_retry_after IS NULL OR e.outbox_retry_after < now()) " +
+                "AND (e.outbox_claimed_until IS NULL OR e.outbox_claimed_until < now()) " +
+                "AND NOT EXISTS (SELECT 1 FROM emitted_events earlier " +
+                "WHERE earlier.resource_type = e.resource_type " +
+                "AND earlier.resource_external_id = e.resource_external_id " +
+                "AND earlier.emitted_date IS NULL AND earlier.state_transition_event_class IS NOT NULL " +
+                "AND earlier.outbox_attempts < ?1 " +
+                "AND (earlier.event_date < e.event_date OR (earlier.event_date = e.event_date AND earlier.id < e.id))) " +
+                "ORDER BY e.event_date, e.id LIMIT ?2 FOR UPDATE OF e SKIP LOCKED";
+
+        List<EmittedEventEntity> claimed = entityManager.get()
+                .createNativeQuery(query, EmittedEventEntity.class)
+                .setParameter(1, maxAttempts)
+                .setParameter(2, limit)
+                .getResultList();
+
+        if (!claimed.isEmpty()) {
+            entityManager.get()
+                    .createQuery("UPDATE EmittedEventEntity e SET e.outboxClaimedUntil = :claimedUntil WHERE e.id IN :ids")
+                    .setParameter("claimedUntil", claimedUntil)
+                    .setParameter("ids", claimed.stream().map(EmittedEventEntity::getId).toList())
+                    .executeUpdate();
+        }
+        return claimed;
+    }
+
+    /**
+     * Records the outcome of sending claimed state transitions and releases their claim. Emitted rows are given
+     * {@code emittedDate}, and a corrected event date where the event sent had a different timestamp. The others
+     * have an attempt added and are left until their retry time.
+     */
+    public void releaseStateTransitions(Collection<Long> emittedIds, Map<Long, Instant> correctedEventDates,
+                                        Instant emittedDate, Map<Long, ZonedDateTime> retryAfterByFailedId) {
+        if (!emittedIds.isEmpty()) {
+            entityManager.get()
+                    .createQuery("UPDATE EmittedEventEntity e SET e.emittedDate = :emittedDate, e.outboxClaimedUntil = NULL " +
+                            "WHERE e.id IN :ids AND e.emittedDate is null")
+                    .setParameter("emittedDate", emittedDate)
+                    .setParameter("ids", emittedIds)
+                    .executeUpdate();
+        }
+        correctedEventDates.forEach((id, eventDate) -> entityManager.get()
+                .createQuery("UPDATE EmittedEventEntity e SET e.eventDate = :eventDate WHERE e.id = :id")
+                .setParameter("eventDate", eventDate)
+                .setParameter("id", id)
+                .executeUpdate());
+        retryAfterByFailedId.forEach((id, retryAfter) -> entityManager.get()
+                .createQuery("UPDATE EmittedEventEntity e SET e.outboxAttempts = e.outboxAttempts + 1, " +
+                        "e.outboxRetryAfter = :retryAfter, e.outboxClaimedUntil = NULL WHERE e.id = :id")
+                .setParameter("retryAfter", retryAfter)
+                .setParameter("id", id)
+                .executeUpdate());
+    }
+
     @Transactional
     public void markEventAsEmitted(Event event) {
         Query query = entityManager.get()
@@ -83,26 +215,33 @@ public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
         query.executeUpdate();
     }
 
-    public Optional<Long> findNotEmittedEventMaxIdOlderThan(Instant cutOffDate, ZonedDateTime now) {
+    /**
+     * State transitions are left to the outbox until it has used {@code outboxMaxAttempts} attempts on them, so that
+     * the sweep does not send them as well. With the outbox turned off this is 0.
+     */
+    public Optional<Long> findNotEmittedEventMaxIdOlderThan(Instant cutOffDate, ZonedDateTime now, int outboxMaxAttempts) {
         String query = "SELECT MAX(e.id) from EmittedEventEntity e " +
                 "WHERE e.eventDate < :cutOffDate " +
                 "AND e.emittedDate is null " +
-                "AND (e.doNotRetryEmitUntil is null or e.doNotRetryEmitUntil < :currentDate)";
+                "AND (e.doNotRetryEmitUntil is null or e.doNotRetryEmitUntil < :currentDate) " +
+                "AND (e.stateTransitionEventClass is null or e.outboxAttempts >= :outboxMaxAttempts)";
 
         return Optional.ofNullable(entityManager.get()
                 .createQuery(query, Long.class)
                 .setParameter("cutOffDate", cutOffDate)
                 .setParameter("currentDate", now)
+                .setParameter("outboxMaxAttempts", outboxMaxAttempts)
                 .getSingleResult());
     }
 
     public List<EmittedEventEntity> findNotEmittedEventsOlderThan(Instant cutOffDate, int size,
                                                                   Long lastProcessedId, Long maxId,
-                                                                  ZonedDateTime now) {
+                                                                  ZonedDateTime now, int outboxMaxAttempts) {
         String query = "SELECT e from EmittedEventEntity e " +
                 "WHERE e.id > :lastProcessedId AND e.id <= :maxId AND e.eventDate < :cutOffDate " +
                 "AND e.emittedDate is null " +
                 "AND (e.doNotRetryEmitUntil is null or e.doNotRetryEmitUntil < :currentDate) " +
+                "AND (e.stateTransitionEventClass is null or e.outboxAttempts >= :outboxMaxAttempts) " +
                 "ORDER BY e.id";
 
         return entityManager.get()
@@ -111,6 +250,7 @@ public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
                 .setParameter("currentDate", now)
                 .setParameter("lastProcessedId", lastProcessedId)
                 .setParameter("maxId", maxId)
+                .setParameter("outboxMaxAttempts", outboxMaxAttempts)
                 .setMaxResults(size)
                 .getResultList();
     }
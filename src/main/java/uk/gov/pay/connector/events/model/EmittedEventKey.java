@@ -0,0 +1,21 @@
+package uk.gov.pay.connector.events.model;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The columns of an emitted_events row that {@code EmittedEventDao.hasBeenEmittedBefore} matches an event on. Event
+ * dates are kept to the microsecond precision of the database column so that a key built from an event compares
+ * equal to one read back from the table.
+ */
+public record EmittedEventKey(String resourceType, String resourceExternalId, String eventType, Instant eventDate) {
+
+    public EmittedEventKey {
+        eventDate = eventDate == null ? null : eventDate.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public static EmittedEventKey of(Event event) {
+        return new EmittedEventKey(event.getResourceType().getLowercase(), event.getResourceExternalId(),
+                event.getEventType(), event.getTimestamp());
+    }
+}
@@ -64,6 +64,8 @@ public class EmittedEventResource {
     @Operation(
             summary = "Emit events for charges or refunds",
             description = "Task to emit payment or refunds events for a given start_id and max_id range.<br>" +
+                    "Payment events are emitted by parallel workers, each reading pages of charges and sending their events in batches. " +
+                    "Progress is checkpointed after every page so an interrupted run can be resumed.<br>" +
                     "Historical event emitter task doesn't emit event, if event was emitted previously. To re-emit events, relevant emitted events records need to be cleared<br>." +
                     "<br>" +
                     "Note: This task runs in the background.",
@@ -78,19 +80,29 @@ public class EmittedEventResource {
                                        @Parameter(example = "charge", description = "Type of records (charge/refund) for which events to be emitted. Defaults to 'charge'")
                                        @QueryParam("record_type") Optional<RecordType> maybeRecordType,
                                        @Parameter(example = "7200", description = "Duration (in seconds) until which emitted event sweeper should ignore retrying emitting events")
-                                       @QueryParam("do_not_retry_emit_until_duration") Long doNotRetryEmitUntilDuration) {
+                                       @QueryParam("do_not_retry_emit_until_duration") Long doNotRetryEmitUntilDuration,
+                                       @Parameter(example = "false", description = "Set to false to emit charge events one charge at a time, rather than " +
+                                               "in parallel shards of pages of charges with their events sent in batches. Defaults to true")
+                                       @QueryParam("bulk") Optional<Boolean> maybeBulk,
+                                       @Parameter(example = "true", description = "Set to true to continue a bulk run for charges with the same start_id and max_id " +
+                                               "from the last checkpoint recorded for each shard, rather than starting again. Defaults to false")
+                                       @QueryParam("resume") boolean resumeFromCheckpoint) {
         //We run this task in the background and response 200 so the request from toolbox does not time out
         ExecutorService executor = Executors.newSingleThreadExecutor();
         RecordType recordType = maybeRecordType.orElse(CHARGE);
-        if (recordType == CHARGE) {
-            executor.execute(() -> historicalEventEmitterService.emitHistoricEventsById(startId,
-                    OptionalLong.of(maybeMaxId),
+        long start = Optional.ofNullable(startId).orElse(0L);
+        OptionalLong maxId = maybeMaxId == null ? OptionalLong.empty() : OptionalLong.of(maybeMaxId);
+        if (recordType == CHARGE && maybeBulk.orElse(true)) {
+            executor.execute(() -> historicalEventEmitterService.emitHistoricEventsInBulk(start, maxId,
+                    doNotRetryEmitUntilDuration, resumeFromCheckpoint));
+        } else if (recordType == CHARGE) {
+            executor.execute(() -> historicalEventEmitterService.emitHistoricEventsById(start, maxId,
                     doNotRetryEmitUntilDuration));
         } else {
-            executor.execute(() -> historicalEventEmitterService.emitRefundEventsOnlyById(startId,
-                    OptionalLong.of(maybeMaxId),
+            executor.execute(() -> historicalEventEmitterService.emitRefundEventsOnlyById(start, maxId,
                     doNotRetryEmitUntilDuration));
         }
+        executor.shutdown();
         return status(OK).build();
     }
 
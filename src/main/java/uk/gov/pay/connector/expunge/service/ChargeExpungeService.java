@@ -1,6 +1,9 @@
 package uk.gov.pay.connector.expunge.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.inject.persist.Transactional;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -20,8 +23,11 @@ import jakarta.inject.Inject;
 import jakarta.persistence.OptimisticLockException;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static net.logstash.logback.argument.StructuredArguments.kv;
@@ -41,6 +47,7 @@ import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 
 public class ChargeExpungeService {
 
+    private static final String METRIC_PREFIX = "expunge.charges";
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final ChargeDao chargeDao;
     private final ExpungeConfig expungeConfig;
@@ -48,6 +55,7 @@ public class ChargeExpungeService {
     private final ChargeService chargeService;
     private final IdempotencyDao idempotencyDao;
     private final TaskQueueService taskQueueService;
+    private final MetricRegistry metricRegistry;
     private final List<PaymentGatewayName> expungeExemptedGateways = List.of(
             PaymentGatewayName.EPDQ,
             PaymentGatewayName.WORLDPAY,
@@ -71,13 +79,14 @@ public class ChargeExpungeService {
     public ChargeExpungeService(ChargeDao chargeDao, ConnectorConfiguration connectorConfiguration,
                                 ParityCheckService parityCheckService,
                                 ChargeService chargeService, IdempotencyDao idempotencyDao, 
-                                TaskQueueService taskQueueService) {
+                                TaskQueueService taskQueueService, Environment environment) {
         this.chargeDao = chargeDao;
         expungeConfig = connectorConfiguration.getExpungeConfig();
         this.parityCheckService = parityCheckService;
         this.chargeService = chargeService;
         this.idempotencyDao = idempotencyDao;
         this.taskQueueService = taskQueueService;
+        this.metricRegistry = environment.metrics();
     }
 
     private boolean inTerminalState(ChargeEntity chargeEntity) {
@@ -99,39 +108,95 @@ public class ChargeExpungeService {
         return status.isExpungeable();
     }
 
+    /**
+     * Works through up to {@code noOfChargesToExpunge} candidate charges in id ordered pages of
+     * {@link ExpungeConfig#getExpungePageSize()}. The ledger transactions for a page are fetched concurrently and the
+     * charges that can go are deleted together in one transaction per page, optionally pausing between pages to
+     * limit the load on the database.
+     */
     public void expunge(Integer noOfChargesToExpunge) {
         if (!expungeConfig.isExpungeChargesEnabled()) {
             logger.info("Charge expunging feature is disabled. No charges have been expunged");
         } else {
             int minimumAgeOfChargeInDays = expungeConfig.getMinimumAgeOfChargeInDays();
             int createdWithinLast = expungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays();
+            int pageSize = expungeConfig.getExpungePageSize();
 
-            for (int number = 0; number < noOfChargesToExpunge; number++) {
-                Optional<ChargeEntity> mayBeChargeToExpunge = chargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, createdWithinLast);
+            long lastProcessedId = 0L;
+            int chargesRemaining = noOfChargesToExpunge;
+            while (chargesRemaining > 0) {
+                int limit = Math.min(pageSize, chargesRemaining);
+                List<ChargeEntity> charges = chargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, createdWithinLast,
+                        lastProcessedId, limit);
+                if (charges.isEmpty()) {
+                    break;
+                }
 
-                if (mayBeChargeToExpunge.isPresent()) {
-                    ChargeEntity chargeEntity = mayBeChargeToExpunge.get();
-                    MDC.put(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId());
+                try {
+                    expungePage(charges);
+                } catch (OptimisticLockException error) {
+                    logger.info("Expunging process conflicted with an already running process, exit");
+                    MDC.remove(MDC_REQUEST_ID_KEY);
+                    throw error;
+                }
+
+                lastProcessedId = charges.get(charges.size() - 1).getId();
+                chargesRemaining -= charges.size();
+                if (charges.size() < limit || !pauseBetweenPages()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void expungePage(List<ChargeEntity> charges) {
+        metricRegistry.histogram(METRIC_PREFIX + ".oldest-candidate-age-days")
+                .update(ChronoUnit.DAYS.between(charges.get(0).getCreatedDate(), ZonedDateTime.now()));
+
+        try (Timer.Context ignored = metricRegistry.timer(METRIC_PREFIX + ".page").time()) {
+            List<ChargeEntity> terminalCharges = new ArrayList<>();
+            for (ChargeEntity chargeEntity : charges) {
+                withPaymentExternalId(chargeEntity, () -> {
                     logger.info(format("Attempting to expunge charge %s", chargeEntity.getExternalId()));
-                    try {
-                        parityCheckAndExpungeIfMet(chargeEntity);
-                    } catch (OptimisticLockException error) {
-                        logger.info("Expunging process conflicted with an already running process, exit");
-                        MDC.remove(MDC_REQUEST_ID_KEY);
-                        MDC.remove(PAYMENT_EXTERNAL_ID);
-                        throw error;
+                    if (isTerminalAndNotAwaitingFees(chargeEntity)) {
+                        terminalCharges.add(chargeEntity);
                     }
-                    MDC.remove(PAYMENT_EXTERNAL_ID);
+                });
+            }
+
+            Set<String> chargesWithIdempotencyRecords = idempotencyDao.findResourceExternalIdsWithIdempotencyRecords(
+                    terminalCharges.stream()
+                            .filter(chargeEntity -> chargeEntity.getAuthorisationMode() == AuthorisationMode.AGREEMENT)
+                            .map(ChargeEntity::getExternalId)
+                            .toList());
+
+            List<ChargeEntity> chargesToParityCheck = new ArrayList<>();
+            for (ChargeEntity chargeEntity : terminalCharges) {
+                if (chargesWithIdempotencyRecords.contains(chargeEntity.getExternalId())) {
+                    logger.info("Charge not expunged from connector because Idempotency record exists for charge",
+                            kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
                 } else {
-                    break;
+                    chargesToParityCheck.add(chargeEntity);
                 }
             }
+
+            List<ChargeEntity> chargesMatchingLedger = parityCheckService.parityCheckChargesForExpunger(chargesToParityCheck);
+            chargesToParityCheck.stream()
+                    .filter(chargeEntity -> !chargesMatchingLedger.contains(chargeEntity))
+                    .forEach(this::logParityCheckFailure);
+
+            if (!chargesMatchingLedger.isEmpty()) {
+                expungeCharges(chargesMatchingLedger);
+            }
+            chargesMatchingLedger.forEach(chargeEntity ->
+                    logger.info("Charge expunged from connector {}", kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId())));
+
+            metricRegistry.meter(METRIC_PREFIX + ".expunged").mark(chargesMatchingLedger.size());
+            metricRegistry.meter(METRIC_PREFIX + ".not-expunged").mark(charges.size() - chargesMatchingLedger.size());
         }
     }
 
-    private void parityCheckAndExpungeIfMet(ChargeEntity chargeEntity) {
-        boolean hasChargeBeenParityCheckedBefore = chargeEntity.getParityCheckDate() != null;
-
+    private boolean isTerminalAndNotAwaitingFees(ChargeEntity chargeEntity) {
         if (!inTerminalState(chargeEntity)) {
             chargeService.updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
             logger.info("Charge not expunged because it is not in a terminal state",
@@ -140,28 +205,47 @@ public class ChargeExpungeService {
             if (isChargeStuckInCaptureSubmittedStateAndWorldpayPayment(chargeEntity)) {
                 taskQueueService.addQueryAndUpdateChargeInSubmittedStateTask(chargeEntity);
             }
-
+            return false;
         } else if (chargeEntity.getPaymentGatewayName() == STRIPE && isStripePaymentMissingFees(chargeEntity)) {
             chargeService.updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
             logger.info("Charge not expunged because it is a Stripe payment that requires fees to be collected, but " +
                             "fees have not yet been processed.",
                     kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
-        } else if (chargeEntity.getAuthorisationMode() == AuthorisationMode.AGREEMENT &&
-                idempotencyDao.idempotencyExistsByResourceExternalId(chargeEntity.getExternalId())) {
-            logger.info("Charge not expunged from connector because Idempotency record exists for charge",
+            return false;
+        }
+        return true;
+    }
+
+    private void logParityCheckFailure(ChargeEntity chargeEntity) {
+        if (chargeEntity.getParityCheckDate() != null) {
+            logger.warn("Charge cannot be expunged because parity check with ledger repeatedly failed",
                     kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
-        } else if (parityCheckService.parityCheckChargeForExpunger(chargeEntity)) {
-            expungeCharge(chargeEntity);
-            logger.info("Charge expunged from connector {}", kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
         } else {
-            if (hasChargeBeenParityCheckedBefore) {
-                logger.warn("Charge cannot be expunged because parity check with ledger repeatedly failed",
-                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
-            } else {
-                logger.warn("Charge cannot be expunged because parity check with ledger failed",
-                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+            logger.warn("Charge cannot be expunged because parity check with ledger failed",
+                    kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+        }
+    }
+
+    private void withPaymentExternalId(ChargeEntity chargeEntity, Runnable runnable) {
+        MDC.put(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId());
+        try {
+            runnable.run();
+        } finally {
+            MDC.remove(PAYMENT_EXTERNAL_ID);
+        }
+    }
+
+    private boolean pauseBetweenPages() {
+        int pauseInMillis = expungeConfig.getPauseBetweenExpungePagesInMillis();
+        if (pauseInMillis > 0) {
+            try {
+                Thread.sleep(pauseInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
         }
+        return true;
     }
 
     private boolean isChargeStuckInCaptureSubmittedStateAndWorldpayPayment(ChargeEntity chargeEntity) {
@@ -182,4 +266,11 @@ public class ChargeExpungeService {
         chargeDao.expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
     }
 
+    @Transactional
+    public void expungeCharges(List<ChargeEntity> chargeEntities) {
+        Map<Long, String> externalIdsById = new LinkedHashMap<>();
+        chargeEntities.forEach(chargeEntity -> externalIdsById.put(chargeEntity.getId(), chargeEntity.getExternalId()));
+        chargeDao.expungeCharges(externalIdsById);
+    }
+
 }
@@ -1,13 +1,15 @@
 package uk.gov.pay.connector.expunge.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.inject.persist.Transactional;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.config.ExpungeConfig;
-import uk.gov.pay.connector.charge.exception.ChargeNotFoundRuntimeException;
-import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundStatus;
@@ -18,7 +20,10 @@ import jakarta.inject.Inject;
 import jakarta.persistence.OptimisticLockException;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static java.time.ZoneOffset.UTC;
@@ -32,88 +37,129 @@ import static uk.gov.service.payments.logging.LoggingKeys.REFUND_EXTERNAL_ID;
 
 public class RefundExpungeService {
 
+    private static final String METRIC_PREFIX = "expunge.refunds";
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final ExpungeConfig expungeConfig;
     private final ParityCheckService parityCheckService;
     private final RefundService refundService;
-    private final ChargeService chargeService;
+    private final ChargeDao chargeDao;
     private final RefundDao refundDao;
+    private final MetricRegistry metricRegistry;
 
     @Inject
     public RefundExpungeService(ConnectorConfiguration connectorConfiguration,
                                 ParityCheckService parityCheckService,
-                                RefundService refundService, ChargeService chargeService, RefundDao refundDao) {
+                                RefundService refundService, ChargeDao chargeDao, RefundDao refundDao,
+                                Environment environment) {
         expungeConfig = connectorConfiguration.getExpungeConfig();
         this.parityCheckService = parityCheckService;
         this.refundService = refundService;
-        this.chargeService = chargeService;
+        this.chargeDao = chargeDao;
         this.refundDao = refundDao;
+        this.metricRegistry = environment.metrics();
     }
 
+    /**
+     * Pages through candidate refunds in id order in the same way as {@link ChargeExpungeService#expunge}.
+     */
     public void expunge(Integer noOfRefundsToExpunge) {
         if (!expungeConfig.isExpungeRefundsEnabled()) {
             logger.info("Refunds expunging feature is disabled. No refunds have been expunged");
         } else {
             int minimumAgeOfRefundInDays = expungeConfig.getMinimumAgeOfRefundInDays();
             int excludeRefundsParityCheckedWithInDays = expungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays();
+            int pageSize = expungeConfig.getExpungePageSize();
+
+            long lastProcessedId = 0L;
+            int refundsRemaining = noOfRefundsToExpunge;
+            while (refundsRemaining > 0) {
+                int limit = Math.min(pageSize, refundsRemaining);
+                List<RefundEntity> refunds = refundDao.findRefundsToExpunge(minimumAgeOfRefundInDays,
+                        excludeRefundsParityCheckedWithInDays, lastProcessedId, limit);
+                if (refunds.isEmpty()) {
+                    break;
+                }
 
-            for (int number = 0; number < noOfRefundsToExpunge; number++) {
-                Optional<RefundEntity> mayBeRefundToExpunge = refundDao.findRefundToExpunge(minimumAgeOfRefundInDays,
-                        excludeRefundsParityCheckedWithInDays);
+                try {
+                    expungePage(refunds);
+                } catch (OptimisticLockException error) {
+                    logger.info("Expunging process conflicted with an already running process, exit");
+                    MDC.remove(MDC_REQUEST_ID_KEY);
+                    throw error;
+                }
 
-                if (mayBeRefundToExpunge.isPresent()) {
-                    RefundEntity refundEntity = mayBeRefundToExpunge.get();
-                    MDC.put(REFUND_EXTERNAL_ID, refundEntity.getExternalId());
+                lastProcessedId = refunds.get(refunds.size() - 1).getId();
+                refundsRemaining -= refunds.size();
+                if (refunds.size() < limit || !pauseBetweenPages()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void expungePage(List<RefundEntity> refunds) {
+        metricRegistry.histogram(METRIC_PREFIX + ".oldest-candidate-age-days")
+                .update(ChronoUnit.DAYS.between(refunds.get(0).getCreatedDate(), ZonedDateTime.now(UTC)));
+
+        try (Timer.Context ignored = metricRegistry.timer(METRIC_PREFIX + ".page").time()) {
+            Set<String> existingChargeExternalIds = new HashSet<>(chargeDao.findExistingExternalIds(
+                    refunds.stream().map(RefundEntity::getChargeExternalId).distinct().toList()));
+
+            List<RefundEntity> refundsToParityCheck = new ArrayList<>();
+            for (RefundEntity refundEntity : refunds) {
+                MDC.put(REFUND_EXTERNAL_ID, refundEntity.getExternalId());
+                try {
                     logger.info(format("Attempting to expunge refund %s", refundEntity.getExternalId()));
-                    try {
-                        parityCheckAndExpunge(refundEntity);
-                    } catch (OptimisticLockException error) {
-                        logger.info("Expunging process conflicted with an already running process, exit");
-                        MDC.remove(MDC_REQUEST_ID_KEY);
-                        MDC.remove(REFUND_EXTERNAL_ID);
-                        throw error;
+                    if (existingChargeExternalIds.contains(refundEntity.getChargeExternalId())) {
+                        refundService.updateRefundParityStatus(refundEntity.getExternalId(), SKIPPED);
+                        logger.info("Refund cannot be expunged because charge has not been expunged from in-flight database",
+                                kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+                    } else if (isInExpungeableState(refundEntity)) {
+                        refundsToParityCheck.add(refundEntity);
+                    } else {
+                        refundService.updateRefundParityStatus(refundEntity.getExternalId(), SKIPPED);
+                        logger.info("Refund is not in expungeable state",
+                                kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
                     }
+                } finally {
                     MDC.remove(REFUND_EXTERNAL_ID);
-                } else {
-                    break;
                 }
+            }
 
+            List<RefundEntity> refundsMatchingLedger = parityCheckService.parityCheckRefundsForExpunger(refundsToParityCheck);
+            for (RefundEntity refundEntity : refundsToParityCheck) {
+                if (refundsMatchingLedger.contains(refundEntity)) {
+                    continue;
+                }
+                if (refundEntity.getParityCheckDate() != null) {
+                    logger.warn("Refund cannot be expunged because parity check with ledger repeatedly failed",
+                            kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+                } else {
+                    logger.info("Refund cannot be expunged because parity check with ledger failed",
+                            kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+                }
             }
-        }
-    }
 
-    private void parityCheckAndExpunge(RefundEntity refundEntity) {
-        boolean hasRefundBeenParityCheckedBefore = refundEntity.getParityCheckDate() != null;
-
-        if (chargeExistsForRefund(refundEntity)) {
-            refundService.updateRefundParityStatus(refundEntity.getExternalId(), SKIPPED);
-            logger.info("Refund cannot be expunged because charge has not been expunged from in-flight database",
-                    kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
-        } else if (isInExpungeableState(refundEntity)) {
-            boolean matchesWithLedger = parityCheckService.parityCheckRefundForExpunger(refundEntity);
-
-            if (matchesWithLedger) {
-                expungeRefund(refundEntity);
-                logger.info("Refund expunged from connector {}", kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
-            } else if (hasRefundBeenParityCheckedBefore) {
-                logger.warn("Refund cannot be expunged because parity check with ledger repeatedly failed",
-                        kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
-            } else {
-                logger.info("Refund cannot be expunged because parity check with ledger failed",
-                        kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+            if (!refundsMatchingLedger.isEmpty()) {
+                expungeRefunds(refundsMatchingLedger);
             }
-        } else {
-            refundService.updateRefundParityStatus(refundEntity.getExternalId(), SKIPPED);
-            logger.info("Refund is not in expungeable state",
-                    kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+            refundsMatchingLedger.forEach(refundEntity ->
+                    logger.info("Refund expunged from connector {}", kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId())));
+
+            metricRegistry.meter(METRIC_PREFIX + ".expunged").mark(refundsMatchingLedger.size());
+            metricRegistry.meter(METRIC_PREFIX + ".not-expunged").mark(refunds.size() - refundsMatchingLedger.size());
         }
     }
 
-    private boolean chargeExistsForRefund(RefundEntity refundEntity) {
-        try {
-            chargeService.findChargeByExternalId(refundEntity.getChargeExternalId());
-        } catch (ChargeNotFoundRuntimeException e) {
-            return false;
+    private boolean pauseBetweenPages() {
+        int pauseInMillis = expungeConfig.getPauseBetweenExpungePagesInMillis();
+        if (pauseInMillis > 0) {
+            try {
+                Thread.sleep(pauseInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
         return true;
     }
@@ -134,4 +180,9 @@ public class RefundExpungeService {
     public void expungeRefund(RefundEntity refundEntity) {
         refundDao.expungeRefund(refundEntity.getExternalId());
     }
+
+    @Transactional
+    public void expungeRefunds(List<RefundEntity> refundEntities) {
+        refundDao.expungeRefunds(refundEntities.stream().map(RefundEntity::getExternalId).toList());
+    }
 }
@@ -0,0 +1,45 @@
+package uk.gov.pay.connector.filters;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import uk.gov.pay.connector.util.DatabaseActivity;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Counts the database statements, rows and time for each request, records them against the resource method that
+ * handled it (see {@link ResourceMethodNameFilter}) and adds them to the request attributes so the access log can
+ * include them. Like {@link LedgerLookupRequestScopeFilter} this is a servlet filter so that counting always starts
+ * and stops on the same thread. Work the resource hands to another thread is included if it is
+ * {@link uk.gov.pay.connector.util.DatabaseActivity#carriedOver carried over} and finishes before the request does;
+ * work done after a resource suspends the response is not counted.
+ */
+public class DatabaseActivityFilter implements Filter {
+
+    public static final String DB_STATEMENTS_ATTRIBUTE = "db_statements";
+    public static final String DB_ROWS_ATTRIBUTE = "db_rows";
+    public static final String DB_TIME_MILLIS_ATTRIBUTE = "db_time_ms";
+
+    private static final String UNMATCHED = "unmatched";
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        DatabaseActivity activity = DatabaseActivity.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            String resourceMethod = Optional.ofNullable(request.getAttribute(ResourceMethodNameFilter.RESOURCE_METHOD_ATTRIBUTE))
+                    .map(Object::toString)
+                    .orElse(UNMATCHED);
+            activity.end(DatabaseActivity.RESOURCE, resourceMethod);
+            request.setAttribute(DB_STATEMENTS_ATTRIBUTE, activity.getStatements());
+            request.setAttribute(DB_ROWS_ATTRIBUTE, activity.getRows());
+            request.setAttribute(DB_TIME_MILLIS_ATTRIBUTE, activity.getDatabaseTime().toMillis());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package uk.gov.pay.connector.filters;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import uk.gov.pay.connector.client.ledger.service.CachingLedgerService;
+
+import java.io.IOException;
+
+/**
+ * Lets {@link CachingLedgerService} remember ledger lookups for the duration of a request. This is a servlet filter
+ * rather than a Jersey one so that the lookups are always forgotten on the thread that handled the request, even if
+ * the resource suspends the response and completes it on another thread.
+ */
+public class LedgerLookupRequestScopeFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        CachingLedgerService.beginRequestScope();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CachingLedgerService.endRequestScope();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package uk.gov.pay.connector.filters;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.server.model.ResourceMethod;
+
+import java.lang.reflect.Method;
+
+/**
+ * Names the resource method a request was matched to, as {@code ChargesApiResource.getCharge} for example, in a
+ * request property. Jersey keeps request properties in the servlet request attributes, where
+ * {@link DatabaseActivityFilter} reads the name once the request has been handled.
+ */
+public class ResourceMethodNameFilter implements ContainerRequestFilter {
+
+    public static final String RESOURCE_METHOD_ATTRIBUTE = "resource_method";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (requestContext.getUriInfo() instanceof ExtendedUriInfo uriInfo) {
+            ResourceMethod resourceMethod = uriInfo.getMatchedResourceMethod();
+            if (resourceMethod != null) {
+                Method method = resourceMethod.getInvocable().getDefinitionMethod();
+                requestContext.setProperty(RESOURCE_METHOD_ATTRIBUTE,
+                        method.getDeclaringClass().getSimpleName() + "." + method.getName());
+            }
+        }
+    }
+}
@@ -3,12 +3,14 @@ package uk.gov.pay.connector.gateway;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Stopwatch;
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.client.Invocation.Builder;
 import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.MediaType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.connector.gateway.GatewayException.GatewayConnectionTimeoutException;
@@ -22,9 +24,11 @@ import uk.gov.pay.connector.gateway.model.request.GatewayClientPostRequest;
 import java.net.HttpCookie;
 import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -32,6 +36,7 @@ import static jakarta.ws.rs.core.Response.Status.Family.SUCCESSFUL;
 import static jakarta.ws.rs.core.Response.Status.Family.familyOf;
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 
 public class GatewayClient {
@@ -40,6 +45,7 @@ public class GatewayClient {
 
     private final Client client;
     private final MetricRegistry metricRegistry;
+    private final GatewayConcurrencyLimiters concurrencyLimiters;
 
     private static final Counter gatewayOperationsFailures = Counter.build()
             .name("gateway_operations_failures_total")
@@ -53,9 +59,32 @@ public class GatewayClient {
             .labelNames("gatewayName", "gatewayAccountType", "requestType")
             .register();
 
+    private static final Gauge gatewayOperationsConcurrencyLimit = Gauge.build()
+            .name("gateway_operations_concurrency_limit")
+            .help("Current limit on concurrent requests for gateway operations")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
+    private static final Gauge gatewayOperationsInFlight = Gauge.build()
+            .name("gateway_operations_in_flight")
+            .help("Number of gateway operations in flight")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
+    private static final Counter gatewayOperationsRejections = Counter.build()
+            .name("gateway_operations_rejections_total")
+            .help("Number of gateway operations rejected because the concurrency limit was reached")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
     public GatewayClient(Client client, MetricRegistry metricRegistry) {
+        this(client, metricRegistry, GatewayConcurrencyLimiters.unlimited());
+    }
+
+    public GatewayClient(Client client, MetricRegistry metricRegistry, GatewayConcurrencyLimiters concurrencyLimiters) {
         this.client = client;
         this.metricRegistry = metricRegistry;
+        this.concurrencyLimiters = concurrencyLimiters;
     }
 
     public Response postRequestFor(URI url, PaymentGatewayName gatewayName, String gatewayAccountType, GatewayOrder request, Map<String, String> headers)
@@ -84,7 +113,7 @@ public class GatewayClient {
             Builder requestBuilder = client.target(url).request();
             headers.keySet().forEach(headerKey -> requestBuilder.header(headerKey, headers.get(headerKey)));
             cookies.forEach(cookie -> requestBuilder.header("Cookie", cookie.getName() + "=" + cookie.getValue()));
-            return requestBuilder.post(Entity.entity(request.payload(), request.mediaType()));
+            return requestBuilder.post(Entity.entity(request.payloadBytes(), request.mediaType()));
         };
         return executeRequest(url, gatewayName, gatewayAccountType, request.orderRequestType(), metricsPrefix, requestCallable);
     }
@@ -162,7 +191,18 @@ public class GatewayClient {
                                     String metricsPrefix,
                                     Supplier<jakarta.ws.rs.core.Response> requestCallable)
             throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
+        Optional<GatewayConcurrencyLimiter> limiter = concurrencyLimiters.limiterFor(gatewayName, orderRequestType);
+        if (limiter.isPresent() && !limiter.get().tryAcquire()) {
+            LOGGER.warn("Concurrency limit of {} reached for gateway {} with order request type {}, not sending request",
+                    limiter.get().getLimit(), gatewayName.getName(), orderRequestType);
+            metricRegistry.counter(metricsPrefix + ".rejections").inc();
+            gatewayOperationsRejections.labels(gatewayName.toString().toLowerCase(), orderRequestType.toString().toLowerCase()).inc();
+            throw new GatewayConnectionTimeoutException("Gateway concurrency limit reached");
+        }
+        limiter.ifPresent(l -> recordConcurrency(gatewayName, orderRequestType, l));
+
         jakarta.ws.rs.core.Response response = null;
+        boolean dropped = false;
 
         Stopwatch responseTimeStopwatch = Stopwatch.createStarted();
         Histogram.Timer responseTimeTimer = gatewayOperationsResponseTime.labels(
@@ -190,6 +230,7 @@ public class GatewayClient {
                 throw new GatewayErrorException("Non-success HTTP status code " + statusCode + " from gateway", gatewayResponse.getEntity(), statusCode);
             }
         } catch (ProcessingException pe) {
+            dropped = true;
             incrementFailureCounter(metricRegistry, metricsPrefix);
             incrementPrometheusFailureCounter(gatewayName, gatewayAccountType, orderRequestType);
             if (pe.getCause() != null) {
@@ -214,9 +255,20 @@ public class GatewayClient {
             if (response != null) {
                 response.close();
             }
+            if (limiter.isPresent()) {
+                limiter.get().release(responseTimeStopwatch.elapsed(TimeUnit.NANOSECONDS), dropped);
+                recordConcurrency(gatewayName, orderRequestType, limiter.get());
+            }
         }
     }
 
+    private void recordConcurrency(PaymentGatewayName gatewayName, OrderRequestType orderRequestType, GatewayConcurrencyLimiter limiter) {
+        String gateway = gatewayName.toString().toLowerCase();
+        String requestType = orderRequestType.toString().toLowerCase();
+        gatewayOperationsConcurrencyLimit.labels(gateway, requestType).set(limiter.getLimit());
+        gatewayOperationsInFlight.labels(gateway, requestType).set(limiter.getInFlight());
+    }
+
     private void incrementFailureCounter(MetricRegistry metricRegistry, String metricsPrefix) {
         metricRegistry.counter(metricsPrefix + ".failures").inc();
     }
@@ -229,14 +281,21 @@ public class GatewayClient {
         ).inc();
     }
 
+    /**
+     * A gateway response with the entity read as bytes, so that it can be parsed as XML or JSON without first being
+     * decoded into a string. The entity is only decoded if {@link #getEntity()} is called.
+     */
     public static class Response {
         private final int status;
-        private final String entity;
+        private final byte[] entity;
+        private final Charset charset;
         private final Map<String, String> responseCookies = new HashMap<>();
+        private String decodedEntity;
 
         protected Response(final jakarta.ws.rs.core.Response delegate) {
             this.status = delegate.getStatus();
-            this.entity = delegate.readEntity(String.class);
+            this.entity = delegate.readEntity(byte[].class);
+            this.charset = charsetOf(delegate.getMediaType());
             delegate.getCookies().forEach((name, cookie) -> responseCookies.put(name, cookie.getValue()));
         }
 
@@ -245,11 +304,28 @@ public class GatewayClient {
         }
 
         public String getEntity() {
+            if (decodedEntity == null && entity != null) {
+                decodedEntity = new String(entity, charset);
+            }
+            return decodedEntity;
+        }
+
+        /**
+         * @return the entity as received; the array is not copied and must not be modified
+         */
+        public byte[] getEntityBytes() {
             return entity;
         }
 
         public Map<String, String> getResponseCookies() {
             return responseCookies;
         }
+
+        private static Charset charsetOf(MediaType mediaType) {
+            return Optional.ofNullable(mediaType)
+                    .map(type -> type.getParameters().get(MediaType.CHARSET_PARAMETER))
+                    .map(Charset::forName)
+                    .orElse(UTF_8);
+        }
     }
 }
@@ -8,22 +8,24 @@ import jakarta.ws.rs.client.Client;
 public class GatewayClientFactory {
 
     private final ClientFactory clientFactory;
+    private final GatewayConcurrencyLimiters concurrencyLimiters;
 
     @Inject
-    public GatewayClientFactory(ClientFactory clientFactory) {
+    public GatewayClientFactory(ClientFactory clientFactory, GatewayConcurrencyLimiters concurrencyLimiters) {
         this.clientFactory = clientFactory;
+        this.concurrencyLimiters = concurrencyLimiters;
     }
 
     public GatewayClient createGatewayClient(PaymentGatewayName gateway,
                                              GatewayOperation operation,
                                              MetricRegistry metricRegistry) {
         Client client = clientFactory.createWithDropwizardClient(gateway, operation, metricRegistry);
-        return new GatewayClient(client, metricRegistry);
+        return new GatewayClient(client, metricRegistry, concurrencyLimiters);
     }
 
     public GatewayClient createGatewayClient(PaymentGatewayName gateway,
                                              MetricRegistry metricRegistry) {
         Client client = clientFactory.createWithDropwizardClient(gateway, metricRegistry);
-        return new GatewayClient(client, metricRegistry);
+        return new GatewayClient(client, metricRegistry, concurrencyLimiters);
     }
 }
@@ -0,0 +1,57 @@
+package uk.gov.pay.connector.gateway;
+
+import uk.gov.pay.connector.app.config.GatewayConcurrencyLimitConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many requests of one type can be in flight to one gateway at once. The limit adapts to how the gateway is
+ * coping: it goes up by one whenever a request completes promptly while at least half the limit is in use, and is cut
+ * by the backoff ratio whenever a request times out, cannot connect or is slower than the slow response threshold.
+ */
+public class GatewayConcurrencyLimiter {
+
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final double backoffRatio;
+    private final long slowResponseThresholdInNanos;
+    private double limit;
+    private int inFlight;
+
+    GatewayConcurrencyLimiter(GatewayConcurrencyLimitConfig config) {
+        this.minimumLimit = config.getMinimumLimit();
+        this.maximumLimit = Math.max(config.getMaximumLimit(), minimumLimit);
+        this.backoffRatio = config.getBackoffRatio();
+        this.slowResponseThresholdInNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowResponseThresholdInMilliseconds());
+        this.limit = Math.clamp(config.getInitialLimit(), minimumLimit, maximumLimit);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit()) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param dropped whether the request failed in a way that suggests the gateway is overloaded, such as timing out
+     */
+    public synchronized void release(long elapsedInNanos, boolean dropped) {
+        int inFlightBeforeRelease = inFlight;
+        inFlight--;
+        if (dropped || elapsedInNanos > slowResponseThresholdInNanos) {
+            limit = Math.max(minimumLimit, limit * backoffRatio);
+        } else if (inFlightBeforeRelease * 2 >= limit) {
+            limit = Math.min(maximumLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
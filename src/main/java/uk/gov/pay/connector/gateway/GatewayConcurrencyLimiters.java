@@ -0,0 +1,56 @@
+package uk.gov.pay.connector.gateway;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.GatewayConcurrencyLimitConfig;
+import uk.gov.pay.connector.gateway.model.OrderRequestType;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link GatewayConcurrencyLimiter} for each gateway and order request type, shared by every
+ * {@link GatewayClient} so that a slow gateway cannot take connections and threads needed by the others.
+ */
+@Singleton
+public class GatewayConcurrencyLimiters {
+
+    private final GatewayConcurrencyLimitConfig config;
+    private final boolean enabled;
+    private final Map<Key, GatewayConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Inject
+    public GatewayConcurrencyLimiters(ConnectorConfiguration configuration) {
+        this(configuration.getGatewayConcurrencyLimitConfig());
+    }
+
+    public GatewayConcurrencyLimiters(GatewayConcurrencyLimitConfig config) {
+        this.config = config;
+        this.enabled = config.isEnabled();
+    }
+
+    private GatewayConcurrencyLimiters() {
+        this.config = null;
+        this.enabled = false;
+    }
+
+    public static GatewayConcurrencyLimiters unlimited() {
+        return new GatewayConcurrencyLimiters();
+    }
+
+    /**
+     * @return the limiter for the gateway and order request type, or empty if concurrency limits are disabled
+     */
+    public Optional<GatewayConcurrencyLimiter> limiterFor(PaymentGatewayName gatewayName, OrderRequestType orderRequestType) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.of(limiters.computeIfAbsent(new Key(gatewayName, orderRequestType),
+                key -> new GatewayConcurrencyLimiter(config)));
+    }
+
+    private record Key(PaymentGatewayName gatewayName, OrderRequestType orderRequestType) {
+    }
+}
@@ -3,7 +3,38 @@ package uk.gov.pay.connector.gateway;
 import jakarta.ws.rs.core.MediaType;
 import uk.gov.pay.connector.gateway.model.OrderRequestType;
 
-public record GatewayOrder(OrderRequestType orderRequestType, String payload, MediaType mediaType) {
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A request body for a payment gateway. The payload is held as the UTF-8 bytes that are posted, so payloads rendered
+ * straight to bytes are sent without being decoded and encoded again.
+ */
+public record GatewayOrder(OrderRequestType orderRequestType, byte[] payloadBytes, MediaType mediaType) {
+
+    public GatewayOrder(OrderRequestType orderRequestType, String payload, MediaType mediaType) {
+        this(orderRequestType, payload == null ? null : payload.getBytes(UTF_8), mediaType);
+    }
+
+    public String payload() {
+        return payloadBytes == null ? null : new String(payloadBytes, UTF_8);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GatewayOrder that)) return false;
+        return orderRequestType == that.orderRequestType
+                && Arrays.equals(payloadBytes, that.payloadBytes)
+                && Objects.equals(mediaType, that.mediaType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderRequestType, Arrays.hashCode(payloadBytes), mediaType);
+    }
 
     @Override
     public String toString() {
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
 import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+import uk.gov.pay.connector.util.LoggablePayload;
 
 import static java.lang.String.format;
 
@@ -12,12 +13,12 @@ public class GatewayResponseUnmarshaller {
     private static final Logger logger = LoggerFactory.getLogger(GatewayResponseUnmarshaller.class);
     
     public static <T> T unmarshallResponse(GatewayClient.Response response, Class<T> unmarshallingTarget) throws GatewayException.GatewayErrorException {
-        String payload = response.getEntity();
-        logger.debug("response payload={}", payload);
+        byte[] payload = response.getEntityBytes();
+        logger.debug("response payload={}", LoggablePayload.of(payload));
         try {
             return XMLUnmarshaller.unmarshall(payload, unmarshallingTarget);
         } catch (XMLUnmarshallerException e) {
-            String error = format("Could not unmarshall response %s.", payload);
+            String error = format("Could not unmarshall response %s.", LoggablePayload.of(payload));
             logger.error(error, e);
             throw new GatewayException.GatewayErrorException("Invalid Response Received From Gateway");
         }
@@ -142,6 +142,6 @@ public abstract class OrderRequestBuilder {
     public GatewayOrder build() {
         return new GatewayOrder(
                 orderRequestType,
-                payloadBuilder.buildWith(templateData), getMediaType());
+                payloadBuilder.buildBytesWith(templateData), getMediaType());
     }
 }
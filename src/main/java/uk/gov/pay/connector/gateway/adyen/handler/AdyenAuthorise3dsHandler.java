@@ -65,7 +65,7 @@ public class AdyenAuthorise3dsHandler {
         );
 
         try {
-            var jsonResponse = gatewayClient.postRequestFor(adyen3dsAuthorisationRequest).getEntity();
+            var jsonResponse = gatewayClient.postRequestFor(adyen3dsAuthorisationRequest).getEntityBytes();
             var responseBody = jsonObjectMapper.getObject(jsonResponse, Authorise3dsResponseBody.class);
             var mappedStatus = mapStatus(responseBody.resultCode());
 
@@ -110,7 +110,7 @@ public class AdyenAuthoriseHandler {
 
         logger.info("Calling Adyen for " + extraLog + "authorisation of charge");
         try {
-            var jsonResponse = gatewayClient.postRequestFor(authorisationRequest).getEntity();
+            var jsonResponse = gatewayClient.postRequestFor(authorisationRequest).getEntityBytes();
             var paymentResponse = jsonObjectMapper.getObject(
                     jsonResponse,
                     AuthoriseResponseBody.class);
@@ -53,7 +53,7 @@ public class AdyenCancelHandler {
                 request.getGatewayAccount().getType(),
                 jsonObjectMapper);
         try {
-            var jsonResponse = gatewayClient.postRequestFor(cancelRequest).getEntity();
+            var jsonResponse = gatewayClient.postRequestFor(cancelRequest).getEntityBytes();
             var cancelResponse = jsonObjectMapper.getObject(jsonResponse, CancelResponseBody.class);
             return responseBuilder.withResponse(AdyenCancelResponse.from(cancelResponse))
                     .build();
@@ -56,7 +56,7 @@ public class AdyenCaptureHandler implements CaptureHandler {
                 jsonObjectMapper);
 
         try {
-            var jsonResponse = gatewayClient.postRequestFor(adyenCaptureRequest).getEntity();
+            var jsonResponse = gatewayClient.postRequestFor(adyenCaptureRequest).getEntityBytes();
             var captureResponse = jsonObjectMapper.getObject(jsonResponse, CaptureResponseBody.class);
 
             return fromBaseCaptureResponse(AdyenCaptureResponse.from(captureResponse), PENDING);
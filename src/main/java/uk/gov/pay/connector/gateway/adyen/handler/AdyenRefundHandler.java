@@ -57,7 +57,7 @@ public class AdyenRefundHandler implements RefundHandler {
                 jsonObjectMapper);
 
         try {
-            var jsonResponse = gatewayClient.postRequestFor(adyenRefundRequest).getEntity();
+            var jsonResponse = gatewayClient.postRequestFor(adyenRefundRequest).getEntityBytes();
             var adyenRefund = jsonObjectMapper.getObject(jsonResponse, RefundResponseBody.class);
 
             return fromBaseRefundResponse(AdyenRefundResponse.from(adyenRefund), PENDING);
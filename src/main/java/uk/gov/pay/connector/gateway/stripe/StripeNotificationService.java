@@ -13,6 +13,7 @@ import uk.gov.pay.connector.app.StripeGatewayConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusChangeNotifier;
 import uk.gov.pay.connector.common.exception.OperationAlreadyInProgressRuntimeException;
 import uk.gov.pay.connector.events.model.payout.PayoutEvent;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
@@ -36,8 +37,12 @@ import jakarta.ws.rs.WebApplicationException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static net.logstash.logback.argument.StructuredArguments.kv;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
@@ -86,6 +91,7 @@ public class StripeNotificationService {
     private final IpAddressMatcher ipAddressMatcher;
     private final Set<String> allowedStripeIpAddresses;
     private final TaskQueueService taskQueueService;
+    private final ChargeStatusChangeNotifier chargeStatusChangeNotifier;
 
     private static final String PAYMENT_GATEWAY_NAME = PaymentGatewayName.STRIPE.getName();
     private static final long DEFAULT_TOLERANCE = 300L;
@@ -101,7 +107,8 @@ public class StripeNotificationService {
                                      IpAddressMatcher ipAddressMatcher,
                                      @Named("AllowedStripeIpAddresses") Set<String> allowedStripeIpAddresses,
                                      ObjectMapper objectMapper,
-                                     TaskQueueService taskQueueService) {
+                                     TaskQueueService taskQueueService,
+                                     ChargeStatusChangeNotifier chargeStatusChangeNotifier) {
         this.card3dsResponseAuthService = card3dsResponseAuthService;
         this.chargeService = chargeService;
         this.stripeAccountUpdatedHandler = stripeAccountUpdatedHandler;
@@ -113,6 +120,7 @@ public class StripeNotificationService {
         this.ipAddressMatcher = ipAddressMatcher;
         this.allowedStripeIpAddresses = allowedStripeIpAddresses;
         this.taskQueueService = taskQueueService;
+        this.chargeStatusChangeNotifier = chargeStatusChangeNotifier;
     }
 
     public boolean handleNotificationFor(String payload, String signatureHeader, String forwardedIpAddresses) {
@@ -289,22 +297,25 @@ public class StripeNotificationService {
     }
 
     private void delayFor3dsReady(ChargeEntity charge) {
-        int totalTimeDelayedInMillis = 0;
-        int delayInMillis = 200;
-        while (totalTimeDelayedInMillis < stripeGatewayConfig.getNotification3dsWaitDelay()) {
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<ChargeStatus> threeDsReady = chargeStatusChangeNotifier.onStatus(charge.getExternalId(), AUTHORISATION_3DS_READY);
+        try {
             ChargeEntity chargeEntity = chargeService.findChargeByExternalId(charge.getExternalId());
-            if (ChargeStatus.fromString(chargeEntity.getStatus()) == AUTHORISATION_3DS_READY) {
-                break;
-            }
-            try {
-                Thread.sleep(delayInMillis);
-            } catch (InterruptedException e) {
-                logger.error("Waiting for 3ds ready locking state failed, {}", kv("error", e.getMessage()));
+            if (ChargeStatus.fromString(chargeEntity.getStatus()) != AUTHORISATION_3DS_READY) {
+                threeDsReady.get(stripeGatewayConfig.getNotification3dsWaitDelay(), MILLISECONDS);
             }
-            totalTimeDelayedInMillis += delayInMillis;
+        } catch (TimeoutException e) {
+            // Frontend has not updated the charge in time, carry on and authorise it anyway
+        } catch (InterruptedException e) {
+            logger.error("Waiting for 3ds ready locking state failed, {}", kv("error", e.getMessage()));
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Waiting for 3ds ready locking state failed, {}", kv("error", e.getMessage()));
+        } finally {
+            chargeStatusChangeNotifier.cancel(charge.getExternalId(), threeDsReady);
         }
         logger.info("Total time waited for Frontend to update charge [{}] to 3ds ready - {} milliseconds,"
-                , kv(PAYMENT_EXTERNAL_ID, charge.getExternalId()), totalTimeDelayedInMillis);
+                , kv(PAYMENT_EXTERNAL_ID, charge.getExternalId()), System.currentTimeMillis() - startTime);
     }
 
     private boolean isAPaymentIntentNotification(StripeNotification notification) {
@@ -242,7 +242,7 @@ public class StripePaymentProvider implements PaymentProvider {
                 charge.getExternalId(),
                 stripeGatewayConfig);
 
-        String rawResponse = client.postRequestFor(transferInRequest).getEntity();
+        byte[] rawResponse = client.postRequestFor(transferInRequest).getEntityBytes();
         StripeTransfer stripeTransfer = jsonObjectMapper.getObject(rawResponse, StripeTransfer.class);
 
         logger.info("Funds transferred for dispute {} for charge {}, transferred net amount {} - transfer id {} - from Stripe Connect account id {} in transfer group {}",
@@ -168,13 +168,13 @@ public class StripeAuthoriseHandler implements AuthoriseHandler {
 
     private StripeCustomer createCustomer(CardAuthorisationGatewayRequest request, AgreementEntity agreement)
             throws GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException, GatewayException.GatewayErrorException {
-        String jsonResponse = client.postRequestFor(StripeCustomerRequest.of(request, stripeGatewayConfig, agreement)).getEntity();
+        byte[] jsonResponse = client.postRequestFor(StripeCustomerRequest.of(request, stripeGatewayConfig, agreement)).getEntityBytes();
         return jsonObjectMapper.getObject(jsonResponse, StripeCustomer.class);
     }
 
     private StripePaymentMethod createPaymentMethod(CardAuthorisationGatewayRequest request)
             throws GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException, GatewayException.GatewayErrorException {
-        String jsonResponse = client.postRequestFor(StripePaymentMethodRequest.of(request, stripeGatewayConfig)).getEntity();
+        byte[] jsonResponse = client.postRequestFor(StripePaymentMethodRequest.of(request, stripeGatewayConfig)).getEntityBytes();
         return jsonObjectMapper.getObject(jsonResponse, StripePaymentMethod.class);
     }
 
@@ -182,7 +182,7 @@ public class StripeAuthoriseHandler implements AuthoriseHandler {
             throws GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException, GatewayException.GatewayErrorException {
         StripePaymentIntentRequest paymentIntentRequest = StripePaymentIntentRequest.createOneOffPaymentIntentRequest(
                 request, paymentMethodId, stripeGatewayConfig, frontendUrl);
-        String jsonResponse = client.postRequestFor(paymentIntentRequest).getEntity();
+        byte[] jsonResponse = client.postRequestFor(paymentIntentRequest).getEntityBytes();
         return jsonObjectMapper.getObject(jsonResponse, StripePaymentIntent.class);
     }
 
@@ -190,7 +190,7 @@ public class StripeAuthoriseHandler implements AuthoriseHandler {
             throws GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException, GatewayException.GatewayErrorException {
         var paymentIntentRequest = StripePaymentIntentRequest.createPaymentIntentRequestWithSetupFutureUsage(
                 request, paymentMethodId, customerId, stripeGatewayConfig, frontendUrl);
-        String jsonResponse = client.postRequestFor(paymentIntentRequest).getEntity();
+        byte[] jsonResponse = client.postRequestFor(paymentIntentRequest).getEntityBytes();
         return jsonObjectMapper.getObject(jsonResponse, StripePaymentIntent.class);
     }
 
@@ -203,19 +203,19 @@ public class StripeAuthoriseHandler implements AuthoriseHandler {
         var paymentMethodId = recurringAuthToken.get(STRIPE_RECURRING_AUTH_TOKEN_PAYMENT_METHOD_ID_KEY);
         var paymentIntentRequest = StripePaymentIntentRequest.createPaymentIntentRequestUseSavedPaymentDetails(
                 request, paymentMethodId, customerId, stripeGatewayConfig, frontendUrl);
-        String jsonResponse = client.postRequestFor(paymentIntentRequest).getEntity();
+        byte[] jsonResponse = client.postRequestFor(paymentIntentRequest).getEntityBytes();
         return jsonObjectMapper.getObject(jsonResponse, StripePaymentIntent.class);
     }
 
     private StripeToken createTokenForApplePay(ApplePayAuthorisationGatewayRequest authorisationGatewayRequest) 
             throws GatewayException.GenericGatewayException, GatewayException.GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
-        String tokenJsonResponse = client.postRequestFor(StripeTokenRequest.of(authorisationGatewayRequest, stripeGatewayConfig)).getEntity();
+        byte[] tokenJsonResponse = client.postRequestFor(StripeTokenRequest.of(authorisationGatewayRequest, stripeGatewayConfig)).getEntityBytes();
         return jsonObjectMapper.getObject(tokenJsonResponse, StripeToken.class);
     }
 
     private StripePaymentIntent createPaymentIntentFromWalletToken(AuthorisationGatewayRequest request, String tokenId) 
             throws GatewayException.GenericGatewayException, GatewayException.GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
-        String paymentIntentJsonResponse = client.postRequestFor(StripePaymentIntentRequest.createPaymentIntentRequestWithToken(request, tokenId, stripeGatewayConfig, frontendUrl)).getEntity();
+        byte[] paymentIntentJsonResponse = client.postRequestFor(StripePaymentIntentRequest.createPaymentIntentRequestWithToken(request, tokenId, stripeGatewayConfig, frontendUrl)).getEntityBytes();
         return jsonObjectMapper.getObject(paymentIntentJsonResponse, StripePaymentIntent.class);
     }
 }
@@ -100,7 +100,7 @@ public class StripeCaptureHandler implements CaptureHandler {
 
     private StripeCharge queryStripeCharge(CaptureGatewayRequest request) throws GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException, GatewayErrorException {
         var getPaymentIntentRequest = new StripeGetPaymentIntentRequest(request.getGatewayAccount(), stripeGatewayConfig, request.getGatewayTransactionId());
-        String rawResponse = client.getRequestFor(getPaymentIntentRequest).getEntity();
+        byte[] rawResponse = client.getRequestFor(getPaymentIntentRequest).getEntityBytes();
         StripePaymentIntent paymentIntent = jsonObjectMapper.getObject(rawResponse, StripePaymentIntent.class);
 
         return getStripeChargeFromPaymentIntent(paymentIntent);
@@ -129,7 +129,7 @@ public class StripeCaptureHandler implements CaptureHandler {
             StripeSearchTransfersRequest searchTransfersRequest = new StripeSearchTransfersRequest(
                     request.getGatewayAccount(), stripeGatewayConfig, request.getExternalId());
             
-            String rawResponse = client.getRequestFor(searchTransfersRequest).getEntity();
+            byte[] rawResponse = client.getRequestFor(searchTransfersRequest).getEntityBytes();
             StripeSearchTransfersResponse transfersResponse = jsonObjectMapper.getObject(rawResponse,
                     StripeSearchTransfersResponse.class);
             
@@ -145,7 +145,7 @@ public class StripeCaptureHandler implements CaptureHandler {
     }
 
     private StripeCharge captureWithPaymentIntentAPI(CaptureGatewayRequest request) throws GatewayException {
-        String captureResponse = client.postRequestFor(StripePaymentIntentCaptureRequest.of(request, stripeGatewayConfig)).getEntity();
+        byte[] captureResponse = client.postRequestFor(StripePaymentIntentCaptureRequest.of(request, stripeGatewayConfig)).getEntityBytes();
         StripePaymentIntent stripeCaptureResponse = jsonObjectMapper.getObject(captureResponse, StripePaymentIntent.class);
         StripeCharge stripeCharge = getStripeChargeFromPaymentIntent(stripeCaptureResponse);
 
@@ -158,7 +158,7 @@ public class StripeCaptureHandler implements CaptureHandler {
     }
 
     private void transferToConnectAccount(CaptureGatewayRequest request, Long netTransferAmount, String stripeChargeId) throws GatewayException.GenericGatewayException, GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
-        String transferResponse = client.postRequestFor(StripeTransferOutRequest.of(netTransferAmount.toString(), stripeChargeId, request, stripeGatewayConfig)).getEntity();
+        byte[] transferResponse = client.postRequestFor(StripeTransferOutRequest.of(netTransferAmount.toString(), stripeChargeId, request, stripeGatewayConfig)).getEntityBytes();
         StripeTransfer stripeTransfer = jsonObjectMapper.getObject(transferResponse, StripeTransfer.class);
         LOGGER.info("In capturing charge id {}, transferred net amount {} - transfer id {} -  to Stripe Connect account id {} in transfer group {}",
                 request.getExternalId(),
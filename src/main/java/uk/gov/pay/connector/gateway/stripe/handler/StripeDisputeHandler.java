@@ -22,7 +22,7 @@ public class StripeDisputeHandler {
     public StripeDisputeData submitTestDisputeEvidence(String disputeId, String evidenceText, String transactionId) throws GatewayException.GatewayErrorException, GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException {
         StripeSubmitTestDisputeEvidenceRequest request = StripeSubmitTestDisputeEvidenceRequest.of(stripeGatewayConfig,
                 disputeId, evidenceText, transactionId);
-        String jsonResponse = client.postRequestFor(request).getEntity();
+        byte[] jsonResponse = client.postRequestFor(request).getEntityBytes();
         return jsonObjectMapper.getObject(jsonResponse, StripeDisputeData.class);
     }
 }
@@ -88,7 +88,7 @@ public class StripeFailedPaymentFeeCollectionHandler {
     private StripePaymentIntent getPaymentIntent(ChargeEntity charge)
             throws GatewayException.GatewayErrorException, GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException {
         var request = StripeGetPaymentIntentRequest.of(charge, stripeGatewayConfig);
-        String rawResponse = client.getRequestFor(request).getEntity();
+        byte[] rawResponse = client.getRequestFor(request).getEntityBytes();
         return jsonObjectMapper.getObject(rawResponse, StripePaymentIntent.class);
     }
 
@@ -102,7 +102,7 @@ public class StripeFailedPaymentFeeCollectionHandler {
                 charge.getGatewayTransactionId(),
                 charge.getExternalId(),
                 stripeGatewayConfig);
-        String rawResponse = client.postRequestFor(transferInRequest).getEntity();
+        byte[] rawResponse = client.postRequestFor(transferInRequest).getEntityBytes();
         StripeTransfer stripeTransfer = jsonObjectMapper.getObject(rawResponse, StripeTransfer.class);
 
         LOGGER.info("To collect fees for failed payment {}, transferred net amount {} - transfer id {} - from Stripe Connect account id {} in transfer group {}",
@@ -41,7 +41,7 @@ public class StripeQueryPaymentStatusHandler {
         StripeQueryPaymentStatusRequest request = StripeQueryPaymentStatusRequest.of(chargeQueryGatewayRequest.getGatewayAccount(),
                 stripeGatewayConfig, chargeQueryGatewayRequest.getChargeExternalId());
         try {
-            String rawResponse = client.getRequestFor(request).getEntity();
+            byte[] rawResponse = client.getRequestFor(request).getEntityBytes();
             StripeSearchPaymentIntentsResponse queryResponse = jsonObjectMapper.getObject(rawResponse, StripeSearchPaymentIntentsResponse.class);
             List<StripePaymentIntent> paymentIntentList = queryResponse.getPaymentIntents();
             if (paymentIntentList == null || paymentIntentList.isEmpty()) {
@@ -90,13 +90,13 @@ public class StripeRefundHandler {
     }
     
     private StripePaymentIntent getPaymentIntent(RefundGatewayRequest request) throws GatewayException.GenericGatewayException, GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
-        final String rawResponse = client.getRequestFor(StripeGetPaymentIntentRequest.of(request, stripeGatewayConfig)).getEntity();
+        final byte[] rawResponse = client.getRequestFor(StripeGetPaymentIntentRequest.of(request, stripeGatewayConfig)).getEntityBytes();
         return jsonObjectMapper.getObject(rawResponse, StripePaymentIntent.class);
     }
 
     private StripeRefund refundCharge(RefundGatewayRequest request, String stripeChargeId) throws GatewayException.GenericGatewayException, GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
         StripeRefundRequest stripeRefundRequest = StripeRefundRequest.of(request, stripeChargeId, stripeGatewayConfig);
-        final String refundResponse = client.postRequestFor(stripeRefundRequest).getEntity();
+        final byte[] refundResponse = client.postRequestFor(stripeRefundRequest).getEntityBytes();
         StripeRefund refund = jsonObjectMapper.getObject(refundResponse, StripeRefund.class);
         logger.info("As part of refund {} to refund charge id {} refunded stripe charge id {}",
                 request.getTransactionId(),
@@ -109,7 +109,7 @@ public class StripeRefundHandler {
     }
 
     private StripeTransfer transferFromConnectAccount(RefundGatewayRequest request, String stripeChargeId) throws GatewayException.GenericGatewayException, GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
-        String transferResponse = client.postRequestFor(StripeTransferInRequest.createRefundTransferRequest(request, stripeChargeId, stripeGatewayConfig)).getEntity();
+        byte[] transferResponse = client.postRequestFor(StripeTransferInRequest.createRefundTransferRequest(request, stripeChargeId, stripeGatewayConfig)).getEntityBytes();
         StripeTransfer stripeTransfer = jsonObjectMapper.getObject(transferResponse, StripeTransfer.class);
         logger.info("As part of refund {} refunding charge id {}, transferred net amount {} - transfer id {} -  from Stripe Connect account id {} in transfer group {}",
                 request.getRefundExternalId(),
@@ -5,4 +5,9 @@ import static uk.gov.pay.connector.gateway.OrderRequestBuilder.TemplateData;
 public interface PayloadBuilder {
 
     String buildWith(TemplateData templateData);
+
+    /**
+     * Renders the payload as the UTF-8 bytes that are sent to the gateway.
+     */
+    byte[] buildBytesWith(TemplateData templateData);
 }
@@ -0,0 +1,87 @@
+package uk.gov.pay.connector.gateway.templates;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+import static freemarker.template.Configuration.VERSION_2_3_34;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Loads and renders the gateway request templates under /templates. All templates share one FreeMarker configuration
+ * and are compiled once, when the builder that uses them is created.
+ * <p>
+ * Rendering writes UTF-8 straight into a per-thread buffer that is reused between requests, so a payload is encoded
+ * once and copied once instead of going through a StringWriter, a String and the HTTP client's own encoding. Buffers
+ * that have grown past {@link #MAX_RETAINED_BUFFER_BYTES} are discarded rather than kept for the life of the thread.
+ */
+final class TemplateRenderer {
+
+    static final String TEMPLATE_DIR = "/templates";
+    private static final int INITIAL_BUFFER_BYTES = 4 * 1024;
+    private static final int MAX_RETAINED_BUFFER_BYTES = 64 * 1024;
+
+    private static final Configuration CONFIGURATION = createConfiguration();
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private TemplateRenderer() {
+    }
+
+    static Template load(String templatePath) {
+        try {
+            return CONFIGURATION.getTemplate(templatePath);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load template " + templatePath + " in dir " + TEMPLATE_DIR, e);
+        }
+    }
+
+    static byte[] render(Template template, Object dataModel) {
+        RenderBuffer buffer = BUFFERS.get();
+        buffer.reset();
+        boolean rendered = false;
+        try {
+            template.process(dataModel, buffer.writer);
+            buffer.writer.flush();
+            byte[] payload = buffer.toByteArray();
+            rendered = true;
+            return payload;
+        } catch (TemplateException | IOException e) {
+            throw new RuntimeException("Could not render template " + template.getName(), e);
+        } finally {
+            // after a failed render the writer may still hold part of the output, so the buffer is not reused
+            if (!rendered || buffer.capacity() > MAX_RETAINED_BUFFER_BYTES) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    private static Configuration createConfiguration() {
+        Configuration cfg = new Configuration(VERSION_2_3_34);
+        cfg.setDefaultEncoding("UTF-8");
+        cfg.setLocale(Locale.ENGLISH);
+        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        cfg.setClassForTemplateLoading(TemplateRenderer.class, TEMPLATE_DIR);
+        // templates are on the classpath and never change while the app is running
+        cfg.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        return cfg;
+    }
+
+    private static final class RenderBuffer extends ByteArrayOutputStream {
+        private final Writer writer = new OutputStreamWriter(this, UTF_8);
+
+        private RenderBuffer() {
+            super(INITIAL_BUFFER_BYTES);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
+}
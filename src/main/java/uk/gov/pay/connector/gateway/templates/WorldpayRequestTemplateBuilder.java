@@ -1,42 +1,42 @@
 package uk.gov.pay.connector.gateway.templates;
 
-import freemarker.template.Configuration;
 import freemarker.template.Template;
-import freemarker.template.TemplateException;
-import freemarker.template.TemplateExceptionHandler;
 import uk.gov.pay.connector.gateway.model.request.records.WorldpayRequest;
 
-import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
-import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static freemarker.template.Configuration.VERSION_2_3_34;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class WorldpayRequestTemplateBuilder {
-    private final Configuration cfg;
+
+    // every template under templates/worldpay, which WorldpayRequestTemplateBuilderTest checks
+    static final List<String> WORLDPAY_TEMPLATES = List.of(
+            "worldpay/Worldpay3dsResponseAuthOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseApplePayOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseGooglePayOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseMotoOrderTemplate.ftlx",
+            "worldpay/WorldpayAuthoriseOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseRecurringOrderTemplate.xml",
+            "worldpay/WorldpayCancelOrderTemplate.xml",
+            "worldpay/WorldpayCaptureOrderTemplate.xml",
+            "worldpay/WorldpayDeleteTokenOrderTemplate.xml",
+            "worldpay/WorldpayInquiryOrderTemplate.xml",
+            "worldpay/WorldpayRefundOrderTemplate.xml");
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
 
     public WorldpayRequestTemplateBuilder() {
-        cfg = new Configuration(VERSION_2_3_34);
-        cfg.setDefaultEncoding("UTF-8");
-        cfg.setLocale(Locale.ENGLISH);
-        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        cfg.setClassForTemplateLoading(WorldpayRequestTemplateBuilder.class, "/templates");
+        WORLDPAY_TEMPLATES.forEach(templatePath -> templates.put(templatePath, TemplateRenderer.load(templatePath)));
     }
 
     public String buildWith(String templatePath, WorldpayRequest templateRecord) {
-        Template template;
-        try {
-            template = cfg.getTemplate(templatePath);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not load template " + templatePath + " in dir /templates", e);
-        }
-        Writer responseWriter = new StringWriter();
-        try {
-            template.process(templateRecord, responseWriter);
-        } catch (TemplateException | IOException e) {
-            throw new RuntimeException("Could not render template " + template.getName(), e);
-        }
-        return responseWriter.toString();
+        return new String(buildBytesWith(templatePath, templateRecord), UTF_8);
+    }
+
+    public byte[] buildBytesWith(String templatePath, WorldpayRequest templateRecord) {
+        Template template = templates.computeIfAbsent(templatePath, TemplateRenderer::load);
+        return TemplateRenderer.render(template, templateRecord);
     }
 }
@@ -15,6 +15,10 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
@@ -24,6 +28,15 @@ public class XMLUnmarshaller {
     private static final String JDK_ENTITY_EXPANSION_LIMIT = "http://www.oracle.com/xml/jaxp/properties/entityExpansionLimit";
     private static final String JDK_ENTITY_EXPANSION_LIMIT_VALUE = "1";
 
+    static final int MAX_POOLED_INSTANCES = 64;
+
+    // JAXBContext is thread-safe and expensive to build, so one is kept per target class for the life of the JVM.
+    // Unmarshallers and XMLReaders are not thread-safe, so they are borrowed from bounded pools and only returned
+    // after a successful parse; anything involved in a failed parse is discarded rather than risk reusing bad state.
+    private static final Map<Class<?>, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, BlockingQueue<Unmarshaller>> unmarshallerPools = new ConcurrentHashMap<>();
+    private static final BlockingQueue<XMLReader> xmlReaderPool = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
     /**
      * Unmarshall XML payloads to Java instance
      *
@@ -36,21 +49,70 @@ public class XMLUnmarshaller {
      * NamespaceAware must be set to true (soap envelopes are being unmarshalled using same method)
      */
     public static <T> T unmarshall(String payload, Class<T> clazz) throws XMLUnmarshallerException {
+        return unmarshall(payload.getBytes(UTF_8), clazz);
+    }
+
+    /**
+     * Unmarshall an XML payload as received, leaving the parser to work out its encoding from the XML declaration
+     */
+    public static <T> T unmarshall(byte[] payload, Class<T> clazz) throws XMLUnmarshallerException {
         try {
-            XMLReader xmlReader = buildXmlReader();
-            return unmarshall(payload, clazz, xmlReader);
+            XMLReader xmlReader = borrowXmlReader();
+            Unmarshaller unmarshaller = borrowUnmarshaller(clazz);
+            T result = unmarshall(payload, clazz, xmlReader, unmarshaller);
+            xmlReaderPool.offer(xmlReader);
+            unmarshallerPools.get(clazz).offer(unmarshaller);
+            return result;
         } catch (ParserConfigurationException | SAXException | JAXBException e) {
             throw new XMLUnmarshallerException(e);
         }
     }
 
-    private static <T> T unmarshall(String payload, Class<T> clazz, XMLReader xmlReader) throws JAXBException {
-        InputSource inputSource = new InputSource(new ByteArrayInputStream(payload.getBytes(UTF_8)));
-        JAXBContext jaxbContext = JAXBContext.newInstance(clazz);
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+    /**
+     * Builds the {@link JAXBContext} for each class and primes the pools with one unmarshaller and reader,
+     * so the first gateway response or notification after startup does not pay for JAXB introspection.
+     */
+    public static void warmUp(Class<?>... classes) throws XMLUnmarshallerException {
+        try {
+            for (Class<?> clazz : classes) {
+                unmarshallerPools.computeIfAbsent(clazz, c -> new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES))
+                        .offer(getJaxbContext(clazz).createUnmarshaller());
+            }
+            xmlReaderPool.offer(buildXmlReader());
+        } catch (ParserConfigurationException | SAXException | JAXBException e) {
+            throw new XMLUnmarshallerException(e);
+        }
+    }
+
+    private static <T> T unmarshall(byte[] payload, Class<T> clazz, XMLReader xmlReader, Unmarshaller unmarshaller) throws JAXBException {
+        InputSource inputSource = new InputSource(new ByteArrayInputStream(payload));
         return unmarshaller.unmarshal(new SAXSource(xmlReader, inputSource), clazz).getValue();
     }
 
+    private static Unmarshaller borrowUnmarshaller(Class<?> clazz) throws JAXBException {
+        Unmarshaller pooled = unmarshallerPools
+                .computeIfAbsent(clazz, c -> new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES))
+                .poll();
+        return pooled != null ? pooled : getJaxbContext(clazz).createUnmarshaller();
+    }
+
+    private static XMLReader borrowXmlReader() throws ParserConfigurationException, SAXException {
+        XMLReader pooled = xmlReaderPool.poll();
+        return pooled != null ? pooled : buildXmlReader();
+    }
+
+    private static JAXBContext getJaxbContext(Class<?> clazz) throws JAXBException {
+        JAXBContext jaxbContext = jaxbContexts.get(clazz);
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(clazz);
+            JAXBContext existing = jaxbContexts.putIfAbsent(clazz, jaxbContext);
+            if (existing != null) {
+                jaxbContext = existing;
+            }
+        }
+        return jaxbContext;
+    }
+
     private static XMLReader buildXmlReader() throws ParserConfigurationException, SAXException {
         SAXParserFactory spf = SAXParserFactory.newInstance();
         spf.setFeature(FEATURE_SECURE_PROCESSING, true); // Explicitly set. Do not remove
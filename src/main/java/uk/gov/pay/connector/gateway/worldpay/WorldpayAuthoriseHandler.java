@@ -21,6 +21,7 @@ import uk.gov.pay.connector.gateway.util.AuthorisationRequestSummaryStructuredLo
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.util.AcceptLanguageHeaderParser;
+import uk.gov.pay.connector.util.LoggablePayload;
 
 import java.net.URI;
 import java.util.Locale;
@@ -105,7 +106,7 @@ public class WorldpayAuthoriseHandler implements WorldpayGatewayResponseGenerato
     public GatewayResponse<WorldpayOrderStatusResponse> authorise(WorldpayAuthoriseRequest worldpayAuthoriseRequest,
                                                                   GatewayAccountType gatewayAccountType) {
         Map<String, String> headers = getAuthHeader(worldpayAuthoriseRequest.username(), worldpayAuthoriseRequest.password());
-        String body = worldpayRequestTemplateBuilder.buildWith(MOTO_TEMPLATE_PATH, worldpayAuthoriseRequest);
+        byte[] body = worldpayRequestTemplateBuilder.buildBytesWith(MOTO_TEMPLATE_PATH, worldpayAuthoriseRequest);
         GatewayOrder gatewayOrder = new GatewayOrder(OrderRequestType.AUTHORISE, body, MediaType.APPLICATION_XML_TYPE);
         return getGatewayResponse(gatewayAccountType.toString(), gatewayOrder, headers);
     }
@@ -120,10 +121,12 @@ public class WorldpayAuthoriseHandler implements WorldpayGatewayResponseGenerato
                     gatewayOrder,
                     headers);
 
-            if (response.getEntity().contains("request3DSecure")) {
-                LOGGER.info(format("Worldpay authorisation response when 3ds required: %s", sanitiseMessage(response.getEntity())));
+            GatewayResponse<WorldpayOrderStatusResponse> gatewayResponse = getWorldpayGatewayResponse(response);
+            if (gatewayResponse.getBaseResponse().map(WorldpayOrderStatusResponse::getPaRequest).isPresent()) {
+                LOGGER.info(format("Worldpay authorisation response when 3ds required: %s",
+                        sanitiseMessage(LoggablePayload.of(response.getEntityBytes()).toString())));
             }
-            return getWorldpayGatewayResponse(response);
+            return gatewayResponse;
         } catch (GatewayException.GatewayErrorException e) {
 
             if (e.getStatus().isPresent() && (e.getFamily() == CLIENT_ERROR || e.getFamily() == SERVER_ERROR)) {
@@ -53,6 +53,7 @@ import uk.gov.pay.connector.paymentprocessor.model.Exemption3ds;
 import uk.gov.pay.connector.paymentprocessor.service.AuthorisationService;
 import uk.gov.pay.connector.refund.model.domain.Refund;
 import uk.gov.pay.connector.refund.service.RefundEntityFactory;
+import uk.gov.pay.connector.util.LoggablePayload;
 import uk.gov.pay.connector.wallets.applepay.ApplePayAuthorisationGatewayRequest;
 import uk.gov.pay.connector.wallets.googlepay.GooglePayAuthorisationGatewayRequest;
 
@@ -375,7 +376,7 @@ public class WorldpayPaymentProvider implements PaymentProvider, WorldpayGateway
 
             calculateAndStoreExemption(request.getCharge(), gatewayResponse);
 
-            LOGGER.info(format("Worldpay 3ds authorisation response for %s : %s", request.getChargeExternalId(), sanitiseMessage(response.getEntity())));
+            LOGGER.info(format("Worldpay 3ds authorisation response for %s : %s", request.getChargeExternalId(), sanitiseMessage(LoggablePayload.of(response.getEntityBytes()).toString())));
 
             if (gatewayResponse.getBaseResponse().isEmpty()) {
                 gatewayResponse.throwGatewayError();
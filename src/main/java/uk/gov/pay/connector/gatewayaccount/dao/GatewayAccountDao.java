@@ -2,63 +2,97 @@ package uk.gov.pay.connector.gatewayaccount.dao;
 
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.QueryHints;
 import uk.gov.pay.connector.common.dao.JpaDao;
+import uk.gov.pay.connector.common.service.ReferenceDataCache;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSearchParams;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccount.CREDENTIALS_MERCHANT_ID;
 
 @Transactional
 public class GatewayAccountDao extends JpaDao<GatewayAccountEntity> {
 
+    private final ReferenceDataCache referenceDataCache;
+
     @Inject
-    public GatewayAccountDao(final Provider<EntityManager> entityManager) {
+    public GatewayAccountDao(final Provider<EntityManager> entityManager, ReferenceDataCache referenceDataCache) {
         super(entityManager);
+        this.referenceDataCache = referenceDataCache;
     }
 
     public Optional<GatewayAccountEntity> findById(Long gatewayAccountId) {
+        referenceDataCache.recordLookup(GatewayAccountEntity.class, gatewayAccountId);
         return super.findById(GatewayAccountEntity.class, gatewayAccountId);
     }
     
     public boolean isATelephonePaymentNotificationAccount(String merchantId) {
         String query = "SELECT count(g) FROM gateway_accounts g, gateway_account_credentials gac " +
                 " where g.id = gac.gateway_account_id " +
-                " AND gac.credentials->>?1 = ?2 " +
+                " AND gac.merchant_id = ?1 " +
                 " and g.allow_telephone_payment_notifications is true";
 
         var count = (Number) entityManager.get()
                 .createNativeQuery(query)
-                .setParameter(1, CREDENTIALS_MERCHANT_ID)
-                .setParameter(2, merchantId)
+                .setParameter(1, merchantId)
                 .getSingleResult();
 
         return count.intValue() > 0;
     }
 
-    public List<GatewayAccountEntity> search(GatewayAccountSearchParams params) {
-        List<String> filterTemplates = params.getFilterTemplates();
-        String whereClause = filterTemplates.isEmpty() ?
-                "" :
-                " WHERE " + String.join(" AND ", filterTemplates);
+    /**
+     * Returns up to pageSize accounts matching the search, with ids greater than afterId, in id order. Credentials,
+     * email notifications and Worldpay 3DS Flex credentials are loaded for the whole page with one IN query each,
+     * rather than one query per account.
+     */
+    public List<GatewayAccountEntity> searchPage(GatewayAccountSearchParams params, long afterId, int pageSize) {
+        List<String> filterTemplates = new ArrayList<>(params.getFilterTemplates());
+        filterTemplates.add(" ga.id > #afterId");
 
-        String queryTemplate = "SELECT ga.*" +
+        String queryTemplate = "SELECT ga.id" +
                 " FROM gateway_accounts ga" +
-                whereClause +
-                " ORDER BY ga.id";
+                " WHERE " + String.join(" AND ", filterTemplates) +
+                " ORDER BY ga.id" +
+                " LIMIT #pageSize";
 
-        var query = entityManager
+        var idQuery = entityManager
                 .get()
-                .createNativeQuery(queryTemplate, GatewayAccountEntity.class);
+                .createNativeQuery(queryTemplate);
+
+        params.getQueryMap().forEach(idQuery::setParameter);
+        idQuery.setParameter("afterId", afterId);
+        idQuery.setParameter("pageSize", pageSize);
+
+        List<Long> ids = ((List<?>) idQuery.getResultList()).stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        params.getQueryMap().forEach(query::setParameter);
+        List<GatewayAccountEntity> accounts = entityManager
+                .get()
+                .createQuery("SELECT g FROM GatewayAccountEntity g WHERE g.id IN :ids ORDER BY g.id", GatewayAccountEntity.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN)
+                .setHint(QueryHints.BATCH, "g.gatewayAccountCredentials")
+                .setHint(QueryHints.BATCH, "g.emailNotifications")
+                .setHint(QueryHints.BATCH, "g.worldpay3dsFlexCredentialsEntity")
+                .getResultList();
 
-        return query.getResultList();
+        // Touch the batched relationships while still in the unit of work, so the whole page is loaded here
+        accounts.forEach(account -> {
+            account.getGatewayAccountCredentials().size();
+            account.getEmailNotifications().size();
+        });
+        return accounts;
     }
 
     public Optional<GatewayAccountEntity> findByExternalId(String externalId) {
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.StringJoiner;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -111,6 +112,20 @@ public class GatewayAccountSearchParams {
     @Schema(example = "true", description = "The accounts will be filtered by whether or not recurring payments are enabled for the account when this parameter is provided.")
     private String recurringEnabled;
 
+    @QueryParam("after_id")
+    @Pattern(regexp = "^\\d{1,18}$",
+            message = "Parameter [after_id] must be a number of at most 18 digits")
+    @JsonProperty("after_id")
+    @Schema(example = "100", description = "Only accounts with an ID greater than this are returned. To get the next page of a search with a limit, pass the last account ID from the previous page.")
+    private String afterId;
+
+    @QueryParam("limit")
+    @Pattern(regexp = "^[1-9]\\d{0,17}$",
+            message = "Parameter [limit] must be a positive number of at most 18 digits")
+    @JsonProperty("limit")
+    @Schema(example = "500", description = "The maximum number of accounts to return. All matching accounts are returned if this parameter is not provided.")
+    private String limit;
+
     public void setAccountIds(String accountIds) {
         this.accountIds = accountIds;
     }
@@ -155,6 +170,24 @@ public class GatewayAccountSearchParams {
         this.serviceIds = serviceIds;
     }
 
+    public void setAfterId(String afterId) {
+        this.afterId = afterId;
+    }
+
+    public void setLimit(String limit) {
+        this.limit = limit;
+    }
+
+    @JsonIgnore
+    public Optional<Long> getAfterId() {
+        return isBlank(afterId) ? Optional.empty() : Optional.of(Long.valueOf(afterId));
+    }
+
+    @JsonIgnore
+    public Optional<Long> getLimit() {
+        return isBlank(limit) ? Optional.empty() : Optional.of(Long.valueOf(limit));
+    }
+
     private List<String> getAccountIdsAsList() {
         return isBlank(accountIds)
                 ? List.of()
@@ -300,6 +333,8 @@ public class GatewayAccountSearchParams {
                 ", providerSwitchEnabled='" + providerSwitchEnabled + '\'' +
                 ", recurringEnabled='" + recurringEnabled + '\'' +
                 ", paymentProviderAccountId='" + paymentProviderAccountId + '\'' +
+                ", afterId='" + afterId + '\'' +
+                ", limit='" + limit + '\'' +
                 '}';
     }
 }
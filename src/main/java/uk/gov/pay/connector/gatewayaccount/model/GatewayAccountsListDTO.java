@@ -2,23 +2,27 @@ package uk.gov.pay.connector.gatewayaccount.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 
 @JsonInclude(NON_NULL)
 public class GatewayAccountsListDTO {
 
+    // A stream rather than a list so that accounts are written out as they are read from the database
     @JsonProperty("accounts")
-    private final List<GatewayAccountResponse> gatewayAccountsListDTOList;
+    @ArraySchema(schema = @Schema(implementation = GatewayAccountResponse.class))
+    private final Stream<GatewayAccountResponse> gatewayAccountsListDTOList;
 
-    private GatewayAccountsListDTO(List<GatewayAccountResponse> gatewayAccountsListDTOList) {
+    private GatewayAccountsListDTO(Stream<GatewayAccountResponse> gatewayAccountsListDTOList) {
         this.gatewayAccountsListDTOList = gatewayAccountsListDTOList;
     }
 
 
-    public static GatewayAccountsListDTO of(List<GatewayAccountResponse> gatewayAccountsListDTOList) {
+    public static GatewayAccountsListDTO of(Stream<GatewayAccountResponse> gatewayAccountsListDTOList) {
         return new GatewayAccountsListDTO(gatewayAccountsListDTOList);
     }
 }
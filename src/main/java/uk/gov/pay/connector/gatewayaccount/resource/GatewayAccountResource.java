@@ -21,7 +21,6 @@ import uk.gov.pay.connector.gatewayaccount.exception.GatewayAccountNotFoundExcep
 import uk.gov.pay.connector.gatewayaccount.model.CreateGatewayAccountResponse;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountRequest;
-import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountResponse;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSearchParams;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountWithCredentialsResponse;
@@ -162,10 +161,11 @@ public class GatewayAccountResource {
     private GatewayAccountsListDTO getGatewayAccounts(@BeanParam GatewayAccountSearchParams gatewayAccountSearchParams, @Context UriInfo uriInfo) {
         logger.info(format("Searching gateway accounts by parameters %s", gatewayAccountSearchParams.toString()));
 
-        List<GatewayAccountResponse> gatewayAccounts = gatewayAccountService.searchGatewayAccounts(gatewayAccountSearchParams);
-        gatewayAccounts.forEach(account -> account.addLink("self", buildUri(uriInfo, account.getAccountId())));
-
-        return GatewayAccountsListDTO.of(gatewayAccounts);
+        return GatewayAccountsListDTO.of(gatewayAccountService.searchGatewayAccounts(gatewayAccountSearchParams)
+                .map(account -> {
+                    account.addLink("self", buildUri(uriInfo, account.getAccountId()));
+                    return account;
+                }));
     }
 
     private URI buildUri(UriInfo uriInfo, long accountId) {
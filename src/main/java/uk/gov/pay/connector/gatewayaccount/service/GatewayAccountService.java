@@ -27,17 +27,23 @@ import uk.gov.pay.connector.gatewayaccount.model.WorldpayMerchantCodeCredentials
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsHistoryDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsLookupService;
 import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsService;
 import uk.gov.service.payments.commons.model.jsonpatch.JsonPatchRequest;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.lang.String.format;
 import static java.util.Map.entry;
@@ -81,12 +87,14 @@ import static uk.gov.service.payments.logging.LoggingKeys.SERVICE_EXTERNAL_ID;
 public class GatewayAccountService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GatewayAccountService.class);
+    static final int SEARCH_PAGE_SIZE = 500;
 
     private final GatewayAccountDao gatewayAccountDao;
     private final CardTypeDao cardTypeDao;
     private final GatewayAccountCredentialsService gatewayAccountCredentialsService;
     private final GatewayAccountCredentialsHistoryDao gatewayAccountCredentialsHistoryDao;
     private final GatewayAccountCredentialsDao gatewayAccountCredentialsDao;
+    private final GatewayAccountCredentialsLookupService gatewayAccountCredentialsLookupService;
     private UnitOfWork unitOfWork;
 
     @Inject
@@ -94,12 +102,14 @@ public class GatewayAccountService {
                                  GatewayAccountCredentialsService gatewayAccountCredentialsService,
                                  GatewayAccountCredentialsHistoryDao gatewayAccountCredentialsHistoryDao,
                                  GatewayAccountCredentialsDao gatewayAccountCredentialsDao,
+                                 GatewayAccountCredentialsLookupService gatewayAccountCredentialsLookupService,
                                  UnitOfWork unitOfWork) {
         this.gatewayAccountDao = gatewayAccountDao;
         this.cardTypeDao = cardTypeDao;
         this.gatewayAccountCredentialsService = gatewayAccountCredentialsService;
         this.gatewayAccountCredentialsHistoryDao = gatewayAccountCredentialsHistoryDao;
         this.gatewayAccountCredentialsDao = gatewayAccountCredentialsDao;
+        this.gatewayAccountCredentialsLookupService = gatewayAccountCredentialsLookupService;
         this.unitOfWork = unitOfWork;
     }
 
@@ -107,10 +117,37 @@ public class GatewayAccountService {
         return gatewayAccountDao.findById(gatewayAccountId);
     }
 
-    public List<GatewayAccountResponse> searchGatewayAccounts(GatewayAccountSearchParams params) {
-        return gatewayAccountDao.search(params).stream()
-                .map(GatewayAccountResponse::new)
-                .collect(Collectors.toList());
+    /**
+     * Returns the matching accounts lazily, reading them from the database a page at a time as the stream is
+     * consumed, so that a search that matches every account does not load them all at once.
+     */
+    public Stream<GatewayAccountResponse> searchGatewayAccounts(GatewayAccountSearchParams params) {
+        var pages = new Iterator<List<GatewayAccountEntity>>() {
+            private long afterId = params.getAfterId().orElse(0L);
+            private long remaining = params.getLimit().orElse(Long.MAX_VALUE);
+            private boolean lastPageRead;
+
+            @Override
+            public boolean hasNext() {
+                return !lastPageRead && remaining > 0;
+            }
+
+            @Override
+            public List<GatewayAccountEntity> next() {
+                int pageSize = (int) Math.min(SEARCH_PAGE_SIZE, remaining);
+                List<GatewayAccountEntity> page = gatewayAccountDao.searchPage(params, afterId, pageSize);
+                lastPageRead = page.size() < pageSize;
+                if (!page.isEmpty()) {
+                    afterId = page.getLast().getId();
+                    remaining -= page.size();
+                }
+                return page;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .map(GatewayAccountResponse::new);
     }
 
     @Transactional
@@ -233,7 +270,7 @@ public class GatewayAccountService {
     }
 
     public boolean isATelephonePaymentNotificationAccount(String merchantCode) {
-        return gatewayAccountDao.isATelephonePaymentNotificationAccount(merchantCode);
+        return gatewayAccountCredentialsLookupService.isATelephonePaymentNotificationAccount(merchantCode);
     }
 
     private final Map<String, BiConsumer<JsonPatchRequest, GatewayAccountEntity>> attributeUpdater = Map.ofEntries(
@@ -3,20 +3,34 @@ package uk.gov.pay.connector.gatewayaccountcredentials.dao;
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 import uk.gov.pay.connector.common.dao.JpaDao;
+import uk.gov.pay.connector.common.service.ReferenceDataCache;
 import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import java.util.Map;
 import java.util.Optional;
 
+import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccount.CREDENTIALS_MERCHANT_ID;
+import static uk.gov.pay.connector.gatewayaccount.model.StripeCredentials.STRIPE_ACCOUNT_ID_KEY;
 import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialState.ACTIVE;
 
 @Transactional
 public class GatewayAccountCredentialsDao extends JpaDao<GatewayAccountCredentialsEntity> {
 
+    /**
+     * Credentials keys that have an indexed column generated from the credentials JSON, by the name of that column.
+     */
+    private static final Map<String, String> INDEXED_CREDENTIALS_COLUMNS = Map.of(
+            STRIPE_ACCOUNT_ID_KEY, "stripe_account_id",
+            CREDENTIALS_MERCHANT_ID, "merchant_id");
+
+    private final ReferenceDataCache referenceDataCache;
+
     @Inject
-    public GatewayAccountCredentialsDao(final Provider<EntityManager> entityManager) {
+    public GatewayAccountCredentialsDao(final Provider<EntityManager> entityManager, ReferenceDataCache referenceDataCache) {
         super(entityManager);
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -25,6 +39,7 @@ public class GatewayAccountCredentialsDao extends JpaDao<GatewayAccountCredentia
     }
 
     public Optional<GatewayAccountCredentialsEntity> findById(Long id) {
+        referenceDataCache.recordLookup(GatewayAccountCredentialsEntity.class, id);
         return super.findById(GatewayAccountCredentialsEntity.class, id);
     }
 
@@ -55,6 +70,15 @@ public class GatewayAccountCredentialsDao extends JpaDao<GatewayAccountCredentia
     }
 
     public Optional<GatewayAccountCredentialsEntity> findByCredentialsKeyValue(String key, String value) {
+        String column = INDEXED_CREDENTIALS_COLUMNS.get(key);
+        if (column != null) {
+            return entityManager.get()
+                    .createNativeQuery("SELECT * FROM gateway_account_credentials WHERE " + column + " = ?1",
+                            GatewayAccountCredentialsEntity.class)
+                    .setParameter(1, value)
+                    .getResultList().stream().findFirst();
+        }
+
         String query = "SELECT * FROM gateway_account_credentials where credentials->>?1 = ?2";
 
         return entityManager.get()
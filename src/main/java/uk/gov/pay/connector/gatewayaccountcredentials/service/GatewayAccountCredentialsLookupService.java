@@ -0,0 +1,133 @@
+package uk.gov.pay.connector.gatewayaccountcredentials.service;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.dropwizard.core.setup.Environment;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
+import uk.gov.pay.connector.common.service.ReferenceDataCache;
+import uk.gov.pay.connector.gatewayaccount.dao.GatewayAccountDao;
+import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
+import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Finds gateway account credentials by a value stored in them, such as a Stripe connect account id or a Worldpay
+ * merchant code, for callers that receive nothing else from the gateway to identify the account by.
+ * <br>
+ * When the {@link ReferenceDataCache} is enabled the results are remembered until the reference data cache next
+ * invalidates gateway accounts, which happens whenever credentials or accounts change on any pod, or once they reach
+ * the reference data maximum age. Only the id of the credentials is remembered, so the entity itself still comes from
+ * the persistence context or shared cache and is never stale.
+ * <br>
+ * Only positive results are remembered. A lookup that raced with a write could otherwise remember a miss read before
+ * the write committed, after the invalidation it triggered had already run, and keep missing until the maximum age.
+ */
+@Singleton
+public class GatewayAccountCredentialsLookupService {
+
+    private static final String METRIC_PREFIX = "gateway-account-credentials-lookup";
+
+    private final GatewayAccountCredentialsDao gatewayAccountCredentialsDao;
+    private final GatewayAccountDao gatewayAccountDao;
+    private final boolean cacheEnabled;
+    private final Cache<CredentialsKeyValue, Long> credentialsIds;
+    private final Cache<String, Boolean> telephonePaymentNotificationMerchantCodes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer queryTimer;
+
+    @Inject
+    public GatewayAccountCredentialsLookupService(GatewayAccountCredentialsDao gatewayAccountCredentialsDao,
+                                                  GatewayAccountDao gatewayAccountDao,
+                                                  ReferenceDataCache referenceDataCache,
+                                                  ConnectorConfiguration configuration,
+                                                  Environment environment) {
+        this(gatewayAccountCredentialsDao, gatewayAccountDao, referenceDataCache,
+                configuration.getReferenceDataCacheConfig(), environment.metrics());
+    }
+
+    GatewayAccountCredentialsLookupService(GatewayAccountCredentialsDao gatewayAccountCredentialsDao,
+                                           GatewayAccountDao gatewayAccountDao,
+                                           ReferenceDataCache referenceDataCache,
+                                           ReferenceDataCacheConfig config,
+                                           MetricRegistry metricRegistry) {
+        this.gatewayAccountCredentialsDao = gatewayAccountCredentialsDao;
+        this.gatewayAccountDao = gatewayAccountDao;
+        this.cacheEnabled = config.isEnabled();
+        this.credentialsIds = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSizePerEntity())
+                .expireAfterWrite(config.getMaximumAgeInSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.telephonePaymentNotificationMerchantCodes = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSizePerEntity())
+                .expireAfterWrite(config.getMaximumAgeInSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.hits = metricRegistry.counter(METRIC_PREFIX + ".cache.hits");
+        this.misses = metricRegistry.counter(METRIC_PREFIX + ".cache.misses");
+        this.queryTimer = metricRegistry.timer(METRIC_PREFIX + ".response_time");
+        referenceDataCache.onGatewayAccountsInvalidated(this::invalidateAll);
+    }
+
+    public Optional<GatewayAccountCredentialsEntity> findByCredentialsKeyValue(String key, String value) {
+        var cacheKey = new CredentialsKeyValue(key, value);
+        Long credentialsId = cacheEnabled ? credentialsIds.getIfPresent(cacheKey) : null;
+        if (credentialsId != null) {
+            Optional<GatewayAccountCredentialsEntity> credentials = gatewayAccountCredentialsDao.findById(credentialsId);
+            if (credentials.isPresent()) {
+                hits.inc();
+                return credentials;
+            }
+            credentialsIds.invalidate(cacheKey);
+        }
+
+        Optional<GatewayAccountCredentialsEntity> credentials = query(() -> gatewayAccountCredentialsDao.findByCredentialsKeyValue(key, value));
+        if (cacheEnabled) {
+            misses.inc();
+            credentials.ifPresent(entity -> credentialsIds.put(cacheKey, entity.getId()));
+        }
+        return credentials;
+    }
+
+    public boolean isATelephonePaymentNotificationAccount(String merchantCode) {
+        if (merchantCode == null) {
+            return false;
+        }
+        Boolean cached = cacheEnabled ? telephonePaymentNotificationMerchantCodes.getIfPresent(merchantCode) : null;
+        if (cached != null) {
+            hits.inc();
+            return cached;
+        }
+
+        boolean result = query(() -> gatewayAccountDao.isATelephonePaymentNotificationAccount(merchantCode));
+        if (cacheEnabled) {
+            misses.inc();
+            if (result) {
+                telephonePaymentNotificationMerchantCodes.put(merchantCode, true);
+            }
+        }
+        return result;
+    }
+
+    private <T> T query(Supplier<T> query) {
+        try (Timer.Context ignored = queryTimer.time()) {
+            return query.get();
+        }
+    }
+
+    private void invalidateAll() {
+        credentialsIds.invalidateAll();
+        telephonePaymentNotificationMerchantCodes.invalidateAll();
+    }
+
+    private record CredentialsKeyValue(String key, String value) {
+    }
+}
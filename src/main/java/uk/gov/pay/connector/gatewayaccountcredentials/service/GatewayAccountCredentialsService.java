@@ -75,10 +75,14 @@ public class GatewayAccountCredentialsService {
 
     private final ObjectMapper objectMapper;
 
+    private final GatewayAccountCredentialsLookupService gatewayAccountCredentialsLookupService;
+
     @Inject
-    public GatewayAccountCredentialsService(GatewayAccountCredentialsDao gatewayAccountCredentialsDao, ObjectMapper objectMapper) {
+    public GatewayAccountCredentialsService(GatewayAccountCredentialsDao gatewayAccountCredentialsDao, ObjectMapper objectMapper,
+                                            GatewayAccountCredentialsLookupService gatewayAccountCredentialsLookupService) {
         this.gatewayAccountCredentialsDao = gatewayAccountCredentialsDao;
         this.objectMapper = objectMapper;
+        this.gatewayAccountCredentialsLookupService = gatewayAccountCredentialsLookupService;
     }
 
     @Transactional
@@ -256,7 +260,7 @@ public class GatewayAccountCredentialsService {
 
     @Transactional
     public GatewayAccountEntity findStripeGatewayAccountForCredentialKeyAndValue(String stripeAccountIdKey, String stripeAccountId) {
-        GatewayAccountCredentialsEntity gatewayAccountCredentialsEntity = gatewayAccountCredentialsDao
+        GatewayAccountCredentialsEntity gatewayAccountCredentialsEntity = gatewayAccountCredentialsLookupService
                 .findByCredentialsKeyValue(stripeAccountIdKey, stripeAccountId)
                 .orElseThrow(() -> new GatewayAccountCredentialsNotFoundException(format("Gateway account credentials with Stripe connect account ID [%s] not found.", stripeAccountId)));
 
@@ -307,7 +311,7 @@ public class GatewayAccountCredentialsService {
 
     @Transactional
     public void activateCredentialIfNotYetActive(String stripeAccountId) {
-        var credentials = gatewayAccountCredentialsDao
+        var credentials = gatewayAccountCredentialsLookupService
                 .findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeAccountId);
 
         credentials.ifPresent(updatableCredentialEntity -> {
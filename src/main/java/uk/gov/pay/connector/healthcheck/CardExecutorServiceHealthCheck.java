@@ -10,15 +10,17 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 public class CardExecutorServiceHealthCheck extends HealthCheck {
 
-    private ThreadPoolExecutor threadPoolExecutor;
+    private final CardExecutorService cardExecutorService;
 
     @Inject
     public CardExecutorServiceHealthCheck(CardExecutorService cardExecutorService) {
-        this.threadPoolExecutor = (ThreadPoolExecutor)cardExecutorService.getExecutor();
-        initialiseMetrics(cardExecutorService.getMetricRegistry());
+        this.cardExecutorService = cardExecutorService;
+        if (cardExecutorService.getExecutor() instanceof ThreadPoolExecutor threadPoolExecutor) {
+            initialiseMetrics(threadPoolExecutor, cardExecutorService.getMetricRegistry());
+        }
     }
 
-    private void initialiseMetrics(MetricRegistry metricRegistry) {
+    private void initialiseMetrics(ThreadPoolExecutor threadPoolExecutor, MetricRegistry metricRegistry) {
         metricRegistry.<Gauge<Integer>>register("card-executor.active-threads", () -> threadPoolExecutor.getActiveCount());
         metricRegistry.<Gauge<Integer>>register("card-executor.pool-size", () -> threadPoolExecutor.getPoolSize());
         metricRegistry.<Gauge<Integer>>register("card-executor.core-pool-size", () -> threadPoolExecutor.getCorePoolSize());
@@ -28,7 +30,7 @@ public class CardExecutorServiceHealthCheck extends HealthCheck {
 
     @Override
     protected Result check() {
-        if (threadPoolExecutor.getQueue().size() <= 10) {
+        if (cardExecutorService.getWaitingTaskCount() <= 10) {
             return Result.healthy();
         }
 
@@ -7,7 +7,10 @@ import uk.gov.pay.connector.idempotency.model.IdempotencyEntity;
 
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class IdempotencyDao extends JpaDao<IdempotencyEntity> {
     @Inject
@@ -46,4 +49,18 @@ public class IdempotencyDao extends JpaDao<IdempotencyEntity> {
 
         return count > 0;
     }
+
+    public Set<String> findResourceExternalIdsWithIdempotencyRecords(Collection<String> resourceExternalIds) {
+        if (resourceExternalIds.isEmpty()) {
+            return Set.of();
+        }
+
+        String query = "SELECT DISTINCT ie.resourceExternalId FROM IdempotencyEntity ie WHERE ie.resourceExternalId IN :resourceExternalIds";
+
+        return new HashSet<>(entityManager
+                .get()
+                .createQuery(query, String.class)
+                .setParameter("resourceExternalIds", resourceExternalIds)
+                .getResultList());
+    }
 }
@@ -23,7 +23,7 @@ import java.util.Map;
 @Table(name = "idempotency")
 @Access(AccessType.FIELD)
 @SequenceGenerator(name = "idempotency_id_seq",
-        sequenceName = "idempotency_id_seq", allocationSize = 1)
+        sequenceName = "idempotency_id_seq", allocationSize = 50)
 public class IdempotencyEntity {
 
     @Id
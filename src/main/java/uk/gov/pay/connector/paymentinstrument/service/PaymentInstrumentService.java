@@ -4,7 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.persist.Transactional;
 import uk.gov.pay.connector.charge.exception.PaymentInstrumentNotFoundRuntimeException;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
-import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.events.model.charge.PaymentInstrumentCreated;
 import uk.gov.pay.connector.paymentinstrument.dao.PaymentInstrumentDao;
 import uk.gov.pay.connector.paymentinstrument.model.PaymentInstrumentEntity;
@@ -16,13 +16,13 @@ import java.util.Map;
 public class PaymentInstrumentService {
 
     private final PaymentInstrumentDao paymentInstrumentDao;
-    private final LedgerService ledgerService;
+    private final LedgerEventPublisher ledgerEventPublisher;
     private final InstantSource instantSource;
     
     @Inject
-    public PaymentInstrumentService(PaymentInstrumentDao paymentInstrumentDao, LedgerService ledgerService, InstantSource instantSource) {
+    public PaymentInstrumentService(PaymentInstrumentDao paymentInstrumentDao, LedgerEventPublisher ledgerEventPublisher, InstantSource instantSource) {
         this.paymentInstrumentDao = paymentInstrumentDao;
-        this.ledgerService = ledgerService;
+        this.ledgerEventPublisher = ledgerEventPublisher;
         this.instantSource = instantSource;
     }
 
@@ -42,7 +42,7 @@ public class PaymentInstrumentService {
                 .withChargeExternalId(charge.getExternalId())
                 .build();
         paymentInstrumentDao.persist(paymentInstrument);
-        ledgerService.postEvent(PaymentInstrumentCreated.from(paymentInstrument, charge.getGatewayAccount()));
+        ledgerEventPublisher.publish(PaymentInstrumentCreated.from(paymentInstrument, charge.getGatewayAccount()));
         return paymentInstrument;
     }
 }
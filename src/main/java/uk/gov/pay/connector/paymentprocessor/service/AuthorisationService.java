@@ -71,6 +71,14 @@ public class AuthorisationService {
         }
     }
 
+    /**
+     * Call from an authorisation task once it has loaded the charge and before it calls the gateway, so that the task
+     * holds a permit for the charge's gateway while it does.
+     */
+    public void awaitGatewayPermit(ChargeEntity charge) {
+        cardExecutorService.awaitGatewayPermit(charge.getPaymentProvider());
+    }
+
     public Optional<String> extractTransactionId(String chargeExternalId,
                                                  GatewayResponse<? extends BaseAuthoriseResponse> operationResponse,
                                                  String currentGatewayTransactionId) {
@@ -80,6 +80,7 @@ public class Card3dsResponseAuthService {
     }
 
     private Gateway3DSAuthorisationResponse authoriseAndProcess3DS(Auth3dsResult auth3dsResult, ChargeEntity charge) {
+        authorisationService.awaitGatewayPermit(charge);
         Gateway3DSAuthorisationResponse gateway3DSAuthorisationResponse = providers
                 .byName(charge.getPaymentGatewayName())
                 .authorise3dsResponse(Auth3dsResponseGatewayRequest.valueOf(charge, auth3dsResult));
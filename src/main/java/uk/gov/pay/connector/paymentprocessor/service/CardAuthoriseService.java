@@ -118,6 +118,7 @@ public class CardAuthoriseService {
 
     private AuthorisationResponse doAuthorise(String chargeId, AuthCardDetails authCardDetails) {
         final ChargeEntity charge = prepareChargeForAuthorisation(chargeId, authCardDetails);
+        authorisationService.awaitGatewayPermit(charge);
 
         GatewayResponse<BaseAuthoriseResponse> operationResponse;
         ChargeStatus newStatus;
@@ -202,6 +203,7 @@ public class CardAuthoriseService {
     }
 
     private Pair<GatewayResponse<BaseAuthoriseResponse>, ChargeStatus> authoriseMotoApi(ChargeEntity charge, AuthCardDetails authCardDetails) {
+        authorisationService.awaitGatewayPermit(charge);
         GatewayResponse<BaseAuthoriseResponse> operationResponse;
         ChargeStatus newStatus;
 
@@ -1,41 +1,90 @@
 package uk.gov.pay.connector.paymentprocessor.service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import uk.gov.pay.connector.app.CaptureProcessConfig;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.ChargesAwaitingCaptureMetricEmitter;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.common.exception.IllegalStateRuntimeException;
 import uk.gov.pay.connector.gateway.CaptureResponse;
+import uk.gov.pay.connector.gateway.PaymentGatewayName;
 import uk.gov.pay.connector.queue.capture.CaptureQueue;
 import uk.gov.pay.connector.queue.capture.ChargeCaptureMessage;
+import uk.gov.pay.connector.util.DatabaseActivity;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 
+/**
+ * Captures charges received from the capture queue on a bounded worker pool per payment gateway, so a slow gateway
+ * only holds up its own captures. Receiving is cheap and returns as soon as a batch has been handed over; once
+ * {@link CaptureProcessConfig#getMaximumCapturesInFlight()} captures are queued or running the queue is not polled
+ * until workers catch up. A message rejected by a full worker pool is left on the queue and is redelivered once its
+ * visibility timeout expires. So is a message which waited longer than
+ * {@link CaptureProcessConfig#getMaximumQueuedTimeInMilliseconds()} for a worker, as it may already have been
+ * redelivered to another node by the time the capture would finish.
+ */
+@Singleton
 public class CardCaptureProcess {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CardCaptureProcess.class);
+    private static final String METRIC_PREFIX = "gateway-operations.capture-process";
     private final CaptureQueue captureQueue;
     private final ChargeService chargeService;
+    private final MetricRegistry metricRegistry;
+    private final int workerThreadsPerGateway;
+    private final int workerQueueCapacityPerGateway;
+    private final int maximumCapturesInFlight;
+    private final long maximumQueuedTimeInNanos;
+    private final Map<PaymentGatewayName, ThreadPoolExecutor> workerPools = new ConcurrentHashMap<>();
+    private final AtomicInteger capturesInFlight = new AtomicInteger();
     private CardCaptureService cardCaptureService;
 
     @Inject
     public CardCaptureProcess(CaptureQueue captureQueue,
                               CardCaptureService cardCaptureService,
                               ChargeService chargeService,
-                              ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter) {
+                              ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter,
+                              ConnectorConfiguration connectorConfiguration,
+                              Environment environment) {
         this.captureQueue = captureQueue;
         this.cardCaptureService = cardCaptureService;
         this.chargeService = chargeService;
+        this.metricRegistry = environment.metrics();
+
+        CaptureProcessConfig captureProcessConfig = connectorConfiguration.getCaptureProcessConfig();
+        this.workerThreadsPerGateway = captureProcessConfig.getWorkerThreadsPerGateway();
+        this.workerQueueCapacityPerGateway = captureProcessConfig.getWorkerQueueCapacityPerGateway();
+        this.maximumCapturesInFlight = captureProcessConfig.getMaximumCapturesInFlight();
+        this.maximumQueuedTimeInNanos = TimeUnit.MILLISECONDS.toNanos(captureProcessConfig.getMaximumQueuedTimeInMilliseconds());
 
         chargesAwaitingCaptureMetricEmitter.register();
+        metricRegistry.gauge(METRIC_PREFIX + ".captures_in_flight", () -> (Gauge<Integer>) capturesInFlight::get);
     }
 
     public void handleCaptureMessages() throws QueueException {
+        if (capturesInFlight.get() >= maximumCapturesInFlight) {
+            LOGGER.info("Capture workers saturated, skipping capture queue poll [capturesInFlight={}]", capturesInFlight.get());
+            return;
+        }
+
         List<ChargeCaptureMessage> captureMessages = captureQueue.retrieveChargesForCapture();
         for (ChargeCaptureMessage message : captureMessages) {
             try {
@@ -45,7 +94,7 @@ public class CardCaptureProcess {
                         message.getQueueMessageReceiptHandle()
                 );
 
-                runCapture(message);
+                dispatchCapture(message);
             } catch (Exception e) {
                 LOGGER.warn("Error capturing charge from SQS message [queueMessageId={}] [errorMessage={}]",
                         message.getQueueMessageId(),
@@ -57,6 +106,98 @@ public class CardCaptureProcess {
         }
     }
 
+    public int getCapturesInFlight() {
+        return capturesInFlight.get();
+    }
+
+    /**
+     * Stops accepting captures and waits for those already handed to a worker to finish.
+     *
+     * @return true if every worker pool terminated within the timeout
+     */
+    public boolean shutdownWorkers(long timeout, TimeUnit unit) throws InterruptedException {
+        workerPools.values().forEach(ThreadPoolExecutor::shutdown);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        for (ThreadPoolExecutor workers : workerPools.values()) {
+            terminated &= workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        if (!terminated) {
+            workerPools.values().forEach(ThreadPoolExecutor::shutdownNow);
+        }
+        return terminated;
+    }
+
+    private void dispatchCapture(ChargeCaptureMessage message) {
+        PaymentGatewayName paymentGatewayName = getPaymentGatewayName(message);
+        ThreadPoolExecutor workers = workerPools.computeIfAbsent(paymentGatewayName, this::createWorkerPool);
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        long receivedAt = System.nanoTime();
+
+        capturesInFlight.incrementAndGet();
+        try {
+            workers.execute(() -> captureOnWorker(message, paymentGatewayName, receivedAt, mdcContext));
+        } catch (RejectedExecutionException e) {
+            capturesInFlight.decrementAndGet();
+            LOGGER.warn("Capture workers for {} saturated, leaving message for redelivery [queueMessageId={}]",
+                    paymentGatewayName.getName(),
+                    message.getQueueMessageId());
+        }
+    }
+
+    private void captureOnWorker(ChargeCaptureMessage message, PaymentGatewayName paymentGatewayName,
+                                 long receivedAt, Map<String, String> mdcContext) {
+        String metricPrefix = METRIC_PREFIX + "." + paymentGatewayName.getName();
+        if (mdcContext != null) {
+            MDC.setContextMap(mdcContext);
+        }
+        long queuedTimeInNanos = System.nanoTime() - receivedAt;
+        if (queuedTimeInNanos > maximumQueuedTimeInNanos) {
+            capturesInFlight.decrementAndGet();
+            metricRegistry.meter(metricPrefix + ".expired_before_capture").mark();
+            LOGGER.warn("Capture message waited too long for a worker, leaving it for redelivery [queueMessageId={}] [queuedTimeInMillis={}]",
+                    message.getQueueMessageId(),
+                    TimeUnit.NANOSECONDS.toMillis(queuedTimeInNanos));
+            MDC.clear();
+            return;
+        }
+        DatabaseActivity databaseActivity = DatabaseActivity.begin();
+        try {
+            metricRegistry.timer(metricPrefix + ".queue_to_capture_latency")
+                    .update(queuedTimeInNanos, TimeUnit.NANOSECONDS);
+            runCapture(message);
+        } catch (Exception e) {
+            LOGGER.warn("Error capturing charge from SQS message [queueMessageId={}] [errorMessage={}]",
+                    message.getQueueMessageId(),
+                    e.getMessage()
+            );
+        } finally {
+            databaseActivity.end(DatabaseActivity.JOB, "capture");
+            metricRegistry.meter(metricPrefix + ".captures").mark();
+            capturesInFlight.decrementAndGet();
+            MDC.clear();
+        }
+    }
+
+    private PaymentGatewayName getPaymentGatewayName(ChargeCaptureMessage message) {
+        if (message.getPaymentProvider() != null) {
+            return PaymentGatewayName.valueFrom(message.getPaymentProvider());
+        }
+        return chargeService.findChargeByExternalId(message.getChargeId()).getPaymentGatewayName();
+    }
+
+    private ThreadPoolExecutor createWorkerPool(PaymentGatewayName paymentGatewayName) {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(
+                workerThreadsPerGateway,
+                workerThreadsPerGateway,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueCapacityPerGateway),
+                new ThreadFactoryBuilder().setNameFormat("capture-worker-" + paymentGatewayName.getName() + "-%d").build());
+        metricRegistry.gauge(METRIC_PREFIX + "." + paymentGatewayName.getName() + ".captures_in_flight",
+                () -> (Gauge<Integer>) () -> workers.getActiveCount() + workers.getQueue().size());
+        return workers;
+    }
+
     private void runCapture(ChargeCaptureMessage captureMessage) throws QueueException {
         String externalChargeId = captureMessage.getChargeId();
 
@@ -1,5 +1,6 @@
 package uk.gov.pay.connector.paymentprocessor.service;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
@@ -10,21 +11,26 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.ExecutorServiceConfig;
+import uk.gov.pay.connector.util.DatabaseActivity;
 
 import jakarta.ws.rs.WebApplicationException;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static java.lang.Runtime.getRuntime;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutionMode.VIRTUAL_THREADS;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.COMPLETED;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.FAILED;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.IN_PROGRESS;
@@ -35,13 +41,24 @@ import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.
  * .get(config.getTimeoutInSeconds(), TimeUnit.SECONDS). If you look how that is used in the authorise service, it 
  * catches the timeout exception and returns to frontend as 'in progress'. Frontend then polls connector until the 
  * charge is authorised (by the CES thread), and continues on its merry way.
+ * <p>
+ * In VIRTUAL_THREADS mode every task gets its own virtual thread, so nothing queues in front of the executor. Instead
+ * each task waits in {@link #awaitGatewayPermit(String)}, once it has loaded its charge, for a permit from a semaphore
+ * for the charge's payment gateway, which caps the number of concurrent authorisations per gateway. Time spent waiting
+ * for a permit is reported as card-executor.delay, the same as time spent in the fixed pool's queue in
+ * PLATFORM_THREADS mode.
  */
 public class CardExecutorService {
 
     private static final Logger logger = LoggerFactory.getLogger(CardExecutorService.class);
     private static final int QUEUE_WAIT_WARN_THRESHOLD_MILLIS = 1000;
+    private static final String UNKNOWN_GATEWAY = "unknown";
     public static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
     private final MetricRegistry metricRegistry;
+    private final Map<String, Semaphore> gatewayPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicInteger waitingTasks = new AtomicInteger();
+    private final ThreadLocal<RunningTask> currentTask = new ThreadLocal<>();
 
     private ExecutorServiceConfig config;
     private ExecutorService executor;
@@ -54,13 +71,20 @@ public class CardExecutorService {
 
     @Inject
     public CardExecutorService(ConnectorConfiguration configuration, Environment environment) {
-        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
-                .setNameFormat("CardExecutorService-%d")
-                .build();
         this.metricRegistry = environment.metrics();
         this.config = configuration.getExecutorServiceConfig();
-        int numberOfThreads = config.getThreadsPerCpu() * getRuntime().availableProcessors();
-        this.executor = Executors.newFixedThreadPool(numberOfThreads, threadFactory);
+        if (isVirtualThreadMode()) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("CardExecutorService-virtual-", 0).factory());
+        } else {
+            final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                    .setNameFormat("CardExecutorService-%d")
+                    .build();
+            int numberOfThreads = config.getThreadsPerCpu() * getRuntime().availableProcessors();
+            this.executor = Executors.newFixedThreadPool(numberOfThreads, threadFactory);
+        }
+        logger.info("{} running with execution mode {}", CardExecutorService.class.getSimpleName(), config.getExecutionMode());
+        metricRegistry.<Gauge<Integer>>register("card-executor.active-tasks", activeTasks::get);
+        metricRegistry.<Gauge<Integer>>register("card-executor.waiting-tasks", waitingTasks::get);
         addShutdownHook();
     }
 
@@ -68,6 +92,22 @@ public class CardExecutorService {
         return metricRegistry;
     }
 
+    public boolean isVirtualThreadMode() {
+        return config.getExecutionMode() == VIRTUAL_THREADS;
+    }
+
+    public int getActiveTaskCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Tasks submitted but not yet running: queued for a pool thread in PLATFORM_THREADS mode, or waiting for a gateway
+     * permit in VIRTUAL_THREADS mode.
+     */
+    public int getWaitingTaskCount() {
+        return waitingTasks.get();
+    }
+
     private void addShutdownHook() {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             String className = CardExecutorService.class.getSimpleName();
@@ -90,21 +130,23 @@ public class CardExecutorService {
     // accepts a supplier function and executed that in a separate Thread of its own.
     // returns a Pair of the execution status and the return type
     public <T> Pair<ExecutionStatus, T> execute(Supplier<T> callable, int timeoutInMilliseconds) {
-        Callable<T> task = callable::get;
+        Callable<T> task = DatabaseActivity.carriedOver("card-executor", callable::get);
         Map<String, String> mdcContextMap = Optional.ofNullable(MDC.getCopyOfContextMap()).orElse(Map.of());
         final long startTime = System.currentTimeMillis();
 
+        waitingTasks.incrementAndGet();
         Future<T> futureObject = executor.submit(() -> {
             MDC.setContextMap(mdcContextMap);
-            long totalWaitTime = System.currentTimeMillis() - startTime;
-            logger.debug("Card operation task spent {} ms in queue", totalWaitTime);
-            if (totalWaitTime > QUEUE_WAIT_WARN_THRESHOLD_MILLIS) {
-                logger.warn("CardExecutor Service delay - queue_wait_time={}", totalWaitTime);
-            }
-            metricRegistry.histogram("card-executor.delay").update(totalWaitTime);
+            RunningTask runningTask = new RunningTask(startTime);
+            currentTask.set(runningTask);
             try {
+                if (!isVirtualThreadMode()) {
+                    runningTask.start();
+                }
                 return task.call();
             } finally {
+                currentTask.remove();
+                runningTask.finish();
                 MDC.clear();
             }
         });
@@ -122,4 +164,63 @@ public class CardExecutorService {
             return Pair.of(IN_PROGRESS, null);
         }
     }
+
+    /**
+     * Called by a task once it has loaded its charge and before it calls the charge's payment gateway. In
+     * VIRTUAL_THREADS mode this waits for a permit for the gateway, which the task holds until it finishes. Otherwise,
+     * or when not called from a task, it returns straight away.
+     */
+    public void awaitGatewayPermit(String paymentProvider) {
+        RunningTask runningTask = currentTask.get();
+        if (runningTask == null || runningTask.permit != null || !isVirtualThreadMode()) {
+            return;
+        }
+        Semaphore gatewayPermit = gatewayPermitFor(paymentProvider);
+        gatewayPermit.acquireUninterruptibly();
+        runningTask.permit = gatewayPermit;
+        runningTask.start();
+    }
+
+    private Semaphore gatewayPermitFor(String paymentProvider) {
+        String gateway = Optional.ofNullable(paymentProvider).orElse(UNKNOWN_GATEWAY);
+        return gatewayPermits.computeIfAbsent(gateway, name -> {
+            Semaphore semaphore = new Semaphore(config.getMaximumConcurrentAuthorisationsPerGateway(), true);
+            metricRegistry.<Gauge<Integer>>register(String.format("card-executor.%s.available-permits", name),
+                    semaphore::availablePermits);
+            return semaphore;
+        });
+    }
+
+    private class RunningTask {
+        private final long submittedAt;
+        private boolean started;
+        private Semaphore permit;
+
+        private RunningTask(long submittedAt) {
+            this.submittedAt = submittedAt;
+        }
+
+        private void start() {
+            started = true;
+            waitingTasks.decrementAndGet();
+            activeTasks.incrementAndGet();
+            long totalWaitTime = System.currentTimeMillis() - submittedAt;
+            logger.debug("Card operation task spent {} ms in queue", totalWaitTime);
+            if (totalWaitTime > QUEUE_WAIT_WARN_THRESHOLD_MILLIS) {
+                logger.warn("CardExecutor Service delay - queue_wait_time={}", totalWaitTime);
+            }
+            metricRegistry.histogram("card-executor.delay").update(totalWaitTime);
+        }
+
+        private void finish() {
+            if (started) {
+                activeTasks.decrementAndGet();
+            } else {
+                waitingTasks.decrementAndGet();
+            }
+            if (permit != null) {
+                permit.release();
+            }
+        }
+    }
 }
@@ -8,8 +8,18 @@ public class CaptureCharge {
     
     @JsonProperty("chargeId")
     private String chargeId;
+
+    @JsonProperty("paymentProvider")
+    private String paymentProvider;
     
     public String getChargeId() {
         return chargeId;
     }
+
+    /**
+     * Absent on messages queued before the payment provider was added to the message body
+     */
+    public String getPaymentProvider() {
+        return paymentProvider;
+    }
 }
@@ -35,7 +35,9 @@ public class CaptureQueue extends AbstractQueue {
     public void sendForCapture(ChargeEntity charge) throws QueueException {
         String message = new GsonBuilder()
                 .create()
-                .toJson(ImmutableMap.of("chargeId", charge.getExternalId()));
+                .toJson(ImmutableMap.of(
+                        "chargeId", charge.getExternalId(),
+                        "paymentProvider", charge.getPaymentProvider()));
 
         QueueMessage queueMessage = sendMessageToQueue(message);
 
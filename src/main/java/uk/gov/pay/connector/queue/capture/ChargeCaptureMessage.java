@@ -19,6 +19,10 @@ public class ChargeCaptureMessage {
         return captureCharge.getChargeId();
     }
 
+    public String getPaymentProvider() {
+        return captureCharge.getPaymentProvider();
+    }
+
     public String getQueueMessageReceiptHandle() {
         return queueMessage.getReceiptHandle();
     }
@@ -68,6 +68,10 @@ public class CaptureMessageReceiver implements Managed {
                     LOGGER.error("Charge capture service could not be forced stopped");
                 }
             }
+            // No more messages are being received, so wait for captures already handed to workers
+            if (!cardCaptureProcess.shutdownWorkers(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)) {
+                LOGGER.error("Charge capture workers still running after shutdown wait time have been forcefully stopped");
+            }
         } catch (InterruptedException ex) {
             LOGGER.error("Failed to shutdown charge capture service cleanly as the wait was interrupted.");
             chargeCaptureMessageExecutorService.shutdownNow();
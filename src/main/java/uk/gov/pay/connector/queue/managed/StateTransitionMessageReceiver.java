@@ -5,7 +5,9 @@ import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.events.StateTransitionEmitterProcess;
+import uk.gov.pay.connector.events.StateTransitionOutboxProcess;
 
 import jakarta.inject.Inject;
 import java.util.concurrent.ScheduledExecutorService;
@@ -20,15 +22,22 @@ public class StateTransitionMessageReceiver implements Managed {
 
     private final int paymentStateTransitionPollerNumberOfThreads;
     private final StateTransitionEmitterProcess stateTransitionEmitterProcess;
+    private final StateTransitionOutboxProcess stateTransitionOutboxProcess;
+    private final boolean stateTransitionOutboxEnabled;
+    private final long stateTransitionOutboxPollIntervalInMilliseconds;
     private ScheduledExecutorService stateTransitionMessageExecutorService;
 
     @Inject
     public StateTransitionMessageReceiver(StateTransitionEmitterProcess stateTransitionEmitterProcess,
+                                          StateTransitionOutboxProcess stateTransitionOutboxProcess,
                                           Environment environment, ConnectorConfiguration connectorConfiguration) {
         this.stateTransitionEmitterProcess = stateTransitionEmitterProcess;
+        this.stateTransitionOutboxProcess = stateTransitionOutboxProcess;
 
-        this.paymentStateTransitionPollerNumberOfThreads = connectorConfiguration.getEventQueueConfig()
-                .getPaymentStateTransitionPollerNumberOfThreads();
+        EventQueueConfig eventQueueConfig = connectorConfiguration.getEventQueueConfig();
+        this.paymentStateTransitionPollerNumberOfThreads = eventQueueConfig.getPaymentStateTransitionPollerNumberOfThreads();
+        this.stateTransitionOutboxEnabled = eventQueueConfig.isStateTransitionOutboxEnabled();
+        this.stateTransitionOutboxPollIntervalInMilliseconds = eventQueueConfig.getStateTransitionOutboxPollIntervalInMilliseconds();
 
         stateTransitionMessageExecutorService = environment
                 .lifecycle()
@@ -40,8 +49,13 @@ public class StateTransitionMessageReceiver implements Managed {
     @Override
     public void start() {
         for (int i = 0; i < this.paymentStateTransitionPollerNumberOfThreads; i++) {
-            stateTransitionMessageExecutorService.scheduleWithFixedDelay(
-                    this::stateTransitionMessageReceiver, 1, 1, TimeUnit.MILLISECONDS);
+            if (stateTransitionOutboxEnabled) {
+                stateTransitionMessageExecutorService.scheduleWithFixedDelay(this::stateTransitionOutboxReceiver,
+                        stateTransitionOutboxPollIntervalInMilliseconds, stateTransitionOutboxPollIntervalInMilliseconds, TimeUnit.MILLISECONDS);
+            } else {
+                stateTransitionMessageExecutorService.scheduleWithFixedDelay(
+                        this::stateTransitionMessageReceiver, 1, 1, TimeUnit.MILLISECONDS);
+            }
         }
     }
 
@@ -93,4 +107,15 @@ public class StateTransitionMessageReceiver implements Managed {
                     e.getMessage());
         }
     }
+
+    private void stateTransitionOutboxReceiver() {
+        try {
+            while (stateTransitionOutboxProcess.emitPendingStateTransitions() > 0 && !Thread.currentThread().isInterrupted()) {
+                // keep draining while there is a backlog rather than waiting for the next poll
+            }
+        } catch (Exception e) {
+            LOGGER.error("State transition outbox polling thread failed to emit events due to [message={}]",
+                    e.getMessage());
+        }
+    }
 }
@@ -15,6 +15,9 @@ import java.util.concurrent.TimeUnit;
  * (@see uk.gov.pay.connector.queue.managed.StateTransitionMessageReceiver). If a transaction fails, there will be no 
  * charge_event in the database for the transaction and the state transition event in this queue will not get picked
  * up by the managed process and therefore not get sent to the external queue.
+ * <br>
+ * This queue is not used when eventQueue.stateTransitionOutboxEnabled is set. In that case state transitions are read
+ * back from the emitted_events table by {@link uk.gov.pay.connector.events.StateTransitionOutboxProcess}.
  */
 public class StateTransitionQueue {
     private final BlockingQueue<StateTransition> queue = new DelayQueue<>();
@@ -7,6 +7,7 @@ import io.prometheus.client.Counter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.common.model.domain.PaymentGatewayStateTransitions;
@@ -31,6 +32,7 @@ public class StateTransitionService {
     private StateTransitionQueue stateTransitionQueue;
     private EventService eventService;
     private MetricRegistry metricRegistry;
+    private final boolean stateTransitionOutboxEnabled;
 
     private static final Counter stateTransitionCounter = Counter.build()
             .name("state_transition_total")
@@ -41,19 +43,21 @@ public class StateTransitionService {
     @Inject
     public StateTransitionService(StateTransitionQueue stateTransitionQueue,
                                   EventService eventService,
-                                  Environment environment) {
+                                  Environment environment,
+                                  ConnectorConfiguration connectorConfiguration) {
         this.stateTransitionQueue = stateTransitionQueue;
         this.eventService = eventService;
         this.metricRegistry = environment.metrics();
+        this.stateTransitionOutboxEnabled = connectorConfiguration.getEventQueueConfig().isStateTransitionOutboxEnabled();
     }
 
     @Transactional
     public void offerRefundStateTransition(RefundEntity refundEntity, RefundStatus refundStatus) {
         Class refundEventClass = RefundStateEventMap.calculateRefundEventClass(refundEntity.getUserExternalId(), refundStatus);
         RefundStateTransition refundStateTransition = new RefundStateTransition(refundEntity.getExternalId(), refundStatus, refundEventClass);
-        stateTransitionQueue.offer(refundStateTransition);
+        offerToInMemoryQueue(refundStateTransition);
 
-        eventService.recordOfferedEvent(ResourceType.REFUND,
+        eventService.recordOfferedStateTransition(refundStateTransition, ResourceType.REFUND,
                 refundEntity.getExternalId(),
                 Event.eventTypeForClass(refundEventClass),
                 Instant.now());
@@ -74,7 +78,7 @@ public class StateTransitionService {
             ChargeEventEntity chargeEventEntity, Class<T> eventClass) {
 
         PaymentStateTransition transition = new PaymentStateTransition(chargeEventEntity.getId(), eventClass);
-        stateTransitionQueue.offer(transition);
+        offerToInMemoryQueue(transition);
 
         var logMessage = format("Offered payment state transition to emitter queue [from=%s] [to=%s] [chargeEventId=%s] [chargeId=%s]",
                 fromChargeState, targetChargeState, chargeEventEntity.getId(), externalId);
@@ -91,7 +95,7 @@ public class StateTransitionService {
 
         logger.info(logMessage, structuredArgs);
 
-        eventService.recordOfferedEvent(ResourceType.PAYMENT,
+        eventService.recordOfferedStateTransition(transition, ResourceType.PAYMENT,
                 externalId,
                 Event.eventTypeForClass(eventClass),
                 chargeEventEntity.getUpdated().toInstant());
@@ -131,8 +135,19 @@ public class StateTransitionService {
     @Transactional
     public void offerStateTransition(StateTransition stateTransition, Event event,
                                      ZonedDateTime doNotRetryEmitUntilDate) {
-        stateTransitionQueue.offer(stateTransition);
-        eventService.recordOfferedEvent(event.getResourceType(), event.getResourceExternalId(),
+        offerToInMemoryQueue(stateTransition);
+        eventService.recordOfferedStateTransition(stateTransition, event.getResourceType(), event.getResourceExternalId(),
                 event.getEventType(), event.getTimestamp(), doNotRetryEmitUntilDate);
     }
+
+    /**
+     * With the outbox enabled the emitted_events row recorded alongside the transition is all that is needed: it is
+     * only visible to {@link uk.gov.pay.connector.events.StateTransitionOutboxProcess} once the surrounding
+     * transaction commits, and it survives a restart.
+     */
+    private void offerToInMemoryQueue(StateTransition stateTransition) {
+        if (!stateTransitionOutboxEnabled) {
+            stateTransitionQueue.offer(stateTransition);
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package uk.gov.pay.connector.queue.tasks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.util.Duration;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.TaskQueueConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs task queue messages on a separate bounded pool per {@link TaskType}, so a burst of slow tasks of one type (for
+ * example user-not-present authorisations) cannot hold up tasks of another type (for example webhooks). Pools are
+ * managed by the Dropwizard lifecycle and drain on shutdown.
+ * <br>
+ * A task is only accepted when a worker for its type is free, so messages are never held in memory waiting for a
+ * worker while their visibility timeout runs down.
+ */
+@Singleton
+public class TaskQueueExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskQueueExecutors.class);
+
+    private final Map<TaskType, ExecutorService> executors = new EnumMap<>(TaskType.class);
+    private final Map<TaskType, Semaphore> freeWorkers = new EnumMap<>(TaskType.class);
+    private final MetricRegistry metricRegistry;
+
+    @Inject
+    public TaskQueueExecutors(Environment environment, ConnectorConfiguration connectorConfiguration) {
+        this.metricRegistry = environment.metrics();
+        TaskQueueConfig taskQueueConfig = connectorConfiguration.getTaskQueueConfig();
+
+        for (TaskType taskType : TaskType.values()) {
+            int concurrency = taskQueueConfig.getConcurrencyPerTaskType()
+                    .getOrDefault(taskType.getName(), taskQueueConfig.getDefaultConcurrencyPerTaskType());
+            executors.put(taskType, environment.lifecycle()
+                    .executorService("task-queue-" + taskType.getName() + "-%d")
+                    .minThreads(concurrency)
+                    .maxThreads(concurrency)
+                    .workQueue(new LinkedBlockingQueue<>())
+                    .shutdownTime(Duration.seconds(taskQueueConfig.getQueueSchedulerShutdownTimeoutInSeconds()))
+                    .build());
+            freeWorkers.put(taskType, new Semaphore(concurrency));
+            LOGGER.info("Task queue workers for [{}] running with concurrency {}", taskType.getName(), concurrency);
+        }
+    }
+
+    /**
+     * Whether a worker is free for at least one task type, so that messages received now might be run
+     */
+    public boolean hasFreeWorker() {
+        return freeWorkers.values().stream().anyMatch(workers -> workers.availablePermits() > 0);
+    }
+
+    /**
+     * Hands the task to a free worker for its type, returning {@code false} without running it if they are all busy.
+     * The task should return {@code false} if it failed.
+     */
+    public boolean submit(TaskType taskType, BooleanSupplier task) {
+        String metricPrefix = "task-queue." + taskType.getName();
+        Semaphore workers = freeWorkers.get(taskType);
+        if (!workers.tryAcquire()) {
+            metricRegistry.meter(metricPrefix + ".rejected").mark();
+            return false;
+        }
+
+        Timer.Context queueDelay = metricRegistry.timer(metricPrefix + ".queue-delay").time();
+        try {
+            executors.get(taskType).execute(() -> {
+                queueDelay.stop();
+                boolean succeeded;
+                try (Timer.Context ignored = metricRegistry.timer(metricPrefix + ".duration").time()) {
+                    succeeded = task.getAsBoolean();
+                } finally {
+                    workers.release();
+                }
+                if (!succeeded) {
+                    metricRegistry.meter(metricPrefix + ".failed").mark();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            workers.release();
+            metricRegistry.meter(metricPrefix + ".rejected").mark();
+            return false;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import uk.gov.pay.connector.queue.tasks.model.DeleteStoredPaymentDetailsTaskData
 import uk.gov.pay.connector.queue.tasks.model.PaymentTaskData;
 import uk.gov.pay.connector.queue.tasks.model.RetryPaymentOrRefundEmailTaskData;
 import uk.gov.pay.connector.queue.tasks.model.ServiceArchivedTaskData;
+import uk.gov.pay.connector.util.DatabaseActivity;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import java.util.List;
@@ -44,6 +45,7 @@ public class TaskQueueMessageHandler {
     private ServiceArchivedTaskHandler serviceArchivedTaskHandler;
     private final QueryAndUpdatePaymentInSubmittedStateTaskHandler queryAndUpdatePaymentInSubmittedStateTaskHandler;
     private final ObjectMapper objectMapper;
+    private final TaskQueueExecutors taskQueueExecutors;
 
     @Inject
     public TaskQueueMessageHandler(TaskQueue taskQueue,
@@ -55,7 +57,8 @@ public class TaskQueueMessageHandler {
                                    RetryPaymentOrRefundEmailTaskHandler retryPaymentOrRefundEmailTaskHandler,
                                    ServiceArchivedTaskHandler serviceArchivedTaskHandler,
                                    QueryAndUpdatePaymentInSubmittedStateTaskHandler queryAndUpdatePaymentInSubmittedStateTaskHandler,
-                                   ObjectMapper objectMapper) {
+                                   ObjectMapper objectMapper,
+                                   TaskQueueExecutors taskQueueExecutors) {
         this.taskQueue = taskQueue;
         this.collectFeesForFailedPaymentsTaskHandler = collectFeesForFailedPaymentsTaskHandler;
         this.stripeWebhookTaskHandler = stripeWebhookTaskHandler;
@@ -66,96 +69,121 @@ public class TaskQueueMessageHandler {
         this.serviceArchivedTaskHandler = serviceArchivedTaskHandler;
         this.queryAndUpdatePaymentInSubmittedStateTaskHandler = queryAndUpdatePaymentInSubmittedStateTaskHandler;
         this.objectMapper = objectMapper;
+        this.taskQueueExecutors = taskQueueExecutors;
     }
 
+    /**
+     * Hands each retrieved message to the workers for its task type and returns without waiting for them, so the
+     * queue can be polled again while they run. A message whose workers are all busy is left on the queue to be
+     * redelivered once its visibility timeout expires. The queue holds every task type, so it is only polled while a
+     * worker for some task type is free.
+     */
     public void processMessages() throws QueueException {
+        if (!taskQueueExecutors.hasFreeWorker()) {
+            return;
+        }
+
         List<TaskMessage> taskMessages = taskQueue.retrieveTaskQueueMessages();
         taskMessages.forEach(taskMessage -> {
-            try {
-                LOGGER.info("Processing message from queue",
-                        kv("queueMessageId", taskMessage.getQueueMessageId()),
-                        kv("queueMessageReceiptHandle", taskMessage.getQueueMessageReceiptHandle())
-                );
-                var taskType = taskMessage.getTask().getTaskType();
-
-                switch (taskType) {
-                    case COLLECT_FEE_FOR_STRIPE_FAILED_PAYMENT:
-                        PaymentTaskData paymentTaskData;
-                        // backport existing task message format - will be removed
-                        if (taskMessage.getTask().getPaymentExternalId() != null) {
-                            paymentTaskData = new PaymentTaskData(taskMessage.getTask().getPaymentExternalId());
-                        } else {
-                            paymentTaskData = objectMapper.readValue(taskMessage.getTask().getData(), PaymentTaskData.class);
-                        }
-                        MDC.put(PAYMENT_EXTERNAL_ID, paymentTaskData.getPaymentExternalId());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        collectFeesForFailedPaymentsTaskHandler.collectAndPersistFees(paymentTaskData);
-                        break;
-                    case HANDLE_STRIPE_WEBHOOK_NOTIFICATION:
-                        var stripeNotification = objectMapper.readValue(taskMessage.getTask().getData(), StripeNotification.class);
-                        MDC.put(STRIPE_EVENT_ID, stripeNotification.getId());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        stripeWebhookTaskHandler.process(stripeNotification);
-                        break;
-                    case HANDLE_ADYEN_PAYMENTS_WEBHOOK_NOTIFICATION:
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        adyenWebhookTaskHandler.processAdyenWebhookNotification(taskMessage.getTask().getData());
-                        break;
-                    case HANDLE_ADYEN_TOKEN_WEBHOOK_NOTIFICATION:
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        adyenWebhookTaskHandler.processAdyenTokenWebhookNotification(taskMessage.getTask().getData());
-                        break;
-                    case AUTHORISE_WITH_USER_NOT_PRESENT:
-                        var taskData = objectMapper.readValue(taskMessage.getTask().getData(), PaymentTaskData.class);
-                        MDC.put(PAYMENT_EXTERNAL_ID, taskData.getPaymentExternalId());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        authoriseWithUserNotPresentHandler.process(taskData.getPaymentExternalId());
-                        break;
-                    case DELETE_STORED_PAYMENT_DETAILS:
-                        var deleteStoredPaymentDetailsTaskData = objectMapper.readValue(taskMessage.getTask().getData(), DeleteStoredPaymentDetailsTaskData.class);
-                        MDC.put(AGREEMENT_EXTERNAL_ID, deleteStoredPaymentDetailsTaskData.getAgreementExternalId());
-                        MDC.put(PAYMENT_INSTRUMENT_EXTERNAL_ID, deleteStoredPaymentDetailsTaskData.getPaymentInstrumentExternalId());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        deleteStoredPaymentDetailsHandler.process(deleteStoredPaymentDetailsTaskData.getAgreementExternalId(), deleteStoredPaymentDetailsTaskData.getPaymentInstrumentExternalId());
-                        break;
-                    case RETRY_FAILED_PAYMENT_OR_REFUND_EMAIL:
-                        var retryPaymentOrRefundEmailTaskData = objectMapper.readValue(taskMessage.getTask().getData(), RetryPaymentOrRefundEmailTaskData.class);
-                        MDC.put(RESOURCE_EXTERNAL_ID, retryPaymentOrRefundEmailTaskData.getResourceExternalId());
-                        MDC.put("email_notification_type", retryPaymentOrRefundEmailTaskData.getEmailNotificationType().toString());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        retryPaymentOrRefundEmailTaskHandler.process(retryPaymentOrRefundEmailTaskData);
-                        break;
-                    case SERVICE_ARCHIVED:
-                        var serviceArchivedTaskData = objectMapper.readValue(taskMessage.getTask().getData(), ServiceArchivedTaskData.class);
-                        MDC.put(SERVICE_EXTERNAL_ID, serviceArchivedTaskData.getServiceId());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        serviceArchivedTaskHandler.process(serviceArchivedTaskData);
-                        break;
-                    case QUERY_AND_UPDATE_CAPTURE_SUBMITTED_PAYMENT:
-                        var data = objectMapper.readValue(taskMessage.getTask().getData(), PaymentTaskData.class);
-                        MDC.put(PAYMENT_EXTERNAL_ID, data.getPaymentExternalId());
-                        LOGGER.info("Processing [{}] task.", taskType.getName());
-                        queryAndUpdatePaymentInSubmittedStateTaskHandler.process(data);
-                        break;
-                    default:
-                        LOGGER.error("Task [{}] is not supported.", taskType.getName());
-                }
-                taskQueue.markMessageAsProcessed(taskMessage.getQueueMessage());
-                LOGGER.info("Successfully processed [{}] task.", taskType.getName());
-            } catch (Exception e) {
-                LOGGER.error("Error processing message from queue",
-                        kv("queueMessageId", taskMessage.getQueueMessageId()),
-                        kv("errorMessage", e.getMessage())
-                );
-                Sentry.captureException(e);
-            } finally {
-                MDC.remove(PAYMENT_EXTERNAL_ID);
-                MDC.remove(STRIPE_EVENT_ID);
-                MDC.remove(AGREEMENT_EXTERNAL_ID);
-                MDC.remove(PAYMENT_INSTRUMENT_EXTERNAL_ID);
-                MDC.remove(RESOURCE_EXTERNAL_ID);
-                MDC.remove("email_notification_type");
+            var taskType = taskMessage.getTask().getTaskType();
+            if (!taskQueueExecutors.submit(taskType, () -> processMessage(taskMessage))) {
+                LOGGER.warn("Workers for [{}] tasks are busy, leaving message on the queue",
+                        taskType.getName(),
+                        kv("queueMessageId", taskMessage.getQueueMessageId()));
             }
         });
     }
+
+    private boolean processMessage(TaskMessage taskMessage) {
+        DatabaseActivity databaseActivity = DatabaseActivity.begin();
+        try {
+            LOGGER.info("Processing message from queue",
+                    kv("queueMessageId", taskMessage.getQueueMessageId()),
+                    kv("queueMessageReceiptHandle", taskMessage.getQueueMessageReceiptHandle())
+            );
+            var taskType = taskMessage.getTask().getTaskType();
+
+            switch (taskType) {
+                case COLLECT_FEE_FOR_STRIPE_FAILED_PAYMENT:
+                    PaymentTaskData paymentTaskData;
+                    // backport existing task message format - will be removed
+                    if (taskMessage.getTask().getPaymentExternalId() != null) {
+                        paymentTaskData = new PaymentTaskData(taskMessage.getTask().getPaymentExternalId());
+                    } else {
+                        paymentTaskData = objectMapper.readValue(taskMessage.getTask().getData(), PaymentTaskData.class);
+                    }
+                    MDC.put(PAYMENT_EXTERNAL_ID, paymentTaskData.getPaymentExternalId());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    collectFeesForFailedPaymentsTaskHandler.collectAndPersistFees(paymentTaskData);
+                    break;
+                case HANDLE_STRIPE_WEBHOOK_NOTIFICATION:
+                    var stripeNotification = objectMapper.readValue(taskMessage.getTask().getData(), StripeNotification.class);
+                    MDC.put(STRIPE_EVENT_ID, stripeNotification.getId());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    stripeWebhookTaskHandler.process(stripeNotification);
+                    break;
+                case HANDLE_ADYEN_PAYMENTS_WEBHOOK_NOTIFICATION:
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    adyenWebhookTaskHandler.processAdyenWebhookNotification(taskMessage.getTask().getData());
+                    break;
+                case HANDLE_ADYEN_TOKEN_WEBHOOK_NOTIFICATION:
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    adyenWebhookTaskHandler.processAdyenTokenWebhookNotification(taskMessage.getTask().getData());
+                    break;
+                case AUTHORISE_WITH_USER_NOT_PRESENT:
+                    var taskData = objectMapper.readValue(taskMessage.getTask().getData(), PaymentTaskData.class);
+                    MDC.put(PAYMENT_EXTERNAL_ID, taskData.getPaymentExternalId());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    authoriseWithUserNotPresentHandler.process(taskData.getPaymentExternalId());
+                    break;
+                case DELETE_STORED_PAYMENT_DETAILS:
+                    var deleteStoredPaymentDetailsTaskData = objectMapper.readValue(taskMessage.getTask().getData(), DeleteStoredPaymentDetailsTaskData.class);
+                    MDC.put(AGREEMENT_EXTERNAL_ID, deleteStoredPaymentDetailsTaskData.getAgreementExternalId());
+                    MDC.put(PAYMENT_INSTRUMENT_EXTERNAL_ID, deleteStoredPaymentDetailsTaskData.getPaymentInstrumentExternalId());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    deleteStoredPaymentDetailsHandler.process(deleteStoredPaymentDetailsTaskData.getAgreementExternalId(), deleteStoredPaymentDetailsTaskData.getPaymentInstrumentExternalId());
+                    break;
+                case RETRY_FAILED_PAYMENT_OR_REFUND_EMAIL:
+                    var retryPaymentOrRefundEmailTaskData = objectMapper.readValue(taskMessage.getTask().getData(), RetryPaymentOrRefundEmailTaskData.class);
+                    MDC.put(RESOURCE_EXTERNAL_ID, retryPaymentOrRefundEmailTaskData.getResourceExternalId());
+                    MDC.put("email_notification_type", retryPaymentOrRefundEmailTaskData.getEmailNotificationType().toString());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    retryPaymentOrRefundEmailTaskHandler.process(retryPaymentOrRefundEmailTaskData);
+                    break;
+                case SERVICE_ARCHIVED:
+                    var serviceArchivedTaskData = objectMapper.readValue(taskMessage.getTask().getData(), ServiceArchivedTaskData.class);
+                    MDC.put(SERVICE_EXTERNAL_ID, serviceArchivedTaskData.getServiceId());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    serviceArchivedTaskHandler.process(serviceArchivedTaskData);
+                    break;
+                case QUERY_AND_UPDATE_CAPTURE_SUBMITTED_PAYMENT:
+                    var data = objectMapper.readValue(taskMessage.getTask().getData(), PaymentTaskData.class);
+                    MDC.put(PAYMENT_EXTERNAL_ID, data.getPaymentExternalId());
+                    LOGGER.info("Processing [{}] task.", taskType.getName());
+                    queryAndUpdatePaymentInSubmittedStateTaskHandler.process(data);
+                    break;
+                default:
+                    LOGGER.error("Task [{}] is not supported.", taskType.getName());
+            }
+            taskQueue.markMessageAsProcessed(taskMessage.getQueueMessage());
+            LOGGER.info("Successfully processed [{}] task.", taskType.getName());
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Error processing message from queue",
+                    kv("queueMessageId", taskMessage.getQueueMessageId()),
+                    kv("errorMessage", e.getMessage())
+            );
+            Sentry.captureException(e);
+            return false;
+        } finally {
+            databaseActivity.end(DatabaseActivity.JOB, taskMessage.getTask().getTaskType().getName());
+            MDC.remove(PAYMENT_EXTERNAL_ID);
+            MDC.remove(STRIPE_EVENT_ID);
+            MDC.remove(AGREEMENT_EXTERNAL_ID);
+            MDC.remove(PAYMENT_INSTRUMENT_EXTERNAL_ID);
+            MDC.remove(RESOURCE_EXTERNAL_ID);
+            MDC.remove(SERVICE_EXTERNAL_ID);
+            MDC.remove("email_notification_type");
+        }
+    }
 }
@@ -16,6 +16,7 @@ import jakarta.persistence.Query;
 import jakarta.persistence.TemporalType;
 import java.sql.Date;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -89,6 +90,20 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .getResultList();
     }
 
+    public List<RefundHistory> searchAllHistoryByChargeExternalIds(Collection<String> chargeExternalIds) {
+        if (chargeExternalIds.isEmpty()) {
+            return List.of();
+        }
+
+        String query = "SELECT r.id, r.external_id, r.amount, r.status, r.created_date, r.version, " +
+                "history_start_date, history_end_date, user_external_id, r.gateway_transaction_id, " +
+                "r.charge_external_id AS charge_external_id, r.user_email " +
+                " FROM refunds_history r " +
+                " WHERE charge_external_id IN (%s)";
+
+        return (List<RefundHistory>) findNativeWithInList(query, "RefundEntityHistoryMapping", chargeExternalIds);
+    }
+
     public Optional<RefundEntity> findByExternalId(String externalId) {
         String query = "SELECT refund FROM RefundEntity refund " +
                 "WHERE refund.externalId = :externalId";
@@ -138,10 +153,17 @@ public class RefundDao extends JpaDao<RefundEntity> {
     }
 
     public Optional<RefundEntity> findRefundToExpunge(int minimumAgeOfRefundInDays, int excludeRefundsParityCheckedWithInDays) {
+        return findRefundsToExpunge(minimumAgeOfRefundInDays, excludeRefundsParityCheckedWithInDays, 0L, 1)
+                .stream().findFirst();
+    }
+
+    public List<RefundEntity> findRefundsToExpunge(int minimumAgeOfRefundInDays, int excludeRefundsParityCheckedWithInDays,
+                                                   long afterId, int limit) {
         String query = "SELECT r FROM RefundEntity r" +
                 " WHERE (r.parityCheckDate is null or r.parityCheckDate < :parityCheckedBeforeDate)" +
                 " AND r.createdDate < :createdBeforeDate " +
-                " ORDER BY r.createdDate asc";
+                " AND r.id > :afterId " +
+                " ORDER BY r.id asc";
 
         ZonedDateTime parityCheckedBeforeDate = ZonedDateTime.now(UTC)
                 .minusDays(excludeRefundsParityCheckedWithInDays);
@@ -152,26 +174,24 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .createQuery(query, RefundEntity.class)
                 .setParameter("parityCheckedBeforeDate", parityCheckedBeforeDate)
                 .setParameter("createdBeforeDate", createdBeforeDate)
-                .setMaxResults(1)
-                .getResultList().stream().findFirst();
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
     }
 
     public void expungeRefund(String externalId) {
-        entityManager.get()
-                .createNativeQuery("delete from emitted_events where resource_type = ?1 AND resource_external_id = ?2")
-                .setParameter(1, ResourceType.REFUND.getLowercase())
-                .setParameter(2, externalId)
-                .executeUpdate();
+        expungeRefunds(List.of(externalId));
+    }
 
-        entityManager.get()
-                .createNativeQuery("delete from refunds_history where external_id = ?1")
-                .setParameter(1, externalId)
-                .executeUpdate();
+    public void expungeRefunds(Collection<String> externalIds) {
+        if (externalIds.isEmpty()) {
+            return;
+        }
 
-        entityManager.get()
-                .createNativeQuery("delete from refunds where external_id = ?1")
-                .setParameter(1, externalId)
-                .executeUpdate();
+        executeNativeUpdateWithInList("delete from emitted_events where resource_type = ?1 AND resource_external_id in (%s)",
+                externalIds, ResourceType.REFUND.getLowercase());
+        executeNativeUpdateWithInList("delete from refunds_history where external_id in (%s)", externalIds);
+        executeNativeUpdateWithInList("delete from refunds where external_id in (%s)", externalIds);
     }
 
     public List<RefundHistory> getRefundHistoryByRefundExternalId(String refundExternalId) {
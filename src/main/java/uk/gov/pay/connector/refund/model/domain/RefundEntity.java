@@ -57,7 +57,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class RefundEntity extends AbstractVersionedEntity {
 
     @Id
-    @SequenceGenerator(name = "refundsSequence", sequenceName = "refunds_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "refundsSequence", sequenceName = "refunds_id_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refundsSequence")
     @JsonIgnore
     private Long id;
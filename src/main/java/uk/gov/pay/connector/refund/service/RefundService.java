@@ -1,5 +1,6 @@
 package uk.gov.pay.connector.refund.service;
 
+import com.google.inject.name.Named;
 import com.google.inject.persist.Transactional;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
@@ -68,7 +69,7 @@ public class RefundService {
                          PaymentProviders providers,
                          UserNotificationService userNotificationService,
                          StateTransitionService stateTransitionService,
-                         LedgerService ledgerService,
+                         @Named("CachingLedgerService") LedgerService ledgerService,
                          GatewayAccountCredentialsService gatewayAccountCredentialsService
     ) {
         this.refundDao = refundDao;
@@ -0,0 +1,69 @@
+package uk.gov.pay.connector.tasks;
+
+import uk.gov.pay.connector.events.EventService;
+import uk.gov.pay.connector.events.model.EmittedEventKey;
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the events recreated for a page of charges. Events are checked against the emitted events read for the
+ * whole page, rather than queried one at a time, and those sent directly are held until {@link #flush()} sends them
+ * in SQS batches. State transitions are offered straight away; with the state transition outbox enabled that only
+ * records an emitted_events row, which is written with the rest of the page.
+ */
+public class HistoricalEventBatch implements HistoricalEventSink {
+
+    private final EventService eventService;
+    private final StateTransitionService stateTransitionService;
+    private final Set<EmittedEventKey> emittedEvents;
+    private final List<Event> eventsToEmit = new ArrayList<>();
+    private ZonedDateTime doNotRetryEmitUntilDate;
+    private int stateTransitionsOffered;
+
+    public HistoricalEventBatch(EventService eventService, StateTransitionService stateTransitionService,
+                                Set<EmittedEventKey> previouslyEmittedEvents) {
+        this.eventService = eventService;
+        this.stateTransitionService = stateTransitionService;
+        this.emittedEvents = new HashSet<>(previouslyEmittedEvents);
+    }
+
+    @Override
+    public boolean hasBeenEmittedBefore(Event event) {
+        return emittedEvents.contains(EmittedEventKey.of(event));
+    }
+
+    @Override
+    public void emitAndRecordEvent(Event event, ZonedDateTime doNotRetryEmitUntilDate) {
+        emittedEvents.add(EmittedEventKey.of(event));
+        eventsToEmit.add(event);
+        // the emitter works this out from the current time for every event, so the latest one covers them all
+        this.doNotRetryEmitUntilDate = doNotRetryEmitUntilDate;
+    }
+
+    @Override
+    public void offerStateTransition(StateTransition stateTransition, Event event, ZonedDateTime doNotRetryEmitUntilDate) {
+        emittedEvents.add(EmittedEventKey.of(event));
+        stateTransitionService.offerStateTransition(stateTransition, event, doNotRetryEmitUntilDate);
+        stateTransitionsOffered++;
+    }
+
+    /**
+     * Sends the events collected since the last flush.
+     *
+     * @return the number of events sent and state transitions offered since the last flush
+     */
+    public int flush() {
+        eventService.emitAndRecordEvents(List.copyOf(eventsToEmit), doNotRetryEmitUntilDate);
+        int eventCount = eventsToEmit.size() + stateTransitionsOffered;
+        eventsToEmit.clear();
+        stateTransitionsOffered = 0;
+        return eventCount;
+    }
+}
@@ -30,6 +30,7 @@ import uk.gov.pay.connector.events.model.charge.Requested3dsExemption;
 import uk.gov.pay.connector.events.model.refund.RefundEvent;
 import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
 import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
@@ -82,12 +83,10 @@ public class HistoricalEventEmitter {
             EXPIRE_CANCEL_READY,
             SYSTEM_CANCEL_READY,
             USER_CANCEL_READY);
-    private final EmittedEventDao emittedEventDao;
     private final RefundDao refundDao;
     private final ChargeService chargeService;
+    private final HistoricalEventSink eventSink;
     private PaymentGatewayStateTransitions paymentGatewayStateTransitions;
-    private EventService eventService;
-    private StateTransitionService stateTransitionService;
     private Long doNotRetryEmitUntilDuration;
 
     @Inject
@@ -103,12 +102,16 @@ public class HistoricalEventEmitter {
                                   RefundDao refundDao, ChargeService chargeService,
                                   EventService eventService, StateTransitionService stateTransitionService,
                                   Long doNotRetryEmitUntilDuration) {
-        this.emittedEventDao = emittedEventDao;
+        this(refundDao, chargeService, new EmittingEventSink(emittedEventDao, eventService, stateTransitionService),
+                doNotRetryEmitUntilDuration);
+    }
+
+    public HistoricalEventEmitter(RefundDao refundDao, ChargeService chargeService, HistoricalEventSink eventSink,
+                                  Long doNotRetryEmitUntilDuration) {
         this.refundDao = refundDao;
         this.chargeService = chargeService;
+        this.eventSink = eventSink;
         this.paymentGatewayStateTransitions = PaymentGatewayStateTransitions.getInstance();
-        this.eventService = eventService;
-        this.stateTransitionService = stateTransitionService;
         this.doNotRetryEmitUntilDuration = doNotRetryEmitUntilDuration;
     }
 
@@ -133,9 +136,9 @@ public class HistoricalEventEmitter {
                     .filter(event -> event.getStatus() == AUTHORISATION_SUCCESS || event.getStatus() == AUTHORISATION_REJECTED)
                     .findFirst()
                     .map(event -> Gateway3dsExemptionResultObtainedEvent.from(charge, event.getUpdated().toInstant()))
-                    .filter(threeDsInfoEvent -> forceEmission || !emittedEventDao.hasBeenEmittedBefore(threeDsInfoEvent))
+                    .filter(threeDsInfoEvent -> forceEmission || !eventSink.hasBeenEmittedBefore(threeDsInfoEvent))
                     .ifPresent(threeDsInfoEvent -> {
-                        eventService.emitAndRecordEvent(threeDsInfoEvent, getDoNotRetryEmitUntilDate());
+                        eventSink.emitAndRecordEvent(threeDsInfoEvent, getDoNotRetryEmitUntilDate());
                         logger.info("3DS Exemption Result event emitted for [chargeExternalId={}]", charge.getExternalId());
                     });
         }
@@ -148,9 +151,9 @@ public class HistoricalEventEmitter {
                     .filter(event -> TERMINAL_AUTHENTICATION_STATES.contains(event.getStatus()))
                     .findFirst()
                     .map(event -> Requested3dsExemption.from(charge, event.getUpdated().toInstant()))
-                    .filter(requested3dsExemptionEvent -> forceEmission || !emittedEventDao.hasBeenEmittedBefore(requested3dsExemptionEvent))
+                    .filter(requested3dsExemptionEvent -> forceEmission || !eventSink.hasBeenEmittedBefore(requested3dsExemptionEvent))
                     .ifPresent(requested3dsExemptionEvent -> {
-                        eventService.emitAndRecordEvent(requested3dsExemptionEvent, getDoNotRetryEmitUntilDate());
+                        eventSink.emitAndRecordEvent(requested3dsExemptionEvent, getDoNotRetryEmitUntilDate());
                         logger.info("3DS Exemption Result event emitted for [chargeExternalId={}]", charge.getExternalId());
                     });
         }
@@ -167,9 +170,9 @@ public class HistoricalEventEmitter {
                             GatewayDoesNotRequire3dsAuthorisation.from(chargeEventEntity.getChargeEntity(),
                                     chargeEventEntity.getUpdated().toInstant())
                     ).filter(gatewayDoesNotRequire3dsAuthorisation ->
-                            forceEmission || !emittedEventDao.hasBeenEmittedBefore(gatewayDoesNotRequire3dsAuthorisation)
+                            forceEmission || !eventSink.hasBeenEmittedBefore(gatewayDoesNotRequire3dsAuthorisation)
                     ).ifPresent(gatewayDoesNotRequire3dsAuthorisation -> {
-                        eventService.emitAndRecordEvent(gatewayDoesNotRequire3dsAuthorisation, getDoNotRetryEmitUntilDate());
+                        eventSink.emitAndRecordEvent(gatewayDoesNotRequire3dsAuthorisation, getDoNotRetryEmitUntilDate());
                         logger.info("Gateway does not require 3DS Authorisation event emitted for [chargeExternalId={}]", charge.getExternalId());
                     });
         }
@@ -184,9 +187,9 @@ public class HistoricalEventEmitter {
 
                 chargeEvent.ifPresent(event -> {
                     var threeDsInfoEvent = Gateway3dsInfoObtained.from(charge, event.getUpdated().toInstant());
-                    boolean hasBeenEmittedBefore = emittedEventDao.hasBeenEmittedBefore(threeDsInfoEvent);
+                    boolean hasBeenEmittedBefore = eventSink.hasBeenEmittedBefore(threeDsInfoEvent);
                     if (forceEmission || !hasBeenEmittedBefore) {
-                        eventService.emitAndRecordEvent(threeDsInfoEvent, getDoNotRetryEmitUntilDate());
+                        eventSink.emitAndRecordEvent(threeDsInfoEvent, getDoNotRetryEmitUntilDate());
                         logger.info("Gateway 3DS Info Obtained event re-emitted for [chargeExternalId={}]", charge.getExternalId());
                     }
                 });
@@ -199,9 +202,9 @@ public class HistoricalEventEmitter {
         if (!filterFeesForStripeV2(charge.getFees()).isEmpty()) {
             try {
                 var feeIncurredEvent = FeeIncurredEvent.from(charge);
-                boolean hasBeenEmittedBefore = emittedEventDao.hasBeenEmittedBefore(feeIncurredEvent);
+                boolean hasBeenEmittedBefore = eventSink.hasBeenEmittedBefore(feeIncurredEvent);
                 if (forceEmission || !hasBeenEmittedBefore) {
-                    eventService.emitAndRecordEvent(feeIncurredEvent, getDoNotRetryEmitUntilDate());
+                    eventSink.emitAndRecordEvent(feeIncurredEvent, getDoNotRetryEmitUntilDate());
                 } else {
                     logger.info("Charge history event emitted before [chargeExternalId={}]", charge.getExternalId());
                 }
@@ -233,19 +236,34 @@ public class HistoricalEventEmitter {
                 .forEach(refundHistory -> emitAndPersistEventForRefundHistoryEntry(refundHistory, shouldForceEmission));
     }
 
+    /**
+     * As {@link #processRefundEvents(String, boolean)} for refund history already read for the charge, which saves
+     * looking the charge up again for every entry.
+     */
+    public void processRefundEvents(Charge charge, List<RefundHistory> refundHistories, boolean forceEmission) {
+        refundHistories
+                .stream()
+                .sorted(Comparator.comparing(RefundHistory::getHistoryStartDate))
+                .forEach(refundHistory -> emitAndPersistEventForRefundHistoryEntry(refundHistory, charge, forceEmission));
+    }
+
     @Transactional
     public void emitAndPersistEventForRefundHistoryEntry(RefundHistory refundHistory, boolean shouldForceEmission) {
-        Class<? extends RefundEvent> refundEventClass = RefundStateEventMap.calculateRefundEventClass(
-                refundHistory.getUserExternalId(), refundHistory.getStatus());
         Charge charge = chargeService.findCharge(refundHistory.getChargeExternalId())
                 .orElseThrow(() -> new ChargeNotFoundRuntimeException(refundHistory.getChargeExternalId()));
+        emitAndPersistEventForRefundHistoryEntry(refundHistory, charge, shouldForceEmission);
+    }
+
+    private void emitAndPersistEventForRefundHistoryEntry(RefundHistory refundHistory, Charge charge, boolean shouldForceEmission) {
+        Class<? extends RefundEvent> refundEventClass = RefundStateEventMap.calculateRefundEventClass(
+                refundHistory.getUserExternalId(), refundHistory.getStatus());
         Event event = EventFactory.createRefundEvent(refundHistory, refundEventClass,
                 charge);
 
         if (shouldForceEmission) {
             emitRefundEvent(refundHistory, refundEventClass, event);
         } else {
-            boolean emittedBefore = emittedEventDao.hasBeenEmittedBefore(event);
+            boolean emittedBefore = eventSink.hasBeenEmittedBefore(event);
 
             if (emittedBefore) {
                 logger.info("Refund history event emitted before [refundExternalId={}] [refundHistoryId={}]", refundHistory.getExternalId(), refundHistory.getId());
@@ -263,7 +281,7 @@ public class HistoricalEventEmitter {
 
         logger.info("Processing new refund history event: [refundExternalId={}] [refundHistoryId={}]", refundHistory.getExternalId(), refundHistory.getId());
 
-        stateTransitionService.offerStateTransition(stateTransition, event, getDoNotRetryEmitUntilDate());
+        eventSink.offerStateTransition(stateTransition, event, getDoNotRetryEmitUntilDate());
     }
 
     private List<ChargeEventEntity> getSortedChargeEvents(ChargeEntity charge) {
@@ -344,7 +362,7 @@ public class HistoricalEventEmitter {
         if (forceEmission) {
             offerStateTransitionEvent(currentId, chargeEventEntity, transition, event);
         } else {
-            final boolean emittedBefore = emittedEventDao.hasBeenEmittedBefore(event);
+            final boolean emittedBefore = eventSink.hasBeenEmittedBefore(event);
 
             if (emittedBefore) {
                 logger.info("[{}] - found - charge event [{}] emitted before", currentId, chargeEventEntity.getId());
@@ -356,7 +374,7 @@ public class HistoricalEventEmitter {
 
     private void offerStateTransitionEvent(long currentId, ChargeEventEntity chargeEventEntity, PaymentStateTransition transition, Event event) {
         logger.info("[{}] - found - emitting {} for charge event [{}] ", currentId, event, chargeEventEntity.getId());
-        stateTransitionService.offerStateTransition(transition, event, getDoNotRetryEmitUntilDate());
+        eventSink.offerStateTransition(transition, event, getDoNotRetryEmitUntilDate());
     }
 
     private void processPaymentDetailEnteredEvent(List<ChargeEventEntity> chargeEventEntities, boolean forceEmission) {
@@ -367,8 +385,8 @@ public class HistoricalEventEmitter {
                 .filter(event -> !isATelephonePaymentNotification(chargeEventEntities))
                 .filter(event -> isValidPaymentDetailsEnteredTransition(chargeEventEntities, event))
                 .map(this::determinePaymentDetailsEnteredEvent)
-                .filter(event -> forceEmission || !emittedEventDao.hasBeenEmittedBefore(event))
-                .forEach(event -> eventService.emitAndRecordEvent(event, getDoNotRetryEmitUntilDate()));
+                .filter(event -> forceEmission || !eventSink.hasBeenEmittedBefore(event))
+                .forEach(event -> eventSink.emitAndRecordEvent(event, getDoNotRetryEmitUntilDate()));
     }
 
     private Event determinePaymentDetailsEnteredEvent(ChargeEventEntity chargeEventEntity) {
@@ -393,8 +411,8 @@ public class HistoricalEventEmitter {
 
             if (hasEnteringCardDetailsEvent) {
                 BackfillerRecreatedUserEmailCollected userEmailCollectedEvent = BackfillerRecreatedUserEmailCollected.from(charge);
-                if (forceEmission || !emittedEventDao.hasBeenEmittedBefore(userEmailCollectedEvent)) {
-                    eventService.emitAndRecordEvent(userEmailCollectedEvent, getDoNotRetryEmitUntilDate());
+                if (forceEmission || !eventSink.hasBeenEmittedBefore(userEmailCollectedEvent)) {
+                    eventSink.emitAndRecordEvent(userEmailCollectedEvent, getDoNotRetryEmitUntilDate());
                 }
             }
         }
@@ -423,8 +441,8 @@ public class HistoricalEventEmitter {
 
         if (!hasAnyValidAuthorisationState) {
             BackfillerGatewayTransactionIdSet backfillerGatewayTransactionIdSet = BackfillerGatewayTransactionIdSet.from(charge);
-            if (forceEmission || !emittedEventDao.hasBeenEmittedBefore(backfillerGatewayTransactionIdSet)) {
-                eventService.emitAndRecordEvent(backfillerGatewayTransactionIdSet, getDoNotRetryEmitUntilDate());
+            if (forceEmission || !eventSink.hasBeenEmittedBefore(backfillerGatewayTransactionIdSet)) {
+                eventSink.emitAndRecordEvent(backfillerGatewayTransactionIdSet, getDoNotRetryEmitUntilDate());
             }
         }
     }
@@ -453,4 +471,23 @@ public class HistoricalEventEmitter {
         return doNotRetryEmitUntilDuration == null ? null :
                 now().plusSeconds(doNotRetryEmitUntilDuration);
     }
+
+    private record EmittingEventSink(EmittedEventDao emittedEventDao, EventService eventService,
+                                     StateTransitionService stateTransitionService) implements HistoricalEventSink {
+
+        @Override
+        public boolean hasBeenEmittedBefore(Event event) {
+            return emittedEventDao.hasBeenEmittedBefore(event);
+        }
+
+        @Override
+        public void emitAndRecordEvent(Event event, ZonedDateTime doNotRetryEmitUntilDate) {
+            eventService.emitAndRecordEvent(event, doNotRetryEmitUntilDate);
+        }
+
+        @Override
+        public void offerStateTransition(StateTransition stateTransition, Event event, ZonedDateTime doNotRetryEmitUntilDate) {
+            stateTransitionService.offerStateTransition(stateTransition, event, doNotRetryEmitUntilDate);
+        }
+    }
 }
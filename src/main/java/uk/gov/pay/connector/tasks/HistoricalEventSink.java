@@ -0,0 +1,20 @@
+package uk.gov.pay.connector.tasks;
+
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Where {@link HistoricalEventEmitter} checks for and sends the events it recreates. By default each event is checked
+ * against emitted_events and sent as soon as it is found; {@link HistoricalEventBatch} instead checks against events
+ * read up front for a page of charges and sends everything for the page together.
+ */
+public interface HistoricalEventSink {
+
+    boolean hasBeenEmittedBefore(Event event);
+
+    void emitAndRecordEvent(Event event, ZonedDateTime doNotRetryEmitUntilDate);
+
+    void offerStateTransition(StateTransition stateTransition, Event event, ZonedDateTime doNotRetryEmitUntilDate);
+}
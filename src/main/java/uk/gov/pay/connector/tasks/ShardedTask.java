@@ -0,0 +1,21 @@
+package uk.gov.pay.connector.tasks;
+
+public enum ShardedTask {
+
+    PARITY_CHECK_CHARGES("parity_check_charges"),
+    HISTORICAL_EVENT_EMITTER("historical_event_emitter");
+
+    private final String value;
+
+    ShardedTask(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String toString() {
+        return this.getValue();
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.pay.connector.tasks.dao;
+
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import uk.gov.pay.connector.tasks.ShardedTask;
+import uk.gov.pay.connector.tasks.service.IdRangeShard;
+
+import java.util.Optional;
+
+@Transactional
+public class ShardCheckpointDao {
+
+    protected final Provider<EntityManager> entityManager;
+
+    @Inject
+    public ShardCheckpointDao(Provider<EntityManager> entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Finds how far through {@code shard} earlier runs of {@code task} got, whatever the shard bounds they used.
+     * Starting from the beginning of the shard, each step follows the checkpoint of a shard covering the next id to
+     * be processed, so progress made with a different shard size is carried over rather than started again.
+     */
+    public Optional<Long> findLastProcessedId(ShardedTask task, IdRangeShard shard) {
+        String query = "SELECT MAX(last_processed_id) FROM shard_checkpoints " +
+                "WHERE task = ?1 AND shard_start_id <= ?2 AND shard_end_id >= ?2 AND last_processed_id >= ?2";
+
+        Optional<Long> lastProcessedId = Optional.empty();
+        long nextId = shard.startId();
+        while (nextId <= shard.endId()) {
+            Object coveredUpTo = entityManager.get().createNativeQuery(query)
+                    .setParameter(1, task.getValue())
+                    .setParameter(2, nextId)
+                    .getSingleResult();
+            if (coveredUpTo == null) {
+                break;
+            }
+            long processedUpTo = Math.min(((Number) coveredUpTo).longValue(), shard.endId());
+            lastProcessedId = Optional.of(processedUpTo);
+            nextId = processedUpTo + 1;
+        }
+        return lastProcessedId;
+    }
+
+    public void saveLastProcessedId(ShardedTask task, IdRangeShard shard, long lastProcessedId) {
+        String query = "INSERT INTO shard_checkpoints (task, shard_start_id, shard_end_id, last_processed_id, updated_date) " +
+                "VALUES (?1, ?2, ?3, ?4, now()) " +
+                "ON CONFLICT (task, shard_start_id, shard_end_id) " +
+                "DO UPDATE SET last_processed_id = EXCLUDED.last_processed_id, updated_date = now()";
+
+        entityManager.get().createNativeQuery(query)
+                .setParameter(1, task.getValue())
+                .setParameter(2, shard.startId())
+                .setParameter(3, shard.endId())
+                .setParameter(4, lastProcessedId)
+                .executeUpdate();
+    }
+
+    public int deleteCheckpointsWithin(ShardedTask task, long startId, long maxId) {
+        String query = "DELETE FROM shard_checkpoints " +
+                "WHERE task = ?1 AND shard_start_id >= ?2 AND shard_end_id <= ?3";
+
+        return entityManager.get().createNativeQuery(query)
+                .setParameter(1, task.getValue())
+                .setParameter(2, startId)
+                .setParameter(3, maxId)
+                .executeUpdate();
+    }
+}
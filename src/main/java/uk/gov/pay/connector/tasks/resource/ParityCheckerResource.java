@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import uk.gov.pay.connector.tasks.RecordType;
 
 import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -19,6 +20,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
 import static jakarta.ws.rs.core.Response.Status.OK;
 import static uk.gov.pay.connector.tasks.RecordType.CHARGE;
 
@@ -59,17 +61,38 @@ public class ParityCheckerResource {
                                 @Parameter(example = "7200", description = "Duration (in seconds) until which emitted event sweeper should ignore retrying emitting events")
                                 @QueryParam("do_not_retry_emit_until") Long doNotRetryEmitUntilDuration,
                                 @Parameter(example = "charge", description = "Type of records (charge/refund) to be parity checked. Defaults to 'charge'")
-                                @QueryParam("record_type") Optional<RecordType> maybeRecordType) {
+                                @QueryParam("record_type") Optional<RecordType> maybeRecordType,
+                                @Parameter(example = "true", description = "Set to true to continue a charge parity check for the same start_id and max_id " +
+                                        "from the last checkpoint recorded for each shard, rather than starting again. Defaults to false")
+                                @QueryParam("resume") boolean resumeFromCheckpoint) {
         //We run this task in the background and respond 200 so the request from toolbox does not time out
         ExecutorService executor = Executors.newSingleThreadExecutor();
         RecordType recordType = maybeRecordType.orElse(CHARGE);
         if (recordType == CHARGE) {
-            executor.execute(() -> parityCheckerService.checkParity(startId, Optional.of(maybeMaxId), doNotReprocessValidRecords,
-                    Optional.ofNullable(maybeParityCheckStatus), doNotRetryEmitUntilDuration));
+            executor.execute(() -> parityCheckerService.checkParity(startId, Optional.ofNullable(maybeMaxId), doNotReprocessValidRecords,
+                    Optional.ofNullable(maybeParityCheckStatus), doNotRetryEmitUntilDuration, resumeFromCheckpoint));
         } else {
-            executor.execute(() -> parityCheckerService.checkParityForRefundsOnly(startId, Optional.of(maybeMaxId).orElse(null), doNotReprocessValidRecords,
+            executor.execute(() -> parityCheckerService.checkParityForRefundsOnly(startId, maybeMaxId, doNotReprocessValidRecords,
                     Optional.ofNullable(maybeParityCheckStatus).orElse(null), doNotRetryEmitUntilDuration));
         }
+        executor.shutdown();
         return Response.status(OK).build();
     }
+
+    @GET
+    @Path("/v1/tasks/parity-checker")
+    @Produces(APPLICATION_JSON)
+    @Operation(
+            summary = "Progress of the most recent charge parity check by id range",
+            description = "Returns shard, record and throughput counters for the most recent charge parity check run by start_id and max_id on this instance.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK"),
+                    @ApiResponse(responseCode = "404", description = "No parity check has run on this instance")
+            }
+    )
+    public Response parityCheckProgress() {
+        return parityCheckerService.getProgress()
+                .map(progress -> Response.status(OK).entity(progress).build())
+                .orElseGet(() -> Response.status(NOT_FOUND).build());
+    }
 }
@@ -0,0 +1,15 @@
+package uk.gov.pay.connector.tasks.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record IdRangeShard(long startId, long endId) {
+
+    public static List<IdRangeShard> split(long startId, long maxId, long shardSize) {
+        List<IdRangeShard> shards = new ArrayList<>();
+        for (long shardStart = startId; shardStart <= maxId; shardStart += shardSize) {
+            shards.add(new IdRangeShard(shardStart, Math.min(shardStart + shardSize - 1, maxId)));
+        }
+        return shards;
+    }
+}
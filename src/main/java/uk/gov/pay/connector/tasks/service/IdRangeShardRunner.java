@@ -0,0 +1,133 @@
+package uk.gov.pay.connector.tasks.service;
+
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.tasks.ShardedTask;
+import uk.gov.pay.connector.tasks.dao.ShardCheckpointDao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Works through {@link IdRangeShard}s on a fixed number of threads, one page at a time, for tasks which checkpoint
+ * their progress in shard_checkpoints. Each page is processed by a {@link PageProcessor} which is expected to save the
+ * shard's checkpoint in the same transaction as the rest of the page's work, so that a run interrupted by a restart
+ * can carry on from the first page it did not finish.
+ * <p>
+ * Shards are keyed on id rather than creation time. Every id up to the end of the last shard is visited, whatever
+ * order the rows were inserted in. Ids are allocated in blocks, so a row created after a checkpoint was saved can
+ * still have an id below it. A resumed run skips such rows. That is fine for tasks which deal with rows that existed
+ * when they started; a run which is not resumed covers them.
+ */
+public class IdRangeShardRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdRangeShardRunner.class);
+
+    private final ShardCheckpointDao checkpointDao;
+
+    @Inject
+    public IdRangeShardRunner(ShardCheckpointDao checkpointDao) {
+        this.checkpointDao = checkpointDao;
+    }
+
+    @FunctionalInterface
+    public interface PageProcessor {
+        /**
+         * Processes the page of records after {@code lastProcessedId} in {@code shard} and saves its checkpoint.
+         *
+         * @return the last id processed, which is the end of the shard once there are no more records in it
+         */
+        long processNextPage(IdRangeShard shard, long lastProcessedId);
+    }
+
+    public interface ShardListener {
+        default void shardCompleted() {
+        }
+
+        default void shardFailed() {
+        }
+    }
+
+    public static int parallelism(int configuredParallelism, List<IdRangeShard> shards) {
+        return Math.max(1, Math.min(configuredParallelism, shards.size()));
+    }
+
+    public int run(ShardedTask task, List<IdRangeShard> shards, int parallelism, boolean resumeFromCheckpoint,
+                   PageProcessor pageProcessor) {
+        return run(task, shards, parallelism, resumeFromCheckpoint, pageProcessor, new ShardListener() {});
+    }
+
+    /**
+     * Runs {@code pageProcessor} over every shard until it reaches the end of the shard. Unless
+     * {@code resumeFromCheckpoint} is set, checkpoints left within the shards by earlier runs of {@code task} are
+     * deleted first. A shard which throws is logged and left, and the others carry on.
+     *
+     * @return the number of shards which failed
+     */
+    public int run(ShardedTask task, List<IdRangeShard> shards, int parallelism, boolean resumeFromCheckpoint,
+                   PageProcessor pageProcessor, ShardListener listener) {
+        if (shards.isEmpty()) {
+            return 0;
+        }
+        if (!resumeFromCheckpoint) {
+            checkpointDao.deleteCheckpointsWithin(task, shards.getFirst().startId(), shards.getLast().endId());
+        }
+
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        int failedShards = 0;
+        try {
+            List<Future<Boolean>> shardResults = shards.stream()
+                    .map(shard -> executor.submit(() -> {
+                        if (mdcContext != null) {
+                            MDC.setContextMap(mdcContext);
+                        }
+                        try {
+                            runShard(task, shard, resumeFromCheckpoint, pageProcessor);
+                            listener.shardCompleted();
+                            return true;
+                        } catch (Exception e) {
+                            listener.shardFailed();
+                            logger.error("Error processing shard of {} [start={}] [end={}] [error={}]",
+                                    task, shard.startId(), shard.endId(), e.getMessage(), e);
+                            return false;
+                        } finally {
+                            MDC.clear();
+                        }
+                    }))
+                    .collect(toList());
+
+            for (Future<Boolean> shardResult : shardResults) {
+                if (!shardResult.get()) {
+                    failedShards++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for shards of {} to complete", task);
+        } catch (ExecutionException e) {
+            logger.error("Shard of {} terminated unexpectedly [error={}]", task, e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return failedShards;
+    }
+
+    private void runShard(ShardedTask task, IdRangeShard shard, boolean resumeFromCheckpoint, PageProcessor pageProcessor) {
+        long lastProcessedId = resumeFromCheckpoint ?
+                checkpointDao.findLastProcessedId(task, shard).orElse(shard.startId() - 1) :
+                shard.startId() - 1;
+
+        while (lastProcessedId < shard.endId()) {
+            lastProcessedId = pageProcessor.processNextPage(shard, lastProcessedId);
+        }
+    }
+}
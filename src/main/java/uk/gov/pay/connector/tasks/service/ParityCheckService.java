@@ -13,7 +13,9 @@ import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.service.RefundService;
 import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static uk.gov.pay.connector.charge.model.domain.ParityCheckStatus.EXISTS_IN_LEDGER;
@@ -44,7 +46,11 @@ public class ParityCheckService {
     }
 
     public ParityCheckStatus getChargeAndRefundsParityCheckStatus(ChargeEntity charge) {
-        ParityCheckStatus parityCheckStatus = getChargeParityCheckStatus(charge);
+        return getChargeAndRefundsParityCheckStatus(charge, ledgerService.getTransaction(charge.getExternalId()));
+    }
+
+    public ParityCheckStatus getChargeAndRefundsParityCheckStatus(ChargeEntity charge, Optional<LedgerTransaction> ledgerTransaction) {
+        ParityCheckStatus parityCheckStatus = chargeParityChecker.checkParity(charge, ledgerTransaction.orElse(null));
         if (parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
             return getRefundsParityCheckStatus(refundService.findNotExpungedRefunds(charge.getExternalId()));
         }
@@ -54,8 +60,34 @@ public class ParityCheckService {
 
     @Transactional
     public boolean parityCheckChargeForExpunger(ChargeEntity chargeEntity) {
-        ParityCheckStatus parityCheckStatus = getChargeParityCheckStatus(chargeEntity);
+        return matchesLedgerOrBackfill(chargeEntity, getChargeParityCheckStatus(chargeEntity));
+    }
+
+    /**
+     * Checks a page of charges for the expunger, fetching their ledger transactions concurrently rather than one
+     * after another. Charges that do not match ledger are backfilled as by {@link #parityCheckChargeForExpunger}.
+     *
+     * @return the charges that match ledger
+     */
+    public List<ChargeEntity> parityCheckChargesForExpunger(List<ChargeEntity> chargeEntities) {
+        if (chargeEntities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, LedgerTransaction> transactions = ledgerService.getTransactions(
+                chargeEntities.stream().map(ChargeEntity::getExternalId).toList());
+
+        List<ChargeEntity> matchingCharges = new ArrayList<>();
+        for (ChargeEntity chargeEntity : chargeEntities) {
+            ParityCheckStatus parityCheckStatus = chargeParityChecker.checkParity(chargeEntity, transactions.get(chargeEntity.getExternalId()));
+            if (matchesLedgerOrBackfill(chargeEntity, parityCheckStatus)) {
+                matchingCharges.add(chargeEntity);
+            }
+        }
+        return matchingCharges;
+    }
 
+    private boolean matchesLedgerOrBackfill(ChargeEntity chargeEntity, ParityCheckStatus parityCheckStatus) {
         if (EXISTS_IN_LEDGER.equals(parityCheckStatus)) {
             return true;
         }
@@ -69,8 +101,33 @@ public class ParityCheckService {
 
     @Transactional
     public boolean parityCheckRefundForExpunger(RefundEntity refundEntity) {
-        ParityCheckStatus parityCheckStatus = getRefundParityCheckStatus(refundEntity);
+        return matchesLedgerOrBackfill(refundEntity, getRefundParityCheckStatus(refundEntity));
+    }
+
+    /**
+     * Refund counterpart of {@link #parityCheckChargesForExpunger}.
+     *
+     * @return the refunds that match ledger
+     */
+    public List<RefundEntity> parityCheckRefundsForExpunger(List<RefundEntity> refundEntities) {
+        if (refundEntities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, LedgerTransaction> transactions = ledgerService.getTransactions(
+                refundEntities.stream().map(RefundEntity::getExternalId).toList());
+
+        List<RefundEntity> matchingRefunds = new ArrayList<>();
+        for (RefundEntity refundEntity : refundEntities) {
+            ParityCheckStatus parityCheckStatus = refundParityChecker.checkParity(refundEntity, transactions.get(refundEntity.getExternalId()));
+            if (matchesLedgerOrBackfill(refundEntity, parityCheckStatus)) {
+                matchingRefunds.add(refundEntity);
+            }
+        }
+        return matchingRefunds;
+    }
 
+    private boolean matchesLedgerOrBackfill(RefundEntity refundEntity, ParityCheckStatus parityCheckStatus) {
         if (EXISTS_IN_LEDGER.equals(parityCheckStatus)) {
             return true;
         }
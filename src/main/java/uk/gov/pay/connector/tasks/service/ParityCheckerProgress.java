@@ -0,0 +1,141 @@
+package uk.gov.pay.connector.tasks.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for a sharded parity check run. Updated concurrently by shard workers and
+ * read by {@code GET /v1/tasks/parity-checker}.
+ */
+public class ParityCheckerProgress implements IdRangeShardRunner.ShardListener {
+
+    private final long startId;
+    private final long maxId;
+    private final int totalShards;
+    private final int parallelism;
+    private final Instant startedAt;
+    private volatile Instant finishedAt;
+
+    private final LongAdder completedShards = new LongAdder();
+    private final LongAdder failedShards = new LongAdder();
+    private final LongAdder recordsChecked = new LongAdder();
+    private final LongAdder recordsSkipped = new LongAdder();
+    private final AtomicLong highestProcessedId = new AtomicLong();
+    private final Map<ParityCheckStatus, LongAdder> recordsByStatus = new EnumMap<>(ParityCheckStatus.class);
+
+    public ParityCheckerProgress(long startId, long maxId, int totalShards, int parallelism) {
+        this.startId = startId;
+        this.maxId = maxId;
+        this.totalShards = totalShards;
+        this.parallelism = parallelism;
+        this.startedAt = Instant.now();
+        for (ParityCheckStatus status : ParityCheckStatus.values()) {
+            recordsByStatus.put(status, new LongAdder());
+        }
+    }
+
+    void recordChecked(long id, ParityCheckStatus status) {
+        recordsChecked.increment();
+        recordsByStatus.get(status).increment();
+        highestProcessedId.accumulateAndGet(id, Math::max);
+    }
+
+    void recordSkipped(long id) {
+        recordsSkipped.increment();
+        highestProcessedId.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public void shardCompleted() {
+        completedShards.increment();
+    }
+
+    @Override
+    public void shardFailed() {
+        failedShards.increment();
+    }
+
+    void finished() {
+        finishedAt = Instant.now();
+    }
+
+    @JsonProperty("start_id")
+    public long getStartId() {
+        return startId;
+    }
+
+    @JsonProperty("max_id")
+    public long getMaxId() {
+        return maxId;
+    }
+
+    @JsonProperty("parallelism")
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @JsonProperty("total_shards")
+    public int getTotalShards() {
+        return totalShards;
+    }
+
+    @JsonProperty("completed_shards")
+    public long getCompletedShards() {
+        return completedShards.sum();
+    }
+
+    @JsonProperty("failed_shards")
+    public long getFailedShards() {
+        return failedShards.sum();
+    }
+
+    @JsonProperty("records_checked")
+    public long getRecordsChecked() {
+        return recordsChecked.sum();
+    }
+
+    @JsonProperty("records_skipped")
+    public long getRecordsSkipped() {
+        return recordsSkipped.sum();
+    }
+
+    @JsonProperty("records_by_parity_check_status")
+    public Map<ParityCheckStatus, Long> getRecordsByStatus() {
+        Map<ParityCheckStatus, Long> counts = new EnumMap<>(ParityCheckStatus.class);
+        recordsByStatus.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    @JsonProperty("highest_processed_id")
+    public long getHighestProcessedId() {
+        return highestProcessedId.get();
+    }
+
+    @JsonProperty("records_per_second")
+    public double getRecordsPerSecond() {
+        long elapsedMillis = Duration.between(startedAt, finishedAt == null ? Instant.now() : finishedAt).toMillis();
+        return elapsedMillis == 0 ? 0 : (getRecordsChecked() + getRecordsSkipped()) * 1000.0 / elapsedMillis;
+    }
+
+    @JsonProperty("started_at")
+    public String getStartedAt() {
+        return startedAt.toString();
+    }
+
+    @JsonProperty("finished_at")
+    public String getFinishedAt() {
+        return finishedAt == null ? null : finishedAt.toString();
+    }
+
+    @JsonProperty("running")
+    public boolean isRunning() {
+        return finishedAt == null;
+    }
+}
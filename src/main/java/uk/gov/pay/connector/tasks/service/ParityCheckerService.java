@@ -1,15 +1,20 @@
 package uk.gov.pay.connector.tasks.service;
 
 import com.google.inject.persist.Transactional;
+import com.google.inject.persist.UnitOfWork;
 import jakarta.inject.Inject;
 import org.apache.commons.lang3.RandomUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ParityCheckerConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
+import uk.gov.pay.connector.client.ledger.service.LedgerService;
 import uk.gov.pay.connector.events.EventService;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
@@ -17,13 +22,19 @@ import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.service.RefundService;
 import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
+import uk.gov.pay.connector.tasks.dao.ShardCheckpointDao;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static uk.gov.pay.connector.charge.model.domain.ParityCheckStatus.EXISTS_IN_LEDGER;
+import static uk.gov.pay.connector.tasks.ShardedTask.PARITY_CHECK_CHARGES;
 import static uk.gov.service.payments.logging.LoggingKeys.MDC_REQUEST_ID_KEY;
 import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 import static uk.gov.service.payments.logging.LoggingKeys.REFUND_EXTERNAL_ID;
@@ -40,10 +51,21 @@ public class ParityCheckerService {
     private final RefundService refundService;
     private final RefundDao refundDao;
     private final ParityCheckService parityCheckService;
+    private final LedgerService ledgerService;
+    private final ShardCheckpointDao shardCheckpointDao;
+    private final IdRangeShardRunner shardRunner;
+    private final UnitOfWork unitOfWork;
+    private final ParityCheckerConfig parityCheckerConfig;
     private HistoricalEventEmitter historicalEventEmitter;
+    private volatile ParityCheckerProgress progress;
 
     @Inject
-    public ParityCheckerService(ChargeDao chargeDao, ChargeService chargeService, EmittedEventDao emittedEventDao, StateTransitionService stateTransitionService, EventService eventService, RefundService refundService, RefundDao refundDao, ParityCheckService parityCheckService) {
+    public ParityCheckerService(ChargeDao chargeDao, ChargeService chargeService, EmittedEventDao emittedEventDao,
+                                StateTransitionService stateTransitionService, EventService eventService,
+                                RefundService refundService, RefundDao refundDao, ParityCheckService parityCheckService,
+                                LedgerService ledgerService, ShardCheckpointDao shardCheckpointDao,
+                                IdRangeShardRunner shardRunner, UnitOfWork unitOfWork,
+                                ConnectorConfiguration configuration) {
         this.chargeDao = chargeDao;
         this.chargeService = chargeService;
         this.emittedEventDao = emittedEventDao;
@@ -52,9 +74,23 @@ public class ParityCheckerService {
         this.refundService = refundService;
         this.refundDao = refundDao;
         this.parityCheckService = parityCheckService;
+        this.ledgerService = ledgerService;
+        this.shardCheckpointDao = shardCheckpointDao;
+        this.shardRunner = shardRunner;
+        this.unitOfWork = unitOfWork;
+        this.parityCheckerConfig = configuration.getParityCheckerConfig();
+    }
+
+    public Optional<ParityCheckerProgress> getProgress() {
+        return Optional.ofNullable(progress);
     }
 
     public void checkParity(Long startId, Optional<Long> maybeMaxId, boolean doNotReprocessValidRecords, Optional<String> parityCheckStatus, Long doNotRetryEmitUntilDuration) {
+        checkParity(startId, maybeMaxId, doNotReprocessValidRecords, parityCheckStatus, doNotRetryEmitUntilDuration, false);
+    }
+
+    public void checkParity(Long startId, Optional<Long> maybeMaxId, boolean doNotReprocessValidRecords, Optional<String> parityCheckStatus,
+                            Long doNotRetryEmitUntilDuration, boolean resumeFromCheckpoint) {
         Long maxId = maybeMaxId.orElseGet(chargeDao::findMaxId);
         try {
             initializeHistoricalEventEmitter(doNotRetryEmitUntilDuration);
@@ -64,7 +100,7 @@ public class ParityCheckerService {
             if (parityCheckStatus.isPresent()) {
                 checkParityForParityCheckStatus(parityCheckStatus.get());
             } else {
-                checkParityForIdRange(startId, maxId, doNotReprocessValidRecords);
+                checkParityForIdRange(ofNullable(startId).orElse(0L), maxId, doNotReprocessValidRecords, resumeFromCheckpoint);
             }
         } catch (NullPointerException e) {
             for (StackTraceElement s : e.getStackTrace()) {
@@ -120,38 +156,110 @@ public class ParityCheckerService {
         }
     }
 
-    public void checkParityForIdRange(long startId, long maxId, boolean doNotReprocessValidRecords) {
-        logger.info("Starting from {} up to {}", startId, maxId);
-        for (long i = startId; i <= maxId; i++) {
-            final Optional<ChargeEntity> maybeCharge = chargeDao.findById(i);
+    /**
+     * Splits {@code [startId, maxId]} into fixed size shards which are worked through by
+     * {@link ParityCheckerConfig#getParallelism()} threads. Each shard is read in keyset pages, the ledger
+     * transactions for a page are fetched together, and the page's parity statuses, re-emitted events and checkpoint
+     * are committed in one transaction so that a run interrupted by a restart carries on from where it got to.
+     */
+    public void checkParityForIdRange(long startId, long maxId, boolean doNotReprocessValidRecords, boolean resumeFromCheckpoint) {
+        List<IdRangeShard> shards = IdRangeShard.split(startId, maxId, parityCheckerConfig.getShardSize());
+        int parallelism = IdRangeShardRunner.parallelism(parityCheckerConfig.getParallelism(), shards);
+        ParityCheckerProgress runProgress = new ParityCheckerProgress(startId, maxId, shards.size(), parallelism);
+        progress = runProgress;
+
+        logger.info("Starting from {} up to {} in {} shards with parallelism {}", startId, maxId, shards.size(), parallelism);
+        try {
+            shardRunner.run(PARITY_CHECK_CHARGES, shards, parallelism, resumeFromCheckpoint,
+                    (shard, lastProcessedId) -> checkParityForNextPage(shard, lastProcessedId, doNotReprocessValidRecords, runProgress),
+                    runProgress);
+        } finally {
+            runProgress.finished();
+        }
+        logger.info("Finished parity check from {} up to {} [checked={}] [skipped={}] [failed shards={}]",
+                startId, maxId, runProgress.getRecordsChecked(), runProgress.getRecordsSkipped(), runProgress.getFailedShards());
+    }
 
-            if (maybeCharge.isPresent()) {
-                checkParityFor(maybeCharge.get(), doNotReprocessValidRecords);
-            } else {
-                logger.info("[{}/{}] - not found", i, maxId);
+    private long checkParityForNextPage(IdRangeShard shard, long lastProcessedId, boolean doNotReprocessValidRecords,
+                                        ParityCheckerProgress runProgress) {
+        unitOfWork.begin();
+        try {
+            List<ChargeEntity> charges = chargeDao.findByIdRange(lastProcessedId, shard.endId(), parityCheckerConfig.getPageSize());
+            if (charges.isEmpty()) {
+                return recordParityForPage(shard, shard.endId(), Map.of(), runProgress);
             }
+
+            Map<ChargeEntity, Optional<LedgerTransaction>> chargesToCheck =
+                    findLedgerTransactionsForPage(charges, doNotReprocessValidRecords, runProgress);
+            return recordParityForPage(shard, charges.getLast().getId(), chargesToCheck, runProgress);
+        } finally {
+            unitOfWork.end();
         }
     }
 
-    // needs to be public for transactional annotation
+    /**
+     * Records the parity status of each charge in a page, re-emitting events for those which do not match ledger, and
+     * saves the shard's checkpoint, all in one transaction. The ledger transactions are fetched beforehand so that no
+     * transaction is open while ledger is called.
+     *
+     * @return {@code lastIdInPage}
+     */
     @Transactional
-    public void checkParityFor(ChargeEntity charge, boolean doNotReprocessValidRecords) {
-        try {
-            MDC.put(PAYMENT_EXTERNAL_ID, charge.getExternalId());
+    public long recordParityForPage(IdRangeShard shard, long lastIdInPage,
+                                    Map<ChargeEntity, Optional<LedgerTransaction>> chargesToCheck,
+                                    ParityCheckerProgress runProgress) {
+        chargesToCheck.forEach((charge, ledgerTransaction) ->
+                runProgress.recordChecked(charge.getId(), checkParityFor(charge, ledgerTransaction)));
+        shardCheckpointDao.saveLastProcessedId(PARITY_CHECK_CHARGES, shard, lastIdInPage);
+        return lastIdInPage;
+    }
 
+    private Map<ChargeEntity, Optional<LedgerTransaction>> findLedgerTransactionsForPage(
+            List<ChargeEntity> charges, boolean doNotReprocessValidRecords, ParityCheckerProgress runProgress) {
+        List<ChargeEntity> chargesToCheck = new ArrayList<>();
+        for (ChargeEntity charge : charges) {
             if (skipParityCheck(charge.getId(), charge.getParityCheckStatus(), doNotReprocessValidRecords)) {
-                return;
+                runProgress.recordSkipped(charge.getId());
+            } else {
+                chargesToCheck.add(charge);
             }
+        }
+
+        Map<ChargeEntity, Optional<LedgerTransaction>> ledgerTransactionsByCharge = new LinkedHashMap<>();
+        int ledgerBatchSize = parityCheckerConfig.getLedgerBatchSize();
+        for (int batchStart = 0; batchStart < chargesToCheck.size(); batchStart += ledgerBatchSize) {
+            List<ChargeEntity> batch = chargesToCheck.subList(batchStart, Math.min(batchStart + ledgerBatchSize, chargesToCheck.size()));
+            Map<String, LedgerTransaction> ledgerTransactions = ledgerService.getTransactions(
+                    batch.stream().map(ChargeEntity::getExternalId).collect(toList()));
+            batch.forEach(charge -> ledgerTransactionsByCharge.put(charge, Optional.ofNullable(ledgerTransactions.get(charge.getExternalId()))));
+        }
+        return ledgerTransactionsByCharge;
+    }
+
+    private void checkParityFor(ChargeEntity charge, boolean doNotReprocessValidRecords) {
+        if (skipParityCheck(charge.getId(), charge.getParityCheckStatus(), doNotReprocessValidRecords)) {
+            return;
+        }
+
+        Optional<LedgerTransaction> ledgerTransaction = ledgerService.getTransaction(charge.getExternalId());
+        checkParityFor(charge, ledgerTransaction);
+    }
+
+    @Transactional
+    public ParityCheckStatus checkParityFor(ChargeEntity charge, Optional<LedgerTransaction> ledgerTransaction) {
+        try {
+            MDC.put(PAYMENT_EXTERNAL_ID, charge.getExternalId());
 
-            ParityCheckStatus parityCheckStatus = parityCheckService.getChargeAndRefundsParityCheckStatus(charge);
+            ParityCheckStatus parityCheckStatus = parityCheckService.getChargeAndRefundsParityCheckStatus(charge, ledgerTransaction);
             chargeService.updateChargeParityStatus(charge.getExternalId(), parityCheckStatus);
             logger.info("transaction parity check finished [id={},status={}]", charge.getId(), parityCheckStatus);
 
             if (!parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
                 historicalEventEmitter.processPaymentEvents(charge, true);
             }
+            return parityCheckStatus;
         } finally {
-            MDC.remove("chargeId");
+            MDC.remove(PAYMENT_EXTERNAL_ID);
         }
     }
 
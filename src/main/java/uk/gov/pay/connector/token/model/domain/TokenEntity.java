@@ -22,7 +22,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "tokens")
 @SequenceGenerator(name = "tokens_id_seq",
-        sequenceName = "tokens_id_seq", allocationSize = 1)
+        sequenceName = "tokens_id_seq", allocationSize = 50)
 public class TokenEntity extends AbstractVersionedEntity {
 
     @Id
@@ -0,0 +1,84 @@
+package uk.gov.pay.connector.util;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of a {@link ReverseDnsLookup} so that bursts of gateway notifications from the same addresses do
+ * not each pay for a PTR query. Concurrent lookups of an address that is not cached share a single query.
+ * <br>
+ * JNDI does not expose record TTLs, so resolved hosts are kept for the configured time to live. Failed lookups are
+ * cached too, for the shorter negative time to live, so that a broken resolver is not hammered but a transient
+ * failure does not reject notifications for long.
+ */
+public class CachingReverseDnsLookup extends ReverseDnsLookup {
+
+    private static final String METRIC_PREFIX = "reverse-dns-lookup";
+
+    private final LoadingCache<DnsPointerResourceRecord, CachedLookup> cache;
+    private final ReverseDnsLookup reverseDnsLookup;
+    private final Ticker ticker;
+    private final long negativeTimeToLiveInNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer lookupTimer;
+
+    public CachingReverseDnsLookup(ReverseDnsLookup reverseDnsLookup, ReverseDnsCacheConfig config,
+                                   MetricRegistry metricRegistry) {
+        this(reverseDnsLookup, config, metricRegistry, Ticker.systemTicker());
+    }
+
+    CachingReverseDnsLookup(ReverseDnsLookup reverseDnsLookup, ReverseDnsCacheConfig config,
+                            MetricRegistry metricRegistry, Ticker ticker) {
+        this.reverseDnsLookup = reverseDnsLookup;
+        this.ticker = ticker;
+        this.negativeTimeToLiveInNanos = TimeUnit.SECONDS.toNanos(
+                Math.min(config.getNegativeTimeToLiveInSeconds(), config.getTimeToLiveInSeconds()));
+        this.hits = metricRegistry.counter(METRIC_PREFIX + ".cache.hits");
+        this.misses = metricRegistry.counter(METRIC_PREFIX + ".cache.misses");
+        this.lookupTimer = metricRegistry.timer(METRIC_PREFIX + ".response_time");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLiveInSeconds(), TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build(CacheLoader.from(this::resolve));
+    }
+
+    @Override
+    public Optional<String> lookup(DnsPointerResourceRecord pointerRecord) {
+        CachedLookup cached = cache.getIfPresent(pointerRecord);
+        if (cached != null) {
+            if (!isExpiredNegativeLookup(cached)) {
+                hits.inc();
+                return cached.host();
+            }
+            cache.asMap().remove(pointerRecord, cached);
+        }
+        misses.inc();
+        return cache.getUnchecked(pointerRecord).host();
+    }
+
+    private CachedLookup resolve(DnsPointerResourceRecord pointerRecord) {
+        Optional<String> host;
+        try (Timer.Context ignored = lookupTimer.time()) {
+            host = reverseDnsLookup.lookup(pointerRecord);
+        }
+        return new CachedLookup(host, ticker.read());
+    }
+
+    private boolean isExpiredNegativeLookup(CachedLookup cached) {
+        return cached.host().isEmpty() && ticker.read() - cached.resolvedAtNanos() >= negativeTimeToLiveInNanos;
+    }
+
+    private record CachedLookup(Optional<String> host, long resolvedAtNanos) {
+    }
+}
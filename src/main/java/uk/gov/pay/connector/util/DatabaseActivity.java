@@ -0,0 +1,183 @@
+package uk.gov.pay.connector.util;
+
+import io.prometheus.client.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * The SQL statements run, rows read and time spent in the database by one unit of work: a request to a resource
+ * method or a background job such as a capture or a task queue message. {@link DatabaseActivityProfiler} adds to the
+ * activity begun on the current thread, and {@link #end(String, String)} records the totals in Prometheus histograms
+ * labelled with the kind and name of the work, so that endpoints and jobs which load entities one by one stand out.
+ * <br>
+ * Work handed to another thread is only counted if it is wrapped with {@link #carriedOver(String, Callable)}, as the
+ * charge expiry workers and card executor tasks are. Statements run on any other thread with no activity begun, such
+ * as the ledger event publisher or the historical event emitter's shards, are not counted, and neither are statements
+ * run through Jdbi or a plain JDBC connection rather than EclipseLink.
+ */
+public final class DatabaseActivity {
+
+    public static final String RESOURCE = "resource";
+    public static final String JOB = "job";
+
+    private static final ThreadLocal<DatabaseActivity> current = new ThreadLocal<>();
+
+    private static final Histogram statementsHistogram = Histogram.build()
+            .name("connector_db_statements")
+            .help("SQL statements run by a resource method or background job")
+            .labelNames("type", "name")
+            .buckets(0, 1, 2, 5, 10, 20, 50, 100, 250, 1000)
+            .register();
+
+    private static final Histogram rowsHistogram = Histogram.build()
+            .name("connector_db_rows")
+            .help("Rows read from the database by a resource method or background job")
+            .labelNames("type", "name")
+            .buckets(0, 1, 10, 50, 100, 500, 1000, 5000, 10000)
+            .register();
+
+    private static final Histogram timeHistogram = Histogram.build()
+            .name("connector_db_time_seconds")
+            .help("Time spent running SQL statements for a resource method or background job")
+            .labelNames("type", "name")
+            .buckets(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 10)
+            .register();
+
+    private final DatabaseActivity enclosing;
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    // activity carried over to other threads, added from those threads once their work finishes
+    private final Object carriedOverLock = new Object();
+    private boolean ended;
+    private int carriedOverStatements;
+    private long carriedOverRows;
+    private long carriedOverNanos;
+
+    // statements run by the query being profiled, as opposed to the queries it triggers
+    int queryStatements;
+    int statementDepth;
+    long statementStartedAt;
+
+    private DatabaseActivity(DatabaseActivity enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /**
+     * Starts counting database activity on the current thread. Every call must be paired with a call to
+     * {@link #end(String, String)} on the same thread, in a {@code finally} block.
+     */
+    public static DatabaseActivity begin() {
+        DatabaseActivity activity = new DatabaseActivity(current.get());
+        current.set(activity);
+        return activity;
+    }
+
+    static DatabaseActivity current() {
+        return current.get();
+    }
+
+    /**
+     * Wraps work to be run on another thread so that its database activity is added to the activity begun on the
+     * current thread once the work finishes. Must be called on the thread handing the work over, not the one running
+     * it.
+     * <br>
+     * If the activity handing the work over has already ended by the time the work finishes, as when a request stops
+     * waiting for an authorisation that is taking too long, or if no activity was begun, the work's activity is
+     * recorded on its own against {@link #JOB} and {@code name} instead.
+     */
+    public static <T> Callable<T> carriedOver(String name, Callable<T> work) {
+        DatabaseActivity handedOverBy = current.get();
+        return () -> {
+            DatabaseActivity activity = begin();
+            try {
+                return work.call();
+            } finally {
+                activity.leaveThread();
+                activity.addCarriedOver();
+                if (handedOverBy == null || !handedOverBy.addFinished(activity)) {
+                    activity.record(JOB, name);
+                }
+            }
+        };
+    }
+
+    /**
+     * Stops counting and records the totals, including any work {@link #carriedOver(String, Callable) carried over}
+     * to other threads that has finished, against {@code type} and {@code name}. Any activity begun before this one
+     * on the thread carries on counting from where it was.
+     */
+    public void end(String type, String name) {
+        leaveThread();
+        addCarriedOver();
+        record(type, name);
+    }
+
+    private void leaveThread() {
+        if (enclosing == null) {
+            current.remove();
+        } else {
+            current.set(enclosing);
+        }
+    }
+
+    private void addCarriedOver() {
+        synchronized (carriedOverLock) {
+            ended = true;
+            statements += carriedOverStatements;
+            rows += carriedOverRows;
+            nanos += carriedOverNanos;
+            carriedOverStatements = 0;
+            carriedOverRows = 0;
+            carriedOverNanos = 0;
+        }
+    }
+
+    private boolean addFinished(DatabaseActivity finished) {
+        synchronized (carriedOverLock) {
+            if (ended) {
+                return false;
+            }
+            carriedOverStatements += finished.statements;
+            carriedOverRows += finished.rows;
+            carriedOverNanos += finished.nanos;
+            return true;
+        }
+    }
+
+    private void record(String type, String name) {
+        statementsHistogram.labels(type, name).observe(statements);
+        rowsHistogram.labels(type, name).observe(rows);
+        timeHistogram.labels(type, name).observe(nanos / 1e9);
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statements++;
+        queryStatements++;
+        nanos += elapsedNanos;
+    }
+
+    void recordRows(int count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        synchronized (carriedOverLock) {
+            return statements + carriedOverStatements;
+        }
+    }
+
+    public long getRows() {
+        synchronized (carriedOverLock) {
+            return rows + carriedOverRows;
+        }
+    }
+
+    public Duration getDatabaseTime() {
+        synchronized (carriedOverLock) {
+            return Duration.ofNanos(nanos + carriedOverNanos);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.pay.connector.util;
+
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DataRecord;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+
+import java.util.Collection;
+
+/**
+ * Adds the statements EclipseLink runs, the time they take and the rows they return to the {@link DatabaseActivity}
+ * begun on the current thread. Statements run on a thread with no activity begun are not counted, so work handed to
+ * another thread must be wrapped with {@link DatabaseActivity#carriedOver} to be counted.
+ * <p>
+ * Rows are counted from the results of queries that ran a statement of their own, so objects found in the cache
+ * are not counted and a query is not counted again for the relationships loaded while building its results.
+ */
+public class DatabaseActivityProfiler extends SessionProfilerAdapter {
+
+    @Override
+    public void startOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        DatabaseActivity activity = DatabaseActivity.current();
+        if (activity != null && SessionProfiler.StatementExecute.equals(operationName)
+                && activity.statementDepth++ == 0) {
+            activity.statementStartedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void endOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        DatabaseActivity activity = DatabaseActivity.current();
+        if (activity != null && SessionProfiler.StatementExecute.equals(operationName)
+                && activity.statementDepth > 0 && --activity.statementDepth == 0) {
+            activity.recordStatement(System.nanoTime() - activity.statementStartedAt);
+        }
+    }
+
+    @Override
+    public Object profileExecutionOfQuery(DatabaseQuery query, DataRecord row, AbstractSession session) {
+        DatabaseActivity activity = DatabaseActivity.current();
+        if (activity == null || !query.isReadQuery()) {
+            return session.internalExecuteQuery(query, (AbstractRecord) row);
+        }
+
+        int enclosingQueryStatements = activity.queryStatements;
+        activity.queryStatements = 0;
+        try {
+            Object result = session.internalExecuteQuery(query, (AbstractRecord) row);
+            if (activity.queryStatements > 0) {
+                activity.recordRows(rowCount(result));
+            }
+            return result;
+        } finally {
+            activity.queryStatements = enclosingQueryStatements;
+        }
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        return result == null ? 0 : 1;
+    }
+}
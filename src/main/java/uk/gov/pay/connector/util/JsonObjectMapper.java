@@ -32,6 +32,21 @@ public class JsonObjectMapper {
         }
     }
 
+    /**
+     * Parses a JSON payload as received, without decoding it into a string first
+     */
+    public <T> T getObject(byte[] jsonResponse, Class<T> targetType) throws WebApplicationException {
+        try {
+            return objectMapper.readValue(jsonResponse, targetType);
+        } catch (IOException e) {
+            LoggablePayload payload = LoggablePayload.of(jsonResponse);
+            logger.info("There was an exception parsing the payload [{}] into an [{}]", payload, targetType);
+            throw new WebApplicationException(serviceErrorResponse(
+                    format("There was an exception parsing the payload [%s] into an [%s], e=[%s]",
+                    payload, targetType, e.getMessage())));
+        }
+    }
+
     public String objectToString(Object object) throws WebApplicationException {
         try {
             return objectMapper.writeValueAsString(object);
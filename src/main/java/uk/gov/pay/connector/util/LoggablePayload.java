@@ -0,0 +1,42 @@
+package uk.gov.pay.connector.util;
+
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A view of a gateway payload for logging. Nothing is decoded until the view is turned into a string, which log
+ * statements only do when the level is enabled, and at most {@link #MAX_LOGGED_BYTES} bytes are decoded.
+ */
+public final class LoggablePayload {
+
+    public static final int MAX_LOGGED_BYTES = 8192;
+
+    private final byte[] payload;
+    private final Charset charset;
+
+    private LoggablePayload(byte[] payload, Charset charset) {
+        this.payload = payload;
+        this.charset = charset;
+    }
+
+    public static LoggablePayload of(byte[] payload) {
+        return of(payload, UTF_8);
+    }
+
+    public static LoggablePayload of(byte[] payload, Charset charset) {
+        return new LoggablePayload(payload, charset);
+    }
+
+    @Override
+    public String toString() {
+        if (payload == null) {
+            return "";
+        }
+        if (payload.length <= MAX_LOGGED_BYTES) {
+            return new String(payload, charset);
+        }
+        return new String(payload, 0, MAX_LOGGED_BYTES, charset)
+                + "... [" + (payload.length - MAX_LOGGED_BYTES) + " more bytes]";
+    }
+}
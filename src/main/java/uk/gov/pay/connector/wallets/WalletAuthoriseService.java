@@ -81,6 +81,7 @@ public class WalletAuthoriseService {
     public GatewayResponse<BaseAuthoriseResponse> authorise(String chargeId, WalletAuthorisationRequest walletAuthorisationRequest) {
         return authorisationService.executeAuthorise(chargeId, () -> {
             final ChargeEntity charge = prepareChargeForAuthorisation(chargeId);
+            authorisationService.awaitGatewayPermit(charge);
             RequestAndResponse requestAndResponse = null;
             ChargeStatus chargeStatus = null;
             String requestStatus = "failure";
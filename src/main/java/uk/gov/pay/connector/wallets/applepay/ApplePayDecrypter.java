@@ -3,6 +3,7 @@ package uk.gov.pay.connector.wallets.applepay;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
+import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,11 +19,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
-import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
@@ -31,12 +32,21 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Optional;
+import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.temporal.ChronoUnit.DAYS;
 
+/**
+ * Decrypts Apple Pay payment tokens with our merchant key pairs. Everything that only depends on the key pairs,
+ * including the merchant identifier read from each certificate, is worked out once when the decrypter is created, and
+ * the JCA objects are kept per thread rather than looked up from the providers for every payment.
+ * <p>
+ * During a key rotation tokens may be encrypted for either key pair, so the pair that last decrypted a token is tried
+ * first and the others only if it fails.
+ */
 public class ApplePayDecrypter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ApplePayDecrypter.class);
@@ -45,11 +55,15 @@ public class ApplePayDecrypter {
     private static final byte[] APPLE_OEM = "Apple".getBytes(UTF_8);
     private static final byte[] ALG_IDENTIFIER_BYTES = "id-aes256-GCM".getBytes(UTF_8);
     private static final String MERCHANT_ID_CERTIFICATE_OID = "1.2.840.113635.100.6.32";
+    private static final GCMParameterSpec GCM_PARAMETER_SPEC = new GCMParameterSpec(128, new byte[16]);
 
-    private final PrivateKey primaryPrivateKey;
-    private final X509Certificate primaryCertificate;
-    private final Optional<PrivateKey> secondaryPrivateKey;
-    private final Optional<X509Certificate> secondaryCertificate;
+    private static final ThreadLocal<KeyFactory> EC_KEY_FACTORY = perThread(() -> KeyFactory.getInstance("EC"));
+    private static final ThreadLocal<KeyAgreement> ECDH_KEY_AGREEMENT = perThread(() -> KeyAgreement.getInstance("ECDH"));
+    private static final ThreadLocal<MessageDigest> SHA_256 = perThread(() -> MessageDigest.getInstance("SHA-256"));
+    private static final ThreadLocal<Cipher> AES_GCM_CIPHER = perThread(() -> Cipher.getInstance("AES/GCM/NoPadding"));
+
+    private final List<DecryptionKeyPair> keyPairs = new ArrayList<>();
+    private volatile DecryptionKeyPair lastSuccessfulKeyPair;
 
     private final ObjectMapper objectMapper;
     private final static Base64.Decoder BASE64_DECODER = Base64.getDecoder();
@@ -58,27 +72,33 @@ public class ApplePayDecrypter {
     public ApplePayDecrypter(WorldpayConfig worldpayConfig, ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
         ApplePayConfig applePayConfig = worldpayConfig.getApplePayConfig();
+        X509Certificate primaryCertificate;
         try {
-            primaryPrivateKey = generatePrivateKey(removeWhitespace(applePayConfig.getPrimaryPrivateKey()));
+            PrivateKey primaryPrivateKey = generatePrivateKey(removeWhitespace(applePayConfig.getPrimaryPrivateKey()));
             primaryCertificate = generateCertificate(removeWhitespace(applePayConfig.getPrimaryPublicCertificate()));
+            keyPairs.add(DecryptionKeyPair.of("primary", primaryPrivateKey, primaryCertificate));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
 
-        secondaryPrivateKey = applePayConfig.getSecondaryPrivateKey().map(privateKey -> {
+        var secondaryPrivateKey = applePayConfig.getSecondaryPrivateKey().map(privateKey -> {
             try {
                 return generatePrivateKey(removeWhitespace(privateKey));
             } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
                 throw new RuntimeException();
             }
         });
-        secondaryCertificate = applePayConfig.getSecondaryPublicCertificate().map(cert -> {
+        var secondaryCertificate = applePayConfig.getSecondaryPublicCertificate().map(cert -> {
             try {
                 return generateCertificate(removeWhitespace(cert));
             } catch (IOException | CertificateException e) {
                 throw new RuntimeException();
             }
         });
+        if (secondaryPrivateKey.isPresent() && secondaryCertificate.isPresent()) {
+            keyPairs.add(DecryptionKeyPair.of("secondary", secondaryPrivateKey.get(), secondaryCertificate.get()));
+        }
+        lastSuccessfulKeyPair = keyPairs.getFirst();
 
         long daysToExpiry = DAYS.between(Instant.now(), primaryCertificate.getNotAfter().toInstant());
         LOGGER.info("The Apple Pay payment processing cert will expire in {} days", daysToExpiry);
@@ -92,29 +112,19 @@ public class ApplePayDecrypter {
 
         ApplePayPaymentData applePayPaymentData = deserialisePaymentData(applePayAuthRequest.getPaymentData());
 
-        byte[] ephemeralPublicKey = BASE64_DECODER.decode(applePayPaymentData.getHeader().getEphemeralPublicKey().getBytes(UTF_8));
+        byte[] ephemeralPublicKeyBytes = BASE64_DECODER.decode(applePayPaymentData.getHeader().getEphemeralPublicKey().getBytes(UTF_8));
         byte[] data = BASE64_DECODER.decode(applePayPaymentData.getData().getBytes(UTF_8));
-        byte[] rawData;
 
+        ECPublicKey ephemeralPublicKey;
         try {
-            rawData = decrypt(primaryCertificate, primaryPrivateKey, ephemeralPublicKey, data);
-        } catch (Exception e) {
-            if (secondaryCertificate.isPresent() && secondaryPrivateKey.isPresent()) {
-                LOGGER.info("Could not decrypt Apple auth request with primary key, trying with secondary key.");
-                try {
-                    rawData = decrypt(secondaryCertificate.get(), secondaryPrivateKey.get(), ephemeralPublicKey, data);
-                } catch (Exception ex) {
-                    LOGGER.error("Error while trying to decrypt apple pay payload: " + ex.getMessage());
-                    throw new InvalidKeyException("Error while trying to decrypt apple pay payload: " + ex.getMessage());
-                }
-            } else {
-                LOGGER.info("Could not decrypt Apple auth request with primary key, and secondary key is not " +
-                        "present. Throwing an InvalidKeyException.");
-                LOGGER.error("Error while trying to decrypt apple pay payload: " + e.getMessage());
-                throw new InvalidKeyException("Error while trying to decrypt apple pay payload: " + e.getMessage());
-            }
+            ephemeralPublicKey = (ECPublicKey) EC_KEY_FACTORY.get().generatePublic(new X509EncodedKeySpec(ephemeralPublicKeyBytes));
+        } catch (GeneralSecurityException e) {
+            LOGGER.error("Error while trying to decrypt apple pay payload: " + e.getMessage());
+            throw new InvalidKeyException("Error while trying to decrypt apple pay payload: " + e.getMessage());
         }
 
+        byte[] rawData = decryptWithMostRecentlySuccessfulKeyPairFirst(ephemeralPublicKey, data);
+
         try {
             return objectMapper.readValue(new String(rawData, UTF_8), AppleDecryptedPaymentData.class);
         } catch (JsonProcessingException e) {
@@ -123,6 +133,37 @@ public class ApplePayDecrypter {
         }
     }
 
+    private byte[] decryptWithMostRecentlySuccessfulKeyPairFirst(ECPublicKey ephemeralPublicKey, byte[] data) {
+        DecryptionKeyPair firstKeyPair = lastSuccessfulKeyPair;
+        Exception lastException;
+        try {
+            return decrypt(firstKeyPair, ephemeralPublicKey, data);
+        } catch (Exception e) {
+            lastException = e;
+        }
+
+        for (DecryptionKeyPair keyPair : keyPairs) {
+            if (keyPair == firstKeyPair) {
+                continue;
+            }
+            LOGGER.info("Could not decrypt Apple auth request with {} key, trying with {} key.", firstKeyPair.name(), keyPair.name());
+            try {
+                byte[] rawData = decrypt(keyPair, ephemeralPublicKey, data);
+                lastSuccessfulKeyPair = keyPair;
+                return rawData;
+            } catch (Exception e) {
+                lastException = e;
+            }
+        }
+
+        if (keyPairs.size() == 1) {
+            LOGGER.info("Could not decrypt Apple auth request with primary key, and secondary key is not " +
+                    "present. Throwing an InvalidKeyException.");
+        }
+        LOGGER.error("Error while trying to decrypt apple pay payload: " + lastException.getMessage());
+        throw new InvalidKeyException("Error while trying to decrypt apple pay payload: " + lastException.getMessage());
+    }
+
     private ApplePayPaymentData deserialisePaymentData(String paymentData) {
         try {
             return objectMapper.readValue(paymentData, ApplePayPaymentData.class);
@@ -132,39 +173,30 @@ public class ApplePayDecrypter {
         }
     }
 
-    private byte[] decrypt(Certificate certificate, PrivateKey privateKey, byte[] ephemeralPublicKeyBytes, byte[] data) throws Exception {
-        // Reconstitute Ephemeral Public Key
-        KeyFactory keyFactory = KeyFactory.getInstance("EC");
-        X509EncodedKeySpec encodedKeySpec = new X509EncodedKeySpec(ephemeralPublicKeyBytes);
-        ECPublicKey ephemeralPublicKey = (ECPublicKey) keyFactory.generatePublic(encodedKeySpec);
+    private static byte[] decrypt(DecryptionKeyPair keyPair, ECPublicKey ephemeralPublicKey, byte[] data) throws GeneralSecurityException {
+        if (keyPair.partyInfo() == null) {
+            throw new GeneralSecurityException("No merchant identifier in the " + keyPair.name() + " certificate");
+        }
+
         // Perform KeyAgreement
-        KeyAgreement agreement = KeyAgreement.getInstance("ECDH");
-        agreement.init(privateKey);
+        KeyAgreement agreement = ECDH_KEY_AGREEMENT.get();
+        agreement.init(keyPair.privateKey());
         agreement.doPhase(ephemeralPublicKey, true);
         byte[] sharedSecret = agreement.generateSecret();
 
         // Perform KDF
-        byte[] derivedSecret = performKeyDerivationFunction(((X509Certificate) certificate), sharedSecret);
+        MessageDigest sha256 = SHA_256.get();
+        sha256.update(COUNTER);
+        sha256.update(sharedSecret);
+        sha256.update(keyPair.partyInfo());
+        byte[] derivedSecret = sha256.digest();
 
         // Use the derived secret to decrypt the data
-        Cipher aesCipher = Cipher.getInstance("AES/GCM/NoPadding");
-        SecretKeySpec key = new SecretKeySpec(derivedSecret, "AES");
-        aesCipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(128, new byte[16]));
+        Cipher aesCipher = AES_GCM_CIPHER.get();
+        aesCipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(derivedSecret, "AES"), GCM_PARAMETER_SPEC);
         return aesCipher.doFinal(data);
     }
 
-    private byte[] performKeyDerivationFunction(X509Certificate certificate, byte[] sharedSecret) throws Exception {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        byteArrayOutputStream.write(COUNTER);
-        byteArrayOutputStream.write(sharedSecret);
-        byteArrayOutputStream.write(ALG_IDENTIFIER_BYTES.length);
-        byteArrayOutputStream.write(ALG_IDENTIFIER_BYTES);
-        byteArrayOutputStream.write(APPLE_OEM);
-        // Add Merchant Id
-        byteArrayOutputStream.write(Hex.decodeHex(new String((certificate.getExtensionValue(MERCHANT_ID_CERTIFICATE_OID)), UTF_8).substring(4).toCharArray()));
-        return MessageDigest.getInstance("SHA-256").digest(byteArrayOutputStream.toByteArray());
-    }
-
     private X509Certificate generateCertificate(String publicCertificate) throws IOException, CertificateException {
         byte[] publicCertificateBytes = BASE64_DECODER.decode(publicCertificate);
         try (InputStream stream = new ByteArrayInputStream(publicCertificateBytes)) {
@@ -178,4 +210,42 @@ public class ApplePayDecrypter {
         return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(privateKeyBytes));
     }
 
+    private static <T> ThreadLocal<T> perThread(CryptoInstanceSupplier<T> supplier) {
+        return ThreadLocal.withInitial(() -> {
+            try {
+                return supplier.get();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface CryptoInstanceSupplier<T> {
+        T get() throws GeneralSecurityException;
+    }
+
+    /**
+     * partyInfo is everything the key derivation function hashes after the shared secret: the algorithm identifier,
+     * party U ("Apple") and party V (our merchant identifier). It is null if the certificate has no usable merchant
+     * identifier, in which case decrypting with this key pair always fails.
+     */
+    private record DecryptionKeyPair(String name, PrivateKey privateKey, byte[] partyInfo) {
+
+        static DecryptionKeyPair of(String name, PrivateKey privateKey, X509Certificate certificate) {
+            try {
+                byte[] merchantId = Hex.decodeHex(new String(certificate.getExtensionValue(MERCHANT_ID_CERTIFICATE_OID), UTF_8)
+                        .substring(4).toCharArray());
+                ByteArrayOutputStream partyInfo = new ByteArrayOutputStream();
+                partyInfo.write(ALG_IDENTIFIER_BYTES.length);
+                partyInfo.writeBytes(ALG_IDENTIFIER_BYTES);
+                partyInfo.writeBytes(APPLE_OEM);
+                partyInfo.writeBytes(merchantId);
+                return new DecryptionKeyPair(name, privateKey, partyInfo.toByteArray());
+            } catch (DecoderException | RuntimeException e) {
+                LOGGER.warn("Could not read the merchant identifier from the {} Apple Pay certificate: {}", name, e.getMessage());
+                return new DecryptionKeyPair(name, privateKey, null);
+            }
+        }
+    }
 }
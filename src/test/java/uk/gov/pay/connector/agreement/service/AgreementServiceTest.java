@@ -16,7 +16,7 @@ import uk.gov.pay.connector.agreement.model.AgreementCreateRequest;
 import uk.gov.pay.connector.agreement.model.AgreementEntity;
 import uk.gov.pay.connector.agreement.model.AgreementResponse;
 import uk.gov.pay.connector.charge.exception.ChargeException;
-import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.events.model.agreement.AgreementCancelledByService;
 import uk.gov.pay.connector.events.model.agreement.AgreementCancelledByUser;
 import uk.gov.pay.connector.gatewayaccount.exception.GatewayAccountNotFoundException;
@@ -53,14 +53,14 @@ public class AgreementServiceTest {
     private final GatewayAccountEntity gatewayAccount = mock(GatewayAccountEntity.class);
     private final AgreementDao mockedAgreementDao = mock(AgreementDao.class);
     private final GatewayAccountService mockGatewayAccountService = mock(GatewayAccountService.class);
-    private final LedgerService mockedLedgerService = mock(LedgerService.class);
+    private final LedgerEventPublisher mockedLedgerEventPublisher = mock(LedgerEventPublisher.class);
     private final TaskQueueService mockedTaskQueueService = mock(TaskQueueService.class);
     private AgreementService agreementService;
     
     @BeforeEach
     public void setUp() {
         InstantSource instantSource = InstantSource.fixed(Instant.parse(INSTANT_EXPECTED));
-        agreementService = new AgreementService(mockedAgreementDao, mockGatewayAccountService, mockedLedgerService, instantSource, mockedTaskQueueService);
+        agreementService = new AgreementService(mockedAgreementDao, mockGatewayAccountService, mockedLedgerEventPublisher, instantSource, mockedTaskQueueService);
     }
     
     @Nested
@@ -149,7 +149,7 @@ public class AgreementServiceTest {
                 when(mockedAgreementDao.findByExternalIdAndGatewayAccountId(VALID_AGREEMENT_ID, GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(agreement));
                 agreementService.cancelByGatewayAccountId(VALID_AGREEMENT_ID, GATEWAY_ACCOUNT_ID, cancelRequest);
                 verify(mockedTaskQueueService).addDeleteStoredPaymentDetailsTask(agreement, paymentInstrument);
-                verify(mockedLedgerService).postEvent(Mockito.any(AgreementCancelledByUser.class));
+                verify(mockedLedgerEventPublisher).publish(Mockito.any(AgreementCancelledByUser.class));
                 assertThat(paymentInstrument.getStatus(), is(PaymentInstrumentStatus.CANCELLED));
                 assertThat(agreement.getCancelledDate(), is(Instant.parse(INSTANT_EXPECTED)));
             }
@@ -167,7 +167,7 @@ public class AgreementServiceTest {
                 when(mockedAgreementDao.findByExternalIdAndGatewayAccountId(VALID_AGREEMENT_ID, GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(agreement));
                 agreementService.cancelByGatewayAccountId(VALID_AGREEMENT_ID, GATEWAY_ACCOUNT_ID, new AgreementCancelRequest());
                 verify(mockedTaskQueueService).addDeleteStoredPaymentDetailsTask(agreement, paymentInstrument);
-                verify(mockedLedgerService).postEvent(Mockito.any(AgreementCancelledByService.class));
+                verify(mockedLedgerEventPublisher).publish(Mockito.any(AgreementCancelledByService.class));
                 assertThat(paymentInstrument.getStatus(), is(PaymentInstrumentStatus.CANCELLED));
                 assertThat(agreement.getCancelledDate(), is(Instant.parse(INSTANT_EXPECTED)));
             }
@@ -265,7 +265,7 @@ public class AgreementServiceTest {
                 when(mockedAgreementDao.findByExternalIdAndServiceIdAndAccountType(VALID_AGREEMENT_ID, SERVICE_ID, GatewayAccountType.TEST)).thenReturn(Optional.of(agreement));
                 agreementService.cancelByServiceIdAndAccountType(VALID_AGREEMENT_ID, SERVICE_ID, GatewayAccountType.TEST, cancelRequest);
                 verify(mockedTaskQueueService).addDeleteStoredPaymentDetailsTask(agreement, paymentInstrument);
-                verify(mockedLedgerService).postEvent(Mockito.any(AgreementCancelledByUser.class));
+                verify(mockedLedgerEventPublisher).publish(Mockito.any(AgreementCancelledByUser.class));
                 assertThat(paymentInstrument.getStatus(), is(PaymentInstrumentStatus.CANCELLED));
                 assertThat(agreement.getCancelledDate(), is(Instant.parse(INSTANT_EXPECTED)));
             }
@@ -283,7 +283,7 @@ public class AgreementServiceTest {
                 when(mockedAgreementDao.findByExternalIdAndServiceIdAndAccountType(VALID_AGREEMENT_ID, SERVICE_ID, GatewayAccountType.TEST)).thenReturn(Optional.of(agreement));
                 agreementService.cancelByServiceIdAndAccountType(VALID_AGREEMENT_ID, SERVICE_ID, GatewayAccountType.TEST,new AgreementCancelRequest());
                 verify(mockedTaskQueueService).addDeleteStoredPaymentDetailsTask(agreement, paymentInstrument);
-                verify(mockedLedgerService).postEvent(Mockito.any(AgreementCancelledByService.class));
+                verify(mockedLedgerEventPublisher).publish(Mockito.any(AgreementCancelledByService.class));
                 assertThat(paymentInstrument.getStatus(), is(PaymentInstrumentStatus.CANCELLED));
                 assertThat(agreement.getCancelledDate(), is(Instant.parse(INSTANT_EXPECTED)));
             }
@@ -0,0 +1,53 @@
+package uk.gov.pay.connector.app;
+
+import io.dropwizard.db.ManagedDataSource;
+import io.prometheus.client.CollectorRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedDataSourceTest {
+
+    @Mock
+    private ManagedDataSource managedDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void shouldGetConnectionFromPoolAndRecordHowLongItTook() throws Exception {
+        when(managedDataSource.getConnection()).thenReturn(connection);
+        var dataSource = new InstrumentedDataSource(managedDataSource);
+        double countBefore = acquisitionCount();
+
+        assertThat(dataSource.getConnection(), is(sameInstance(connection)));
+
+        assertThat(acquisitionCount(), is(countBefore + 1));
+    }
+
+    @Test
+    void shouldReportNoConnectionsBeforePoolHasBeenCreated() {
+        var dataSource = new InstrumentedDataSource(managedDataSource);
+
+        var values = dataSource.poolMetricsCollector().collect().stream()
+                .map(family -> family.samples.getFirst().value)
+                .toList();
+
+        assertThat(values, contains(0.0, 0.0, 0.0, 0.0));
+    }
+
+    private static double acquisitionCount() {
+        Double count = CollectorRegistry.defaultRegistry.getSampleValue("connector_db_connection_acquisition_duration_seconds_count");
+        return count == null ? 0 : count;
+    }
+}
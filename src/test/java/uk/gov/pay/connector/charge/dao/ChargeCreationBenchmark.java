@@ -0,0 +1,193 @@
+package uk.gov.pay.connector.charge.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Session;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.postgresql.ds.PGSimpleDataSource;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
+import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.token.model.domain.TokenEntity;
+import uk.gov.pay.connector.util.ConnectorSessionCustomiser;
+import uk.gov.pay.connector.util.DatabaseTestHelper;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture.aValidChargeEntity;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
+import static uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity.ChargeEventEntityBuilder.aChargeEventEntity;
+import static uk.gov.pay.connector.util.AddGatewayAccountParams.AddGatewayAccountParamsBuilder.anAddGatewayAccountParams;
+import static uk.gov.pay.connector.util.RandomTestDataGeneratorUtils.secureRandomLong;
+
+/**
+ * Measures the latency of creating charges, each with its first charge event and secure token, and counts the JDBC
+ * round trips it takes. Compares single id allocation with the pooled allocation the entities now declare, and
+ * statement batching off with JDBC batch writing. Needs a migrated database, by default the one used by the
+ * integration tests; override with {@code -Dbenchmark.db.url}, {@code -Dbenchmark.db.user} and
+ * {@code -Dbenchmark.db.password}. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=uk.gov.pay.connector.charge.dao.ChargeCreationBenchmark}
+ * and the charges created and round trips taken are reported alongside the latency as the {@code charges} and
+ * {@code roundTrips} secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChargeCreationBenchmark {
+
+    private static final AtomicLong statementsExecuted = new AtomicLong();
+
+    @Param({"1", "50"})
+    public int idAllocationSize;
+
+    @Param({"None", "JDBC"})
+    public String batchWriting;
+
+    @Param({"1", "20"})
+    public int chargesPerTransaction;
+
+    private EntityManagerFactory entityManagerFactory;
+    private GatewayAccountEntity gatewayAccount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var pgDataSource = new PGSimpleDataSource();
+        pgDataSource.setUrl(System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/connector"));
+        pgDataSource.setUser(System.getProperty("benchmark.db.user", "postgres"));
+        pgDataSource.setPassword(System.getProperty("benchmark.db.password", "mysecretpassword"));
+        pgDataSource.setReWriteBatchedInserts(true);
+
+        long gatewayAccountId = secureRandomLong();
+        new DatabaseTestHelper(Jdbi.create(pgDataSource)).addGatewayAccount(anAddGatewayAccountParams()
+                .withAccountId(String.valueOf(gatewayAccountId))
+                .withPaymentGateway("sandbox")
+                .build());
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.nonJtaDataSource", countingStatements(pgDataSource));
+        properties.put("eclipselink.jdbc.batch-writing", batchWriting);
+        properties.put("eclipselink.jdbc.batch-writing.size", "100");
+        properties.put("eclipselink.cache.shared.default", "false");
+        properties.put("eclipselink.session.customizer", idAllocationSize == 1
+                ? SingleIdAllocationSessionCustomiser.class.getName()
+                : ConnectorSessionCustomiser.class.getName());
+        entityManagerFactory = Persistence.createEntityManagerFactory("ConnectorUnit", properties);
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        gatewayAccount = entityManager.find(GatewayAccountEntity.class, gatewayAccountId);
+        gatewayAccount.getGatewayAccountCredentials().size();
+        entityManager.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long charges;
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            charges = 0;
+            roundTrips = 0;
+        }
+    }
+
+    @Benchmark
+    public void createCharges(RoundTrips counters) {
+        long statementsBefore = statementsExecuted.get();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < chargesPerTransaction; i++) {
+            ChargeEntity charge = aValidChargeEntity()
+                    .withId(null)
+                    .withGatewayAccountEntity(gatewayAccount)
+                    .withGatewayAccountCredentialsEntity(gatewayAccount.getGatewayAccountCredentials().getFirst())
+                    .build();
+            entityManager.persist(charge);
+            ChargeEventEntity chargeEvent = aChargeEventEntity().withChargeEntity(charge).withStatus(CREATED).build();
+            entityManager.persist(chargeEvent);
+            entityManager.persist(TokenEntity.generateNewTokenFor(charge));
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        counters.roundTrips += statementsExecuted.get() - statementsBefore;
+        counters.charges += chargesPerTransaction;
+    }
+
+    public static class SingleIdAllocationSessionCustomiser extends ConnectorSessionCustomiser {
+        @Override
+        public void customize(Session session) {
+            super.customize(session);
+            ((DatasourceLogin) session.getDatasourceLogin()).getSequences().values()
+                    .forEach(sequence -> sequence.setPreallocationSize(1));
+        }
+    }
+
+    private static DataSource countingStatements(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                statementsExecuted.incrementAndGet();
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof Statement statement) {
+                    return proxy((Class<Statement>) method.getReturnType(), statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ChargeCreationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
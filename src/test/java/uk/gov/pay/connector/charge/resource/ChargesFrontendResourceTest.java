@@ -8,6 +8,7 @@ import uk.gov.pay.connector.agreement.service.AgreementService;
 import uk.gov.pay.connector.cardtype.dao.CardTypeDao;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusWaitService;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.common.model.api.ExternalTransactionStateFactory;
 import uk.gov.pay.connector.rules.ResourceTestRuleWithCustomExceptionMappersBuilder;
@@ -17,11 +18,14 @@ import jakarta.ws.rs.core.Response;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(DropwizardExtensionsSupport.class)
 class ChargesFrontendResourceTest {
@@ -31,11 +35,13 @@ class ChargesFrontendResourceTest {
     private static final Worldpay3dsFlexJwtService WORLDPAY_3DS_FLEX_JWT_SERVICE = mock(Worldpay3dsFlexJwtService.class);
     private static final AgreementService AGREEMENT_SERVICE = mock(AgreementService.class);
     private static final ExternalTransactionStateFactory EXTERNAL_TRANSACTION_STATE_FACTORY = mock(ExternalTransactionStateFactory.class);
+    private static final ChargeStatusWaitService CHARGE_STATUS_WAIT_SERVICE = mock(ChargeStatusWaitService.class);
 
     private static final ResourceExtension resources = ResourceTestRuleWithCustomExceptionMappersBuilder
             .getBuilder()
             .addResource(new ChargesFrontendResource(CHARGE_DAO, CHARGE_SERVICE, CARD_TYPE_DAO,
-                    WORLDPAY_3DS_FLEX_JWT_SERVICE, AGREEMENT_SERVICE, EXTERNAL_TRANSACTION_STATE_FACTORY))
+                    WORLDPAY_3DS_FLEX_JWT_SERVICE, AGREEMENT_SERVICE, EXTERNAL_TRANSACTION_STATE_FACTORY,
+                    CHARGE_STATUS_WAIT_SERVICE))
             .build();
 
     @Test
@@ -81,4 +87,17 @@ class ChargesFrontendResourceTest {
         assertThat(listOfErrors.size(), is(1));
         assertThat(listOfErrors, hasItem("invalid new status"));
     }
+
+    @Test
+    void shouldReturn404_whenAwaitingProcessingOfChargeThatDoesNotExist() {
+        when(CHARGE_STATUS_WAIT_SERVICE.awaitUnlocked("unknown_charge_id"))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        Response response = resources.client()
+                .target("/v1/frontend/charges/unknown_charge_id/await-processing")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(404));
+    }
 }
@@ -1,5 +1,8 @@
 package uk.gov.pay.connector.charge.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.persist.UnitOfWork;
+import io.dropwizard.core.setup.Environment;
 import io.github.netmikey.logunit.api.LogCapturer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,7 +48,9 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -103,6 +108,14 @@ class ChargeExpiryServiceTest {
     @Mock
     private ConnectorConfiguration mockedConfig;
 
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private UnitOfWork mockUnitOfWork;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
     private static final List<ChargeStatus> EXPIRABLE_REGULAR_STATUSES = List.of(
             CREATED,
             ENTERING_CARD_DETAILS,
@@ -113,6 +126,7 @@ class ChargeExpiryServiceTest {
 
     private static final List<ChargeStatus> EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS = List.of(AWAITING_CAPTURE_REQUEST);
 
+    private static final int PAGE_SIZE = 500;
     private static final Duration TOKEN_EXPIRY_WINDOW = Duration.ofSeconds(7 * 24 * 60 * 60);
     private static final Duration IDEMPOTENCY_EXPIRY_WINDOW = Duration.ofSeconds(24 * 60 * 60);
     private static final Duration CHARGE_EXPIRY_WINDOW = Duration.ofSeconds((long) (1.5 * 60 * 60));
@@ -124,7 +138,8 @@ class ChargeExpiryServiceTest {
     @BeforeEach
     void setup() {
         when(mockedConfig.getChargeSweepConfig()).thenReturn(mockedChargeSweepConfig);
-        chargeExpiryService = new ChargeExpiryService(mockChargeDao, mockChargeService, mockTokenDao, mockIdempotencyDao, mockPaymentProviders, mockQueryService, mockedConfig, fixedInstantSource);
+        when(mockEnvironment.metrics()).thenReturn(metricRegistry);
+        chargeExpiryService = new ChargeExpiryService(mockChargeDao, mockChargeService, mockTokenDao, mockIdempotencyDao, mockPaymentProviders, mockQueryService, mockedConfig, fixedInstantSource, mockEnvironment, mockUnitOfWork);
         GatewayResponseBuilder<BaseCancelResponse> gatewayResponseBuilder = responseBuilder();
         gatewayResponse = gatewayResponseBuilder.withResponse(mockWorldpayCancelResponse).build();
         gatewayAccount = ChargeEntityFixture.defaultGatewayAccountEntity();
@@ -151,13 +166,15 @@ class ChargeExpiryServiceTest {
                 .withGatewayAccountEntity(gatewayAccount)
                 .build();
 
+        when(mockChargeService.transitionChargeStates(singletonList(chargeEntity), EXPIRED)).thenReturn(singletonList(chargeEntity));
+
         Map<String, Integer> sweepResult = chargeExpiryService.expire(singletonList(chargeEntity));
 
         assertThat(sweepResult.get("expiry-success"), is(1));
         assertThat(sweepResult.get("expiry-failed"), is(0));
 
         verify(mockPaymentProvider, never()).cancel(any());
-        verify(mockChargeService).transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
+        verify(mockChargeService).transitionChargeStates(singletonList(chargeEntity), EXPIRED);
     }
 
     @ParameterizedTest
@@ -175,6 +192,7 @@ class ChargeExpiryServiceTest {
                 .build();
 
         when(mockQueryService.canQueryChargeGatewayStatus(chargeEntity.getPaymentGatewayName())).thenReturn(false);
+        when(mockChargeService.transitionChargeStates(singletonList(chargeEntity), EXPIRED)).thenReturn(singletonList(chargeEntity));
 
         Map<String, Integer> sweepResult = chargeExpiryService.expire(singletonList(chargeEntity));
 
@@ -182,6 +200,21 @@ class ChargeExpiryServiceTest {
         assertThat(sweepResult.get("expiry-failed"), is(0));
 
         verify(mockPaymentProvider, never()).cancel(any());
+        verify(mockChargeService).transitionChargeStates(singletonList(chargeEntity), EXPIRED);
+    }
+
+    @Test
+    void shouldExpireChargesWithoutGatewayOneAtATime_whenExpiringThemTogetherFails() {
+        ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity()
+                .withStatus(CREATED)
+                .withGatewayAccountEntity(gatewayAccount)
+                .build();
+
+        when(mockChargeService.transitionChargeStates(singletonList(chargeEntity), EXPIRED)).thenThrow(new RuntimeException("optimistic lock"));
+
+        Map<String, Integer> sweepResult = chargeExpiryService.expire(singletonList(chargeEntity));
+
+        assertThat(sweepResult.get("expiry-success"), is(1));
         verify(mockChargeService).transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
     }
 
@@ -285,6 +318,7 @@ class ChargeExpiryServiceTest {
                 .build();
 
         when(mockQueryService.canQueryChargeGatewayStatus(chargeEntity.getPaymentGatewayName())).thenReturn(true);
+        when(mockChargeDao.findByExternalId(chargeEntity.getExternalId())).thenReturn(Optional.of(chargeEntity));
         when(mockQueryService.getMappedGatewayStatus(chargeEntity)).thenReturn(Optional.of(CAPTURED));
 
         ChargeEntity updatedCharge = mock(ChargeEntity.class);
@@ -310,6 +344,7 @@ class ChargeExpiryServiceTest {
                 .build();
 
         when(mockQueryService.canQueryChargeGatewayStatus(chargeEntity.getPaymentGatewayName())).thenReturn(true);
+        when(mockChargeDao.findByExternalId(chargeEntity.getExternalId())).thenReturn(Optional.of(chargeEntity));
         when(mockQueryService.getMappedGatewayStatus(chargeEntity)).thenReturn(Optional.of(AUTHORISATION_REJECTED));
 
         ChargeEntity updatedCharge = mock(ChargeEntity.class);
@@ -322,6 +357,8 @@ class ChargeExpiryServiceTest {
 
         verify(mockPaymentProvider, never()).cancel(any());
         verify(mockChargeService).transitionChargeState(chargeEntity.getExternalId(), AUTHORISATION_REJECTED);
+        verify(mockUnitOfWork).begin();
+        verify(mockUnitOfWork).end();
     }
 
     @Test
@@ -372,10 +409,12 @@ class ChargeExpiryServiceTest {
         when(mockChargeDao.findByExternalId(chargeEntityAuthorisationSuccess.getExternalId())).thenReturn(Optional.of(chargeEntityAuthorisationSuccess));
         when(mockPaymentProvider.cancel(any())).thenReturn(gatewayResponse);
         when(mockPaymentProviders.byName(PaymentGatewayName.WORLDPAY)).thenReturn(mockPaymentProvider);
-        when(mockChargeDao.findBeforeDateWithStatusIn(any(Instant.class),
-                eq(EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS))).thenReturn(singletonList(chargeEntityAwaitingCapture));
-        when(mockChargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
-                eq(EXPIRABLE_REGULAR_STATUSES))).thenReturn(singletonList(chargeEntityAuthorisationSuccess));
+        when(mockChargeDao.findChargesToExpireAfterId(eq(0L), any(Instant.class), isNull(),
+                eq(EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS), eq(PAGE_SIZE))).thenReturn(singletonList(chargeEntityAwaitingCapture));
+        when(mockChargeDao.findChargesToExpireAfterId(eq(0L), any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(PAGE_SIZE))).thenReturn(singletonList(chargeEntityAuthorisationSuccess));
+        when(mockedChargeSweepConfig.getSweepPageSize()).thenReturn(PAGE_SIZE);
+        when(mockedChargeSweepConfig.getMaximumConcurrentGatewayCancelsPerProvider()).thenReturn(2);
         when(mockedChargeSweepConfig.getTokenExpiryThresholdInSeconds()).thenReturn(TOKEN_EXPIRY_WINDOW);
         when(mockedChargeSweepConfig.getDefaultChargeExpiryThreshold()).thenReturn(CHARGE_EXPIRY_WINDOW);
         when(mockedChargeSweepConfig.getIdempotencyKeyExpiryThresholdInSeconds()).thenReturn(IDEMPOTENCY_EXPIRY_WINDOW);
@@ -390,14 +429,49 @@ class ChargeExpiryServiceTest {
 
         chargeExpiryService.sweepAndExpireChargesAndTokensAndIdempotencyKeys();
 
-        assertThat(logs.size(), is(5));
+        assertThat(logs.size(), is(7));
         logs.assertContains("Tokens deleted - number_of_tokens=1, since_date=2022-06-02T00:00:00Z");
+        logs.assertContains("Charge expiry sweep progress - pages=2, charges_processed=2, expired=2, failed=0, charges_per_second=2000");
         logs.assertContains("Idempotency keys deleted - number_of_idempotency_keys=1, since_date=2022-06-08T00:00:00Z");
         logs.assertContains(
                 "Charges found for expiry - number_of_charges=2, since_date=2022-06-08T22:30:00Z, updated_before=2022-06-08T23:58:00Z, awaiting_capture_date=2022-06-04T00:00:00Z");
         verify(mockChargeService).transitionChargeState(chargeEntityAwaitingCapture.getExternalId(), EXPIRED);
         verify(mockChargeService).transitionChargeState(chargeEntityAuthorisationSuccess.getExternalId(), EXPIRED);
         verify(mockIdempotencyDao).deleteIdempotencyKeysOlderThanSpecifiedDateTime(Instant.parse("2022-06-08T00:00:00Z"));
+        assertThat(metricRegistry.meter("charge-expiry-sweep.expired").getCount(), is(2L));
+        assertThat(metricRegistry.meter("charge-expiry-sweep.charges-processed").getCount(), is(2L));
+    }
+
+    @Test
+    void shouldSweepChargesInPagesOrderedById() {
+        ChargeEntity firstCharge = ChargeEntityFixture.aValidChargeEntity()
+                .withId(10L)
+                .withStatus(CREATED)
+                .withGatewayAccountEntity(gatewayAccount)
+                .build();
+        ChargeEntity secondCharge = ChargeEntityFixture.aValidChargeEntity()
+                .withId(20L)
+                .withStatus(ENTERING_CARD_DETAILS)
+                .withGatewayAccountEntity(gatewayAccount)
+                .build();
+
+        when(mockedChargeSweepConfig.getSweepPageSize()).thenReturn(1);
+        when(mockChargeDao.findChargesToExpireAfterId(eq(0L), any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(1))).thenReturn(singletonList(firstCharge));
+        when(mockChargeDao.findChargesToExpireAfterId(eq(10L), any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(1))).thenReturn(singletonList(secondCharge));
+        when(mockChargeDao.findChargesToExpireAfterId(eq(20L), any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(1))).thenReturn(List.of());
+        when(mockChargeDao.findChargesToExpireAfterId(eq(0L), any(Instant.class), isNull(),
+                eq(EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS), eq(1))).thenReturn(List.of());
+        when(mockChargeService.transitionChargeStates(singletonList(firstCharge), EXPIRED)).thenReturn(singletonList(firstCharge));
+        when(mockChargeService.transitionChargeStates(singletonList(secondCharge), EXPIRED)).thenReturn(singletonList(secondCharge));
+
+        Map<String, Integer> sweepResult = chargeExpiryService.sweepAndExpireChargesAndTokensAndIdempotencyKeys();
+
+        assertThat(sweepResult.get("expiry-success"), is(2));
+        assertThat(sweepResult.get("expiry-failed"), is(0));
+        verify(mockChargeService, never()).transitionChargeState(any(String.class), any());
     }
 
     @Test
@@ -412,14 +486,17 @@ class ChargeExpiryServiceTest {
 
         ChargeEntity expiredCharge = mock(ChargeEntity.class);
 
-        when(mockChargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
-                eq(EXPIRABLE_REGULAR_STATUSES))).thenReturn(singletonList(preAuthorisationCharge));
+        when(mockedChargeSweepConfig.getSweepPageSize()).thenReturn(PAGE_SIZE);
+        when(mockChargeDao.findChargesToExpireAfterId(eq(0L), any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), anyInt())).thenReturn(singletonList(preAuthorisationCharge));
+        when(mockChargeDao.findChargesToExpireAfterId(eq(0L), any(Instant.class), isNull(),
+                eq(EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS), anyInt())).thenReturn(List.of());
 
-        when(mockChargeService.transitionChargeState(any(String.class), any())).thenReturn(expiredCharge);
+        when(mockChargeService.transitionChargeStates(singletonList(preAuthorisationCharge), EXPIRED)).thenReturn(singletonList(expiredCharge));
 
         Map<String, Integer> sweepResult = chargeExpiryService.sweepAndExpireChargesAndTokensAndIdempotencyKeys();
 
-        verify(mockChargeService).transitionChargeState(preAuthorisationCharge.getExternalId(), EXPIRED);
+        verify(mockChargeService).transitionChargeStates(singletonList(preAuthorisationCharge), EXPIRED);
         assertThat(sweepResult.get("expiry-success"), is(1));
         assertThat(sweepResult.get("expiry-failed"), is(0));
     }
@@ -192,7 +192,7 @@ class ChargeServiceCreateAgreementTest {
         when(mockConfig.getLinks()).thenReturn(mockLinksConfig);
 
         chargeService = new ChargeService(mockTokenDao, mockChargeDao, mockChargeEventDao, mockCardTypeDao, mockAgreementDao, mockGatewayAccountDao,
-                mockConfig, mockProviders, mockStateTransitionService, mockLedgerService, mockedRefundService, mockEventService,
+                mockConfig, mockProviders, mockStateTransitionService, mockLedgerService, null, mockedRefundService, mockEventService,
                 mockPaymentInstrumentService, mockGatewayAccountCredentialsService,
                 mockAuthCardDetailsToCardDetailsEntityConverter, mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao,
                 mockExternalTransactionStateFactory, objectMapper, null, fixedInstantSource);
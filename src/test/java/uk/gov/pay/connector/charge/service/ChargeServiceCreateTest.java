@@ -278,7 +278,7 @@ class ChargeServiceCreateTest {
 
         chargeService = new ChargeService(mockedTokenDao, mockedChargeDao, mockedChargeEventDao,
                 mockedCardTypeDao, mockedAgreementDao, mockedGatewayAccountDao, mockedConfig, mockedProviders,
-                mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
+                mockStateTransitionService, ledgerService, null, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                 mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory,
                 mapper, mockCardidService, fixedInstantSource);
@@ -958,7 +958,7 @@ class ChargeServiceCreateTest {
         private ChargeService getNewChargeService() {
             return new ChargeService(mockedTokenDao, mockedChargeDao, mockedChargeEventDao,
                     mockedCardTypeDao, mockedAgreementDao, mockedGatewayAccountDao, mockedConfig, mockedProviders,
-                    mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
+                    mockStateTransitionService, ledgerService, null, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                     mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                     mockTaskQueueService, null, mockIdempotencyDao, mockExternalTransactionStateFactory,
                     mapper, mockCardidService, fixedInstantSource);
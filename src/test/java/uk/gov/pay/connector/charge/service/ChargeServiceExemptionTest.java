@@ -182,7 +182,7 @@ class ChargeServiceExemptionTest {
 
         chargeService = new ChargeService(mockTokenDao, mockChargeDao, mockChargeEventDao,
                 mockCardTypeDao, mockAgreementDao, mockGatewayAccountDao, mockConfig, mockProviders,
-                mockStateTransitionService, mockLedgerService, mockRefundService, mockEventService, mockPaymentInstrumentService,
+                mockStateTransitionService, mockLedgerService, null, mockRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter, mockTaskQueueService,
                 mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory, objectMapper,
                 null, fixedInstantSource);
@@ -20,6 +20,7 @@ import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
 import uk.gov.pay.connector.charge.util.AuthCardDetailsToCardDetailsEntityConverter;
 import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.client.ledger.service.LedgerService;
 import uk.gov.pay.connector.common.model.api.ExternalTransactionStateFactory;
 import uk.gov.pay.connector.events.EventService;
@@ -83,6 +84,7 @@ class ChargeServicePostAuthorisationTest {
     @Mock private RefundService mockRefundService;
     @Mock private PaymentInstrumentService mockPaymentInstrumentService;
     @Mock private LedgerService mockLedgerService;
+    @Mock private LedgerEventPublisher mockLedgerEventPublisher;
     @Mock private GatewayAccountCredentialsService mockGatewayAccountCredentialsService;
     @Mock private StateTransitionService mockStateTransitionService;
     @Mock private EventService mockEventService;
@@ -137,7 +139,7 @@ class ChargeServicePostAuthorisationTest {
 
         chargeService = new ChargeService(mockTokenDao, mockChargeDao, mockChargeEventDao,
                 mockCardTypeDao, mockAgreementDao, mockGatewayAccountDao, mockConnectorConfig, mockProviders,
-                mockStateTransitionService, mockLedgerService, mockRefundService, mockEventService, mockPaymentInstrumentService,
+                mockStateTransitionService, mockLedgerService, mockLedgerEventPublisher, mockRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                 mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory,
                 objectMapper, null, fixedInstantSource);
@@ -203,7 +205,7 @@ class ChargeServicePostAuthorisationTest {
         verify(mockStateTransitionService).offerPaymentStateTransition(EXTERNAL_ID, AUTHORISATION_READY, AUTHORISATION_SUCCESS, mockChargeEventEntity);
         verify(mockEventService).emitAndRecordEvent(PaymentDetailsTakenFromPaymentInstrument.from(chargeEntity));
 
-        verifyNoInteractions(mockLedgerService);
+        verifyNoInteractions(mockLedgerEventPublisher);
     }
 
     @Test
@@ -247,7 +249,7 @@ class ChargeServicePostAuthorisationTest {
         verify(mockStateTransitionService).offerPaymentStateTransition(EXTERNAL_ID, AUTHORISATION_READY, AUTHORISATION_SUCCESS, mockChargeEventEntity);
         verify(mockEventService).emitAndRecordEvent(PaymentDetailsTakenFromPaymentInstrument.from(chargeEntity));
 
-        verify(mockLedgerService).postEvent(agreementInactivatedArgumentCaptor.capture());
+        verify(mockLedgerEventPublisher).publish(agreementInactivatedArgumentCaptor.capture());
 
         AgreementInactivated event = agreementInactivatedArgumentCaptor.getValue();
         assertThat(event.getEventType(), is("AGREEMENT_INACTIVATED"));
@@ -298,7 +300,7 @@ class ChargeServicePostAuthorisationTest {
         assertThat(paymentInstrument.getStatus(), is(PaymentInstrumentStatus.ACTIVE));
 
         verify(mockStateTransitionService).offerPaymentStateTransition(EXTERNAL_ID, AUTHORISATION_READY, AUTHORISATION_SUCCESS, mockChargeEventEntity);
-        verifyNoInteractions(mockLedgerService);
+        verifyNoInteractions(mockLedgerEventPublisher);
     }
 
     @Test
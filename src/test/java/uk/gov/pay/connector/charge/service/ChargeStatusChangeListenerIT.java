@@ -0,0 +1,121 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.it.dao.DatabaseFixtures;
+import uk.gov.pay.connector.util.ApplicationStartupDependentResource;
+import uk.gov.pay.connector.util.RandomIdGenerator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
+import static uk.gov.pay.connector.util.RandomTestDataGeneratorUtils.secureRandomLong;
+
+public class ChargeStatusChangeListenerIT {
+
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension();
+
+    private ChargeService chargeService;
+    private ChargeStatusChangeNotifier chargeStatusChangeNotifier;
+    private DatabaseFixtures.TestAccount testAccount;
+    private Connection otherNodeConnection;
+    private final List<String> notificationsOnOtherNode = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        chargeService = app.getInstanceFromGuiceContainer(ChargeService.class);
+        chargeStatusChangeNotifier = app.getInstanceFromGuiceContainer(ChargeStatusChangeNotifier.class);
+        testAccount = app.getDatabaseFixtures().aTestAccount().insert();
+
+        otherNodeConnection = app.getInstanceFromGuiceContainer(ApplicationStartupDependentResource.class).getDatabaseConnection();
+        try (Statement statement = otherNodeConnection.createStatement()) {
+            statement.execute("LISTEN " + ChargeStatusChangeListener.CHANNEL);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        otherNodeConnection.close();
+    }
+
+    @Test
+    void shouldWakeWaiterOnThisNodeOnceStatusChangeCommits() throws Exception {
+        String chargeExternalId = insertCharge(AUTHORISATION_READY);
+        CompletableFuture<ChargeStatus> authorised = chargeStatusChangeNotifier.onStatus(chargeExternalId, AUTHORISATION_SUCCESS);
+
+        chargeService.transitionChargeState(chargeExternalId, AUTHORISATION_SUCCESS);
+
+        assertThat(authorised.get(5, TimeUnit.SECONDS), is(AUTHORISATION_SUCCESS));
+    }
+
+    @Test
+    void shouldSendChargeLeavingALockingStatusToOtherNodes() {
+        String chargeExternalId = insertCharge(AUTHORISATION_READY);
+
+        chargeService.transitionChargeState(chargeExternalId, AUTHORISATION_SUCCESS);
+
+        awaitNotificationsOnOtherNode();
+        assertThat(notificationsOnOtherNode, contains(chargeExternalId + ":" + AUTHORISATION_SUCCESS.getValue()));
+    }
+
+    @Test
+    void shouldNotSendOtherChangesOrDirectUpdatesToOtherNodes() {
+        String enteringCardDetailsChargeExternalId = insertCharge(CREATED);
+        String updatedDirectlyChargeExternalId = insertCharge(AUTHORISATION_READY);
+        String authorisedChargeExternalId = insertCharge(AUTHORISATION_READY);
+
+        chargeService.transitionChargeState(enteringCardDetailsChargeExternalId, ENTERING_CARD_DETAILS);
+        app.getJdbi().withHandle(handle -> handle.execute("UPDATE charges SET status = ? WHERE external_id = ?",
+                AUTHORISATION_SUCCESS.getValue(), updatedDirectlyChargeExternalId));
+        chargeService.transitionChargeState(authorisedChargeExternalId, AUTHORISATION_SUCCESS);
+
+        awaitNotificationsOnOtherNode();
+        assertThat(notificationsOnOtherNode, contains(authorisedChargeExternalId + ":" + AUTHORISATION_SUCCESS.getValue()));
+    }
+
+    private String insertCharge(ChargeStatus status) {
+        return app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(testAccount)
+                .withChargeId(secureRandomLong())
+                .withExternalChargeId(RandomIdGenerator.newId())
+                .withChargeStatus(status)
+                .insert()
+                .getExternalChargeId();
+    }
+
+    private void awaitNotificationsOnOtherNode() {
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            PGNotification[] notifications = otherNodeConnection.unwrap(PGConnection.class).getNotifications(100);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    notificationsOnOtherNode.add(notification.getParameter());
+                }
+            }
+            return notificationsOnOtherNode;
+        }, is(not(empty())));
+    }
+}
@@ -0,0 +1,101 @@
+package uk.gov.pay.connector.charge.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Provider;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.charge.service.ChargeStatusCommitListener.ChargeStatusChange;
+import uk.gov.pay.connector.util.ApplicationStartupDependentResource;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_REQUIRED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_SUBMITTED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
+
+@ExtendWith(MockitoExtension.class)
+class ChargeStatusChangeListenerTest {
+
+    @Mock
+    private Environment environment;
+    @Mock
+    private ApplicationStartupDependentResource databaseConnectionProvider;
+    @Mock
+    private Provider<EntityManagerFactory> entityManagerFactory;
+
+    private final ChargeStatusChangeNotifier chargeStatusChangeNotifier = new ChargeStatusChangeNotifier();
+    private ChargeStatusChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(environment.lifecycle()).thenReturn(new LifecycleEnvironment(new MetricRegistry()));
+        listener = new ChargeStatusChangeListener(chargeStatusChangeNotifier, databaseConnectionProvider,
+                entityManagerFactory, environment);
+    }
+
+    @Test
+    void shouldPassNotificationToWaiters() {
+        CompletableFuture<ChargeStatus> waiter = chargeStatusChangeNotifier.onStatus("charge-id", AUTHORISATION_3DS_READY);
+
+        listener.dispatch("charge-id:" + AUTHORISATION_3DS_READY.getValue());
+
+        assertThat(waiter.getNow(null), is(AUTHORISATION_3DS_READY));
+    }
+
+    @Test
+    void shouldIgnoreMalformedNotification() {
+        CompletableFuture<ChargeStatus> waiter = chargeStatusChangeNotifier.onStatusMatching("charge-id", status -> true);
+
+        listener.dispatch("charge-id");
+
+        assertThat(waiter.isDone(), is(false));
+    }
+
+    @Test
+    void shouldIgnoreNotificationWithUnknownStatus() {
+        CompletableFuture<ChargeStatus> waiter = chargeStatusChangeNotifier.onStatusMatching("charge-id", status -> true);
+
+        listener.dispatch("charge-id:NOT A STATUS");
+
+        assertThat(waiter.isDone(), is(false));
+    }
+
+    @Test
+    void shouldPassCommittedChangesToWaitersOnThisNode() {
+        CompletableFuture<ChargeStatus> waiter = chargeStatusChangeNotifier.onStatus("charge-id", ENTERING_CARD_DETAILS);
+
+        listener.committed(List.of(new ChargeStatusChange("charge-id", CREATED, ENTERING_CARD_DETAILS)));
+
+        assertThat(waiter.getNow(null), is(ENTERING_CARD_DETAILS));
+    }
+
+    @Test
+    void shouldOnlySendChangesThatMayBeAwaitedToOtherNodes() {
+        assertThat(ChargeStatusChangeListener.mayBeAwaitedOnOtherNodes(
+                new ChargeStatusChange("charge-id", AUTHORISATION_3DS_REQUIRED, AUTHORISATION_3DS_READY)), is(true));
+        assertThat(ChargeStatusChangeListener.mayBeAwaitedOnOtherNodes(
+                new ChargeStatusChange("charge-id", AUTHORISATION_READY, AUTHORISATION_SUCCESS)), is(true));
+        assertThat(ChargeStatusChangeListener.mayBeAwaitedOnOtherNodes(
+                new ChargeStatusChange("charge-id", CAPTURE_READY, CAPTURE_SUBMITTED)), is(true));
+        assertThat(ChargeStatusChangeListener.mayBeAwaitedOnOtherNodes(
+                new ChargeStatusChange("charge-id", null, CAPTURE_SUBMITTED)), is(true));
+        assertThat(ChargeStatusChangeListener.mayBeAwaitedOnOtherNodes(
+                new ChargeStatusChange("charge-id", CREATED, ENTERING_CARD_DETAILS)), is(false));
+    }
+}
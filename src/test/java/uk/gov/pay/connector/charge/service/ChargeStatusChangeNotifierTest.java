@@ -0,0 +1,59 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+
+class ChargeStatusChangeNotifierTest {
+
+    private final ChargeStatusChangeNotifier notifier = new ChargeStatusChangeNotifier();
+
+    @Test
+    void shouldCompleteWaiterWhenChargeReachesTheStatusItIsWaitingFor() {
+        CompletableFuture<ChargeStatus> waiter = notifier.onStatus("charge-id", AUTHORISATION_3DS_READY);
+
+        notifier.statusChanged("charge-id", AUTHORISATION_3DS_READY);
+
+        assertThat(waiter.getNow(null), is(AUTHORISATION_3DS_READY));
+    }
+
+    @Test
+    void shouldNotCompleteWaiterForAnotherStatusOrAnotherCharge() {
+        CompletableFuture<ChargeStatus> waiter = notifier.onStatus("charge-id", AUTHORISATION_3DS_READY);
+
+        notifier.statusChanged("charge-id", AUTHORISATION_SUCCESS);
+        notifier.statusChanged("another-charge-id", AUTHORISATION_3DS_READY);
+
+        assertThat(waiter.isDone(), is(false));
+    }
+
+    @Test
+    void shouldCompleteWaiterWhenChargeReachesAnyStatusMatchingItsCondition() {
+        CompletableFuture<ChargeStatus> waiter = notifier.onStatusMatching("charge-id", status -> status != AUTHORISATION_3DS_READY);
+
+        notifier.statusChanged("charge-id", AUTHORISATION_3DS_READY);
+        assertThat(waiter.isDone(), is(false));
+
+        notifier.statusChanged("charge-id", AUTHORISATION_SUCCESS);
+        assertThat(waiter.getNow(null), is(AUTHORISATION_SUCCESS));
+    }
+
+    @Test
+    void shouldForgetChargeOnceItsLastWaiterIsCancelled() {
+        CompletableFuture<ChargeStatus> firstWaiter = notifier.onStatus("charge-id", AUTHORISATION_3DS_READY);
+        CompletableFuture<ChargeStatus> secondWaiter = notifier.onStatus("charge-id", AUTHORISATION_3DS_READY);
+
+        notifier.cancel("charge-id", firstWaiter);
+        assertThat(notifier.numberOfChargesWaitedOn(), is(1));
+
+        notifier.cancel("charge-id", secondWaiter);
+        assertThat(notifier.numberOfChargesWaitedOn(), is(0));
+        assertThat(secondWaiter.isCancelled(), is(true));
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventManager;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.SessionEventManager;
+import org.eclipse.persistence.sessions.changesets.DirectToFieldChangeRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.charge.service.ChargeStatusCommitListener.ChargeStatusChange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_READY;
+
+@ExtendWith(MockitoExtension.class)
+class ChargeStatusCommitListenerTest {
+
+    @Mock
+    private Session session;
+    @Mock
+    private ClassDescriptor descriptor;
+    @Mock
+    private DescriptorEventManager descriptorEventManager;
+    @Mock
+    private SessionEventManager sessionEventManager;
+
+    private final List<List<ChargeStatusChange>> committed = new ArrayList<>();
+    private final ChargeStatusCommitListener listener = new ChargeStatusCommitListener(committed::add);
+    private SessionEventListener transactionListener;
+
+    @BeforeEach
+    void setUp() {
+        when(session.getDescriptor(ChargeEntity.class)).thenReturn(descriptor);
+        when(descriptor.getEventManager()).thenReturn(descriptorEventManager);
+        when(session.getEventManager()).thenReturn(sessionEventManager);
+
+        listener.register(session);
+
+        verify(descriptorEventManager).addListener(listener);
+        var transactionListenerCaptor = ArgumentCaptor.forClass(SessionEventListener.class);
+        verify(sessionEventManager).addListener(transactionListenerCaptor.capture());
+        transactionListener = transactionListenerCaptor.getValue();
+    }
+
+    @Test
+    void shouldHandOverStatusChangesOnceTheTransactionCommits() {
+        ChargeEntity charge = ChargeEntityFixture.aValidChargeEntity().withStatus(AUTHORISATION_SUCCESS).build();
+        listener.postUpdate(statusChangeEvent(charge, AUTHORISATION_READY));
+        assertThat(committed, is(empty()));
+
+        transactionListener.postCommitTransaction(null);
+
+        assertThat(committed, contains(List.of(
+                new ChargeStatusChange(charge.getExternalId(), AUTHORISATION_READY, AUTHORISATION_SUCCESS))));
+    }
+
+    @Test
+    void shouldHandOverStatusChangeWithoutPreviousStatusWhenItWasNotRecorded() {
+        ChargeEntity charge = ChargeEntityFixture.aValidChargeEntity().withStatus(CAPTURE_READY).build();
+        listener.postUpdate(statusChangeEvent(charge, null));
+
+        transactionListener.postCommitTransaction(null);
+
+        assertThat(committed, contains(List.of(new ChargeStatusChange(charge.getExternalId(), null, CAPTURE_READY))));
+    }
+
+    @Test
+    void shouldIgnoreUpdatesThatDoNotChangeTheStatus() {
+        ObjectChangeSet changeSet = mock(ObjectChangeSet.class);
+        DescriptorEvent event = mock(DescriptorEvent.class);
+        when(event.getChangeSet()).thenReturn(changeSet);
+
+        listener.postUpdate(event);
+        transactionListener.postCommitTransaction(null);
+
+        assertThat(committed, is(empty()));
+    }
+
+    @Test
+    void shouldForgetStatusChangesWhenTheTransactionRollsBack() {
+        ChargeEntity charge = ChargeEntityFixture.aValidChargeEntity().withStatus(AUTHORISATION_SUCCESS).build();
+        listener.postUpdate(statusChangeEvent(charge, AUTHORISATION_READY));
+        transactionListener.postRollbackTransaction(null);
+
+        transactionListener.postCommitTransaction(null);
+
+        assertThat(committed, is(empty()));
+    }
+
+    private static DescriptorEvent statusChangeEvent(ChargeEntity charge, ChargeStatus previousStatus) {
+        DirectToFieldChangeRecord statusChange = mock(DirectToFieldChangeRecord.class);
+        when(statusChange.getOldValue()).thenReturn(previousStatus == null ? null : previousStatus.getValue());
+        ObjectChangeSet changeSet = mock(ObjectChangeSet.class);
+        when(changeSet.getChangesForAttributeNamed("status")).thenReturn(statusChange);
+        DescriptorEvent event = mock(DescriptorEvent.class);
+        when(event.getChangeSet()).thenReturn(changeSet);
+        when(event.getSource()).thenReturn(charge);
+        return event;
+    }
+}
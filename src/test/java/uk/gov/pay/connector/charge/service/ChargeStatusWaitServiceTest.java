@@ -0,0 +1,91 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture.aValidChargeEntity;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
+
+@ExtendWith(MockitoExtension.class)
+class ChargeStatusWaitServiceTest {
+
+    private static final String CHARGE_EXTERNAL_ID = "charge-id";
+    private static final long MAXIMUM_WAIT_IN_MILLIS = 100;
+
+    @Mock
+    private ChargeDao chargeDao;
+
+    private final ChargeStatusChangeNotifier chargeStatusChangeNotifier = new ChargeStatusChangeNotifier();
+
+    private ChargeStatusWaitService chargeStatusWaitService;
+
+    @BeforeEach
+    void setUp() {
+        chargeStatusWaitService = new ChargeStatusWaitService(chargeDao, chargeStatusChangeNotifier, Runnable::run,
+                MAXIMUM_WAIT_IN_MILLIS);
+    }
+
+    @Test
+    void shouldReturnChargeStraightAwayIfItIsNotLocked() {
+        ChargeEntity charge = aValidChargeEntity().withExternalId(CHARGE_EXTERNAL_ID).withStatus(ENTERING_CARD_DETAILS).build();
+        when(chargeDao.findByExternalId(CHARGE_EXTERNAL_ID)).thenReturn(Optional.of(charge));
+
+        CompletableFuture<Optional<ChargeEntity>> result = chargeStatusWaitService.awaitUnlocked(CHARGE_EXTERNAL_ID);
+
+        assertThat(result.getNow(null), is(Optional.of(charge)));
+        assertThat(chargeStatusChangeNotifier.numberOfChargesWaitedOn(), is(0));
+    }
+
+    @Test
+    void shouldReturnEmptyStraightAwayIfChargeDoesNotExist() {
+        when(chargeDao.findByExternalId(CHARGE_EXTERNAL_ID)).thenReturn(Optional.empty());
+
+        CompletableFuture<Optional<ChargeEntity>> result = chargeStatusWaitService.awaitUnlocked(CHARGE_EXTERNAL_ID);
+
+        assertThat(result.getNow(null), is(Optional.empty()));
+        assertThat(chargeStatusChangeNotifier.numberOfChargesWaitedOn(), is(0));
+    }
+
+    @Test
+    void shouldReturnChargeOnceItLeavesItsLockingStatus() {
+        ChargeEntity lockedCharge = aValidChargeEntity().withExternalId(CHARGE_EXTERNAL_ID).withStatus(AUTHORISATION_READY).build();
+        ChargeEntity authorisedCharge = aValidChargeEntity().withExternalId(CHARGE_EXTERNAL_ID).withStatus(AUTHORISATION_SUCCESS).build();
+        when(chargeDao.findByExternalId(CHARGE_EXTERNAL_ID)).thenReturn(Optional.of(lockedCharge), Optional.of(authorisedCharge));
+
+        CompletableFuture<Optional<ChargeEntity>> result = chargeStatusWaitService.awaitUnlocked(CHARGE_EXTERNAL_ID);
+        assertThat(result.isDone(), is(false));
+
+        chargeStatusChangeNotifier.statusChanged(CHARGE_EXTERNAL_ID, AUTHORISATION_3DS_READY);
+        assertThat(result.isDone(), is(false));
+
+        chargeStatusChangeNotifier.statusChanged(CHARGE_EXTERNAL_ID, AUTHORISATION_SUCCESS);
+        assertThat(result.getNow(null), is(Optional.of(authorisedCharge)));
+        assertThat(chargeStatusChangeNotifier.numberOfChargesWaitedOn(), is(0));
+    }
+
+    @Test
+    void shouldReturnChargeAsItIsOnceMaximumWaitHasPassed() throws Exception {
+        ChargeEntity lockedCharge = aValidChargeEntity().withExternalId(CHARGE_EXTERNAL_ID).withStatus(AUTHORISATION_READY).build();
+        when(chargeDao.findByExternalId(CHARGE_EXTERNAL_ID)).thenReturn(Optional.of(lockedCharge));
+
+        CompletableFuture<Optional<ChargeEntity>> result = chargeStatusWaitService.awaitUnlocked(CHARGE_EXTERNAL_ID);
+
+        assertThat(result.get(5, SECONDS), is(Optional.of(lockedCharge)));
+        assertThat(chargeStatusChangeNotifier.numberOfChargesWaitedOn(), is(0));
+    }
+}
@@ -11,7 +11,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.agreement.model.AgreementEntity;
-import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.events.model.agreement.AgreementSetUp;
 import uk.gov.pay.connector.events.model.charge.PaymentInstrumentConfirmed;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
@@ -54,7 +54,7 @@ class LinkPaymentInstrumentToAgreementServiceTest {
     private PaymentInstrumentDao paymentInstrumentDao;
 
     @Mock
-    private LedgerService ledgerService;
+    private LedgerEventPublisher ledgerEventPublisher;
 
     @Mock
     private TaskQueueService taskQueueService;
@@ -75,7 +75,7 @@ class LinkPaymentInstrumentToAgreementServiceTest {
     @BeforeEach
     void setUp() {
         instantSource = InstantSource.fixed(Instant.now());
-        linkPaymentInstrumentToAgreementService = new LinkPaymentInstrumentToAgreementService(paymentInstrumentDao, ledgerService, taskQueueService, instantSource);
+        linkPaymentInstrumentToAgreementService = new LinkPaymentInstrumentToAgreementService(paymentInstrumentDao, ledgerEventPublisher, taskQueueService, instantSource);
     }
 
     @Test
@@ -95,7 +95,7 @@ class LinkPaymentInstrumentToAgreementServiceTest {
         verify(mockAgreementEntity).setPaymentInstrument(mockPaymentInstrumentEntity);
         verify(mockPaymentInstrumentEntity).setAgreementExternalId(agreementExternalId);
         verify(mockPaymentInstrumentEntity).setStatus(ACTIVE);
-        verify(ledgerService).postEvent(List.of(
+        verify(ledgerEventPublisher).publish(List.of(
                 AgreementSetUp.from(mockAgreementEntity, instantSource.instant()),
                 PaymentInstrumentConfirmed.from(mockAgreementEntity, instantSource.instant())
         ));
@@ -148,7 +148,7 @@ class LinkPaymentInstrumentToAgreementServiceTest {
         verify(mockAgreementEntity, never()).setPaymentInstrument(mockPaymentInstrumentEntity);
         verify(mockPaymentInstrumentEntity, never()).setAgreementExternalId(agreementExternalId);
         verify(mockPaymentInstrumentEntity, never()).setStatus(ACTIVE);
-        verify(ledgerService, never()).postEvent(List.of(
+        verify(ledgerEventPublisher, never()).publish(List.of(
                 AgreementSetUp.from(mockAgreementEntity, instantSource.instant()),
                 PaymentInstrumentConfirmed.from(mockAgreementEntity, instantSource.instant())
         ));
@@ -164,7 +164,7 @@ class LinkPaymentInstrumentToAgreementServiceTest {
                 " to have a payment instrument but it does not have one");
         verifyNoInteractions(mockAgreementEntity);
         verifyNoInteractions(mockPaymentInstrumentEntity);
-        verifyNoInteractions(ledgerService);
+        verifyNoInteractions(ledgerEventPublisher);
     }
 
     @Test
@@ -177,7 +177,7 @@ class LinkPaymentInstrumentToAgreementServiceTest {
                 " to have an agreement but it does not have one");
         verifyNoInteractions(mockAgreementEntity);
         verifyNoInteractions(mockPaymentInstrumentEntity);
-        verifyNoInteractions(ledgerService);
+        verifyNoInteractions(ledgerEventPublisher);
     }
 
     private static Stream<Arguments> emptyOrMissingRecurringAuthToken() {
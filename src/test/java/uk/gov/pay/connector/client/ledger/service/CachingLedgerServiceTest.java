@@ -0,0 +1,149 @@
+package uk.gov.pay.connector.client.ledger.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.LedgerLookupCacheConfig;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
+import uk.gov.pay.connector.client.ledger.model.RefundTransactionsForPayment;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.hc.core5.http.HttpStatus.SC_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.model.domain.LedgerTransactionFixture.aValidLedgerTransaction;
+
+@ExtendWith(MockitoExtension.class)
+class CachingLedgerServiceTest {
+
+    private static final String CHARGE_EXTERNAL_ID = "expunged-charge-id";
+
+    @Mock
+    private Client mockClient;
+    @Mock
+    private ConnectorConfiguration mockConnectorConfiguration;
+    @Mock
+    private WebTarget mockWebTarget;
+    @Mock
+    private Invocation.Builder mockClientRequestInvocationBuilder;
+    @Mock
+    private Response mockResponse;
+
+    private final FakeTicker ticker = new FakeTicker();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private CachingLedgerService cachingLedgerService;
+
+    @BeforeEach
+    void setUp() {
+        when(mockConnectorConfiguration.getLedgerBaseUrl()).thenReturn("http://ledgerUrl");
+        when(mockConnectorConfiguration.getLedgerLookupCacheConfig()).thenReturn(new LedgerLookupCacheConfig());
+        when(mockClient.target(any(UriBuilder.class))).thenReturn(mockWebTarget);
+        when(mockWebTarget.request()).thenReturn(mockClientRequestInvocationBuilder);
+        when(mockClientRequestInvocationBuilder.get()).thenReturn(mockResponse);
+        when(mockResponse.getStatus()).thenReturn(SC_OK);
+
+        cachingLedgerService = new CachingLedgerService(mockClient, mockClient, mockConnectorConfiguration,
+                metricRegistry, ticker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CachingLedgerService.endRequestScope();
+    }
+
+    @Test
+    void shouldLookUpFinishedTransactionOnceWhileCached() {
+        LedgerTransaction transaction = ledgerTransaction(true);
+        when(mockResponse.readEntity(LedgerTransaction.class)).thenReturn(transaction);
+
+        assertThat(cachingLedgerService.getTransaction(CHARGE_EXTERNAL_ID), is(Optional.of(transaction)));
+        assertThat(cachingLedgerService.getTransaction(CHARGE_EXTERNAL_ID), is(Optional.of(transaction)));
+
+        verify(mockClientRequestInvocationBuilder, times(1)).get();
+        assertThat(metricRegistry.counter("ledger-lookup.cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.counter("ledger-lookup.cache.misses").getCount(), is(1L));
+        assertThat(metricRegistry.timer("ledger-lookup.response_time").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldLookUpFinishedTransactionAgainOnceTimeToLiveHasPassed() {
+        when(mockResponse.readEntity(LedgerTransaction.class)).thenReturn(ledgerTransaction(true));
+
+        cachingLedgerService.getTransactionForGatewayAccount(CHARGE_EXTERNAL_ID, 1L);
+        ticker.advance(59, TimeUnit.SECONDS);
+        cachingLedgerService.getTransactionForGatewayAccount(CHARGE_EXTERNAL_ID, 1L);
+        ticker.advance(1, TimeUnit.SECONDS);
+        cachingLedgerService.getTransactionForGatewayAccount(CHARGE_EXTERNAL_ID, 1L);
+
+        verify(mockClientRequestInvocationBuilder, times(2)).get();
+    }
+
+    @Test
+    void shouldNotKeepUnfinishedTransactionsBetweenRequests() {
+        when(mockResponse.readEntity(LedgerTransaction.class)).thenReturn(ledgerTransaction(false));
+
+        cachingLedgerService.getTransactionForProviderAndGatewayTransactionId("worldpay", "gateway-transaction-id");
+        cachingLedgerService.getTransactionForProviderAndGatewayTransactionId("worldpay", "gateway-transaction-id");
+
+        verify(mockClientRequestInvocationBuilder, times(2)).get();
+    }
+
+    @Test
+    void shouldRememberLookupsForTheRestOfTheRequest() {
+        RefundTransactionsForPayment refunds = mock(RefundTransactionsForPayment.class);
+        when(mockResponse.readEntity(LedgerTransaction.class)).thenReturn(ledgerTransaction(false));
+        when(mockResponse.readEntity(RefundTransactionsForPayment.class)).thenReturn(refunds);
+
+        CachingLedgerService.beginRequestScope();
+        cachingLedgerService.getTransaction(CHARGE_EXTERNAL_ID);
+        cachingLedgerService.getTransaction(CHARGE_EXTERNAL_ID);
+        assertThat(cachingLedgerService.getRefundsForPayment(1L, CHARGE_EXTERNAL_ID), is(refunds));
+        assertThat(cachingLedgerService.getRefundsForPayment(1L, CHARGE_EXTERNAL_ID), is(refunds));
+        verify(mockClientRequestInvocationBuilder, times(2)).get();
+        assertThat(metricRegistry.counter("ledger-lookup.request-scope.hits").getCount(), is(2L));
+
+        CachingLedgerService.endRequestScope();
+        cachingLedgerService.getRefundsForPayment(1L, CHARGE_EXTERNAL_ID);
+        verify(mockClientRequestInvocationBuilder, times(3)).get();
+    }
+
+    private static LedgerTransaction ledgerTransaction(boolean finished) {
+        return aValidLedgerTransaction()
+                .withExternalId(CHARGE_EXTERNAL_ID)
+                .withStatus(finished ? "success" : "started")
+                .withFinished(finished)
+                .build();
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.pay.connector.client.ledger.service;
+
+import com.codahale.metrics.MetricRegistry;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.LedgerEventPublisherConfig;
+import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.events.model.charge.QueuedForCapture;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerEventPublisherTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T10:00:00Z");
+
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private EmittedEventDao emittedEventDao;
+    @Mock
+    private LedgerEventPublisherConfig config;
+    @Mock
+    private Response response;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void shouldPostEventsOnTheCallingThreadWhenNotStarted() {
+        LedgerEventPublisher publisher = createPublisher(10, 10, 1);
+        Event event = anEvent("charge-1");
+
+        publisher.publish(event);
+
+        verify(ledgerService).postEvent(List.of(event));
+        verifyNoInteractions(emittedEventDao);
+    }
+
+    @Test
+    void shouldPostEventsPublishedCloseTogetherInOneBatch() {
+        when(ledgerService.postEvent(anyList())).thenReturn(response);
+        LedgerEventPublisher publisher = createPublisher(10, 3, 1);
+        Event first = anEvent("charge-1");
+        Event second = anEvent("charge-2");
+        Event third = anEvent("charge-3");
+
+        publisher.start();
+        publisher.publish(first);
+        publisher.publish(List.of(second, third));
+
+        verify(ledgerService, timeout(2000)).postEvent(List.of(first, second, third));
+        verify(response, timeout(2000)).close();
+        publisher.stop();
+        assertThat(metricRegistry.histogram("ledger-events.batch-size").getSnapshot().getMax(), is(3L));
+    }
+
+    @Test
+    void shouldRecordEventsAsNotEmittedWithTheirPayloadWhenLedgerCannotBeReached() throws Exception {
+        when(ledgerService.postEvent(anyList())).thenThrow(new ProcessingException("Connection refused"));
+        LedgerEventPublisher publisher = createPublisher(10, 10, 2);
+        Event event = anEvent("charge-1");
+
+        publisher.start();
+        publisher.publish(event);
+
+        verify(emittedEventDao, timeout(2000)).recordNotPosted(event, event.toJsonString());
+        verify(ledgerService, times(2)).postEvent(List.of(event));
+        publisher.stop();
+        assertThat(metricRegistry.meter("ledger-events.not-posted").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldKeepPostingEventsAfterAnEventCannotBeRecordedAsNotEmitted() {
+        when(ledgerService.postEvent(anyList()))
+                .thenThrow(new ProcessingException("Connection refused"))
+                .thenReturn(response);
+        LedgerEventPublisher publisher = createPublisher(10, 10, 1);
+        Event unrecordable = mock(Event.class);
+        Event event = anEvent("charge-1");
+
+        publisher.start();
+        publisher.publish(unrecordable);
+        verify(ledgerService, timeout(2000)).postEvent(List.of(unrecordable));
+        publisher.publish(event);
+
+        verify(ledgerService, timeout(2000)).postEvent(List.of(event));
+        verify(response, timeout(2000)).close();
+        publisher.stop();
+        assertThat(metricRegistry.meter("ledger-events.not-posted").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldPostEventsOnTheCallingThreadWhenTheBufferIsFull() {
+        LedgerEventPublisher publisher = new LedgerEventPublisher(ledgerService, emittedEventDao, stubConfig(1, 10, 1),
+                metricRegistry, mock(ExecutorService.class));
+        Event buffered = anEvent("charge-1");
+        Event overflowing = anEvent("charge-2");
+
+        publisher.start();
+        publisher.publish(buffered);
+        publisher.publish(overflowing);
+
+        verify(ledgerService).postEvent(List.of(overflowing));
+        verify(ledgerService, never()).postEvent(List.of(buffered));
+        assertThat(metricRegistry.meter("ledger-events.buffer-full").getCount(), is(1L));
+    }
+
+    private LedgerEventPublisher createPublisher(int bufferCapacity, int maximumBatchSize, int maximumPostAttempts) {
+        return new LedgerEventPublisher(ledgerService, emittedEventDao,
+                stubConfig(bufferCapacity, maximumBatchSize, maximumPostAttempts), metricRegistry, executorService);
+    }
+
+    private LedgerEventPublisherConfig stubConfig(int bufferCapacity, int maximumBatchSize, int maximumPostAttempts) {
+        when(config.getBufferCapacity()).thenReturn(bufferCapacity);
+        when(config.getMaximumBatchSize()).thenReturn(maximumBatchSize);
+        when(config.getLingerInMilliseconds()).thenReturn(200L);
+        when(config.getMaximumPostAttempts()).thenReturn(maximumPostAttempts);
+        when(config.getRetryDelayInMilliseconds()).thenReturn(1L);
+        return config;
+    }
+
+    private static Event anEvent(String chargeExternalId) {
+        return new QueuedForCapture("service-id", true, 1L, chargeExternalId, NOW);
+    }
+}
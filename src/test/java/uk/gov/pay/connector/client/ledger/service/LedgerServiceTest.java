@@ -117,6 +117,15 @@ public class LedgerServiceTest {
         assertThrows(LedgerException.class, () -> ledgerService.postEvent(event));
     }
 
+    @Test
+    void sendSerialisedEventsAsOneJsonArray() {
+        setupMocksForPostRequest();
+        when(mockResponse.getStatus()).thenReturn(SC_ACCEPTED);
+        ledgerService.postSerialisedEvents(List.of("{\"event_type\":\"AGREEMENT_CREATED\"}", "{\"event_type\":\"AGREEMENT_SET_UP\"}"));
+        verify(mockClientRequestInvocationBuilder)
+                .post(Entity.json("[{\"event_type\":\"AGREEMENT_CREATED\"},{\"event_type\":\"AGREEMENT_SET_UP\"}]"));
+    }
+
     @Test
     void serialiseAndSendMultipleEvents() {
         setupMocksForPostRequest();
@@ -0,0 +1,116 @@
+package uk.gov.pay.connector.common.model.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.events.model.UnspecifiedEvent;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.Strings.CS;
+
+/**
+ * Compares the ordinal-indexed lookup tables in {@link PaymentGatewayStateTransitions} and the map behind
+ * {@link ChargeStatus#fromString} against walking the transition graph, allocating an UnspecifiedEvent per check
+ * and scanning {@code ChargeStatus.values()}, which is what every charge status change used to do. Each operation
+ * covers every pair of statuses. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=uk.gov.pay.connector.common.model.domain.ChargeStateTransitionsBenchmark}
+ * and add {@code -prof gc} to the JMH options to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ChargeStateTransitionsBenchmark {
+
+    private static final UnspecifiedEvent UNSPECIFIED_EVENT = new UnspecifiedEvent();
+
+    private PaymentGatewayStateTransitions transitions;
+    private ChargeStatus[] statuses;
+    private String[] statusValues;
+
+    @Setup
+    public void setUp() {
+        transitions = PaymentGatewayStateTransitions.getInstance();
+        statuses = ChargeStatus.values();
+        statusValues = Arrays.stream(statuses).map(ChargeStatus::getValue).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void isValidTransitionFromTable(Blackhole blackhole) {
+        for (ChargeStatus fromStatus : statuses) {
+            for (ChargeStatus toStatus : statuses) {
+                blackhole.consume(PaymentGatewayStateTransitions.isValidTransition(fromStatus, toStatus, UNSPECIFIED_EVENT));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isValidTransitionFromGraph(Blackhole blackhole) {
+        for (ChargeStatus fromStatus : statuses) {
+            for (ChargeStatus toStatus : statuses) {
+                blackhole.consume(transitions.isValidTransitionInGraph(fromStatus, toStatus, new UnspecifiedEvent()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void eventForTransitionFromTable(Blackhole blackhole) {
+        for (ChargeStatus fromStatus : statuses) {
+            for (ChargeStatus toStatus : statuses) {
+                blackhole.consume(transitions.getEventForTransition(fromStatus, toStatus));
+            }
+        }
+    }
+
+    @Benchmark
+    public void eventForTransitionFromGraph(Blackhole blackhole) {
+        for (ChargeStatus fromStatus : statuses) {
+            for (ChargeStatus toStatus : statuses) {
+                blackhole.consume(transitions.getEventForTransitionFromGraph(fromStatus, toStatus));
+            }
+        }
+    }
+
+    @Benchmark
+    public void fromStringByMap(Blackhole blackhole) {
+        for (String value : statusValues) {
+            blackhole.consume(ChargeStatus.fromString(value));
+        }
+    }
+
+    @Benchmark
+    public void fromStringByScan(Blackhole blackhole) {
+        for (String value : statusValues) {
+            for (ChargeStatus status : ChargeStatus.values()) {
+                if (CS.equals(status.getValue(), value)) {
+                    blackhole.consume(status);
+                    break;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ChargeStateTransitionsBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
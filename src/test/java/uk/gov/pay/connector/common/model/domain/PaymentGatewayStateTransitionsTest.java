@@ -20,8 +20,10 @@ import uk.gov.pay.connector.events.model.charge.PaymentExpired;
 import uk.gov.pay.connector.events.model.charge.PaymentNotificationCreated;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,6 +31,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsIterableContaining.hasItem;
 import static org.hamcrest.core.IsIterableContaining.hasItems;
+import static org.mockito.Mockito.mock;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_REQUIRED;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_ABORTED;
@@ -193,4 +196,38 @@ class PaymentGatewayStateTransitionsTest {
                 AUTHORISATION_CANCELLED,
                 AUTHORISATION_SUBMITTED));
     }
+
+    @Test
+    void fromString_returnsEveryStatusByItsValue() {
+        for (ChargeStatus status : ChargeStatus.values()) {
+            assertThat(ChargeStatus.fromString(status.getValue()), is(status));
+        }
+    }
+
+    @Test
+    void lookupTables_matchTheGraphForEveryPairOfStatuses() {
+        Set<Class<Event>> modelledEventClasses = new HashSet<>();
+        for (ChargeStatus fromStatus : ChargeStatus.values()) {
+            for (ChargeStatus toStatus : ChargeStatus.values()) {
+                Optional<Class<Event>> fromGraph = transitions.getEventForTransitionFromGraph(fromStatus, toStatus);
+                assertThat(fromStatus + " -> " + toStatus,
+                        transitions.getEventForTransition(fromStatus, toStatus), is(fromGraph));
+                fromGraph.ifPresent(modelledEventClasses::add);
+            }
+        }
+
+        List<Event> events = new ArrayList<>();
+        events.add(new UnspecifiedEvent());
+        modelledEventClasses.forEach(eventClass -> events.add(mock(eventClass)));
+
+        for (ChargeStatus fromStatus : ChargeStatus.values()) {
+            for (ChargeStatus toStatus : ChargeStatus.values()) {
+                for (Event event : events) {
+                    assertThat(fromStatus + " -> " + toStatus + " with " + event.getClass().getSimpleName(),
+                            PaymentGatewayStateTransitions.isValidTransition(fromStatus, toStatus, event),
+                            is(transitions.isValidTransitionInGraph(fromStatus, toStatus, event)));
+                }
+            }
+        }
+    }
 }
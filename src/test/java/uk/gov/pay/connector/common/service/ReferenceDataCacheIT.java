@@ -0,0 +1,157 @@
+package uk.gov.pay.connector.common.service;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.common.dao.ReferenceDataVersionDao;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.util.RandomIdGenerator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+import static java.lang.String.format;
+import static jakarta.ws.rs.core.Response.Status.OK;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+import static uk.gov.pay.connector.util.JsonEncoder.toJson;
+
+public class ReferenceDataCacheIT {
+
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension(
+            config("referenceDataCacheConfig.enabled", "true")
+    );
+
+    private ReferenceDataVersionDao referenceDataVersionDao;
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataVersionDao = app.getInstanceFromGuiceContainer(ReferenceDataVersionDao.class);
+        long versionBeforeCreate = gatewayAccountsVersion();
+
+        accountId = app.givenSetup()
+                .body(toJson(Map.of(
+                        "payment_provider", "worldpay",
+                        "service_id", RandomIdGenerator.newId(),
+                        "service_name", "Service Name",
+                        "type", "test")))
+                .post("/v1/api/accounts")
+                .then()
+                .statusCode(201)
+                .extract().path("gateway_account_id");
+
+        awaitGatewayAccountsVersionAfter(versionBeforeCreate);
+        getAccount().body("service_name", is("Service Name"));
+    }
+
+    @Test
+    void shouldSeeServiceNameChange() {
+        long version = gatewayAccountsVersion();
+
+        app.givenSetup()
+                .body(toJson(Map.of("service_name", "New Service Name")))
+                .patch(format("/v1/frontend/accounts/%s/servicename", accountId))
+                .then()
+                .statusCode(OK.getStatusCode());
+
+        getAccount().body("service_name", is("New Service Name"));
+        awaitGatewayAccountsVersionAfter(version);
+    }
+
+    @Test
+    void shouldSeeRequires3dsChange() {
+        long version = gatewayAccountsVersion();
+        getAccount().body("requires3ds", is(false));
+
+        app.givenSetup()
+                .body(toJson(Map.of("toggle_3ds", true)))
+                .patch(format("/v1/frontend/accounts/%s/3ds-toggle", accountId))
+                .then()
+                .statusCode(OK.getStatusCode());
+
+        getAccount().body("requires3ds", is(true));
+        awaitGatewayAccountsVersionAfter(version);
+    }
+
+    @Test
+    void shouldSeeAcceptedCardTypesChange() {
+        JsonPath cardTypes = app.givenSetup()
+                .get("/v1/api/card-types")
+                .then()
+                .extract().jsonPath();
+        String cardTypeId = cardTypes.getString("card_types[0].id");
+        String label = cardTypes.getString("card_types[0].label");
+        long version = gatewayAccountsVersion();
+
+        app.givenSetup()
+                .body(format("{\"card_types\": [\"%s\"]}", cardTypeId))
+                .post(format("/v1/frontend/accounts/%s/card-types", accountId))
+                .then()
+                .statusCode(OK.getStatusCode());
+
+        app.givenSetup()
+                .get(format("/v1/frontend/accounts/%s/card-types", accountId))
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("card_types.label", contains(label));
+        awaitGatewayAccountsVersionAfter(version);
+    }
+
+    @Test
+    void shouldSeeWorldpay3dsFlexCredentialsChange() {
+        long version = gatewayAccountsVersion();
+
+        app.givenSetup()
+                .body(toJson(Map.of(
+                        "issuer", "53f0917f101a4428b69d5fb0", // pragma: allowlist secret
+                        "organisational_unit_id", "57992a087a0c4849895ab8a2", // pragma: allowlist secret
+                        "jwt_mac_key", "4cabd5d2-0133-4e82-b0e5-2024dbeddaa9")))
+                .put(format("/v1/api/accounts/%s/3ds-flex-credentials", accountId))
+                .then()
+                .statusCode(OK.getStatusCode());
+
+        getAccount().body("worldpay_3ds_flex.issuer", is("53f0917f101a4428b69d5fb0")); // pragma: allowlist secret
+        awaitGatewayAccountsVersionAfter(version);
+    }
+
+    @Test
+    void shouldSeeCredentialsChange() {
+        String credentialsId = getAccount().extract().path("gateway_account_credentials[0].external_id");
+        long version = gatewayAccountsVersion();
+
+        app.givenSetup()
+                .body(toJson(List.of(Map.of(
+                        "op", "replace",
+                        "path", "last_updated_by_user_external_id",
+                        "value", "a-new-user-external-id"))))
+                .patch(format("/v1/api/accounts/%s/credentials/%s", accountId, credentialsId))
+                .then()
+                .statusCode(OK.getStatusCode());
+
+        getAccount().body("gateway_account_credentials[0].last_updated_by_user_external_id", is("a-new-user-external-id"));
+        awaitGatewayAccountsVersionAfter(version);
+    }
+
+    private ValidatableResponse getAccount() {
+        return app.givenSetup()
+                .get(format("/v1/api/accounts/%s", accountId))
+                .then()
+                .statusCode(OK.getStatusCode());
+    }
+
+    private long gatewayAccountsVersion() {
+        return referenceDataVersionDao.findVersions().get("gateway_accounts");
+    }
+
+    private void awaitGatewayAccountsVersionAfter(long version) {
+        await().atMost(Duration.ofSeconds(5)).until(this::gatewayAccountsVersion, greaterThan(version));
+    }
+}
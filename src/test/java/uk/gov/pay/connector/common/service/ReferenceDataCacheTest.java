@@ -0,0 +1,149 @@
+package uk.gov.pay.connector.common.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
+import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
+import uk.gov.pay.connector.common.dao.ReferenceDataVersionDao;
+import uk.gov.pay.connector.common.service.ReferenceDataCache.Region;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private ReferenceDataVersionDao referenceDataVersionDao;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private ConnectorConfiguration connectorConfiguration;
+    @Mock
+    private ReferenceDataCacheConfig referenceDataCacheConfig;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-01T10:00:00Z"));
+
+    @BeforeEach
+    void setUp() {
+        when(connectorConfiguration.getReferenceDataCacheConfig()).thenReturn(referenceDataCacheConfig);
+        when(referenceDataCacheConfig.getMaximumAgeInSeconds()).thenReturn(600);
+    }
+
+    private ReferenceDataCache referenceDataCache(boolean enabled) {
+        when(referenceDataCacheConfig.isEnabled()).thenReturn(enabled);
+        return new ReferenceDataCache(referenceDataVersionDao, () -> entityManagerFactory, connectorConfiguration, now::get);
+    }
+
+    @Test
+    void shouldOnlyEvictRegionsWhoseVersionHasChangedSinceLastPoll() {
+        ReferenceDataCache referenceDataCache = referenceDataCache(true);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(referenceDataVersionDao.findVersions())
+                .thenReturn(Map.of("gateway_accounts", 1L, "card_types", 0L))
+                .thenReturn(Map.of("gateway_accounts", 2L, "card_types", 0L));
+
+        referenceDataCache.refresh();
+        clearInvocations(cache);
+        referenceDataCache.refresh();
+
+        verify(cache).evict(GatewayAccountEntity.class);
+        verify(cache).evict(GatewayAccountCredentialsEntity.class);
+        verify(cache, never()).evict(CardTypeEntity.class);
+    }
+
+    @Test
+    void shouldEvictEverythingOnceMaximumAgeIsReached() {
+        ReferenceDataCache referenceDataCache = referenceDataCache(true);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(referenceDataVersionDao.findVersions()).thenReturn(Map.of("gateway_accounts", 1L, "card_types", 0L));
+
+        referenceDataCache.refresh();
+        clearInvocations(cache);
+        now.set(now.get().plus(Duration.ofSeconds(600)));
+        referenceDataCache.refresh();
+
+        verify(cache).evict(GatewayAccountEntity.class);
+        verify(cache).evict(GatewayAccountCredentialsEntity.class);
+        verify(cache).evict(CardTypeEntity.class);
+    }
+
+    @Test
+    void shouldEvictWrittenRegionsOnceTheWriteHasCommitted() {
+        ReferenceDataCache referenceDataCache = referenceDataCache(true);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        referenceDataCache.committed(Set.of(Region.CARD_TYPES));
+
+        verify(cache).evict(CardTypeEntity.class);
+        verify(cache, never()).evict(GatewayAccountEntity.class);
+        verifyNoInteractions(referenceDataVersionDao);
+    }
+
+    @Test
+    void shouldIncrementVersionOfEachRegion() {
+        ReferenceDataCache referenceDataCache = referenceDataCache(true);
+
+        referenceDataCache.incrementVersions(Set.of(Region.GATEWAY_ACCOUNTS, Region.CARD_TYPES));
+
+        verify(referenceDataVersionDao).incrementVersion("gateway_accounts");
+        verify(referenceDataVersionDao).incrementVersion("card_types");
+    }
+
+    @Test
+    void shouldNotifyListenersWhenGatewayAccountsAreInvalidatedHereOrOnAnotherPod() {
+        ReferenceDataCache referenceDataCache = referenceDataCache(true);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(referenceDataVersionDao.findVersions())
+                .thenReturn(Map.of("gateway_accounts", 1L, "card_types", 0L))
+                .thenReturn(Map.of("gateway_accounts", 1L, "card_types", 1L))
+                .thenReturn(Map.of("gateway_accounts", 2L, "card_types", 1L));
+        var invalidations = new AtomicInteger();
+        referenceDataCache.onGatewayAccountsInvalidated(invalidations::incrementAndGet);
+
+        referenceDataCache.refresh();
+        invalidations.set(0);
+        referenceDataCache.refresh();
+        assertThat(invalidations.get(), is(0));
+
+        referenceDataCache.refresh();
+        assertThat(invalidations.get(), is(1));
+
+        referenceDataCache.committed(Set.of(Region.GATEWAY_ACCOUNTS));
+        assertThat(invalidations.get(), is(2));
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        ReferenceDataCache referenceDataCache = referenceDataCache(false);
+
+        referenceDataCache.listenForWrites(regions -> {});
+        referenceDataCache.refresh();
+        referenceDataCache.recordLookup(GatewayAccountEntity.class, 123L);
+
+        verifyNoInteractions(referenceDataVersionDao);
+        verifyNoInteractions(entityManagerFactory);
+    }
+}
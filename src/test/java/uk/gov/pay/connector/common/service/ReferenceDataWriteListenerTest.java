@@ -0,0 +1,91 @@
+package uk.gov.pay.connector.common.service;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventManager;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.SessionEventManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
+import uk.gov.pay.connector.common.service.ReferenceDataCache.Region;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.gatewayaccount.model.Worldpay3dsFlexCredentialsEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataWriteListenerTest {
+
+    @Mock
+    private Session session;
+    @Mock
+    private ClassDescriptor descriptor;
+    @Mock
+    private DescriptorEventManager descriptorEventManager;
+    @Mock
+    private SessionEventManager sessionEventManager;
+
+    private final List<Set<Region>> committed = new ArrayList<>();
+    private final ReferenceDataWriteListener listener = new ReferenceDataWriteListener(committed::add);
+    private SessionEventListener transactionListener;
+
+    @BeforeEach
+    void setUp() {
+        when(session.getDescriptor(any(Class.class))).thenReturn(descriptor);
+        when(descriptor.getEventManager()).thenReturn(descriptorEventManager);
+        when(session.getEventManager()).thenReturn(sessionEventManager);
+
+        listener.register(session);
+
+        var transactionListenerCaptor = ArgumentCaptor.forClass(SessionEventListener.class);
+        verify(sessionEventManager).addListener(transactionListenerCaptor.capture());
+        transactionListener = transactionListenerCaptor.getValue();
+    }
+
+    @Test
+    void shouldHandOverRegionsWrittenOnceTheTransactionCommits() {
+        listener.postUpdate(eventFor(Worldpay3dsFlexCredentialsEntity.class));
+        listener.postInsert(eventFor(CardTypeEntity.class));
+        listener.postDelete(eventFor(GatewayAccountEntity.class));
+        assertThat(committed, is(empty()));
+
+        transactionListener.postCommitTransaction(null);
+
+        assertThat(committed, contains(Set.of(Region.GATEWAY_ACCOUNTS, Region.CARD_TYPES)));
+    }
+
+    @Test
+    void shouldForgetRegionsWrittenWhenTheTransactionRollsBack() {
+        listener.postUpdate(eventFor(GatewayAccountEntity.class));
+        transactionListener.postRollbackTransaction(null);
+
+        transactionListener.postCommitTransaction(null);
+
+        assertThat(committed, is(empty()));
+    }
+
+    private static DescriptorEvent eventFor(Class<?> entityClass) {
+        ClassDescriptor entityDescriptor = mock(ClassDescriptor.class);
+        when(entityDescriptor.getJavaClass()).thenReturn((Class) entityClass);
+        DescriptorEvent event = mock(DescriptorEvent.class);
+        when(event.getDescriptor()).thenReturn(entityDescriptor);
+        return event;
+    }
+}
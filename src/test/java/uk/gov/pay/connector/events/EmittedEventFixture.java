@@ -1,5 +1,7 @@
 package uk.gov.pay.connector.events;
 
+import uk.gov.pay.connector.refund.model.domain.RefundStatus;
+
 import java.time.Instant;
 
 public class EmittedEventFixture {
@@ -9,6 +11,10 @@ public class EmittedEventFixture {
     private String eventType = "PAYMENT_CREATED";
     private Instant eventDate = Instant.parse("2019-09-20T10:00:00Z");
     private Instant emittedDate;
+    private Class<?> stateTransitionEventClass;
+    private Long chargeEventId;
+    private RefundStatus refundStatus;
+    private String eventPayload;
 
     public static EmittedEventFixture anEmittedEventEntity() {
         return new EmittedEventFixture();
@@ -18,6 +24,12 @@ public class EmittedEventFixture {
         var event = new EmittedEventEntity(resourceType, resourceExternalId, eventType,
                 eventDate, emittedDate, null);
         event.setId(id);
+        if (chargeEventId != null) {
+            event.setPaymentStateTransition(stateTransitionEventClass.getName(), chargeEventId);
+        } else if (refundStatus != null) {
+            event.setRefundStateTransition(stateTransitionEventClass.getName(), refundStatus.name());
+        }
+        event.setEventPayload(eventPayload);
 
         return event;
     }
@@ -51,4 +63,21 @@ public class EmittedEventFixture {
         this.id = id;
         return this;
     }
+
+    public EmittedEventFixture withEventPayload(String eventPayload) {
+        this.eventPayload = eventPayload;
+        return this;
+    }
+
+    public EmittedEventFixture withPaymentStateTransition(Class<?> stateTransitionEventClass, Long chargeEventId) {
+        this.stateTransitionEventClass = stateTransitionEventClass;
+        this.chargeEventId = chargeEventId;
+        return this;
+    }
+
+    public EmittedEventFixture withRefundStateTransition(Class<?> stateTransitionEventClass, RefundStatus refundStatus) {
+        this.stateTransitionEventClass = stateTransitionEventClass;
+        this.refundStatus = refundStatus;
+        return this;
+    }
 }
@@ -1,6 +1,8 @@
 package uk.gov.pay.connector.events;
 
 import io.github.netmikey.logunit.api.LogCapturer;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.app.config.EmittedEventSweepConfig;
 import uk.gov.pay.connector.app.config.EventEmitterConfig;
 import uk.gov.pay.connector.charge.exception.ChargeNotFoundRuntimeException;
@@ -17,6 +20,7 @@ import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+import uk.gov.pay.connector.client.ledger.service.LedgerService;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.pact.ChargeEventEntityFixture;
 import uk.gov.pay.connector.pact.RefundHistoryEntityFixture;
@@ -33,6 +37,8 @@ import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -64,6 +70,8 @@ class EmittedEventsBackfillServiceTest {
     @Mock
     private StateTransitionService stateTransitionService;
     @Mock
+    private LedgerService ledgerService;
+    @Mock
     private ConnectorConfiguration connectorConfiguration;
 
     private EmittedEventsBackfillService emittedEventsBackfillService;
@@ -81,10 +89,15 @@ class EmittedEventsBackfillServiceTest {
 
         when(connectorConfiguration.getEmittedEventSweepConfig()).thenReturn(sweepConfig);
         when(connectorConfiguration.getEventEmitterConfig()).thenReturn(mockEventEmitterConfig);
+
+        EventQueueConfig eventQueueConfig = mock(EventQueueConfig.class);
+        when(eventQueueConfig.isStateTransitionOutboxEnabled()).thenReturn(true);
+        when(eventQueueConfig.getStateTransitionOutboxMaxAttempts()).thenReturn(10);
+        when(connectorConfiguration.getEventQueueConfig()).thenReturn(eventQueueConfig);
         HistoricalEventEmitter historicalEventEmitter = new HistoricalEventEmitter(emittedEventDao, refundDao,
                 eventService, stateTransitionService, chargeService);
         emittedEventsBackfillService = new EmittedEventsBackfillService(emittedEventDao, chargeService, refundDao,
-                historicalEventEmitter, connectorConfiguration);
+                historicalEventEmitter, ledgerService, connectorConfiguration);
         lenient().when(chargeService.findChargeByExternalId(any())).thenThrow(new ChargeNotFoundRuntimeException(""));
         chargeEntity = ChargeEntityFixture
                 .aValidChargeEntity()
@@ -100,11 +113,11 @@ class EmittedEventsBackfillServiceTest {
 
     @Test
     void logsMessageWhenNoEmittedEventsSatisfyingCriteria() {
-        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any())).thenReturn(Optional.empty());
+        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any(), eq(10))).thenReturn(Optional.empty());
 
         emittedEventsBackfillService.backfillNotEmittedEvents();
 
-        verify(emittedEventDao, never()).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), anyLong(), eq(maxId), any());
+        verify(emittedEventDao, never()).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), anyLong(), eq(maxId), any(), eq(10));
         assertThat(logs.size(), is(1));
         logs.assertContains("Finished processing not emitted events [lastProcessedId=0, maxId=none]");
     }
@@ -112,13 +125,13 @@ class EmittedEventsBackfillServiceTest {
     @Test
     void backfillsEventsWhenEmittedPaymentEventSatisfyingCriteria() {
         var emittedEvent = anEmittedEventEntity().withResourceExternalId(chargeEntity.getExternalId()).build();
-        when(emittedEventDao.findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any())).thenReturn(List.of(emittedEvent));
-        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any())).thenReturn(Optional.of(maxId));
+        when(emittedEventDao.findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any(), eq(10))).thenReturn(List.of(emittedEvent));
+        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any(), eq(10))).thenReturn(Optional.of(maxId));
         doReturn(chargeEntity).when(chargeService).findChargeByExternalId(chargeEntity.getExternalId());
 
         emittedEventsBackfillService.backfillNotEmittedEvents();
 
-        verify(emittedEventDao, times(1)).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any());
+        verify(emittedEventDao, times(1)).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any(), eq(10));
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), isNull());
         assertThat(logs.size(), is(2));
         logs.assertContains(
@@ -135,8 +148,8 @@ class EmittedEventsBackfillServiceTest {
                 .withExternalId(refundEntity.getExternalId())
                 .withChargeExternalId(chargeEntity.getExternalId())
                 .build();
-        when(emittedEventDao.findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any())).thenReturn(List.of(emittedEvent));
-        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any())).thenReturn(Optional.of(maxId));
+        when(emittedEventDao.findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any(), eq(10))).thenReturn(List.of(emittedEvent));
+        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any(), eq(10))).thenReturn(Optional.of(maxId));
         when(refundDao.findByExternalId(refundEntity.getExternalId())).thenReturn(Optional.of(refundEntity));
         when(refundDao.getRefundHistoryByRefundExternalId(refundEntity.getExternalId())).thenReturn(List.of(refundHistory));
         doReturn(Optional.of(Charge.from(chargeEntity))).when(chargeService).findCharge(chargeEntity.getExternalId());
@@ -144,7 +157,7 @@ class EmittedEventsBackfillServiceTest {
 
         emittedEventsBackfillService.backfillNotEmittedEvents();
 
-        verify(emittedEventDao, times(1)).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any());
+        verify(emittedEventDao, times(1)).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any(), eq(10));
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), isNull());
         assertThat(logs.size(), is(2));
         logs.assertContains(
@@ -154,7 +167,7 @@ class EmittedEventsBackfillServiceTest {
 
     @Test
     void backfillsEventsWhenEmittedEventsSatisfyingCriteria() {
-        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any())).thenReturn(Optional.of(maxId));
+        when(emittedEventDao.findNotEmittedEventMaxIdOlderThan(any(Instant.class), any(), eq(10))).thenReturn(Optional.of(maxId));
         var emittedPaymentEvent = anEmittedEventEntity().withResourceExternalId(chargeEntity.getExternalId()).build();
         var emittedRefundEvent = anEmittedEventEntity().withResourceType("refund").withId(2L)
                 .withEventDate(Instant.parse("2019-09-20T09:00:00Z"))
@@ -165,7 +178,7 @@ class EmittedEventsBackfillServiceTest {
                 .withExternalId(refundEntity.getExternalId())
                 .withChargeExternalId(chargeEntity.getExternalId())
                 .build();
-        when(emittedEventDao.findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any()))
+        when(emittedEventDao.findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any(), eq(10)))
                 .thenReturn(List.of(emittedPaymentEvent, emittedRefundEvent));
         doReturn(chargeEntity).when(chargeService).findChargeByExternalId(chargeEntity.getExternalId());
         when(refundDao.findByExternalId(refundEntity.getExternalId())).thenReturn(Optional.of(refundEntity));
@@ -174,7 +187,7 @@ class EmittedEventsBackfillServiceTest {
 
         emittedEventsBackfillService.backfillNotEmittedEvents();
 
-        verify(emittedEventDao, times(1)).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any());
+        verify(emittedEventDao, times(1)).findNotEmittedEventsOlderThan(any(Instant.class), anyInt(), eq(0L), eq(maxId), any(), eq(10));
         // 2 events emitted for payment event and refund event
         verify(stateTransitionService, times(2)).offerStateTransition(any(), any(), isNull());
         assertThat(logs.size(), is(2));
@@ -182,4 +195,53 @@ class EmittedEventsBackfillServiceTest {
                 "Processing not emitted events [lastProcessedId=0, no.of.events=2, oldestDate=2019-09-20T09:00:00Z]");
         logs.assertContains("Finished processing not emitted events [lastProcessedId=2, maxId=2]");
     }
+
+    @Test
+    void replaysEventThatWasKeptWithItsPayload() {
+        var emittedEvent = anEmittedEventEntity().withResourceType("agreement")
+                .withResourceExternalId("agreement-external-id")
+                .withEventType("AGREEMENT_CREATED")
+                .withEventPayload("{\"event_type\":\"AGREEMENT_CREATED\"}")
+                .build();
+        when(ledgerService.postSerialisedEvents(List.of("{\"event_type\":\"AGREEMENT_CREATED\"}"))).thenReturn(mock(Response.class));
+
+        emittedEventsBackfillService.backfillEvent(emittedEvent);
+
+        assertThat(emittedEvent.getEmittedDate(), is(notNullValue()));
+        assertThat(emittedEvent.getDoNotRetryEmitUntil(), is(nullValue()));
+        verify(chargeService, never()).findChargeByExternalId(any());
+    }
+
+    @Test
+    void doesNotMarkEventAsEmittedWhenItsPayloadCannotBeReplayed() {
+        var emittedEvent = anEmittedEventEntity().withResourceType("payment_instrument")
+                .withResourceExternalId("payment-instrument-external-id")
+                .withEventType("PAYMENT_INSTRUMENT_CREATED")
+                .withEventPayload("{}")
+                .build();
+        when(ledgerService.postSerialisedEvents(List.of("{}"))).thenThrow(new ProcessingException("Connection refused"));
+
+        emittedEventsBackfillService.backfillEvent(emittedEvent);
+
+        assertThat(emittedEvent.getEmittedDate(), is(nullValue()));
+        assertThat(emittedEvent.getDoNotRetryEmitUntil(), is(notNullValue()));
+        logs.assertContains("Failed to replay payment_instrument event 1 to ledger due to Connection refused");
+    }
+
+    @Test
+    void doesNotMarkEventAsEmittedWhenItCannotBeRebuiltAndHasNoPayload() {
+        var emittedEvent = anEmittedEventEntity().withResourceType("agreement")
+                .withResourceExternalId("agreement-external-id")
+                .withEventType("AGREEMENT_CREATED")
+                .build();
+
+        emittedEventsBackfillService.backfillEvent(emittedEvent);
+
+        assertThat(emittedEvent.getEmittedDate(), is(nullValue()));
+        assertThat(emittedEvent.getDoNotRetryEmitUntil(), is(notNullValue()));
+        verify(refundDao, never()).findByExternalId(any());
+        verify(ledgerService, never()).postSerialisedEvents(any());
+        logs.assertContains("Cannot backfill agreement event 1 as it has no payload to replay " +
+                "[externalId=agreement-external-id] [event_type=AGREEMENT_CREATED]");
+    }
 }
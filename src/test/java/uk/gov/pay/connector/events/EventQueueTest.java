@@ -4,14 +4,31 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SqsException;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.app.SqsConfig;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -26,6 +43,8 @@ class EventQueueTest {
     @Mock
     private SqsQueueService mockSqsQueueService;
     @Mock
+    private SqsClient mockSqsClient;
+    @Mock
     private ConnectorConfiguration mockConnectorConfiguration;
     @Mock
     private SqsConfig sqsConfig;
@@ -44,7 +63,7 @@ class EventQueueTest {
     @Test
     void emitEvent_serialisesTheEventAndSendsToSqs() throws Exception {
         when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
-        eventQueue = new EventQueue(mockSqsQueueService,
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
                 mockConnectorConfiguration);
         when(event.toJsonString()).thenReturn("{~~SERIALIZED~~}");
 
@@ -56,11 +75,78 @@ class EventQueueTest {
     @Test
     void emitEvent_doesNotEmitIfFeatureFlagIsFalse() throws Exception {
         when(eventQueueConfig.getEventQueueEnabled()).thenReturn(false);
-        eventQueue = new EventQueue(mockSqsQueueService,
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
                 mockConnectorConfiguration);
         
         eventQueue.emitEvent(event);
 
         verifyNoMoreInteractions(mockSqsQueueService);
     }
+
+    @Test
+    void emitEvents_sendsEventsInSqsBatchesOfTen() throws Exception {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient, mockConnectorConfiguration);
+        List<Event> events = IntStream.range(0, 12).mapToObj(i -> anEvent("{\"event\":" + i + "}")).toList();
+        when(mockSqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(SendMessageBatchResponse.builder().build());
+
+        List<Event> failedEvents = eventQueue.emitEvents(events);
+
+        ArgumentCaptor<SendMessageBatchRequest> requestCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(mockSqsClient, times(2)).sendMessageBatch(requestCaptor.capture());
+        List<SendMessageBatchRequest> requests = requestCaptor.getAllValues();
+        assertThat(requests.get(0).queueUrl(), is(eventQueueUrl));
+        assertThat(requests.get(0).entries().size(), is(10));
+        assertThat(requests.get(1).entries().stream().map(SendMessageBatchRequestEntry::messageBody).toList(),
+                contains("{\"event\":10}", "{\"event\":11}"));
+        assertThat(failedEvents, is(empty()));
+        verifyNoMoreInteractions(mockSqsQueueService);
+    }
+
+    @Test
+    void emitEvents_returnsOnlyTheEventsSqsDidNotAccept() throws Exception {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient, mockConnectorConfiguration);
+        Event accepted = anEvent("{\"event\":0}");
+        Event rejected = anEvent("{\"event\":1}");
+        when(mockSqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(SendMessageBatchResponse.builder()
+                        .failed(BatchResultErrorEntry.builder().id("1").message("throttled").senderFault(false).build())
+                        .build());
+
+        assertThat(eventQueue.emitEvents(List.of(accepted, rejected)), contains(rejected));
+    }
+
+    @Test
+    void emitEvents_returnsTheWholeBatchWhenTheRequestFails() throws Exception {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient, mockConnectorConfiguration);
+        Event first = anEvent("{\"event\":0}");
+        Event second = anEvent("{\"event\":1}");
+        when(mockSqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenThrow(SqsException.builder().message("unavailable").build());
+
+        assertThat(eventQueue.emitEvents(List.of(first, second)), contains(first, second));
+    }
+
+    @Test
+    void emitEvents_doesNotEmitIfFeatureFlagIsFalse() {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(false);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient, mockConnectorConfiguration);
+
+        assertThat(eventQueue.emitEvents(List.of(event)), is(empty()));
+
+        verifyNoMoreInteractions(mockSqsClient);
+    }
+
+    private static Event anEvent(String json) {
+        Event event = mock(Event.class);
+        try {
+            when(event.toJsonString()).thenReturn(json);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return event;
+    }
 }
@@ -12,6 +12,7 @@ import uk.gov.pay.connector.events.model.charge.PaymentEvent;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import static java.time.Instant.now;
 import static java.time.ZoneOffset.UTC;
@@ -19,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class EventServiceTest {
@@ -70,6 +72,21 @@ class EventServiceTest {
         verify(eventQueue).emitEvent(event);
     }
 
+    @Test
+    void emitAndRecordEvents_shouldRecordEventsSqsDidNotAcceptAsNotEmitted() {
+        Event emitted = new PaymentEvent("service-id", true, 100L, "external-id-1", now());
+        Event failed = new PaymentEvent("service-id", true, 100L, "external-id-2", now());
+        ZonedDateTime doNotRetryEmitUntilDate = ZonedDateTime.now(UTC);
+        when(eventQueue.emitEvents(List.of(emitted, failed))).thenReturn(List.of(failed));
+
+        eventService.emitAndRecordEvents(List.of(emitted, failed), doNotRetryEmitUntilDate);
+
+        verify(emittedEventDao).recordEmission(emitted, doNotRetryEmitUntilDate);
+        verify(emittedEventDao).recordEmission(failed.getResourceType(), failed.getResourceExternalId(),
+                failed.getEventType(), failed.getTimestamp(), doNotRetryEmitUntilDate);
+        verify(emittedEventDao, never()).recordEmission(failed, doNotRetryEmitUntilDate);
+    }
+
     @Test
     void emitAndRecordEvent_shouldRecordEmissionWithDoNotRetryEmitUntilDate() throws QueueException {
         Event event = new PaymentEvent("service-id", true,100L,"external-id", now());
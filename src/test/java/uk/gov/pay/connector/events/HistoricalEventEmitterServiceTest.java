@@ -7,9 +7,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.EventEmitterConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.CardDetailsEntity;
 import uk.gov.pay.connector.charge.model.FirstDigitsCardNumber;
@@ -27,6 +29,7 @@ import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.events.eventdetails.charge.Gateway3dsExemptionResultObtainedEventDetails;
 import uk.gov.pay.connector.events.eventdetails.charge.Requested3dsExemptionEventDetails;
+import uk.gov.pay.connector.events.model.EmittedEventKey;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.charge.AuthorisationSucceeded;
 import uk.gov.pay.connector.events.model.charge.BackfillerGatewayTransactionIdSet;
@@ -57,6 +60,9 @@ import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
 import uk.gov.pay.connector.refund.model.domain.RefundStatus;
+import uk.gov.pay.connector.tasks.dao.ShardCheckpointDao;
+import uk.gov.pay.connector.tasks.service.IdRangeShard;
+import uk.gov.pay.connector.tasks.service.IdRangeShardRunner;
 import uk.gov.service.payments.commons.model.CardExpiryDate;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
@@ -65,6 +71,7 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -75,6 +82,9 @@ import static org.mockito.AdditionalMatchers.geq;
 import static org.mockito.AdditionalMatchers.leq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.atMostOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -86,6 +96,9 @@ import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATIO
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.PAYMENT_NOTIFICATION_CREATED;
+import static uk.gov.pay.connector.events.model.ResourceType.PAYMENT;
+import static uk.gov.pay.connector.events.model.ResourceType.REFUND;
+import static uk.gov.pay.connector.tasks.ShardedTask.HISTORICAL_EVENT_EMITTER;
 import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION_REJECTED;
 import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION_HONOURED;
 import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION_NOT_REQUESTED;
@@ -112,6 +125,8 @@ class HistoricalEventEmitterServiceTest {
     EventService eventService;
     @Mock
     RefundDao refundDao;
+    @Mock
+    ShardCheckpointDao checkpointDao;
 
     HistoricalEventEmitterService historicalEventEmitterService;
     private ChargeEntity chargeEntity;
@@ -121,7 +136,8 @@ class HistoricalEventEmitterServiceTest {
     void setUp() {
         connectorConfiguration = new ConnectorConfiguration();
         historicalEventEmitterService = new HistoricalEventEmitterService(chargeDao, refundDao, chargeEventDao, emittedEventDao,
-                stateTransitionService, eventService, chargeService, connectorConfiguration);
+                stateTransitionService, eventService, chargeService, checkpointDao, new IdRangeShardRunner(checkpointDao),
+                connectorConfiguration);
         CardDetailsEntity cardDetails = mock(CardDetailsEntity.class);
         chargeEntity = ChargeEntityFixture
                 .aValidChargeEntity()
@@ -911,7 +927,89 @@ class HistoricalEventEmitterServiceTest {
         );
     }
 
-    
+    @Test
+    void emitHistoricEventsInBulk_shouldOfferEventsForPageAndCheckpointShard() {
+        long chargeId = chargeEntity.getId();
+        when(chargeDao.findByIdRangeWithEventsAndFees(chargeId - 1, chargeId, 10)).thenReturn(List.of(chargeEntity));
+
+        bulkHistoricalEventEmitterService().emitHistoricEventsInBulk(chargeId, OptionalLong.of(chargeId), 1L, false);
+
+        ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
+        verify(stateTransitionService).offerStateTransition(argument.capture(), any(PaymentCreated.class), isNotNull());
+        assertThat(argument.getValue().getStateTransitionEventClass(), is(PaymentCreated.class));
+
+        verify(checkpointDao).deleteCheckpointsWithin(HISTORICAL_EVENT_EMITTER, chargeId, chargeId);
+        InOrder inOrder = inOrder(stateTransitionService, checkpointDao);
+        inOrder.verify(stateTransitionService).offerStateTransition(any(), any(), any());
+        inOrder.verify(checkpointDao).saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(chargeId, chargeId), chargeId);
+        verify(chargeDao, never()).findById(any());
+        verify(emittedEventDao, never()).hasBeenEmittedBefore(any());
+    }
+
+    @Test
+    void emitHistoricEventsInBulk_shouldStopShardWhenCheckpointCannotBeSaved() {
+        long chargeId = chargeEntity.getId();
+        when(chargeDao.findByIdRangeWithEventsAndFees(chargeId - 1, chargeId, 10)).thenReturn(List.of(chargeEntity));
+        doThrow(new RuntimeException("database unavailable")).when(checkpointDao)
+                .saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(chargeId, chargeId), chargeId);
+
+        bulkHistoricalEventEmitterService().emitHistoricEventsInBulk(chargeId, OptionalLong.of(chargeId), 1L, false);
+
+        verify(chargeDao, times(1)).findByIdRangeWithEventsAndFees(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void emitHistoricEventsInBulk_shouldNotOfferEventsAlreadyEmittedForPage() {
+        long chargeId = chargeEntity.getId();
+        when(chargeDao.findByIdRangeWithEventsAndFees(chargeId - 1, chargeId, 10)).thenReturn(List.of(chargeEntity));
+        when(emittedEventDao.findEmittedEventKeys(PAYMENT, List.of(chargeEntity.getExternalId()))).thenReturn(Set.of(
+                new EmittedEventKey("payment", chargeEntity.getExternalId(), "PAYMENT_CREATED", chargeEntity.getCreatedDate())));
+
+        bulkHistoricalEventEmitterService().emitHistoricEventsInBulk(chargeId, OptionalLong.of(chargeId), 1L, false);
+
+        verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
+    }
+
+    @Test
+    void emitHistoricEventsInBulk_shouldUseRefundHistoryReadForPage() {
+        long chargeId = chargeEntity.getId();
+        chargeEntity.getEvents().clear();
+        RefundHistory refundHistory = getRefundHistoryEntity(chargeEntity, RefundStatus.CREATED);
+        when(chargeDao.findByIdRangeWithEventsAndFees(chargeId - 1, chargeId, 10)).thenReturn(List.of(chargeEntity));
+        when(refundDao.searchAllHistoryByChargeExternalIds(List.of(chargeEntity.getExternalId()))).thenReturn(List.of(refundHistory));
+
+        bulkHistoricalEventEmitterService().emitHistoricEventsInBulk(chargeId, OptionalLong.of(chargeId), 1L, false);
+
+        verify(stateTransitionService).offerStateTransition(any(), any(RefundCreatedByService.class), isNotNull());
+        verify(emittedEventDao).findEmittedEventKeys(REFUND, List.of(refundHistory.getExternalId()));
+        verify(refundDao, never()).searchAllHistoryByChargeExternalId(any());
+        verify(chargeService, never()).findCharge(any());
+    }
+
+    @Test
+    void emitHistoricEventsInBulk_shouldResumeShardFromCheckpoint() {
+        long chargeId = chargeEntity.getId();
+        when(checkpointDao.findLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(chargeId - 1, chargeId))).thenReturn(Optional.of(chargeId));
+
+        bulkHistoricalEventEmitterService().emitHistoricEventsInBulk(chargeId - 1, OptionalLong.of(chargeId), 1L, true);
+
+        verify(checkpointDao, never()).deleteCheckpointsWithin(any(), anyLong(), anyLong());
+        verify(chargeDao, never()).findByIdRangeWithEventsAndFees(any(), any(), anyInt());
+        verifyNoInteractions(stateTransitionService);
+    }
+
+    private HistoricalEventEmitterService bulkHistoricalEventEmitterService() {
+        ConnectorConfiguration configuration = mock(ConnectorConfiguration.class);
+        EventEmitterConfig eventEmitterConfig = mock(EventEmitterConfig.class);
+        when(configuration.getEventEmitterConfig()).thenReturn(eventEmitterConfig);
+        when(eventEmitterConfig.getHistoricalEventEmitterParallelism()).thenReturn(1);
+        when(eventEmitterConfig.getHistoricalEventEmitterShardSize()).thenReturn(100L);
+        lenient().when(eventEmitterConfig.getHistoricalEventEmitterPageSize()).thenReturn(10);
+        return new HistoricalEventEmitterService(chargeDao, refundDao, chargeEventDao, emittedEventDao,
+                stateTransitionService, eventService, chargeService, checkpointDao, new IdRangeShardRunner(checkpointDao),
+                configuration);
+    }
+
     private RefundHistory getRefundHistoryEntity(ChargeEntity chargeEntity, RefundStatus refundStatus) {
         return RefundHistoryEntityFixture
                 .aValidRefundHistoryEntity()
@@ -0,0 +1,143 @@
+package uk.gov.pay.connector.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
+import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.exception.EventCreationException;
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.events.model.EventFactory;
+import uk.gov.pay.connector.events.model.charge.PaymentStarted;
+import uk.gov.pay.connector.events.model.refund.RefundSubmitted;
+import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.events.EmittedEventFixture.anEmittedEventEntity;
+import static uk.gov.pay.connector.refund.model.domain.RefundStatus.REFUND_SUBMITTED;
+
+@ExtendWith(MockitoExtension.class)
+class StateTransitionOutboxProcessTest {
+
+    private static final Instant EVENT_DATE = Instant.parse("2026-10-01T10:00:00Z");
+
+    @Mock
+    private EmittedEventDao emittedEventDao;
+    @Mock
+    private EventFactory eventFactory;
+    @Mock
+    private EventQueue eventQueue;
+    @Mock
+    private ConnectorConfiguration connectorConfiguration;
+    @Mock
+    private EventQueueConfig eventQueueConfig;
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> idsCaptor;
+    @Captor
+    private ArgumentCaptor<Map<Long, Instant>> correctedEventDatesCaptor;
+    @Captor
+    private ArgumentCaptor<Map<Long, ZonedDateTime>> retryAfterCaptor;
+
+    private StateTransitionOutboxProcess stateTransitionOutboxProcess;
+
+    @BeforeEach
+    void setUp() {
+        when(connectorConfiguration.getEventQueueConfig()).thenReturn(eventQueueConfig);
+        when(eventQueueConfig.getStateTransitionOutboxBatchSize()).thenReturn(100);
+        when(eventQueueConfig.getStateTransitionOutboxMaxAttempts()).thenReturn(10);
+        when(eventQueueConfig.getStateTransitionOutboxRetryDelayInMilliseconds()).thenReturn(200L);
+        when(eventQueueConfig.getStateTransitionOutboxClaimDurationInMilliseconds()).thenReturn(60_000L);
+        stateTransitionOutboxProcess = new StateTransitionOutboxProcess(emittedEventDao, eventFactory, eventQueue, connectorConfiguration);
+    }
+
+    @Test
+    void shouldDoNothingWhenThereAreNoStateTransitionsToEmit() {
+        when(emittedEventDao.claimStateTransitionsToEmit(eq(100), eq(10), any(ZonedDateTime.class))).thenReturn(List.of());
+
+        assertThat(stateTransitionOutboxProcess.emitPendingStateTransitions(), is(0));
+
+        verify(eventQueue, never()).emitEvents(anyList());
+        verify(emittedEventDao, never()).releaseStateTransitions(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldEmitEventsForClaimedRowsAndReleaseThemAsEmitted() throws Exception {
+        EmittedEventEntity payment = anEmittedEventEntity().withId(1L).withEventType("PAYMENT_STARTED")
+                .withEventDate(EVENT_DATE).withPaymentStateTransition(PaymentStarted.class, 100L).build();
+        EmittedEventEntity refund = anEmittedEventEntity().withId(2L).withResourceType("refund").withEventType("REFUND_SUBMITTED")
+                .withResourceExternalId("refund-id").withEventDate(EVENT_DATE).withRefundStateTransition(RefundSubmitted.class, REFUND_SUBMITTED).build();
+        Event paymentStarted = new PaymentStarted("service-id", false, 1L, "some-external-id", EVENT_DATE);
+        Event refundSubmitted = new RefundSubmitted("service-id", false, 1L, "refund-id", "some-external-id", null, EVENT_DATE.plusSeconds(1));
+        when(emittedEventDao.claimStateTransitionsToEmit(eq(100), eq(10), any(ZonedDateTime.class))).thenReturn(List.of(payment, refund));
+        when(eventFactory.createEvents(any(StateTransition.class))).thenReturn(List.of(paymentStarted), List.of(refundSubmitted));
+        when(eventQueue.emitEvents(List.of(paymentStarted, refundSubmitted))).thenReturn(List.of());
+
+        assertThat(stateTransitionOutboxProcess.emitPendingStateTransitions(), is(2));
+
+        ArgumentCaptor<StateTransition> stateTransitionCaptor = ArgumentCaptor.forClass(StateTransition.class);
+        verify(eventFactory, times(2)).createEvents(stateTransitionCaptor.capture());
+        PaymentStateTransition paymentStateTransition = (PaymentStateTransition) stateTransitionCaptor.getAllValues().get(0);
+        assertThat(paymentStateTransition.getChargeEventId(), is(100L));
+        assertThat(paymentStateTransition.getStateTransitionEventClass(), is(PaymentStarted.class));
+        RefundStateTransition refundStateTransition = (RefundStateTransition) stateTransitionCaptor.getAllValues().get(1);
+        assertThat(refundStateTransition.getRefundExternalId(), is("refund-id"));
+        assertThat(refundStateTransition.getRefundStatus(), is(REFUND_SUBMITTED));
+
+        verify(emittedEventDao).releaseStateTransitions(idsCaptor.capture(), correctedEventDatesCaptor.capture(),
+                any(Instant.class), retryAfterCaptor.capture());
+        assertThat(idsCaptor.getValue(), contains(1L, 2L));
+        assertThat(correctedEventDatesCaptor.getValue(), is(Map.of(2L, EVENT_DATE.plusSeconds(1))));
+        assertThat(retryAfterCaptor.getValue().isEmpty(), is(true));
+    }
+
+    @Test
+    void shouldScheduleRetryOnlyForRowsWhoseEventsWereNotEmitted() throws Exception {
+        EmittedEventEntity emitted = anEmittedEventEntity().withId(1L).withEventType("PAYMENT_STARTED")
+                .withPaymentStateTransition(PaymentStarted.class, 100L).build();
+        EmittedEventEntity rejected = anEmittedEventEntity().withId(2L).withEventType("PAYMENT_STARTED")
+                .withPaymentStateTransition(PaymentStarted.class, 101L).build();
+        EmittedEventEntity notCreated = anEmittedEventEntity().withId(3L).withEventType("PAYMENT_STARTED")
+                .withPaymentStateTransition(PaymentStarted.class, 102L).build();
+        Event emittedEvent = new PaymentStarted("service-id", false, 1L, "some-external-id", EVENT_DATE);
+        Event rejectedEvent = new PaymentStarted("service-id", false, 1L, "some-external-id", EVENT_DATE);
+        when(emittedEventDao.claimStateTransitionsToEmit(eq(100), eq(10), any(ZonedDateTime.class))).thenReturn(List.of(emitted, rejected, notCreated));
+        when(eventFactory.createEvents(any(StateTransition.class)))
+                .thenReturn(List.of(emittedEvent))
+                .thenReturn(List.of(rejectedEvent))
+                .thenThrow(new EventCreationException("102", "charge event not found"));
+        when(eventQueue.emitEvents(List.of(emittedEvent, rejectedEvent))).thenReturn(List.of(rejectedEvent));
+
+        assertThat(stateTransitionOutboxProcess.emitPendingStateTransitions(), is(3));
+
+        verify(emittedEventDao).releaseStateTransitions(idsCaptor.capture(), correctedEventDatesCaptor.capture(),
+                any(Instant.class), retryAfterCaptor.capture());
+        assertThat(idsCaptor.getValue(), contains(1L));
+        assertThat(retryAfterCaptor.getValue().keySet(), containsInAnyOrder(2L, 3L));
+        assertThat(retryAfterCaptor.getValue().get(2L).toInstant(), is(greaterThan(ZonedDateTime.now().toInstant())));
+    }
+}
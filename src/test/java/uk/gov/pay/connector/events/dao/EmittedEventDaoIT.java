@@ -5,9 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import uk.gov.pay.connector.events.EmittedEventEntity;
 import uk.gov.pay.connector.events.eventdetails.charge.PaymentCreatedEventDetails;
+import uk.gov.pay.connector.events.model.EmittedEventKey;
 import uk.gov.pay.connector.events.model.charge.PaymentCreated;
 import uk.gov.pay.connector.events.model.refund.RefundSubmitted;
+import uk.gov.pay.connector.events.model.ResourceType;
+import uk.gov.pay.connector.events.model.charge.PaymentStarted;
 import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
 
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -15,13 +20,18 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.time.ZoneOffset.UTC;
 import static java.time.temporal.ChronoUnit.MICROS;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static uk.gov.pay.connector.refund.model.domain.RefundStatus.REFUND_SUBMITTED;
 
 public class EmittedEventDaoIT {
     @RegisterExtension
@@ -93,6 +103,30 @@ public class EmittedEventDaoIT {
         assertThat(emittedEventDao.hasBeenEmittedBefore(paymentCreatedEvent), is(true));
     }
 
+    @Test
+    void findEmittedEventKeys_shouldReturnKeysOfEventsRecordedForTheGivenResources() {
+        final PaymentCreated paymentCreatedEvent = aPaymentCreatedEvent();
+        emittedEventDao.recordEmission(paymentCreatedEvent, null);
+        Instant eventDate = Instant.parse("2019-01-01T10:00:00.123456Z");
+        emittedEventDao.recordEmission(ResourceType.PAYMENT, "other-payment", "PAYMENT_STARTED", eventDate, null);
+        emittedEventDao.recordEmission(ResourceType.PAYMENT, "not-asked-for", "PAYMENT_CREATED", eventDate, null);
+        emittedEventDao.recordEmission(ResourceType.REFUND, "other-payment", "REFUND_SUBMITTED", eventDate, null);
+
+        Set<EmittedEventKey> keys = emittedEventDao.findEmittedEventKeys(ResourceType.PAYMENT,
+                List.of(paymentCreatedEvent.getResourceExternalId(), "other-payment"));
+
+        assertThat(keys, containsInAnyOrder(
+                EmittedEventKey.of(paymentCreatedEvent),
+                new EmittedEventKey("payment", "other-payment", "PAYMENT_STARTED", eventDate)));
+    }
+
+    @Test
+    void findEmittedEventKeys_shouldReturnNothingForNoResources() {
+        emittedEventDao.recordEmission(aPaymentCreatedEvent(), null);
+
+        assertThat(emittedEventDao.findEmittedEventKeys(ResourceType.PAYMENT, List.of()), is(empty()));
+    }
+
     @Test
     void recordEmissionWithParameters_shouldRecordEmission() {
         final PaymentCreated eventToRecord = aPaymentCreatedEvent();
@@ -155,11 +189,11 @@ public class EmittedEventDaoIT {
                 paymentCreatedEvent.getEventType(), paymentCreatedEvent.getTimestamp(), null);
 
         Optional<Long> maxId = emittedEventDao.findNotEmittedEventMaxIdOlderThan(Instant.parse("2019-01-01T14:00:01Z"),
-                ZonedDateTime.now(UTC));
+                ZonedDateTime.now(UTC), 0);
         assertThat(maxId.isPresent(), is(true));
 
         List<EmittedEventEntity> notEmittedEvents = emittedEventDao.findNotEmittedEventsOlderThan(
-                Instant.parse("2019-01-01T14:00:01Z"), 1, 0L, Long.MAX_VALUE,  ZonedDateTime.now(UTC));
+                Instant.parse("2019-01-01T14:00:01Z"), 1, 0L, Long.MAX_VALUE, ZonedDateTime.now(UTC), 0);
 
         assertThat(notEmittedEvents.size(), is(1));
         assertThat(notEmittedEvents.getFirst().getEmittedDate(), nullValue());
@@ -168,6 +202,20 @@ public class EmittedEventDaoIT {
         assertThat(notEmittedEvents.getFirst().getResourceType(), is(paymentCreatedEvent.getResourceType().getLowercase()));
     }
 
+    @Test
+    void recordNotPosted_shouldKeepPayloadForTheEmittedEventsSweep() throws Exception {
+        final PaymentCreated paymentCreatedEvent = aPaymentCreatedEvent();
+        emittedEventDao.recordNotPosted(paymentCreatedEvent, paymentCreatedEvent.toJsonString());
+
+        List<EmittedEventEntity> notEmittedEvents = emittedEventDao.findNotEmittedEventsOlderThan(
+                Instant.parse("2019-01-01T14:00:01Z"), 1, 0L, Long.MAX_VALUE, ZonedDateTime.now(UTC), 0);
+
+        assertThat(notEmittedEvents.size(), is(1));
+        assertThat(notEmittedEvents.getFirst().getEmittedDate(), nullValue());
+        assertThat(notEmittedEvents.getFirst().getDoNotRetryEmitUntil(), nullValue());
+        assertThat(notEmittedEvents.getFirst().getEventPayload(), is(paymentCreatedEvent.toJsonString()));
+    }
+
     @Test
     void findNotEmittedEventsOlderThan_shouldNotReturnRecordsWithDoNotRetryEmitUntilValueInFuture() {
         final PaymentCreated paymentCreatedEvent = aPaymentCreatedEvent();
@@ -180,11 +228,11 @@ public class EmittedEventDaoIT {
         emittedEventDao.recordEmission(paymentCreatedEvent.getResourceType(), paymentCreatedEvent.getResourceExternalId(),
                 paymentCreatedEvent.getEventType(), paymentCreatedEvent.getTimestamp(), ZonedDateTime.now(UTC).plusSeconds(120));
 
-        Optional<Long> maxId = emittedEventDao.findNotEmittedEventMaxIdOlderThan(Instant.parse("2019-01-01T14:00:01Z"), ZonedDateTime.now(UTC));
+        Optional<Long> maxId = emittedEventDao.findNotEmittedEventMaxIdOlderThan(Instant.parse("2019-01-01T14:00:01Z"), ZonedDateTime.now(UTC), 0);
         assertThat(maxId.isPresent(), is(true));
 
         List<EmittedEventEntity> notEmittedEvents = emittedEventDao.findNotEmittedEventsOlderThan(
-                Instant.parse("2019-01-01T14:00:01Z"), 2, 0L, Long.MAX_VALUE, ZonedDateTime.now(UTC));
+                Instant.parse("2019-01-01T14:00:01Z"), 2, 0L, Long.MAX_VALUE, ZonedDateTime.now(UTC), 0);
 
         assertThat(notEmittedEvents.size(), is(2));
         assertThat(notEmittedEvents.getFirst().getEmittedDate(), nullValue());
@@ -201,6 +249,124 @@ public class EmittedEventDaoIT {
                 is(Timestamp.from(doNotRetryEmitUntil.toInstant())));
     }
 
+    @Test
+    void recordOfferedStateTransition_shouldRecordWhatIsNeededToRebuildTheEvents() {
+        Instant eventDate = Instant.parse("2019-01-01T14:00:00Z");
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(123L, PaymentStarted.class),
+                ResourceType.PAYMENT, "payment-external-id", "PAYMENT_STARTED", eventDate, null);
+        emittedEventDao.recordOfferedStateTransition(new RefundStateTransition("refund-external-id", REFUND_SUBMITTED, RefundSubmitted.class),
+                ResourceType.REFUND, "refund-external-id", "REFUND_SUBMITTED", eventDate.plusSeconds(1), null);
+
+        List<EmittedEventEntity> toEmit = emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1));
+
+        assertThat(toEmit.size(), is(2));
+        assertThat(toEmit.getFirst().getStateTransitionEventClass(), is(PaymentStarted.class.getName()));
+        assertThat(toEmit.getFirst().getChargeEventId(), is(123L));
+        assertThat(toEmit.getFirst().getEmittedDate(), is(nullValue()));
+        assertThat(toEmit.get(1).getStateTransitionEventClass(), is(RefundSubmitted.class.getName()));
+        assertThat(toEmit.get(1).getRefundStatus(), is(REFUND_SUBMITTED.name()));
+        assertThat(toEmit.get(1).getOutboxAttempts(), is(0));
+    }
+
+    @Test
+    void claimStateTransitionsToEmit_shouldOnlyClaimNotEmittedStateTransitionsThatAreNotAlreadyClaimed() {
+        Instant eventDate = Instant.parse("2019-01-01T14:00:00Z");
+        emittedEventDao.recordEmission(ResourceType.PAYMENT, "without-state-transition", "PAYMENT_STARTED", eventDate, null);
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(1L, PaymentStarted.class),
+                ResourceType.PAYMENT, "first", "PAYMENT_STARTED", eventDate, null);
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(2L, PaymentStarted.class),
+                ResourceType.PAYMENT, "second", "PAYMENT_STARTED", eventDate, null);
+
+        List<EmittedEventEntity> claimed = emittedEventDao.claimStateTransitionsToEmit(1, 10, ZonedDateTime.now(UTC).plusMinutes(1));
+        assertThat(claimed.stream().map(EmittedEventEntity::getResourceExternalId).toList(), contains("first"));
+
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1)).stream()
+                .map(EmittedEventEntity::getResourceExternalId).toList(), contains("second"));
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1)), is(empty()));
+    }
+
+    @Test
+    void claimStateTransitionsToEmit_shouldClaimAgainOnceAClaimHasRunOut() {
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(1L, PaymentStarted.class),
+                ResourceType.PAYMENT, "payment-external-id", "PAYMENT_STARTED", Instant.parse("2019-01-01T14:00:00Z"), null);
+
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).minusSeconds(1)).size(), is(1));
+
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1)).size(), is(1));
+    }
+
+    @Test
+    void claimStateTransitionsToEmit_shouldNotClaimALaterStateTransitionForAResourceUntilTheEarlierOneIsEmitted() {
+        Instant eventDate = Instant.parse("2019-01-01T14:00:00Z");
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(2L, PaymentStarted.class),
+                ResourceType.PAYMENT, "payment-external-id", "PAYMENT_STARTED", eventDate.plusSeconds(1), null);
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(1L, PaymentCreated.class),
+                ResourceType.PAYMENT, "payment-external-id", "PAYMENT_CREATED", eventDate, null);
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(3L, PaymentCreated.class),
+                ResourceType.PAYMENT, "other-external-id", "PAYMENT_CREATED", eventDate, null);
+
+        List<EmittedEventEntity> claimed = emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1));
+        assertThat(claimed.stream().map(EmittedEventEntity::getEventType).toList(), contains("PAYMENT_CREATED", "PAYMENT_CREATED"));
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1)), is(empty()));
+
+        Long paymentCreatedId = claimed.stream().filter(e -> e.getResourceExternalId().equals("payment-external-id"))
+                .findFirst().orElseThrow().getId();
+        emittedEventDao.releaseStateTransitions(List.of(paymentCreatedId), Map.of(), Instant.now(), Map.of());
+
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1)).stream()
+                .map(EmittedEventEntity::getEventType).toList(), contains("PAYMENT_STARTED"));
+    }
+
+    @Test
+    void releaseStateTransitions_shouldRecordEmittedAndFailedStateTransitions() {
+        Instant eventDate = Instant.parse("2019-01-01T14:00:00Z");
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(1L, PaymentStarted.class),
+                ResourceType.PAYMENT, "emitted", "PAYMENT_STARTED", eventDate, null);
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(2L, PaymentStarted.class),
+                ResourceType.PAYMENT, "failed", "PAYMENT_STARTED", eventDate, null);
+        List<EmittedEventEntity> claimed = emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1));
+        Long emittedId = claimed.getFirst().getId();
+        Long failedId = claimed.get(1).getId();
+
+        emittedEventDao.releaseStateTransitions(List.of(emittedId), Map.of(emittedId, eventDate.plusSeconds(1)), Instant.now(),
+                Map.of(failedId, ZonedDateTime.now(UTC).minusSeconds(1)));
+
+        Map<String, Object> emitted = app.getDatabaseTestHelper().readEmittedEvent(emittedId);
+        assertThat(emitted.get("emitted_date"), is(notNullValue()));
+        assertThat(emitted.get("event_date"), is(Timestamp.valueOf("2019-01-01 14:00:01")));
+        assertThat(emitted.get("outbox_claimed_until"), is(nullValue()));
+        Map<String, Object> failed = app.getDatabaseTestHelper().readEmittedEvent(failedId);
+        assertThat(failed.get("emitted_date"), is(nullValue()));
+        assertThat(failed.get("outbox_attempts"), is(1));
+        assertThat(failed.get("outbox_claimed_until"), is(nullValue()));
+
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 10, ZonedDateTime.now(UTC).plusMinutes(1)).stream()
+                .map(EmittedEventEntity::getId).toList(), contains(failedId));
+        assertThat(emittedEventDao.claimStateTransitionsToEmit(10, 1, ZonedDateTime.now(UTC).plusMinutes(1)), is(empty()));
+    }
+
+    @Test
+    void findNotEmittedEventsOlderThan_shouldLeaveStateTransitionsToTheOutboxUntilItsAttemptsAreUsedUp() {
+        Instant eventDate = Instant.parse("2019-01-01T14:00:00Z");
+        emittedEventDao.recordEmission(ResourceType.PAYMENT, "without-state-transition", "PAYMENT_STARTED", eventDate, null);
+        emittedEventDao.recordOfferedStateTransition(new PaymentStateTransition(1L, PaymentStarted.class),
+                ResourceType.PAYMENT, "with-state-transition", "PAYMENT_STARTED", eventDate, null);
+        Instant cutOffDate = Instant.parse("2019-01-01T14:00:01Z");
+
+        assertThat(emittedEventDao.findNotEmittedEventsOlderThan(cutOffDate, 10, 0L, Long.MAX_VALUE, ZonedDateTime.now(UTC), 1)
+                .stream().map(EmittedEventEntity::getResourceExternalId).toList(), contains("without-state-transition"));
+
+        Long stateTransitionId = emittedEventDao.claimStateTransitionsToEmit(10, 1, ZonedDateTime.now(UTC).plusMinutes(1))
+                .getFirst().getId();
+        emittedEventDao.releaseStateTransitions(List.of(), Map.of(), Instant.now(),
+                Map.of(stateTransitionId, ZonedDateTime.now(UTC).plusMinutes(1)));
+
+        assertThat(emittedEventDao.findNotEmittedEventMaxIdOlderThan(cutOffDate, ZonedDateTime.now(UTC), 1), is(Optional.of(stateTransitionId)));
+        assertThat(emittedEventDao.findNotEmittedEventsOlderThan(cutOffDate, 10, 0L, Long.MAX_VALUE, ZonedDateTime.now(UTC), 1)
+                .stream().map(EmittedEventEntity::getResourceExternalId).toList(),
+                containsInAnyOrder("without-state-transition", "with-state-transition"));
+    }
+
     private PaymentCreated aPaymentCreatedEvent() {
         PaymentCreatedEventDetails eventDetails = new PaymentCreatedEventDetails.Builder()
                 .withAmount(1L)
@@ -11,10 +11,13 @@ import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
 import java.time.ZonedDateTime;
+import java.util.OptionalLong;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(DropwizardExtensionsSupport.class)
 class EmittedEventResourceTest {
@@ -62,6 +65,25 @@ class EmittedEventResourceTest {
         assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
     }
 
+    @Test
+    void shouldEmitChargeEventsInBulkUnlessAskedNotTo() {
+        resources.target("/v1/tasks/historical-event-emitter")
+                .queryParam("start_id", 1L)
+                .queryParam("max_id", 10L)
+                .queryParam("resume", true)
+                .request()
+                .post(Entity.json(""));
+        resources.target("/v1/tasks/historical-event-emitter")
+                .queryParam("start_id", 1L)
+                .queryParam("max_id", 10L)
+                .queryParam("bulk", false)
+                .request()
+                .post(Entity.json(""));
+
+        verify(historicalEventEmitterService, timeout(1000)).emitHistoricEventsInBulk(1L, OptionalLong.of(10L), null, true);
+        verify(historicalEventEmitterService, timeout(1000)).emitHistoricEventsById(1L, OptionalLong.of(10L), null);
+    }
+
     @Test
     void shouldReturn400onNonStandardRecordTypes() {
         Response response = resources
@@ -1,5 +1,7 @@
 package uk.gov.pay.connector.expunge.service;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -25,9 +27,15 @@ import uk.gov.pay.connector.tasks.service.ParityCheckService;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -66,10 +74,13 @@ class ChargeExpungeServiceTest {
     private ConnectorConfiguration mockConnectorConfiguration;
     @Mock
     private ParityCheckService parityCheckService;
+    @Mock
+    private Environment mockEnvironment;
 
     private final int minimumAgeOfChargeInDays = 3;
     private final int defaultNumberOfChargesToExpunge = 10;
     private final int defaultExcludeChargesParityCheckedWithInDays = 1;
+    private final int defaultExpungePageSize = 100;
     private ChargeExpungeService chargeExpungeService;
 
     private GatewayAccountEntity testGatewayAccount = aGatewayAccountEntity()
@@ -83,22 +94,47 @@ class ChargeExpungeServiceTest {
     void setUp() {
         when(mockConnectorConfiguration.getExpungeConfig()).thenReturn(mockExpungeConfig);
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
+        lenient().when(mockExpungeConfig.getExpungePageSize()).thenReturn(defaultExpungePageSize);
+        when(mockEnvironment.metrics()).thenReturn(new MetricRegistry());
 
         chargeExpungeService = new ChargeExpungeService(mockChargeDao, mockConnectorConfiguration, parityCheckService,
-                mockChargeService, mockIdempotencyDao, mockTaskQueueService);
+                mockChargeService, mockIdempotencyDao, mockTaskQueueService, mockEnvironment);
     }
 
     @Test
-    void expunge_shouldExpungeNoOfChargesAsPerConfiguration() {
-        ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity().build();
+    void expunge_shouldExpungeNoOfChargesAsPerConfigurationInPagesOrderedById() {
+        ChargeEntity charge1 = ChargeEntityFixture.aValidChargeEntity().withId(1L).withStatus(CAPTURED).build();
+        ChargeEntity charge2 = ChargeEntityFixture.aValidChargeEntity().withId(2L).withStatus(CAPTURED).build();
+        ChargeEntity charge3 = ChargeEntityFixture.aValidChargeEntity().withId(3L).withStatus(CAPTURED).build();
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(2);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 2))
+                .thenReturn(List.of(charge1, charge2));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 2L, 1))
+                .thenReturn(List.of(charge3));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(charge1, charge2))).thenReturn(List.of(charge1, charge2));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(charge3))).thenReturn(List.of(charge3));
+
+        chargeExpungeService.expunge(3);
+
+        verify(mockChargeDao).expungeCharges(Map.of(charge1.getId(), charge1.getExternalId(), charge2.getId(), charge2.getExternalId()));
+        verify(mockChargeDao).expungeCharges(Map.of(charge3.getId(), charge3.getExternalId()));
+        verify(mockChargeDao, times(2)).findChargesToExpunge(eq(minimumAgeOfChargeInDays),
+                eq(defaultExcludeChargesParityCheckedWithInDays), anyLong(), anyInt());
+    }
+
+    @Test
+    void expunge_shouldStopWhenAPageIsNotFull() {
+        ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity().withStatus(CAPTURED).build();
+        when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
+        when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L,
+                defaultNumberOfChargesToExpunge)).thenReturn(List.of(chargeEntity));
 
         chargeExpungeService.expunge(defaultNumberOfChargesToExpunge);
-        verify(mockChargeDao, times(defaultNumberOfChargesToExpunge)).findChargeToExpunge(minimumAgeOfChargeInDays,
-                defaultExcludeChargesParityCheckedWithInDays);
+
+        verify(mockChargeDao, times(1)).findChargesToExpunge(anyInt(), anyInt(), anyLong(), anyInt());
     }
 
     @Test
@@ -114,15 +150,15 @@ class ChargeExpungeServiceTest {
                 .withStatus(CREATED)
                 .withPaymentProvider("worldpay")
                 .build();
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
     }
 
     @Test
@@ -134,15 +170,15 @@ class ChargeExpungeServiceTest {
                 .withGatewayTransactionId("a-gateway-transaction-id")
                 .withCreatedDate(Instant.parse("2022-01-01T11:08:00.000Z"))
                 .build();
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
     }
 
     @Test
@@ -157,14 +193,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
     }
 
     @Test
@@ -179,14 +215,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
     }
 
     @Test
@@ -201,14 +237,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
     }
 
     @Test
@@ -221,14 +257,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
     }
 
     @Test
@@ -241,15 +277,15 @@ class ChargeExpungeServiceTest {
                 .withCreatedDate(Instant.parse("2021-01-01T01:00:00.000Z"))
                 .build();
 
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
     }
 
     @Test
@@ -263,14 +299,14 @@ class ChargeExpungeServiceTest {
                 .build();
 
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
-        when(mockIdempotencyDao.idempotencyExistsByResourceExternalId(resourceId)).thenReturn(true);
+        when(mockIdempotencyDao.findResourceExternalIdsWithIdempotencyRecords(List.of(resourceId))).thenReturn(Set.of(resourceId));
 
         chargeExpungeService.expunge(1);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
-        verify(mockIdempotencyDao).idempotencyExistsByResourceExternalId(resourceId);
+        verify(mockChargeDao, never()).expungeCharges(any());
+        verify(mockIdempotencyDao).findResourceExternalIdsWithIdempotencyRecords(List.of(resourceId));
     }
 
     @Test
@@ -281,14 +317,14 @@ class ChargeExpungeServiceTest {
                 .build();
 
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
 
         chargeExpungeService.expunge(1);
 
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
         verify(mockChargeService, never()).updateChargeParityStatus(any(),any());
     }
 
@@ -301,14 +337,14 @@ class ChargeExpungeServiceTest {
                 .build();
 
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
 
         chargeExpungeService.expunge(1);
 
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
         verify(mockChargeService, never()).updateChargeParityStatus(any(), any());
 
     }
@@ -324,14 +360,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
     }
 
     @Nested
@@ -346,13 +382,13 @@ class ChargeExpungeServiceTest {
             when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
             when(mockExpungeConfig.getMinimumAgeForHistoricChargeExceptions()).thenReturn(90);
             when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-            when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
-            when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                    .thenReturn(Optional.of(chargeEntity));
+            when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
+            when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                    .thenReturn(List.of(chargeEntity));
             when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
             chargeExpungeService.expunge(1);
-            verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+            verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
         }
 
         @Test
@@ -365,12 +401,12 @@ class ChargeExpungeServiceTest {
             when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
             when(mockExpungeConfig.getMinimumAgeForHistoricChargeExceptions()).thenReturn(90);
             when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-            when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                    .thenReturn(Optional.of(chargeEntity));
+            when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                    .thenReturn(List.of(chargeEntity));
             when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
             chargeExpungeService.expunge(1);
-            verify(mockChargeDao, times(0)).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+            verify(mockChargeDao, never()).expungeCharges(any());
         }
     }
 
@@ -385,14 +421,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
         verifyNoInteractions(mockTaskQueueService);
     }
 
@@ -407,14 +443,14 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
         verify(mockTaskQueueService).addQueryAndUpdateChargeInSubmittedStateTask(chargeEntity);
     }
 
@@ -427,13 +463,13 @@ class ChargeExpungeServiceTest {
                 .build();
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity)).thenReturn(Optional.empty());
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 2))
+                .thenReturn(List.of(chargeEntity));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(2);
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
     }
 
 
@@ -450,14 +486,14 @@ class ChargeExpungeServiceTest {
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeForHistoricChargeExceptions()).thenReturn(7);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
 
         verify(mockChargeService).updateChargeParityStatus(chargeEntity.getExternalId(), SKIPPED);
-        verify(mockChargeDao, never()).expungeCharge(any(), any());
+        verify(mockChargeDao, never()).expungeCharges(any());
     }
 
 
@@ -472,12 +508,12 @@ class ChargeExpungeServiceTest {
 
         when(mockExpungeConfig.isExpungeChargesEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
-        when(mockChargeDao.findChargeToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays))
-                .thenReturn(Optional.of(chargeEntity));
-        when(parityCheckService.parityCheckChargeForExpunger(chargeEntity)).thenReturn(true);
+        when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(chargeEntity));
+        when(parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity))).thenReturn(List.of(chargeEntity));
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
 
         chargeExpungeService.expunge(1);
-        verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
+        verify(mockChargeDao).expungeCharges(Map.of(chargeEntity.getId(), chargeEntity.getExternalId()));
     }
 }
@@ -1,5 +1,7 @@
 package uk.gov.pay.connector.expunge.service;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,10 +9,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.config.ExpungeConfig;
-import uk.gov.pay.connector.charge.exception.ChargeNotFoundRuntimeException;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
-import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.model.domain.RefundEntityFixture;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
@@ -18,10 +19,13 @@ import uk.gov.pay.connector.refund.service.RefundService;
 import uk.gov.pay.connector.tasks.service.ParityCheckService;
 
 import java.time.ZonedDateTime;
-import java.util.Optional;
+import java.util.List;
 
 import static java.time.ZoneOffset.UTC;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -38,6 +42,7 @@ class RefundExpungeServiceTest {
     private int minimumAgeOfRefundInDays = 3;
     private int defaultNumberOfRefundsToExpunge = 10;
     private int defaultExcludeRefundsParityCheckedWithInDays = 10;
+    private int defaultExpungePageSize = 100;
 
     @Mock
     private ExpungeConfig mockExpungeConfig;
@@ -46,37 +51,64 @@ class RefundExpungeServiceTest {
     @Mock
     private RefundService mockRefundService;
     @Mock
-    private ChargeService mockChargeService;
+    private ChargeDao mockChargeDao;
     @Mock
     private ConnectorConfiguration mockConnectorConfiguration;
     @Mock
     private ParityCheckService mockParityCheckService;
+    @Mock
+    private Environment mockEnvironment;
 
     @BeforeEach
     public void setUp() {
         when(mockConnectorConfiguration.getExpungeConfig()).thenReturn(mockExpungeConfig);
+        when(mockEnvironment.metrics()).thenReturn(new MetricRegistry());
 
         refundExpungeService = new RefundExpungeService(mockConnectorConfiguration, mockParityCheckService,
-                mockRefundService, mockChargeService, mockRefundDao);
+                mockRefundService, mockChargeDao, mockRefundDao, mockEnvironment);
     }
 
     @Test
-    void expunge_shouldExpungeNoOfRefundsAsPerConfiguration() {
+    void expunge_shouldExpungeNoOfRefundsAsPerConfigurationInPagesOrderedById() {
         when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(2);
+
+        RefundEntity refund1 = RefundEntityFixture.aValidRefundEntity().withId(1L).withStatus(REFUNDED).build();
+        RefundEntity refund2 = RefundEntityFixture.aValidRefundEntity().withId(2L).withStatus(REFUNDED).build();
+        RefundEntity refund3 = RefundEntityFixture.aValidRefundEntity().withId(3L).withStatus(REFUNDED).build();
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 0L, 2))
+                .thenReturn(List.of(refund1, refund2));
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 2L, 1))
+                .thenReturn(List.of(refund3));
+        when(mockParityCheckService.parityCheckRefundsForExpunger(List.of(refund1, refund2))).thenReturn(List.of(refund1, refund2));
+        when(mockParityCheckService.parityCheckRefundsForExpunger(List.of(refund3))).thenReturn(List.of(refund3));
+
+        refundExpungeService.expunge(3);
+
+        verify(mockRefundDao).expungeRefunds(List.of(refund1.getExternalId(), refund2.getExternalId()));
+        verify(mockRefundDao).expungeRefunds(List.of(refund3.getExternalId()));
+        verify(mockRefundDao, times(2)).findRefundsToExpunge(eq(minimumAgeOfRefundInDays),
+                eq(defaultExcludeRefundsParityCheckedWithInDays), anyLong(), anyInt());
+    }
+
+    @Test
+    void expunge_shouldStopWhenAPageIsNotFull() {
+        when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
+        when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
+        when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(defaultExpungePageSize);
+
+        RefundEntity refundEntity = RefundEntityFixture.aValidRefundEntity().withStatus(REFUNDED).build();
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 0L,
+                defaultNumberOfRefundsToExpunge)).thenReturn(List.of(refundEntity));
+        when(mockParityCheckService.parityCheckRefundsForExpunger(List.of(refundEntity))).thenReturn(List.of(refundEntity));
 
-        RefundEntity refundEntity = RefundEntityFixture.aValidRefundEntity()
-                .withStatus(REFUNDED).build();
-        when(mockParityCheckService.parityCheckRefundForExpunger(any())).thenReturn(true);
-        when(mockRefundDao.findRefundToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays))
-                .thenReturn(Optional.of(refundEntity));
-        when(mockChargeService.findChargeByExternalId(refundEntity.getChargeExternalId())).thenThrow(ChargeNotFoundRuntimeException.class);
         refundExpungeService.expunge(defaultNumberOfRefundsToExpunge);
 
-        verify(mockRefundDao, times(defaultNumberOfRefundsToExpunge)).expungeRefund(any());
-        verify(mockRefundDao, times(defaultNumberOfRefundsToExpunge)).findRefundToExpunge(minimumAgeOfRefundInDays,
-                defaultExcludeRefundsParityCheckedWithInDays);
+        verify(mockRefundDao).expungeRefunds(List.of(refundEntity.getExternalId()));
+        verify(mockRefundDao, times(1)).findRefundsToExpunge(anyInt(), anyInt(), anyLong(), anyInt());
     }
 
     @Test
@@ -84,18 +116,18 @@ class RefundExpungeServiceTest {
         when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(defaultExpungePageSize);
 
         RefundEntity refundEntity = RefundEntityFixture.aValidRefundEntity()
                 .withCreatedDate(ZonedDateTime.now(UTC).minusDays(20))
                 .withStatus(REFUND_SUBMITTED).build();
-        when(mockRefundDao.findRefundToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays))
-                .thenReturn(Optional.of(refundEntity));
-        when(mockChargeService.findChargeByExternalId(refundEntity.getChargeExternalId())).thenThrow(ChargeNotFoundRuntimeException.class);
-        when(mockParityCheckService.parityCheckRefundForExpunger(refundEntity)).thenReturn(true);
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(refundEntity));
+        when(mockParityCheckService.parityCheckRefundsForExpunger(List.of(refundEntity))).thenReturn(List.of(refundEntity));
 
         refundExpungeService.expunge(1);
 
-        verify(mockRefundDao).expungeRefund(refundEntity.getExternalId());
+        verify(mockRefundDao).expungeRefunds(List.of(refundEntity.getExternalId()));
     }
 
     @Test
@@ -111,17 +143,17 @@ class RefundExpungeServiceTest {
         when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(defaultExpungePageSize);
 
         RefundEntity refundEntity = RefundEntityFixture.aValidRefundEntity()
                 .withStatus(REFUND_SUBMITTED).build();
-        when(mockRefundDao.findRefundToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays))
-                .thenReturn(Optional.of(refundEntity));
-        when(mockChargeService.findChargeByExternalId(refundEntity.getChargeExternalId())).thenThrow(ChargeNotFoundRuntimeException.class);
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(refundEntity));
 
         refundExpungeService.expunge(1);
 
         verify(mockRefundService).updateRefundParityStatus(refundEntity.getExternalId(), SKIPPED);
-        verify(mockRefundDao, never()).expungeRefund(any());
+        verify(mockRefundDao, never()).expungeRefunds(any());
     }
 
     @Test
@@ -129,19 +161,20 @@ class RefundExpungeServiceTest {
         when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(defaultExpungePageSize);
 
         ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity().build();
         RefundEntity refundEntity = RefundEntityFixture.aValidRefundEntity()
                 .withChargeExternalId(chargeEntity.getExternalId())
                 .withStatus(REFUND_SUBMITTED).build();
-        when(mockRefundDao.findRefundToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays))
-                .thenReturn(Optional.of(refundEntity));
-        when(mockChargeService.findChargeByExternalId(refundEntity.getChargeExternalId())).thenReturn(chargeEntity);
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(refundEntity));
+        when(mockChargeDao.findExistingExternalIds(List.of(chargeEntity.getExternalId()))).thenReturn(List.of(chargeEntity.getExternalId()));
 
         refundExpungeService.expunge(1);
 
         verify(mockRefundService).updateRefundParityStatus(refundEntity.getExternalId(), SKIPPED);
-        verify(mockRefundDao, never()).expungeRefund(any());
+        verify(mockRefundDao, never()).expungeRefunds(any());
     }
 
     @Test
@@ -149,16 +182,16 @@ class RefundExpungeServiceTest {
         when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
         when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
         when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+        when(mockExpungeConfig.getExpungePageSize()).thenReturn(defaultExpungePageSize);
 
         RefundEntity refundEntity = RefundEntityFixture.aValidRefundEntity()
                 .withStatus(REFUNDED).build();
-        when(mockRefundDao.findRefundToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays))
-                .thenReturn(Optional.of(refundEntity));
-        when(mockChargeService.findChargeByExternalId(refundEntity.getChargeExternalId())).thenThrow(ChargeNotFoundRuntimeException.class);
-        when(mockParityCheckService.parityCheckRefundForExpunger(refundEntity)).thenReturn(false);
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays, 0L, 1))
+                .thenReturn(List.of(refundEntity));
+        when(mockParityCheckService.parityCheckRefundsForExpunger(List.of(refundEntity))).thenReturn(List.of());
 
         refundExpungeService.expunge(1);
 
-        verify(mockRefundDao, never()).expungeRefund(any());
+        verify(mockRefundDao, never()).expungeRefunds(any());
     }
 }
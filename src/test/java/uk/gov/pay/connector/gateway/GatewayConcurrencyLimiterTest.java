@@ -0,0 +1,84 @@
+package uk.gov.pay.connector.gateway;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.GatewayConcurrencyLimitConfig;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(30);
+
+    @Mock
+    private GatewayConcurrencyLimitConfig config;
+
+    private GatewayConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getInitialLimit()).thenReturn(4);
+        when(config.getMinimumLimit()).thenReturn(2);
+        when(config.getMaximumLimit()).thenReturn(5);
+        when(config.getBackoffRatio()).thenReturn(0.5);
+        when(config.getSlowResponseThresholdInMilliseconds()).thenReturn(20000L);
+        limiter = new GatewayConcurrencyLimiter(config);
+    }
+
+    @Test
+    void shouldRejectRequestsOnceLimitIsInFlight() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+
+        assertThat(limiter.tryAcquire(), is(false));
+        assertThat(limiter.getInFlight(), is(4));
+    }
+
+    @Test
+    void shouldRaiseLimitWhenBusyRequestsCompletePromptly() {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit(), is(5));
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit(), is(5));
+    }
+
+    @Test
+    void shouldNotRaiseLimitWhenMostOfItIsUnused() {
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit(), is(4));
+    }
+
+    @Test
+    void shouldCutLimitWhenRequestsAreSlowOrDropped() {
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+
+        assertThat(limiter.getLimit(), is(2));
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+
+        assertThat(limiter.getLimit(), is(2));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+}
@@ -0,0 +1,81 @@
+package uk.gov.pay.connector.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.gateway.stripe.json.StripePaymentIntent;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayQueryResponse;
+import uk.gov.pay.connector.util.JsonObjectMapper;
+import uk.gov.pay.connector.util.TestTemplateResourceLoader;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_AUTHORISED_INQUIRY_RESPONSE;
+
+/**
+ * Compares parsing gateway responses straight from the bytes received with the previous approach of decoding them
+ * into a string first, which for XML was then encoded back into bytes. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=uk.gov.pay.connector.gateway.GatewayResponseParsingBenchmark}
+ * and add {@code -prof gc} to the JMH options to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GatewayResponseParsingBenchmark {
+
+    private final JsonObjectMapper jsonObjectMapper = new JsonObjectMapper(new ObjectMapper());
+    private byte[] worldpayInquiryResponse;
+    private byte[] stripePaymentIntentResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        worldpayInquiryResponse = TestTemplateResourceLoader.load(WORLDPAY_AUTHORISED_INQUIRY_RESPONSE).getBytes(UTF_8);
+        stripePaymentIntentResponse = TestTemplateResourceLoader.load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8);
+        XMLUnmarshaller.warmUp(WorldpayQueryResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayQueryResponse worldpayInquiryFromBytes() throws Exception {
+        return XMLUnmarshaller.unmarshall(worldpayInquiryResponse, WorldpayQueryResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayQueryResponse worldpayInquiryViaString() throws Exception {
+        return XMLUnmarshaller.unmarshall(new String(worldpayInquiryResponse, UTF_8), WorldpayQueryResponse.class);
+    }
+
+    @Benchmark
+    public StripePaymentIntent stripePaymentIntentFromBytes() {
+        return jsonObjectMapper.getObject(stripePaymentIntentResponse, StripePaymentIntent.class);
+    }
+
+    @Benchmark
+    public StripePaymentIntent stripePaymentIntentViaString() {
+        return jsonObjectMapper.getObject(new String(stripePaymentIntentResponse, UTF_8), StripePaymentIntent.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(GatewayResponseParsingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
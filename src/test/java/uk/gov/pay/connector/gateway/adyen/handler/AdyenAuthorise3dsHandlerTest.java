@@ -24,6 +24,7 @@ import uk.gov.pay.connector.util.JsonObjectMapper;
 
 import java.util.Optional;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
@@ -70,7 +71,7 @@ class AdyenAuthorise3dsHandlerTest {
     @Test
     void should_send_a_authorise3ds_request_with_api_key_and_idempotency_key_headers() throws GatewayException.GatewayErrorException, GatewayException.GenericGatewayException, GatewayException.GatewayConnectionTimeoutException {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn(successResponse("Authorised"));
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn(successResponse("Authorised").getBytes(UTF_8));
         var request = buildRequestWith("eyJ0cmFuc1N0YXR1cyI6IlkifQ==");
 
         adyenAuthorise3dsHandler.authorise3dsResponse(request);
@@ -84,7 +85,7 @@ class AdyenAuthorise3dsHandlerTest {
     @Test
     void should_send_redirect_result_to_adyen_payments_details_endpoint() throws Exception {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn(successResponse("Authorised"));
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn(successResponse("Authorised").getBytes(UTF_8));
         var request = buildRequestWith("eyJ0cmFuc1N0YXR1cyI6IlkifQ==");
 
         adyenAuthorise3dsHandler.authorise3dsResponse(request);
@@ -105,7 +106,7 @@ class AdyenAuthorise3dsHandlerTest {
     })
     void should_map_adyen_result_code_to_authorisation_status(String resultCode, BaseAuthoriseResponse.AuthoriseStatus expectedStatus) throws Exception {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn(successResponse(resultCode));
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn(successResponse(resultCode).getBytes(UTF_8));
 
         var response = adyenAuthorise3dsHandler.authorise3dsResponse(buildRequestWith("redirect-result"));
 
@@ -118,13 +119,13 @@ class AdyenAuthorise3dsHandlerTest {
     @Test
     void should_map_null_result_code_to_authorisation_status_error() throws Exception {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn(
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn(
                 """
                         {
                           "pspReference": "adyen-3ds-psp-reference",
                           "resultCode": null
                         }
-                        """
+                        """.getBytes(UTF_8)
         );
 
         var response = adyenAuthorise3dsHandler.authorise3dsResponse(buildRequestWith("redirect-result"));
@@ -192,7 +193,7 @@ class AdyenAuthorise3dsHandlerTest {
     @Test
     void should_return_gateway_rejection_reason_when_3ds_authorisation_is_refused() throws Exception {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn(
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn(
                 """
                         {
                           "pspReference": "adyen-3ds-psp-reference",
@@ -200,7 +201,7 @@ class AdyenAuthorise3dsHandlerTest {
                           "refusalReason": "Expired Card",
                           "refusalReasonCode": "6"
                         }
-                        """
+                        """.getBytes(UTF_8)
         );
 
         var response = adyenAuthorise3dsHandler.authorise3dsResponse(buildRequestWith("redirect-result"));
@@ -211,7 +212,7 @@ class AdyenAuthorise3dsHandlerTest {
     @Test
     void should_not_return_gateway_rejection_reason_when_3ds_authorisation_is_authorised() throws Exception {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn(
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn(
                 """
                         {
                           "pspReference": "adyen-3ds-psp-reference",
@@ -219,7 +220,7 @@ class AdyenAuthorise3dsHandlerTest {
                           "refusalReasonCode": "0",
                            "refusalReason": "Authorised"
                         }
-                        """
+                        """.getBytes(UTF_8)
         );
 
         var response = adyenAuthorise3dsHandler.authorise3dsResponse(
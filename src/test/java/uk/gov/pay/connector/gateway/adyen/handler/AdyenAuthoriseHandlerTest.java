@@ -38,6 +38,7 @@ import uk.gov.pay.connector.util.JsonObjectMapper;
 import java.util.Map;
 
 import static com.jayway.jsonpath.matchers.JsonPathMatchers.hasNoJsonPath;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -348,13 +349,13 @@ class AdyenAuthoriseHandlerTest {
 
     private void givenAdyenReturnsASuccessResponse() throws GatewayException.GenericGatewayException, GatewayException.GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
         when(mockClient.postRequestFor(any())).thenReturn(mockGatewayClientResponse);
-        when(mockGatewayClientResponse.getEntity()).thenReturn("""
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn("""
                 {
                   "pspReference": "adyen-PSP-reference",
                   "resultCode": "Authorised",
                   "merchantReference": "merchant-reference"
                 }
-                """);
+                """.getBytes(UTF_8));
     }
 
     private void givenAdyenReturnsAnUnexpectedResponse() throws GatewayException.GenericGatewayException, GatewayException.GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
@@ -36,6 +36,7 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.util.JsonObjectMapper;
 import uk.gov.service.payments.logging.LoggingKeys;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasItems;
@@ -358,8 +359,8 @@ class AdyenCancelHandlerTest {
 
     private void givenGatewayClientWillReturnResponseWithBody(String response) throws GatewayException {
         var mockGatewayClientResponse = mock(GatewayClient.Response.class);
-        given(mockGatewayClientResponse.getEntity())
-                .willReturn(response);
+        given(mockGatewayClientResponse.getEntityBytes())
+                .willReturn(response.getBytes(UTF_8));
         given(mockGatewayClient.postRequestFor(any()))
                 .willReturn(mockGatewayClientResponse);
     }
@@ -22,6 +22,7 @@ import uk.gov.pay.connector.gateway.model.request.CaptureGatewayRequest;
 import uk.gov.pay.connector.gateway.model.request.GatewayClientPostRequest;
 import uk.gov.pay.connector.util.JsonObjectMapper;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
@@ -175,7 +176,7 @@ class AdyenCaptureHandlerTest {
     }
 
     private void givenAdyenReturnsASuccessResponse() {
-        when(mockGatewayClientResponse.getEntity()).thenReturn("""
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn("""
                 {
                    "merchantAccount": "gov merchant account",
                    "paymentPspReference": "gateway-transaction-id",
@@ -186,7 +187,7 @@ class AdyenCaptureHandlerTest {
                      "currency": "GBP"
                    }
                  }
-                """);
+                """.getBytes(UTF_8));
     }
 
     private GatewayException errorFromAdyen(String errorMessage, String responseBody, int status) {
@@ -28,6 +28,7 @@ import uk.gov.pay.connector.util.JsonObjectMapper;
 
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
@@ -233,14 +234,14 @@ class AdyenRefundHandlerTest {
     }
 
     private void givenAdyenReturnsSuccessfulRefundResponse() {
-        when(mockGatewayClientResponse.getEntity()).thenReturn("""
+        when(mockGatewayClientResponse.getEntityBytes()).thenReturn("""
                 {
                     "merchantAccount": "GovernmentDigitalService_UK",
                     "paymentPspReference": "%s",
                     "pspReference": "%s",
                     "reference": "%s",
                     "status": "received"
-                }""".formatted(PAYMENT_PSP_REFERENCE, REFUND_PSP_REFERENCE, REFUND_EXTERNAL_ID));
+                }""".formatted(PAYMENT_PSP_REFERENCE, REFUND_PSP_REFERENCE, REFUND_EXTERNAL_ID).getBytes(UTF_8));
     }
 
     private RefundGatewayRequest buildRefundGatewayRequest(long amount) {
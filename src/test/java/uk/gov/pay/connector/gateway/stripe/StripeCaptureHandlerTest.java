@@ -32,6 +32,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hc.core5.http.HttpStatus.SC_UNAUTHORIZED;
 import static org.eclipse.jetty.http.HttpStatus.INTERNAL_SERVER_ERROR_500;
 import static org.hamcrest.CoreMatchers.containsString;
@@ -197,11 +198,11 @@ class StripeCaptureHandlerTest {
     @Test
     void shouldCaptureWithoutFee_ifCollectFeeSetToFalse() throws Exception {
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
 
         GatewayClient.Response gatewayTransferResponse = mock(GatewayClient.Response.class);
-        when(gatewayTransferResponse.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(gatewayTransferResponse.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeTransferOutRequest.class))).thenReturn(gatewayTransferResponse);
 
         when(stripeGatewayConfig.isCollectFee()).thenReturn(false);
@@ -243,7 +244,7 @@ class StripeCaptureHandlerTest {
     @Test
     void shouldNotCaptureIfPaymentProviderReturns4XXOnTransfer() throws Exception {
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
 
         String errorMessage = load(STRIPE_ERROR_RESPONSE).replace("{{code}}", "resource_missing");
@@ -272,11 +273,11 @@ class StripeCaptureHandlerTest {
                 .build();
 
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripePaymentIntentCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
 
         GatewayClient.Response gatewayTransferResponse = mock(GatewayClient.Response.class);
-        when(gatewayTransferResponse.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(gatewayTransferResponse.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeTransferOutRequest.class))).thenReturn(gatewayTransferResponse);
 
         CaptureResponse response = stripeCaptureHandler.capture(CaptureGatewayRequest.valueOf(chargeEntity));
@@ -288,7 +289,7 @@ class StripeCaptureHandlerTest {
     @Test
     void shouldNotCaptureIfPaymentProviderReturns5XXOnTransfer() throws Exception {
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
 
         GatewayErrorException exception = new GatewayErrorException("uh oh", "Problem with Stripe servers", INTERNAL_SERVER_ERROR_500);
@@ -305,7 +306,7 @@ class StripeCaptureHandlerTest {
     @Test
     void shouldFailWhenCannotResolveStripeFee() throws Exception {
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_WITHOUT_BALANCE_TRANSACTION_EXPANDED));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_WITHOUT_BALANCE_TRANSACTION_EXPANDED).getBytes(UTF_8));
 
         when(gatewayClient.postRequestFor(any(StripeCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
 
@@ -320,7 +321,7 @@ class StripeCaptureHandlerTest {
     @Test
     void shouldFailWhenPaymentIntentHasMultipleCharges() throws Exception {
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_GET_PAYMENT_INTENT_WITH_MULTIPLE_CHARGES));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_GET_PAYMENT_INTENT_WITH_MULTIPLE_CHARGES).getBytes(UTF_8));
 
         when(gatewayClient.postRequestFor(any(StripeCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
 
@@ -436,11 +437,11 @@ class StripeCaptureHandlerTest {
                 .build();
 
         GatewayClient.Response gatewayGetPaymentIntentResponse = mock(GatewayClient.Response.class);
-        when(gatewayGetPaymentIntentResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayGetPaymentIntentResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeGetPaymentIntentRequest.class))).thenReturn(gatewayGetPaymentIntentResponse);
 
         GatewayClient.Response gatewaySearchTransactionsResponse = mock(GatewayClient.Response.class);
-        when(gatewaySearchTransactionsResponse.getEntity()).thenReturn(load(STRIPE_SEARCH_TRANSFERS_FOR_CAPTURED_PAYMENT_RESPONSE));
+        when(gatewaySearchTransactionsResponse.getEntityBytes()).thenReturn(load(STRIPE_SEARCH_TRANSFERS_FOR_CAPTURED_PAYMENT_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeSearchTransfersRequest.class))).thenReturn(gatewaySearchTransactionsResponse);
 
         CaptureResponse response = stripeCaptureHandler.capture(CaptureGatewayRequest.valueOf(chargeEntity));
@@ -481,15 +482,15 @@ class StripeCaptureHandlerTest {
                 .build();
 
         GatewayClient.Response gatewayGetPaymentIntentResponse = mock(GatewayClient.Response.class);
-        when(gatewayGetPaymentIntentResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayGetPaymentIntentResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeGetPaymentIntentRequest.class))).thenReturn(gatewayGetPaymentIntentResponse);
 
         GatewayClient.Response gatewaySearchTransactionsResponse = mock(GatewayClient.Response.class);
-        when(gatewaySearchTransactionsResponse.getEntity()).thenReturn(load(STRIPE_SEARCH_TRANSFERS_EMPTY_RESPONSE));
+        when(gatewaySearchTransactionsResponse.getEntityBytes()).thenReturn(load(STRIPE_SEARCH_TRANSFERS_EMPTY_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeSearchTransfersRequest.class))).thenReturn(gatewaySearchTransactionsResponse);
 
         GatewayClient.Response gatewayTransferResponse = mock(GatewayClient.Response.class);
-        when(gatewayTransferResponse.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(gatewayTransferResponse.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeTransferOutRequest.class))).thenReturn(gatewayTransferResponse);
         
         CaptureResponse response = stripeCaptureHandler.capture(CaptureGatewayRequest.valueOf(chargeEntity));
@@ -525,15 +526,15 @@ class StripeCaptureHandlerTest {
                 .build();
 
         GatewayClient.Response gatewayGetPaymentIntentResponse = mock(GatewayClient.Response.class);
-        when(gatewayGetPaymentIntentResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayGetPaymentIntentResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeGetPaymentIntentRequest.class))).thenReturn(gatewayGetPaymentIntentResponse);
 
         GatewayClient.Response gatewaySearchTransactionsResponse = mock(GatewayClient.Response.class);
-        when(gatewaySearchTransactionsResponse.getEntity()).thenReturn(load(STRIPE_SEARCH_TRANSFERS_EMPTY_RESPONSE));
+        when(gatewaySearchTransactionsResponse.getEntityBytes()).thenReturn(load(STRIPE_SEARCH_TRANSFERS_EMPTY_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeSearchTransfersRequest.class))).thenReturn(gatewaySearchTransactionsResponse);
 
         GatewayClient.Response gatewayTransferResponse = mock(GatewayClient.Response.class);
-        when(gatewayTransferResponse.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(gatewayTransferResponse.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeTransferOutRequest.class))).thenReturn(gatewayTransferResponse);
 
         CaptureResponse response = stripeCaptureHandler.capture(CaptureGatewayRequest.valueOf(chargeEntity));
@@ -570,9 +571,9 @@ class StripeCaptureHandlerTest {
     private void mockStripeCaptureAndTransfer() throws GatewayException.GenericGatewayException, GatewayErrorException,
             GatewayException.GatewayConnectionTimeoutException {
         GatewayClient.Response gatewayCaptureResponse = mock(GatewayClient.Response.class);
-        when(gatewayCaptureResponse.getEntity()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE));
+        when(gatewayCaptureResponse.getEntityBytes()).thenReturn(load(STRIPE_PAYMENT_INTENT_CAPTURE_SUCCESS_RESPONSE).getBytes(UTF_8));
         GatewayClient.Response gatewayTransferResponse = mock(GatewayClient.Response.class);
-        when(gatewayTransferResponse.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(gatewayTransferResponse.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
 
         when(gatewayClient.postRequestFor(any(StripeCaptureRequest.class))).thenReturn(gatewayCaptureResponse);
         when(gatewayClient.postRequestFor(any(StripeTransferOutRequest.class))).thenReturn(gatewayTransferResponse);
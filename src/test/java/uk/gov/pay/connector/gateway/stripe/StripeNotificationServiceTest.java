@@ -20,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.StripeGatewayConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusChangeNotifier;
 import uk.gov.pay.connector.gateway.model.Auth3dsResult;
 import uk.gov.pay.connector.gateway.stripe.json.StripePayout;
 import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsService;
@@ -37,6 +38,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -117,6 +121,8 @@ class StripeNotificationServiceTest {
     private final String webhookTestSigningSecret = "whtest";
     private final String webhookLiveSigningSecret = "whlive";
 
+    private final ChargeStatusChangeNotifier chargeStatusChangeNotifier = new ChargeStatusChangeNotifier();
+
     @BeforeEach
     void setup() {
         StripeAccountUpdatedHandler stripeAccountUpdatedHandler = new StripeAccountUpdatedHandler(mockGatewayAccountCredentialsService, objectMapper);
@@ -131,7 +137,8 @@ class StripeNotificationServiceTest {
                 new IpAddressMatcher(new InetAddressValidator()),
                 ALLOWED_IP_ADDRESSES,
                 objectMapper,
-                mockTaskQueueService);
+                mockTaskQueueService,
+                chargeStatusChangeNotifier);
 
         lenient().when(stripeGatewayConfig.getWebhookSigningSecrets()).thenReturn(List.of(webhookLiveSigningSecret, webhookTestSigningSecret));
     }
@@ -458,6 +465,32 @@ class StripeNotificationServiceTest {
         verify(mockCard3dsResponseAuthService).process3DSecureAuthorisationWithoutLocking(externalId, getAuth3dsResult(Auth3dsResult.Auth3dsResultOutcome.DECLINED));
     }
 
+    @Test
+    void shouldStopWaitingAsSoonAsChargeIsUpdatedTo3DSReady() {
+        setUpCharge();
+        setUpChargeServiceToReturnCharge();
+        final String payload = sampleStripeNotification(STRIPE_NOTIFICATION_PAYMENT_INTENT,
+                sourceId, PAYMENT_INTENT_PAYMENT_FAILED);
+        when(stripeGatewayConfig.getNotification3dsWaitDelay()).thenReturn(3000);
+        when(mockChargeService.findChargeByExternalId(anyString())).thenReturn(mockCharge);
+
+        ScheduledExecutorService frontend = Executors.newSingleThreadScheduledExecutor();
+        frontend.scheduleAtFixedRate(() -> chargeStatusChangeNotifier.statusChanged(externalId, AUTHORISATION_3DS_READY),
+                100, 50, TimeUnit.MILLISECONDS);
+        try {
+            Instant instantBeforeInvocation = Instant.now();
+            final boolean result = notificationService.handleNotificationFor(payload, signPayload(payload), FORWARDED_IP_ADDRESSES);
+            Instant instantAfterInvocation = Instant.now();
+            assertTrue(instantAfterInvocation.isBefore(instantBeforeInvocation.plusMillis(1000)));
+
+            assertTrue(result);
+            verify(mockChargeService, times(1)).findChargeByExternalId(externalId);
+            verify(mockCard3dsResponseAuthService).process3DSecureAuthorisationWithoutLocking(externalId, getAuth3dsResult(Auth3dsResult.Auth3dsResultOutcome.DECLINED));
+        } finally {
+            frontend.shutdownNow();
+        }
+    }
+
     @Test
     void shouldThrowException_WhenSignatureIsInvalid() {
         final String payload = "invalid-payload";
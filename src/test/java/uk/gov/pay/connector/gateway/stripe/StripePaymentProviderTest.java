@@ -39,6 +39,7 @@ import uk.gov.pay.connector.util.JsonObjectMapper;
 import uk.gov.pay.connector.util.RandomIdGenerator;
 import java.util.List;
 import java.util.Map;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -213,7 +214,7 @@ class StripePaymentProviderTest {
             when(gatewayConfig.getPlatformAccountId()).thenReturn(stripePlatformAccountId);
 
             GatewayClient.Response response = mock(GatewayClient.Response.class);
-            when(response.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+            when(response.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
             when(gatewayClient.postRequestFor(any(StripeTransferInRequest.class))).thenReturn(response);
 
             provider.transferDisputeAmount(stripeDisputeData, charge, gatewayAccountEntity, chargeEntity.getGatewayAccountCredentialsEntity(), 8000L);
@@ -27,6 +27,7 @@ import uk.gov.pay.connector.util.JsonObjectMapper;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.eclipse.jetty.http.HttpStatus.INTERNAL_SERVER_ERROR_500;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -174,7 +175,7 @@ class StripeRefundHandlerTest {
 
     private void mockRefundSuccess() throws GatewayException.GenericGatewayException, GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
         GatewayClient.Response response = mock(GatewayClient.Response.class);
-        when(response.getEntity()).thenReturn(load(STRIPE_REFUND_FULL_CHARGE_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(STRIPE_REFUND_FULL_CHARGE_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeRefundRequest.class))).thenReturn(response);
     }
 
@@ -191,7 +192,7 @@ class StripeRefundHandlerTest {
 
     private void mockTransferSuccess() throws GatewayException.GenericGatewayException, GatewayErrorException, GatewayException.GatewayConnectionTimeoutException {
         GatewayClient.Response gatewayTransferResponse = mock(GatewayClient.Response.class);
-        when(gatewayTransferResponse.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(gatewayTransferResponse.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeTransferInRequest.class))).thenReturn(gatewayTransferResponse);
     }
 
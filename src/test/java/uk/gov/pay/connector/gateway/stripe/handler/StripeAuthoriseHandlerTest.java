@@ -45,6 +45,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -121,8 +122,8 @@ public class StripeAuthoriseHandlerTest {
         void shouldAuthoriseImmediately_whenPaymentIntentReturnsAsRequiresCapture() throws Exception {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
-            when(paymentIntentsResponse.getEntity()).thenReturn(successCreatePaymentIntentsResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(successCreatePaymentIntentsResponse().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             gatewayAccount.setIntegrationVersion3ds(2);
@@ -141,8 +142,8 @@ public class StripeAuthoriseHandlerTest {
         void shouldAuthorise_ForAddressInUs() throws Exception {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
-            when(paymentIntentsResponse.getEntity()).thenReturn(successCreatePaymentIntentsResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(successCreatePaymentIntentsResponse().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             gatewayAccount.setIntegrationVersion3ds(2);
@@ -161,9 +162,9 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripeCustomerRequest.class))).thenReturn(customerResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
-            when(customerResponse.getEntity()).thenReturn(successCreateCustomerResponse());
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
-            when(paymentIntentsResponse.getEntity()).thenReturn(successCreatePaymentIntentResponseWithCustomer());
+            when(customerResponse.getEntityBytes()).thenReturn(successCreateCustomerResponse().getBytes(UTF_8));
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(successCreatePaymentIntentResponseWithCustomer().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             ChargeEntity charge = buildTestChargeToSetUpAgreement(gatewayAccount, agreementDescription);
@@ -186,8 +187,8 @@ public class StripeAuthoriseHandlerTest {
 
         @Test
         void shouldSetAs3DSRequired_whenPaymentIntentReturnsWithRequiresAction() throws Exception {
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
-            when(paymentIntentsResponse.getEntity()).thenReturn(requires3DSCreatePaymentIntentsResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(requires3DSCreatePaymentIntentsResponse().getBytes(UTF_8));
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
 
@@ -211,7 +212,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayConnectionTimeoutException("jakarta.ws.rs.ProcessingException: java.io.IOException"));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestCharge();
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -228,7 +229,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse("card_error"), 400));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestCharge();
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -248,7 +249,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse("invalid_request_error", "card_decline_rate_limit_exceeded"), 400));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestCharge();
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -268,7 +269,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse("invalid_request_error"), 400));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestCharge();
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -288,7 +289,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse("api_error"), 400));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestCharge();
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -319,7 +320,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse(), 500));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestCharge();
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -336,7 +337,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripePaymentMethodRequest.class))).thenReturn(paymentMethodResponse);
             when(gatewayClient.postRequestFor(any(StripeCustomerRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse(), 500));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestChargeToSetUpAgreement(buildTestGatewayAccountEntity(), "agreement description");
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -354,8 +355,8 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripeCustomerRequest.class))).thenReturn(customerResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse(), 500));
-            when(paymentMethodResponse.getEntity()).thenReturn(successCreatePaymentMethodResponse());
-            when(customerResponse.getEntity()).thenReturn(successCreateCustomerResponse());
+            when(paymentMethodResponse.getEntityBytes()).thenReturn(successCreatePaymentMethodResponse().getBytes(UTF_8));
+            when(customerResponse.getEntityBytes()).thenReturn(successCreateCustomerResponse().getBytes(UTF_8));
 
             ChargeEntity charge = buildTestChargeToSetUpAgreement(buildTestGatewayAccountEntity(), "agreement description");
             GatewayResponse<BaseAuthoriseResponse> authoriseResponse = handler.authorise(buildTestAuthorisationRequest(charge));
@@ -374,7 +375,7 @@ public class StripeAuthoriseHandlerTest {
         void shouldAuthoriseUserNotPresentPayment() throws Exception {
 
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
-            when(paymentIntentsResponse.getEntity()).thenReturn(successCreatePaymentIntentResponseWithCustomer());
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(successCreatePaymentIntentResponseWithCustomer().getBytes(UTF_8));
             ChargeEntity charge = buildTestAuthorisationModeAgreementCharge();
             RecurringPaymentAuthorisationGatewayRequest authRequest = RecurringPaymentAuthorisationGatewayRequest.valueOf(charge);
             GatewayResponse<BaseAuthoriseResponse> response = handler.authoriseUserNotPresent(authRequest);
@@ -447,8 +448,8 @@ public class StripeAuthoriseHandlerTest {
         void shouldAuthoriseApplePayPayment() throws Exception {
             when(gatewayClient.postRequestFor(any(StripeTokenRequest.class))).thenReturn(tokenResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
-            when(tokenResponse.getEntity()).thenReturn(successCreateTokenResponse());
-            when(paymentIntentsResponse.getEntity()).thenReturn(successCreatePaymentIntentsResponse());
+            when(tokenResponse.getEntityBytes()).thenReturn(successCreateTokenResponse().getBytes(UTF_8));
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(successCreatePaymentIntentsResponse().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             ChargeEntity charge = buildTestCharge(gatewayAccount);
@@ -472,7 +473,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripeTokenRequest.class))).thenReturn(tokenResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse("card_error"), 400));
-            when(tokenResponse.getEntity()).thenReturn(successCreateTokenResponse());
+            when(tokenResponse.getEntityBytes()).thenReturn(successCreateTokenResponse().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             ChargeEntity charge = buildTestCharge(gatewayAccount);
@@ -512,7 +513,7 @@ public class StripeAuthoriseHandlerTest {
             when(gatewayClient.postRequestFor(any(StripeTokenRequest.class))).thenReturn(tokenResponse);
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class)))
                     .thenThrow(new GatewayErrorException("server error", errorResponse("api_error"), 400));
-            when(tokenResponse.getEntity()).thenReturn(successCreateTokenResponse());
+            when(tokenResponse.getEntityBytes()).thenReturn(successCreateTokenResponse().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             ChargeEntity charge = buildTestCharge(gatewayAccount);
@@ -526,7 +527,7 @@ public class StripeAuthoriseHandlerTest {
         @Test
         void shouldAuthoriseGooglePayPayment() throws Exception {
             when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
-            when(paymentIntentsResponse.getEntity()).thenReturn(successCreatePaymentIntentsResponse());
+            when(paymentIntentsResponse.getEntityBytes()).thenReturn(successCreatePaymentIntentsResponse().getBytes(UTF_8));
 
             GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
             ChargeEntity charge = buildTestCharge(gatewayAccount);
@@ -548,7 +549,7 @@ public class StripeAuthoriseHandlerTest {
 
     @Test
     void shouldSetAs3DSRequired_whenPaymentIntentReturnsWithRequiresAction_forGooglePay() throws Exception {
-        when(paymentIntentsResponse.getEntity()).thenReturn(requires3DSCreatePaymentIntentsResponse());
+        when(paymentIntentsResponse.getEntityBytes()).thenReturn(requires3DSCreatePaymentIntentsResponse().getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripePaymentIntentRequest.class))).thenReturn(paymentIntentsResponse);
 
         GatewayAccountEntity gatewayAccount = buildTestGatewayAccountEntity();
@@ -15,6 +15,7 @@ import uk.gov.pay.connector.gateway.stripe.json.StripeDisputeData;
 import uk.gov.pay.connector.gateway.stripe.request.StripeSubmitTestDisputeEvidenceRequest;
 import uk.gov.pay.connector.util.JsonObjectMapper;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -47,7 +48,7 @@ class StripeDisputeHandlerTest {
         String disputeId = "dispute-id";
         String evidenceText = "winning_evidence";
         String transactionId = "transaction-id";
-        when(response.getEntity()).thenReturn(load(STRIPE_SUBMIT_DISPUTE_EVIDENCE_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(STRIPE_SUBMIT_DISPUTE_EVIDENCE_RESPONSE).getBytes(UTF_8));
         when(client.postRequestFor(any())).thenReturn(response);
         StripeDisputeData response = handler.submitTestDisputeEvidence(disputeId, evidenceText, transactionId);
         assertThat(response.getEvidence().getUncategorizedText(), is(evidenceText));
@@ -55,7 +56,7 @@ class StripeDisputeHandlerTest {
 
     @Test
     void shouldCreateStripeSubmitTestDisputeEvidenceRequest() throws Exception {
-        when(response.getEntity()).thenReturn(load(STRIPE_SUBMIT_DISPUTE_EVIDENCE_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(STRIPE_SUBMIT_DISPUTE_EVIDENCE_RESPONSE).getBytes(UTF_8));
         when(client.postRequestFor(any())).thenReturn(response);
         when(stripeGatewayConfig.getUrl()).thenReturn("https://example.org");
 
@@ -23,6 +23,7 @@ import uk.gov.pay.connector.util.JsonObjectMapper;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -209,13 +210,13 @@ class StripeFailedPaymentFeeCollectionHandlerTest {
 
     private void mockGetRequestResponse(String stripeGetPaymentIntentWith3dsAuthorisedResponse) throws Exception {
         GatewayClient.Response response = mock(GatewayClient.Response.class);
-        when(response.getEntity()).thenReturn(load(stripeGetPaymentIntentWith3dsAuthorisedResponse));
+        when(response.getEntityBytes()).thenReturn(load(stripeGetPaymentIntentWith3dsAuthorisedResponse).getBytes(UTF_8));
         when(gatewayClient.getRequestFor(any(StripeGetPaymentIntentRequest.class))).thenReturn(response);
     }
 
     private void mockPostTransferSuccess() throws Exception {
         GatewayClient.Response response = mock(GatewayClient.Response.class);
-        when(response.getEntity()).thenReturn(load(STRIPE_TRANSFER_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(STRIPE_TRANSFER_RESPONSE).getBytes(UTF_8));
         when(gatewayClient.postRequestFor(any(StripeTransferInRequest.class))).thenReturn(response);
     }
 }
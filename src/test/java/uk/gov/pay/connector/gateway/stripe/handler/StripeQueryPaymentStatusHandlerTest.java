@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -57,7 +58,7 @@ class StripeQueryPaymentStatusHandlerTest {
     void setUp() {
         handler = new StripeQueryPaymentStatusHandler(gatewayClient, stripeGatewayConfig, objectMapper);
         gatewayAccount = buildGatewayAccountEntity();
-        when(paymentSearchResponse.getEntity()).thenReturn(searchResponse());
+        when(paymentSearchResponse.getEntityBytes()).thenReturn(searchResponse().getBytes(UTF_8));
         chargeEntity = aValidChargeEntity()
                 .withGatewayAccountEntity(gatewayAccount)
                 .withTransactionId("transaction-id")
@@ -83,7 +84,7 @@ class StripeQueryPaymentStatusHandlerTest {
     @Test
     void shouldRetrieveChargeNotCaptured_whenQueryingByMetadataAndStatusIsRequiresPaymentMethod() throws GatewayException {
         when(gatewayClient.getRequestFor(any(StripeQueryPaymentStatusRequest.class))).thenReturn(paymentSearchResponse);
-        when(paymentSearchResponse.getEntity()).thenReturn(searchResponse().replace("succeeded", "requires_payment_method"));
+        when(paymentSearchResponse.getEntityBytes()).thenReturn(searchResponse().replace("succeeded", "requires_payment_method").getBytes(UTF_8));
         ChargeQueryResponse response = handler.queryPaymentStatus(queryGatewayRequest);
         assertThat(response.foundCharge(), is(true));
         assertThat(response.getMappedStatus().isPresent(), is(true));
@@ -93,7 +94,7 @@ class StripeQueryPaymentStatusHandlerTest {
     @Test
     void shouldRetrieveChargeNotCaptured_whenQueryingByMetadataAndStatusIsCanceled() throws GatewayException {
         when(gatewayClient.getRequestFor(any(StripeQueryPaymentStatusRequest.class))).thenReturn(paymentSearchResponse);
-        when(paymentSearchResponse.getEntity()).thenReturn(searchResponse().replace("succeeded", "canceled"));
+        when(paymentSearchResponse.getEntityBytes()).thenReturn(searchResponse().replace("succeeded", "canceled").getBytes(UTF_8));
         ChargeQueryResponse response = handler.queryPaymentStatus(queryGatewayRequest);
         assertThat(response.foundCharge(), is(true));
         assertThat(response.getMappedStatus().isPresent(), is(true));
@@ -104,7 +105,7 @@ class StripeQueryPaymentStatusHandlerTest {
     void shouldReturnGatewayTransactionIdInTheResponse() throws GatewayException {
         chargeEntity.setGatewayTransactionId(null);
         when(gatewayClient.getRequestFor(any(StripeQueryPaymentStatusRequest.class))).thenReturn(paymentSearchResponse);
-        when(paymentSearchResponse.getEntity()).thenReturn(searchResponse().replace("succeeded", "canceled"));
+        when(paymentSearchResponse.getEntityBytes()).thenReturn(searchResponse().replace("succeeded", "canceled").getBytes(UTF_8));
         ChargeQueryResponse response = handler.queryPaymentStatus(queryGatewayRequest);
 
         assertThat(response.getRawGatewayResponse().get().getTransactionId(), is("pi_1FJMFKDv3CZEaFO2UhknVpXZ"));
@@ -113,12 +114,12 @@ class StripeQueryPaymentStatusHandlerTest {
     @Test
     void shouldReturnError_whenQueryingByMetadataFindsNoCharge() throws GatewayException {
         when(gatewayClient.getRequestFor(any(StripeQueryPaymentStatusRequest.class))).thenReturn(paymentSearchResponse);
-        when(paymentSearchResponse.getEntity()).thenReturn("{\n" +
+        when(paymentSearchResponse.getEntityBytes()).thenReturn(("{\n" +
                 "  \"object\": \"search_result\",\n" +
                 "  \"url\": \"/v1/payment_intents/search\",\n" +
                 "  \"has_more\": false,\n" +
                 "  \"data\": []\n" +
-                "}");
+                "}").getBytes(UTF_8));
         ChargeQueryResponse response = handler.queryPaymentStatus(queryGatewayRequest);
 
         Optional<GatewayError> mayBeError = response.getGatewayError();
@@ -4,7 +4,13 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import uk.gov.pay.connector.gateway.model.request.records.WorldpayMotoAuthorisePayload;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,6 +34,22 @@ class WorldpayRequestTemplateBuilderTest {
         }
     }
 
+    @Nested
+    class PrecompiledTemplates {
+        @Test
+        void shouldPrecompileEveryWorldpayTemplate() throws Exception {
+            // the main classes, as test resources also have a templates/worldpay directory
+            Path templateDir = Path.of(WorldpayRequestTemplateBuilder.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .resolve("templates/worldpay");
+            List<String> templates;
+            try (Stream<Path> files = Files.list(templateDir)) {
+                templates = files.map(file -> "worldpay/" + file.getFileName()).toList();
+            }
+
+            assertThat(WorldpayRequestTemplateBuilder.WORLDPAY_TEMPLATES, containsInAnyOrder(templates.toArray()));
+        }
+    }
+
     @Nested
     class TemplateBuilderAppliesAutoEscape {
         @Test
@@ -0,0 +1,104 @@
+package uk.gov.pay.connector.gateway.util;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayCaptureResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
+import uk.gov.pay.connector.util.TestTemplateResourceLoader;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.sax.SAXSource;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_CAPTURE_SUCCESS_RESPONSE;
+
+/**
+ * Compares {@link XMLUnmarshaller} with the previous approach of building a new {@link JAXBContext} and hardened
+ * {@link XMLReader} for every payload. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=uk.gov.pay.connector.gateway.util.XMLUnmarshallerBenchmark}
+ * and add {@code -prof gc} to the JMH options to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class XMLUnmarshallerBenchmark {
+
+    private String authorisationResponse;
+    private String captureResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        authorisationResponse = TestTemplateResourceLoader.load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE);
+        captureResponse = TestTemplateResourceLoader.load(WORLDPAY_CAPTURE_SUCCESS_RESPONSE);
+        XMLUnmarshaller.warmUp(WorldpayOrderStatusResponse.class, WorldpayCaptureResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayOrderStatusResponse pooledAuthorisationResponse() throws Exception {
+        return XMLUnmarshaller.unmarshall(authorisationResponse, WorldpayOrderStatusResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayOrderStatusResponse uncachedAuthorisationResponse() throws Exception {
+        return unmarshallWithoutCaching(authorisationResponse, WorldpayOrderStatusResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayCaptureResponse pooledCaptureResponse() throws Exception {
+        return XMLUnmarshaller.unmarshall(captureResponse, WorldpayCaptureResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayCaptureResponse uncachedCaptureResponse() throws Exception {
+        return unmarshallWithoutCaching(captureResponse, WorldpayCaptureResponse.class);
+    }
+
+    private static <T> T unmarshallWithoutCaching(String payload, Class<T> clazz) throws Exception {
+        SAXParserFactory spf = SAXParserFactory.newInstance();
+        spf.setFeature(FEATURE_SECURE_PROCESSING, true);
+        spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        spf.setFeature("http://xml.org/sax/features/validation", false);
+        spf.setNamespaceAware(true);
+        spf.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        spf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        spf.setXIncludeAware(false);
+        SAXParser saxParser = spf.newSAXParser();
+        saxParser.setProperty("http://www.oracle.com/xml/jaxp/properties/entityExpansionLimit", "1");
+        XMLReader xmlReader = saxParser.getXMLReader();
+
+        InputSource inputSource = new InputSource(new ByteArrayInputStream(payload.getBytes(UTF_8)));
+        Unmarshaller unmarshaller = JAXBContext.newInstance(clazz).createUnmarshaller();
+        return unmarshaller.unmarshal(new SAXSource(xmlReader, inputSource), clazz).getValue();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(XMLUnmarshallerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
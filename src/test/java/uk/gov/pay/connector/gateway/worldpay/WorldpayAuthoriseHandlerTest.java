@@ -28,6 +28,7 @@ import uk.gov.pay.connector.common.model.domain.Address;
 import uk.gov.pay.connector.gateway.ClientFactory;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
+import uk.gov.pay.connector.gateway.GatewayConcurrencyLimiters;
 import uk.gov.pay.connector.gateway.GatewayOperation;
 import uk.gov.pay.connector.gateway.GatewayOrder;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
@@ -171,12 +172,12 @@ class WorldpayAuthoriseHandlerTest {
         GatewayAccountType gatewayAccountType = LIVE;
         String username = "username";
         String password = "password"; // pragma: allowlist secret
-        String worldpayRequestBody = "<xml><authorise this=\"payment\"></xml>";
+        byte[] worldpayRequestBody = "<xml><authorise this=\"payment\"></xml>".getBytes(UTF_8);
 
         WorldpayAuthoriseRequest worldpayAuthoriseRequest = aWorldpayMotoAuthoriseRequestFixture()
                 .withUsername(username).withPassword(password).build();
 
-        when(worldpayRequestTemplateBuilder.buildWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, 
+        when(worldpayRequestTemplateBuilder.buildBytesWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, 
                 worldpayAuthoriseRequest)).thenReturn(worldpayRequestBody);
 
         GatewayOrder gatewayOrder = new GatewayOrder(OrderRequestType.AUTHORISE, worldpayRequestBody,
@@ -189,7 +190,7 @@ class WorldpayAuthoriseHandlerTest {
                 eq(gatewayOrder), eq(headers)))
                 .thenReturn(authorisationSuccessResponse);
 
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         var response = worldpayAuthoriseHandler.authorise(worldpayAuthoriseRequest, gatewayAccountType);
         assertThat(response.getBaseResponse().map(WorldpayOrderStatusResponse::authoriseStatus),
@@ -198,7 +199,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_3ds_elements_when_3ds_toggle_disabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -219,7 +220,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_include_3ds_elements_with_ip_address() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -250,7 +251,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_include_3ds_elements_without_ip_address() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -293,7 +294,7 @@ class WorldpayAuthoriseHandlerTest {
             String expectedExemptionType,
             String expectedExemptionPlacement) throws Exception {
 
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(authoriseClient.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap()))
                 .thenReturn(authorisationSuccessResponse);
 
@@ -327,7 +328,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_exemption_element() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(authoriseClient.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap()))
                 .thenReturn(authorisationSuccessResponse);
 
@@ -356,7 +357,7 @@ class WorldpayAuthoriseHandlerTest {
     void should_not_include_elements_when_worldpay_3ds_flex_ddc_result_is_not_present() throws Exception {
         gatewayAccountEntity.setRequires3ds(true);
 
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(authoriseClient.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap()))
                 .thenReturn(authorisationSuccessResponse);
 
@@ -388,7 +389,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_include_3DS2_flex_elements_when_worldpay_3ds_flex_ddc_result_is_present() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         when(authoriseClient.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap()))
                 .thenReturn(authorisationSuccessResponse);
 
@@ -428,7 +429,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_email_when_present_and_3ds_disabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -455,7 +456,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_include_email_when_present_and_send_email_to_gateway_enabled_and_3ds_enabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -487,7 +488,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_email_when_present_and_send_email_to_gateway_disabled_and_3ds_disabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -514,7 +515,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_email_when_present_and_send_email_to_gateway_disabled_and_3ds_enabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -541,7 +542,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_email_when_not_present_and_send_email_to_gateway_enabled_and_3ds_disabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -568,7 +569,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_include_email_when_not_present_and_send_email_to_gateway_enabled_and_3ds_enabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -600,7 +601,7 @@ class WorldpayAuthoriseHandlerTest {
                 UNSCHEDULED, templates/worldpay/valid-authorise-worldpay-request-setup-agreement-with-unscheduled-agreement-payment-type.xml
             """)
     void should_send_reason_for_recurring_payment_to_worldpay_when_a_CIT_recurring_payment_is_initiated_with_an_agreement_payment_type(AgreementPaymentType agreementPaymentType, String templatePath) throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("test-chargeId-789")
@@ -631,7 +632,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_include_elements_for_creating_token_when_setUpPaymentInstrument_is_true() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("test-chargeId-789")
@@ -662,7 +663,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_send_email_and_IP_address_to_worldpay_when_a_CIT_recurring_payment_is_initiated() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("test-chargeId-789")
@@ -698,7 +699,7 @@ class WorldpayAuthoriseHandlerTest {
             UNSCHEDULED, templates/worldpay/valid-authorise-worldpay-recurring-request-with-scheme-identifier-and-agreement-payment-type-unscheduled.xml
             """)
     void should_send_reason_for_recurring_payment_to_worldpay_when_a_MIT_recurring_payment_is_initiated_with_an_agreement_payment_type(AgreementPaymentType agreementPaymentType, String worldpayTemplate) throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         PaymentInstrumentEntity paymentInstrument = new PaymentInstrumentEntity.PaymentInstrumentEntityBuilder()
                 .withRecurringAuthToken(Map.of(
                         WORLDPAY_RECURRING_AUTH_TOKEN_PAYMENT_TOKEN_ID_KEY, "test-payment-token-123456",
@@ -733,7 +734,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_not_send_email_and_IP_address_to_worldpay_when_a_MIT_recurring_payment_is_initiated() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         PaymentInstrumentEntity paymentInstrument = new PaymentInstrumentEntity.PaymentInstrumentEntityBuilder()
                 .withRecurringAuthToken(Map.of(
                         WORLDPAY_RECURRING_AUTH_TOKEN_PAYMENT_TOKEN_ID_KEY, "test-payment-token-123456",
@@ -771,7 +772,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_send_reference_to_worldpay_instead_of_description_when_send_reference_to_gateway_is_enabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -799,7 +800,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_send_description_to_worldpay_when_send_reference_to_gateway_is_disabled() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -827,7 +828,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_include_browser_language_and_javascript_false_in_payload_if_flex_and_no_ddc() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture
                 .withExternalId("uniqueSessionId")
@@ -895,7 +896,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_call_with_right_template_when_valid_recurring_payment_request_with_scheme_identifier() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         PaymentInstrumentEntity paymentInstrument = new PaymentInstrumentEntity.PaymentInstrumentEntityBuilder()
                 .withRecurringAuthToken(Map.of(
                         WORLDPAY_RECURRING_AUTH_TOKEN_PAYMENT_TOKEN_ID_KEY, "test-payment-token-123456",
@@ -938,7 +939,7 @@ class WorldpayAuthoriseHandlerTest {
 
     @Test
     void should_call_with_right_template_when_valid_recurring_payment_request_without_scheme_identifier() throws Exception {
-        when(authorisationSuccessResponse.getEntity()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE));
+        when(authorisationSuccessResponse.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE).getBytes(UTF_8));
         PaymentInstrumentEntity paymentInstrument = new PaymentInstrumentEntity.PaymentInstrumentEntityBuilder()
                 .withRecurringAuthToken(Map.of(
                         WORLDPAY_RECURRING_AUTH_TOKEN_PAYMENT_TOKEN_ID_KEY, "test-payment-token-123456"
@@ -1014,7 +1015,7 @@ class WorldpayAuthoriseHandlerTest {
 
     private GatewayClient createGatewayClient(Client mockClient) {
         ClientFactory mockClientFactory = mock(ClientFactory.class);
-        GatewayClientFactory gatewayClientFactory = new GatewayClientFactory(mockClientFactory);
+        GatewayClientFactory gatewayClientFactory = new GatewayClientFactory(mockClientFactory, GatewayConcurrencyLimiters.unlimited());
         when(mockClientFactory.createWithDropwizardClient(eq(PaymentGatewayName.WORLDPAY), any(GatewayOperation.class), any(MetricRegistry.class)))
                 .thenReturn(mockClient);
         MetricRegistry mockMetricRegistry = mock(MetricRegistry.class);
@@ -1044,7 +1045,7 @@ class WorldpayAuthoriseHandlerTest {
                 );
 
         Response response = mock(Response.class);
-        when(response.readEntity(String.class)).thenReturn(responsePayload);
+        when(response.readEntity(byte[].class)).thenReturn(responsePayload.getBytes(UTF_8));
         when(mockBuilder.post(any(Entity.class))).thenReturn(response);
         when(response.getCookies()).thenReturn(responseCookies);
         when(response.getStatus()).thenReturn(httpStatus);
@@ -24,6 +24,7 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -86,7 +87,7 @@ class WorldpayCaptureHandlerTest {
     @ValueSource(strings = {"250"})
     void shouldCaptureAPaymentSuccessfully(Long corporateSurchargeAmount) throws Exception {
         when(response.getStatus()).thenReturn(HttpStatus.SC_OK);
-        when(response.readEntity(String.class)).thenReturn(load("templates/worldpay/capture-success-response.xml"));
+        when(response.readEntity(byte[].class)).thenReturn(load("templates/worldpay/capture-success-response.xml").getBytes(UTF_8));
         GatewayClient.Response response = new TestResponse(this.response);
         when(client.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap()))
                 .thenReturn(response);
@@ -122,7 +123,7 @@ class WorldpayCaptureHandlerTest {
     @Test
     void shouldCaptureARecurringPaymentSuccessfully() throws Exception {
         when(response.getStatus()).thenReturn(HttpStatus.SC_OK);
-        when(response.readEntity(String.class)).thenReturn(load("templates/worldpay/capture-success-response.xml"));
+        when(response.readEntity(byte[].class)).thenReturn(load("templates/worldpay/capture-success-response.xml").getBytes(UTF_8));
         GatewayClient.Response response = new TestResponse(this.response);
         when(client.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap()))
                 .thenReturn(response);
@@ -164,8 +165,8 @@ class WorldpayCaptureHandlerTest {
     @Test
     void shouldErrorIfOrderReferenceNotKnownInCapture() throws Exception {
         when(response.getStatus()).thenReturn(HttpStatus.SC_OK);
-        when(response.readEntity(String.class)).thenReturn(load("templates/worldpay/error-response.xml")
-                .replace("{{errorDescription}}", "Order has already been paid"));
+        when(response.readEntity(byte[].class)).thenReturn(load("templates/worldpay/error-response.xml")
+                .replace("{{errorDescription}}", "Order has already been paid").getBytes(UTF_8));
         TestResponse testResponse = new TestResponse(this.response);
         when(client.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyMap())).thenReturn(testResponse);
 
@@ -0,0 +1,214 @@
+package uk.gov.pay.connector.gateway.worldpay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import uk.gov.pay.connector.common.model.domain.Address;
+import uk.gov.pay.connector.gateway.GatewayOrder;
+import uk.gov.pay.connector.gateway.model.AuthCardDetails;
+import uk.gov.pay.connector.gateway.model.OrderRequestType;
+import uk.gov.pay.connector.gateway.model.request.records.WorldpayMotoAuthorisePayload;
+import uk.gov.pay.connector.gateway.templates.WorldpayRequestTemplateBuilder;
+import uk.gov.pay.connector.model.domain.AuthCardDetailsFixture;
+import uk.gov.pay.connector.util.TestTemplateResourceLoader;
+import uk.gov.pay.connector.wallets.googlepay.api.GooglePayAuthRequest;
+import uk.gov.service.payments.commons.model.AgreementPaymentType;
+import uk.gov.service.payments.commons.model.CardExpiryDate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static uk.gov.pay.connector.gateway.model.request.records.WorldpayMotoAuthoriseRequestFixture.aWorldpayMotoAuthoriseRequestFixture;
+import static uk.gov.pay.connector.gateway.worldpay.SendWorldpayExemptionRequest.DO_NOT_SEND_EXEMPTION_REQUEST;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpay3dsResponseAuthOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayAuthoriseApplePayOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayAuthoriseGooglePayOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayAuthoriseOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayAuthoriseRecurringOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayCancelOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayCaptureOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayDeleteTokenOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayRefundOrderRequestBuilder;
+import static uk.gov.pay.connector.model.domain.applepay.ApplePayDecryptedPaymentDataFixture.anApplePayDecryptedPaymentData;
+import static uk.gov.pay.connector.model.domain.applepay.ApplePayPaymentInfoFixture.anApplePayPaymentInfo;
+import static uk.gov.pay.connector.model.domain.googlepay.GooglePayPaymentInfoFixture.aGooglePayPaymentInfo;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_SPECIAL_CHAR_VALID_AUTHORISE_WORLDPAY_REQUEST_ADDRESS;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_SPECIAL_CHAR_VALID_CAPTURE_WORLDPAY_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_3DS_RESPONSE_AUTH_WORLDPAY_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_AUTHORISE_RECURRING_WORLDPAY_REQUEST_WITH_SCHEME_IDENTIFIER;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_AUTHORISE_WORLDPAY_3DS_REQUEST_MIN_ADDRESS;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_AUTHORISE_WORLDPAY_APPLE_PAY_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_AUTHORISE_WORLDPAY_GOOGLE_PAY_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_AUTHORISE_WORLDPAY_MOTO_AUTHORISATION_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_CANCEL_WORLDPAY_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_CAPTURE_WORLDPAY_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_DELETE_TOKEN_REQUEST;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_REFUND_WORLDPAY_REQUEST;
+import static uk.gov.pay.connector.util.XmlAssertions.assertThat;
+
+/**
+ * Checks the bytes each Worldpay order is sent as against the checked-in request files, including when one thread's
+ * render buffer is reused for orders of different sizes.
+ */
+class WorldpayOrderPayloadRenderingTest {
+
+    private static final WorldpayAuthoriseOrderSessionId SESSION_ID = WorldpayAuthoriseOrderSessionId.of("uniqueSessionId");
+
+    static Stream<Arguments> worldpayOrders() {
+        WorldpayOrderRequestBuilder authorise = withOrderDetails(aWorldpayAuthoriseOrderRequestBuilder()
+                .withSessionId(SESSION_ID)
+                .withRequestExemption(DO_NOT_SEND_EXEMPTION_REQUEST)
+                .with3dsRequired(true)
+                .withAcceptHeader("text/html")
+                .withUserAgentHeader("Mozilla/5.0")
+                .withAmount("500"), "MyUniqueTransactionId!", "MERCHANTCODE", "This is the description");
+        authorise.withAuthorisationDetails(validTestCard(new Address("123 My Street", null, "SW8URR", "London", null, "GB")));
+
+        WorldpayOrderRequestBuilder authoriseWithSpecialCharacters = withOrderDetails(aWorldpayAuthoriseOrderRequestBuilder()
+                .withSessionId(SESSION_ID)
+                .withAcceptHeader("text/html")
+                .withUserAgentHeader("Mozilla/5.0")
+                .withAmount("500"), "MyUniqueTransactionId!", "MERCHANTCODE", "This is the description with <!-- ");
+        authoriseWithSpecialCharacters.withAuthorisationDetails(
+                validTestCard(new Address("123 & My Street", "This road -->", "SW8 > URR", "London !>", null, "GB")));
+
+        WorldpayOrderRequestBuilder recurring = withOrderDetails(aWorldpayAuthoriseRecurringOrderRequestBuilder()
+                .withPaymentTokenId("test-payment-token-123456")
+                .withSchemeTransactionIdentifier("test-transaction-id-999999")
+                .withAgreementId("test-agreement-123456")
+                .withAgreementPaymentType(AgreementPaymentType.RECURRING)
+                .withAmount("500"), "test-transaction-id-123", "MIT-MERCHANTCODE", "This is the description");
+
+        WorldpayOrderRequestBuilder authorise3ds = withOrderDetails(aWorldpay3dsResponseAuthOrderRequestBuilder()
+                .withPaResponse3ds("I am an opaque 3D Secure PA response from the card issuer")
+                .withSessionId(SESSION_ID), "MyUniqueTransactionId!", "MERCHANTCODE", null);
+
+        WorldpayOrderRequestBuilder applePay = withOrderDetails(aWorldpayAuthoriseApplePayOrderRequestBuilder()
+                .withAppleDecryptedPaymentData(anApplePayDecryptedPaymentData()
+                        .withApplePaymentInfo(anApplePayPaymentInfo().withLastDigitsCardNumber("4242").build())
+                        .build())
+                .withSessionId(SESSION_ID)
+                .withAcceptHeader("text/html")
+                .withUserAgentHeader("Mozilla/5.0")
+                .withAmount("500"), "MyUniqueTransactionId!", "MERCHANTCODE", "This is the description");
+
+        WorldpayOrderRequestBuilder googlePay = withOrderDetails(aWorldpayAuthoriseGooglePayOrderRequestBuilder()
+                .withGooglePayPaymentData(new GooglePayAuthRequest(aGooglePayPaymentInfo().build(),
+                        WorldpayOrderRequestBuilderTest.GOOGLE_PAY_ENCRYPTED_PAYMENT_DATA))
+                .withAmount("500"), "MyUniqueTransactionId!", "MERCHANTCODE", "This is the description");
+
+        WorldpayOrderRequestBuilder capture = withOrderDetails(aWorldpayCaptureOrderRequestBuilder()
+                .withDate(LocalDate.of(2013, 2, 23))
+                .withAmount("500"), "MyUniqueTransactionId!", "MERCHANTCODE", null);
+
+        WorldpayOrderRequestBuilder captureWithSpecialCharacters = withOrderDetails(aWorldpayCaptureOrderRequestBuilder()
+                .withDate(LocalDate.of(2013, 2, 23))
+                .withAmount("500"), "MyUniqueTransactionId <!-- & > ", "MERCHANTCODE", null);
+
+        WorldpayOrderRequestBuilder cancel = withOrderDetails(aWorldpayCancelOrderRequestBuilder(),
+                "MyUniqueTransactionId!", "MERCHANTCODE", null);
+
+        WorldpayOrderRequestBuilder refund = withOrderDetails(aWorldpayRefundOrderRequestBuilder()
+                .withReference("reference")
+                .withAmount("200"), "MyUniqueTransactionId!", "MERCHANTCODE", null);
+
+        WorldpayOrderRequestBuilder deleteToken = aWorldpayDeleteTokenOrderRequestBuilder()
+                .withAgreementId("test-agreement-123")
+                .withPaymentTokenId("test-paymentToken-789");
+        deleteToken.withMerchantCode("MYMERCHANT");
+
+        return Stream.of(
+                Arguments.of(OrderRequestType.AUTHORISE, authorise,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_AUTHORISE_WORLDPAY_3DS_REQUEST_MIN_ADDRESS)),
+                Arguments.of(OrderRequestType.AUTHORISE, authoriseWithSpecialCharacters,
+                        TestTemplateResourceLoader.load(WORLDPAY_SPECIAL_CHAR_VALID_AUTHORISE_WORLDPAY_REQUEST_ADDRESS)),
+                Arguments.of(OrderRequestType.AUTHORISE, recurring,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_AUTHORISE_RECURRING_WORLDPAY_REQUEST_WITH_SCHEME_IDENTIFIER)),
+                Arguments.of(OrderRequestType.AUTHORISE_3DS, authorise3ds,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_3DS_RESPONSE_AUTH_WORLDPAY_REQUEST)),
+                Arguments.of(OrderRequestType.AUTHORISE_APPLE_PAY, applePay,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_AUTHORISE_WORLDPAY_APPLE_PAY_REQUEST)),
+                Arguments.of(OrderRequestType.AUTHORISE_GOOGLE_PAY, googlePay,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_AUTHORISE_WORLDPAY_GOOGLE_PAY_REQUEST)),
+                Arguments.of(OrderRequestType.CAPTURE, capture,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_CAPTURE_WORLDPAY_REQUEST)),
+                Arguments.of(OrderRequestType.CAPTURE, captureWithSpecialCharacters,
+                        TestTemplateResourceLoader.load(WORLDPAY_SPECIAL_CHAR_VALID_CAPTURE_WORLDPAY_REQUEST)),
+                Arguments.of(OrderRequestType.CANCEL, cancel,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_CANCEL_WORLDPAY_REQUEST)
+                                .replace("{{merchantCode}}", "MERCHANTCODE")
+                                .replace("{{transactionId}}", "MyUniqueTransactionId!")),
+                Arguments.of(OrderRequestType.REFUND, refund,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_REFUND_WORLDPAY_REQUEST)
+                                .replace("{{merchantCode}}", "MERCHANTCODE")
+                                .replace("{{transactionId}}", "MyUniqueTransactionId!")
+                                .replace("{{refundReference}}", "reference")
+                                .replace("{{amount}}", "200")),
+                Arguments.of(OrderRequestType.DELETE_STORED_PAYMENT_DETAILS, deleteToken,
+                        TestTemplateResourceLoader.load(WORLDPAY_VALID_DELETE_TOKEN_REQUEST)
+                                .replace("{{merchantCode}}", "MYMERCHANT")
+                                .replace("{{agreementId}}", "test-agreement-123")
+                                .replace("{{paymentTokenId}}", "test-paymentToken-789")));
+    }
+
+    @ParameterizedTest(name = "{0} order {index}")
+    @MethodSource("worldpayOrders")
+    void shouldSendPayloadBytesMatchingExpectedRequest(OrderRequestType orderRequestType,
+                                                      WorldpayOrderRequestBuilder builder,
+                                                      String expectedRequest) {
+        GatewayOrder first = builder.build();
+        GatewayOrder second = builder.build();
+
+        assertEquals(orderRequestType, first.orderRequestType());
+        assertThat(new String(first.payloadBytes(), UTF_8)).and(expectedRequest).areIdentical();
+        assertThat(new String(second.payloadBytes(), UTF_8)).and(expectedRequest).areIdentical();
+    }
+
+    @Test
+    void shouldSendEachPayloadCorrectlyWhenRenderBufferIsReusedBetweenOrdersOfDifferentSizes() {
+        List<Arguments> orders = worldpayOrders().toList();
+        for (int round = 0; round < 2; round++) {
+            for (Arguments order : orders) {
+                WorldpayOrderRequestBuilder builder = (WorldpayOrderRequestBuilder) order.get()[1];
+                String expectedRequest = (String) order.get()[2];
+                assertThat(new String(builder.build().payloadBytes(), UTF_8)).and(expectedRequest).areIdentical();
+            }
+        }
+    }
+
+    @Test
+    void shouldSendMotoPayloadBytesMatchingExpectedRequest() {
+        WorldpayMotoAuthorisePayload motoOrder = aWorldpayMotoAuthoriseRequestFixture().build();
+
+        byte[] rendered = new WorldpayRequestTemplateBuilder().buildBytesWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, motoOrder);
+
+        assertThat(new String(rendered, UTF_8))
+                .and(TestTemplateResourceLoader.load(WORLDPAY_VALID_AUTHORISE_WORLDPAY_MOTO_AUTHORISATION_REQUEST))
+                .areIdentical();
+    }
+
+    private static WorldpayOrderRequestBuilder withOrderDetails(WorldpayOrderRequestBuilder builder, String transactionId,
+                                                                String merchantCode, String description) {
+        builder.withTransactionId(transactionId);
+        builder.withMerchantCode(merchantCode);
+        if (description != null) {
+            builder.withDescription(description);
+        }
+        return builder;
+    }
+
+    private static AuthCardDetails validTestCard(Address address) {
+        return AuthCardDetailsFixture.anAuthCardDetails()
+                .withCardHolder("Mr. Payment")
+                .withCardNo("4111111111111111")
+                .withCvc("123")
+                .withEndDate(CardExpiryDate.valueOf("12/15"))
+                .withCardBrand("visa")
+                .withAddress(address)
+                .build();
+    }
+}
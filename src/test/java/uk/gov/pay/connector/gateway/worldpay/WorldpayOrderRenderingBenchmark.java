@@ -0,0 +1,91 @@
+package uk.gov.pay.connector.gateway.worldpay;
+
+import freemarker.template.Configuration;
+import freemarker.template.TemplateExceptionHandler;
+import org.junit.jupiter.params.provider.Arguments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.gateway.OrderRequestBuilder.TemplateData;
+import uk.gov.pay.connector.gateway.model.OrderRequestType;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static freemarker.template.Configuration.VERSION_2_3_34;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares rendering a Worldpay order with the precompiled templates straight into reusable UTF-8 buffers against the
+ * previous approach of looking the template up, rendering into a new StringWriter and encoding the resulting String.
+ * Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRenderingBenchmark}
+ * and add {@code -prof gc} to the JMH options to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class WorldpayOrderRenderingBenchmark {
+
+    @Param({"AUTHORISE", "AUTHORISE_3DS", "AUTHORISE_APPLE_PAY", "AUTHORISE_GOOGLE_PAY", "CAPTURE", "CANCEL", "REFUND",
+            "QUERY", "DELETE_STORED_PAYMENT_DETAILS"})
+    public String orderRequestType;
+
+    private WorldpayOrderRequestBuilder builder;
+    private TemplateData templateData;
+    private String templatePath;
+    private Configuration configuration;
+
+    @Setup
+    public void setUp() {
+        Arguments order = WorldpayOrderPayloadRenderingTest.worldpayOrders()
+                .filter(arguments -> arguments.get()[0] == OrderRequestType.valueOf(orderRequestType))
+                .findFirst()
+                .orElseThrow();
+        templatePath = (String) order.get()[1];
+        builder = (WorldpayOrderRequestBuilder) order.get()[2];
+        templateData = builder.getWorldpayTemplateData();
+
+        configuration = new Configuration(VERSION_2_3_34);
+        configuration.setDefaultEncoding("UTF-8");
+        configuration.setLocale(Locale.ENGLISH);
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setClassForTemplateLoading(WorldpayOrderRenderingBenchmark.class, "/templates");
+    }
+
+    @Benchmark
+    public byte[] precompiledIntoReusableBuffer() {
+        return builder.build().payloadBytes();
+    }
+
+    @Benchmark
+    public byte[] lookedUpIntoStringWriter() throws Exception {
+        Writer writer = new StringWriter();
+        configuration.getTemplate(templatePath).process(templateData, writer);
+        return writer.toString().getBytes(UTF_8);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(WorldpayOrderRenderingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -70,6 +70,7 @@ import java.util.Optional;
 
 import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.UUID.randomUUID;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -802,7 +803,7 @@ class WorldpayPaymentProviderTest {
     void should_log_exemption_3ds_for_charge_during_3ds_authorisation() throws Exception {
         ChargeEntity chargeEntity = chargeEntityFixture.build();
 
-        when(response.getEntity()).thenReturn(load(WORLDPAY_EXEMPTION_REQUEST_REJECTED_AUTHORISED_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(WORLDPAY_EXEMPTION_REQUEST_REJECTED_AUTHORISED_RESPONSE).getBytes(UTF_8));
         when(authoriseClient.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyList(), anyMap()))
                 .thenReturn(response);
 
@@ -825,7 +826,7 @@ class WorldpayPaymentProviderTest {
     void should_log_exemption_3ds_for_charge_during_3ds_authorisation_without_reason() throws Exception {
         ChargeEntity chargeEntity = chargeEntityFixture.build();
 
-        when(response.getEntity()).thenReturn(load(WORLDPAY_EXEMPTION_REQUEST_REJECTED_AUTHORISED_RESPONSE).replace("reason=\"HIGH_RISK\"", ""));
+        when(response.getEntityBytes()).thenReturn(load(WORLDPAY_EXEMPTION_REQUEST_REJECTED_AUTHORISED_RESPONSE).replace("reason=\"HIGH_RISK\"", "").getBytes(UTF_8));
         when(authoriseClient.postRequestFor(any(URI.class), eq(WORLDPAY), eq("test"), any(GatewayOrder.class), anyList(), anyMap()))
                 .thenReturn(response);
 
@@ -1082,7 +1083,7 @@ class WorldpayPaymentProviderTest {
 
     @Test
     void should_successfully_query_payment_status() throws Exception {
-        when(response.getEntity()).thenReturn(load(WORLDPAY_AUTHORISED_INQUIRY_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(WORLDPAY_AUTHORISED_INQUIRY_RESPONSE).getBytes(UTF_8));
 
         ChargeEntity chargeEntity = chargeEntityFixture.build();
 
@@ -1098,9 +1099,9 @@ class WorldpayPaymentProviderTest {
 
     @Test
     void query_payment_status_should_return_response_with_gateway_error_when_worldpay_returns_could_not_find_payment_for_order_message() throws Exception {
-        when(response.getEntity()).thenReturn(
+        when(response.getEntityBytes()).thenReturn(
                 load(WORLDPAY_ERROR_RESPONSE)
-                        .replace("{{errorDescription}}", "Could not find payment for order")
+                        .replace("{{errorDescription}}", "Could not find payment for order").getBytes(UTF_8)
         );
 
         ChargeEntity chargeEntity = chargeEntityFixture.build();
@@ -1118,8 +1119,8 @@ class WorldpayPaymentProviderTest {
 
     @Test
     void query_payment_status_should_return_response_with_gateway_error_when_worldpay_returns_null_for_last_event() throws Exception {
-        when(response.getEntity()).thenReturn(
-                load(WORLDPAY_NULL_LAST_EVENT_INQUIRY_RESPONSE)
+        when(response.getEntityBytes()).thenReturn(
+                load(WORLDPAY_NULL_LAST_EVENT_INQUIRY_RESPONSE).getBytes(UTF_8)
         );
 
         ChargeEntity chargeEntity = chargeEntityFixture.build();
@@ -1137,9 +1138,9 @@ class WorldpayPaymentProviderTest {
 
     @Test
     void query_payment_status_should_throw_error_when_worldpay_returns_error_with_unknown_message() throws Exception {
-        when(response.getEntity()).thenReturn(
+        when(response.getEntityBytes()).thenReturn(
                 load(WORLDPAY_ERROR_RESPONSE)
-                        .replace("{{errorDescription}}", "Order inquiries have been disabled for all merchants")
+                        .replace("{{errorDescription}}", "Order inquiries have been disabled for all merchants").getBytes(UTF_8)
         );
 
         ChargeEntity chargeEntity = chargeEntityFixture.build();
@@ -1157,7 +1158,7 @@ class WorldpayPaymentProviderTest {
     void should_construct_gateway_3DS_authorisation_response_with_paRequest_issuerUrl_and_machine_cookie_if_worldpay_asks_us_to_do_3ds_again() throws Exception {
         ChargeEntity chargeEntity = chargeEntityFixture.withProviderSessionId("original-machine-cookie").build();
 
-        when(response.getEntity()).thenReturn(load(WORLDPAY_3DS_RESPONSE));
+        when(response.getEntityBytes()).thenReturn(load(WORLDPAY_3DS_RESPONSE).getBytes(UTF_8));
         when(response.getResponseCookies()).thenReturn(Map.of(WORLDPAY_MACHINE_COOKIE_NAME, "new-machine-cookie-value"));
 
         when(authoriseClient.postRequestFor(eq(WORLDPAY_URL), eq(WORLDPAY), eq("test"), any(GatewayOrder.class),
@@ -0,0 +1,108 @@
+package uk.gov.pay.connector.gatewayaccountcredentials.service;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.ReferenceDataCacheConfig;
+import uk.gov.pay.connector.common.service.ReferenceDataCache;
+import uk.gov.pay.connector.gatewayaccount.dao.GatewayAccountDao;
+import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
+import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.gatewayaccount.model.StripeCredentials.STRIPE_ACCOUNT_ID_KEY;
+import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntityFixture.aGatewayAccountCredentialsEntity;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayAccountCredentialsLookupServiceTest {
+
+    @Mock
+    private GatewayAccountCredentialsDao gatewayAccountCredentialsDao;
+    @Mock
+    private GatewayAccountDao gatewayAccountDao;
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Mock
+    private ReferenceDataCacheConfig referenceDataCacheConfig;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private GatewayAccountCredentialsEntity credentials;
+
+    @BeforeEach
+    void setUp() {
+        credentials = aGatewayAccountCredentialsEntity().build();
+        credentials.setId(7L);
+        lenient().when(referenceDataCacheConfig.getMaximumSizePerEntity()).thenReturn(100);
+        lenient().when(referenceDataCacheConfig.getMaximumAgeInSeconds()).thenReturn(600);
+    }
+
+    private GatewayAccountCredentialsLookupService lookupService(boolean cacheEnabled) {
+        when(referenceDataCacheConfig.isEnabled()).thenReturn(cacheEnabled);
+        return new GatewayAccountCredentialsLookupService(gatewayAccountCredentialsDao, gatewayAccountDao,
+                referenceDataCache, referenceDataCacheConfig, metricRegistry);
+    }
+
+    @Test
+    void shouldLoadRememberedCredentialsByIdInsteadOfQueryingAgain() {
+        var lookupService = lookupService(true);
+        when(gatewayAccountCredentialsDao.findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123")).thenReturn(Optional.of(credentials));
+        when(gatewayAccountCredentialsDao.findById(7L)).thenReturn(Optional.of(credentials));
+
+        lookupService.findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123");
+        var result = lookupService.findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123");
+
+        assertThat(result, is(Optional.of(credentials)));
+        verify(gatewayAccountCredentialsDao, times(1)).findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123");
+        assertThat(metricRegistry.counter("gateway-account-credentials-lookup.cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.counter("gateway-account-credentials-lookup.cache.misses").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldQueryAgainOnceGatewayAccountsAreInvalidated() {
+        var lookupService = lookupService(true);
+        var listener = ArgumentCaptor.forClass(Runnable.class);
+        verify(referenceDataCache).onGatewayAccountsInvalidated(listener.capture());
+        when(gatewayAccountDao.isATelephonePaymentNotificationAccount("MERCHANTCODE")).thenReturn(true, false);
+
+        assertThat(lookupService.isATelephonePaymentNotificationAccount("MERCHANTCODE"), is(true));
+        assertThat(lookupService.isATelephonePaymentNotificationAccount("MERCHANTCODE"), is(true));
+        listener.getValue().run();
+        assertThat(lookupService.isATelephonePaymentNotificationAccount("MERCHANTCODE"), is(false));
+
+        verify(gatewayAccountDao, times(2)).isATelephonePaymentNotificationAccount("MERCHANTCODE");
+    }
+
+    @Test
+    void shouldNotRememberThatMerchantCodeIsNotATelephonePaymentNotificationAccount() {
+        var lookupService = lookupService(true);
+        when(gatewayAccountDao.isATelephonePaymentNotificationAccount("MERCHANTCODE")).thenReturn(false, true);
+
+        assertThat(lookupService.isATelephonePaymentNotificationAccount("MERCHANTCODE"), is(false));
+        assertThat(lookupService.isATelephonePaymentNotificationAccount("MERCHANTCODE"), is(true));
+
+        verify(gatewayAccountDao, times(2)).isATelephonePaymentNotificationAccount("MERCHANTCODE");
+    }
+
+    @Test
+    void shouldAlwaysQueryWhenReferenceDataCacheIsDisabled() {
+        var lookupService = lookupService(false);
+        when(gatewayAccountCredentialsDao.findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123")).thenReturn(Optional.of(credentials));
+
+        lookupService.findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123");
+        lookupService.findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123");
+
+        verify(gatewayAccountCredentialsDao, times(2)).findByCredentialsKeyValue(STRIPE_ACCOUNT_ID_KEY, "acct_123");
+        assertThat(metricRegistry.timer("gateway-account-credentials-lookup.response_time").getCount(), is(2L));
+    }
+}
@@ -75,6 +75,9 @@ public class GatewayAccountCredentialsServiceTest {
     @Mock
     GatewayAccountCredentialsDao mockGatewayAccountCredentialsDao;
 
+    @Mock
+    GatewayAccountCredentialsLookupService mockGatewayAccountCredentialsLookupService;
+
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
     public static final Map<String, Object> WORLDPAY_ONE_OFF_CREDENTIALS = Map.of(ONE_OFF_CUSTOMER_INITIATED, Map.of(CREDENTIALS_MERCHANT_CODE, "some-merchant-code"));
@@ -83,7 +86,8 @@ public class GatewayAccountCredentialsServiceTest {
 
     @BeforeEach
     void setup() {
-        gatewayAccountCredentialsService = new GatewayAccountCredentialsService(mockGatewayAccountCredentialsDao, objectMapper);
+        gatewayAccountCredentialsService = new GatewayAccountCredentialsService(mockGatewayAccountCredentialsDao, objectMapper,
+                mockGatewayAccountCredentialsLookupService);
     }
 
     @Nested
@@ -1058,7 +1062,7 @@ public class GatewayAccountCredentialsServiceTest {
                     .withPaymentProvider(STRIPE.getName())
                     .build();
 
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(eq("stripe_account_id"), eq("stripeAccountId"))).thenReturn(Optional.of(gatewayAccountCredentialsEntity));
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(eq("stripe_account_id"), eq("stripeAccountId"))).thenReturn(Optional.of(gatewayAccountCredentialsEntity));
 
             gatewayAccountCredentialsService.findStripeGatewayAccountForCredentialKeyAndValue("stripe_account_id", "stripeAccountId");
 
@@ -1073,7 +1077,7 @@ public class GatewayAccountCredentialsServiceTest {
                     .withPaymentProvider(STRIPE.getName())
                     .build();
 
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(eq("stripe_account_id"), eq("stripeAccountId"))).thenReturn(Optional.of(gatewayAccountCredentialsEntity));
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(eq("stripe_account_id"), eq("stripeAccountId"))).thenReturn(Optional.of(gatewayAccountCredentialsEntity));
 
             assertThrows(GatewayAccountNotFoundException.class,
                     () -> gatewayAccountCredentialsService.findStripeGatewayAccountForCredentialKeyAndValue("stripe_account_id", "stripeAccountId"));
@@ -1081,7 +1085,7 @@ public class GatewayAccountCredentialsServiceTest {
 
         @Test
         void shouldThrowRuntimeExceptionIfGatewayAccountCredentialsNotFound() {
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(eq("stripe_account_id"), eq("stripeAccountId"))).thenReturn(Optional.empty());
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(eq("stripe_account_id"), eq("stripeAccountId"))).thenReturn(Optional.empty());
 
             assertThrows(GatewayAccountCredentialsNotFoundException.class,
                     () -> gatewayAccountCredentialsService.findStripeGatewayAccountForCredentialKeyAndValue("stripe_account_id", "stripeAccountId"));
@@ -1273,7 +1277,7 @@ public class GatewayAccountCredentialsServiceTest {
                     .build();
 
             gatewayAccountEntity.setGatewayAccountCredentials(List.of(gatewayAccountCredentialsEntity));
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
                     .thenReturn(Optional.of(gatewayAccountCredentialsEntity));
             gatewayAccountCredentialsService.activateCredentialIfNotYetActive(stripeCredentialId);
 
@@ -1300,7 +1304,7 @@ public class GatewayAccountCredentialsServiceTest {
                     .build();
 
             gatewayAccountEntity.setGatewayAccountCredentials(List.of(updatableEntity, existingEntity));
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
                     .thenReturn(Optional.of(updatableEntity));
             gatewayAccountCredentialsService.activateCredentialIfNotYetActive(stripeCredentialId);
 
@@ -1322,7 +1326,7 @@ public class GatewayAccountCredentialsServiceTest {
                     .build();
 
             gatewayAccountEntity.setGatewayAccountCredentials(List.of(gatewayAccountCredentialsEntity));
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
                     .thenReturn(Optional.of(gatewayAccountCredentialsEntity));
             gatewayAccountCredentialsService.activateCredentialIfNotYetActive(stripeCredentialId);
 
@@ -1332,7 +1336,7 @@ public class GatewayAccountCredentialsServiceTest {
         @Test
         void shouldNotUpdateNonExistentCredentials() {
             String stripeCredentialId = "credentialId";
-            when(mockGatewayAccountCredentialsDao.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
+            when(mockGatewayAccountCredentialsLookupService.findByCredentialsKeyValue(StripeCredentials.STRIPE_ACCOUNT_ID_KEY, stripeCredentialId))
                     .thenReturn(Optional.empty());
             gatewayAccountCredentialsService.activateCredentialIfNotYetActive(stripeCredentialId);
 
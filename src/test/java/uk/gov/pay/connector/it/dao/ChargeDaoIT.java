@@ -31,9 +31,11 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.time.Duration.ofMinutes;
 import static java.time.ZoneOffset.UTC;
@@ -42,6 +44,7 @@ import static java.time.temporal.ChronoUnit.MICROS;
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
@@ -64,7 +67,6 @@ import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_APPR
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_READY;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
-import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.SYSTEM_CANCELLED;
 import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType.LIVE;
 import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType.TEST;
 import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialState.ACTIVE;
@@ -456,6 +458,51 @@ public class ChargeDaoIT {
         assertThat(gatewayAccount.getGatewayName(), is(defaultTestAccount.getPaymentProvider()));
     }
 
+    @Test
+    void findByIdRangeWithEventsAndFees_shouldReturnChargesInRangeWithTheirEventsAndFees() {
+        long firstChargeId = secureRandomLong(1, Long.MAX_VALUE - 4);
+        TestCharge first = insertChargeWithEvents(firstChargeId, CREATED, CAPTURE_READY);
+        app.getDatabaseFixtures().aTestFee().withTestCharge(first).insert();
+        insertChargeWithEvents(firstChargeId + 1, CREATED);
+        insertChargeWithEvents(firstChargeId + 2, CREATED);
+
+        List<ChargeEntity> charges = chargeDao.findByIdRangeWithEventsAndFees(firstChargeId - 1, firstChargeId + 1, 10);
+
+        assertThat(charges, contains(
+                hasProperty("id", is(firstChargeId)),
+                hasProperty("id", is(firstChargeId + 1))));
+        assertThat(charges.getFirst().getEvents(), hasSize(2));
+        assertThat(charges.getFirst().getFees(), hasSize(1));
+        assertThat(charges.get(1).getEvents(), hasSize(1));
+        assertThat(charges.get(1).getFees(), hasSize(0));
+    }
+
+    @Test
+    void findByIdRangeWithEventsAndFees_shouldReturnNoMoreThanTheLimitStartingAfterTheGivenId() {
+        long firstChargeId = secureRandomLong(1, Long.MAX_VALUE - 4);
+        insertChargeWithEvents(firstChargeId, CREATED);
+        insertChargeWithEvents(firstChargeId + 1, CREATED);
+        insertChargeWithEvents(firstChargeId + 2, CREATED);
+
+        List<ChargeEntity> charges = chargeDao.findByIdRangeWithEventsAndFees(firstChargeId, firstChargeId + 2, 1);
+
+        assertThat(charges, contains(hasProperty("id", is(firstChargeId + 1))));
+    }
+
+    private TestCharge insertChargeWithEvents(long chargeId, ChargeStatus... statuses) {
+        TestCharge charge = app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withChargeId(chargeId)
+                .withExternalChargeId(RandomIdGenerator.newId())
+                .withChargeStatus(statuses[statuses.length - 1])
+                .insert();
+        for (ChargeStatus status : statuses) {
+            app.getDatabaseFixtures().aTestChargeEvent().withTestCharge(charge).withChargeStatus(status).insert();
+        }
+        return charge;
+    }
+
     @Nested
     class GetChargeByChargeIdAndGatewayAccountId {
         @Test
@@ -606,78 +653,28 @@ public class ChargeDaoIT {
     }
 
     @Test
-    void testFindByDate_status_findsValidChargeForStatus() {
-        TestCharge charge = app.getDatabaseFixtures()
-                .aTestCharge()
-                .withTestAccount(defaultTestAccount)
-                .withChargeId(secureRandomLong())
-                .withExternalChargeId(RandomIdGenerator.newId())
-                .withCreatedDate(Instant.now().minus(Duration.ofHours(2)))
-                .insert();
-
-        ArrayList<ChargeStatus> chargeStatuses = Lists.newArrayList(CREATED, ENTERING_CARD_DETAILS, AUTHORISATION_SUCCESS);
-
-        List<ChargeEntity> charges = chargeDao.findBeforeDateWithStatusIn(Instant.now().minus(Duration.ofHours(1)), chargeStatuses);
-
-        assertThat(charges.size(), is(1));
-        assertEquals(charges.getFirst().getId(), charge.getChargeId());
-    }
-
-    @Test
-    void testFindByDateStatus_findsNoneForValidStatus() {
-        app.getDatabaseFixtures()
-                .aTestCharge()
-                .withTestAccount(defaultTestAccount)
-                .withChargeId(secureRandomLong())
-                .withExternalChargeId(RandomIdGenerator.newId())
-                .withCreatedDate(Instant.now().minus(Duration.ofHours(2)))
-                .insert();
-
-        ArrayList<ChargeStatus> chargeStatuses = Lists.newArrayList(CAPTURE_READY, SYSTEM_CANCELLED);
-
-        List<ChargeEntity> charges = chargeDao.findBeforeDateWithStatusIn(Instant.now().minus(Duration.ofHours(1)), chargeStatuses);
-
-        assertThat(charges.size(), is(0));
-    }
-
-    @Test
-    void testFindByDateStatus_findsNoneForExpiredDate() {
-        app.getDatabaseFixtures()
-                .aTestCharge()
-                .withTestAccount(defaultTestAccount)
-                .withChargeId(secureRandomLong())
-                .withExternalChargeId(RandomIdGenerator.newId())
-                .withCreatedDate(Instant.now().minus(ofMinutes(30)))
-                .insert();
-
-        ArrayList<ChargeStatus> chargeStatuses = Lists.newArrayList(CREATED, ENTERING_CARD_DETAILS, AUTHORISATION_SUCCESS);
-
-        List<ChargeEntity> charges = chargeDao.findBeforeDateWithStatusIn(Instant.now().minus(Duration.ofHours(1)), chargeStatuses);
-
-        assertThat(charges.size(), is(0));
-    }
-
-    @Test
-    void findChargesByCreatedUpdatedDatesAndWithStatusIn_shouldReturnChargesCorrectly() {
-        TestCharge chargeCreatedBeforeDateAndUpdateDateNullShouldReturn = createCharge(Instant.now().minus(ofMinutes(40)), null, CREATED);
-        TestCharge chargeUpdatedBeforeDateShouldReturn = createCharge(Instant.now().minus(ofMinutes(40)), Instant.now().minus(ofMinutes(15)), CREATED);
-        TestCharge chargeCreatedWithInLast20MinutesShouldExclude = createCharge(Instant.now().minus(ofMinutes(20)), Instant.now().minus(ofMinutes(15)), ENTERING_CARD_DETAILS);
-        TestCharge chargeUpdatedWithInLast3MinutesShouldExclude = createCharge(Instant.now().minus(ofMinutes(40)), Instant.now().minus(ofMinutes(3)), ENTERING_CARD_DETAILS);
-        TestCharge chargeWithStatusNotQueriedShouldExclude = createCharge(Instant.now().minus(ofMinutes(40)), Instant.now().minus(ofMinutes(3)), AUTHORISATION_3DS_READY);
-
-        ArrayList<ChargeStatus> chargeStatuses = Lists.newArrayList(CREATED, ENTERING_CARD_DETAILS, AUTHORISATION_SUCCESS);
-
-        List<ChargeEntity> charges = chargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(
-                Instant.now().minus(Duration.ofMinutes(30)),
-                Instant.now().minus(ofMinutes(10)),
-                chargeStatuses);
-
-        assertThat(charges.size(), is(2));
-
-        assertThat(charges, containsInAnyOrder(
-                hasProperty("externalId", is(chargeCreatedBeforeDateAndUpdateDateNullShouldReturn.externalChargeId)),
-                hasProperty("externalId", is(chargeUpdatedBeforeDateShouldReturn.externalChargeId))
-        ));
+    void findChargesToExpireAfterId_shouldReturnMatchingChargesInIdOrderAfterTheGivenId() {
+        TestCharge firstCharge = createCharge(Instant.now().minus(ofMinutes(40)), null, CREATED);
+        TestCharge secondCharge = createCharge(Instant.now().minus(ofMinutes(40)), Instant.now().minus(ofMinutes(15)), ENTERING_CARD_DETAILS);
+        TestCharge thirdCharge = createCharge(Instant.now().minus(ofMinutes(40)), null, CREATED);
+        createCharge(Instant.now().minus(ofMinutes(40)), Instant.now().minus(ofMinutes(3)), CREATED);
+        createCharge(Instant.now().minus(ofMinutes(20)), null, CREATED);
+        createCharge(Instant.now().minus(ofMinutes(40)), null, AUTHORISATION_3DS_READY);
+
+        List<TestCharge> matchingChargesInIdOrder = Stream.of(firstCharge, secondCharge, thirdCharge)
+                .sorted(Comparator.comparing(TestCharge::getChargeId))
+                .toList();
+        ArrayList<ChargeStatus> chargeStatuses = Lists.newArrayList(CREATED, ENTERING_CARD_DETAILS);
+
+        List<ChargeEntity> firstPage = chargeDao.findChargesToExpireAfterId(0L,
+                Instant.now().minus(Duration.ofMinutes(30)), Instant.now().minus(ofMinutes(10)), chargeStatuses, 2);
+        List<ChargeEntity> secondPage = chargeDao.findChargesToExpireAfterId(firstPage.get(1).getId(),
+                Instant.now().minus(Duration.ofMinutes(30)), Instant.now().minus(ofMinutes(10)), chargeStatuses, 2);
+
+        assertThat(firstPage.stream().map(ChargeEntity::getId).toList(), contains(
+                matchingChargesInIdOrder.get(0).getChargeId(), matchingChargesInIdOrder.get(1).getChargeId()));
+        assertThat(secondPage.stream().map(ChargeEntity::getId).toList(), contains(
+                matchingChargesInIdOrder.get(2).getChargeId()));
     }
 
     private TestCharge createCharge(Instant createdDate, Instant updatedDate, ChargeStatus status) {
@@ -13,7 +13,9 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSearchParams;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
 import uk.gov.pay.connector.util.AddGatewayAccountCredentialsParams;
+import uk.gov.pay.connector.util.DatabaseActivity;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -22,7 +24,9 @@ import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
@@ -38,6 +42,7 @@ import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType.TEST;
 import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialState.ACTIVE;
 import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialState.CREATED;
 import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntityFixture.aGatewayAccountCredentialsEntity;
+import static uk.gov.pay.connector.usernotification.model.domain.EmailNotificationType.PAYMENT_CONFIRMED;
 import static uk.gov.pay.connector.util.AddGatewayAccountCredentialsParams.AddGatewayAccountCredentialsParamsBuilder.anAddGatewayAccountCredentialsParams;
 import static uk.gov.pay.connector.util.AddGatewayAccountParams.AddGatewayAccountParamsBuilder.anAddGatewayAccountParams;
 import static uk.gov.pay.connector.util.RandomTestDataGeneratorUtils.secureRandomLong;
@@ -209,7 +214,9 @@ public class GatewayAccountDaoIT {
     }
 
     @Nested
-    class Search {
+    class SearchPage {
+        private static final int PAGE_SIZE = 100;
+
         @Test
         void shouldReturnAllAccountsWhenNoSearchParameters() {
             long gatewayAccountId_1 = secureRandomLong();
@@ -223,12 +230,114 @@ public class GatewayAccountDaoIT {
 
             var params = new GatewayAccountSearchParams();
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(2));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_1));
             assertThat(gatewayAccounts.get(1).getId(), is(gatewayAccountId_2));
         }
 
+        @Test
+        void shouldReturnAccountsAfterTheGivenIdUpToThePageSize() {
+            long gatewayAccountId_1 = secureRandomLong(1, Long.MAX_VALUE - 3);
+            long gatewayAccountId_2 = gatewayAccountId_1 + 1;
+            long gatewayAccountId_3 = gatewayAccountId_2 + 1;
+            for (long id : List.of(gatewayAccountId_1, gatewayAccountId_2, gatewayAccountId_3)) {
+                app.getDatabaseTestHelper().addGatewayAccount(anAddGatewayAccountParams()
+                        .withAccountId(String.valueOf(id))
+                        .build());
+            }
+
+            var params = new GatewayAccountSearchParams();
+
+            List<GatewayAccountEntity> firstPage = gatewayAccountDao.searchPage(params, 0L, 2);
+            assertThat(firstPage, contains(
+                    hasProperty("id", is(gatewayAccountId_1)),
+                    hasProperty("id", is(gatewayAccountId_2))
+            ));
+
+            List<GatewayAccountEntity> secondPage = gatewayAccountDao.searchPage(params, gatewayAccountId_2, 2);
+            assertThat(secondPage, contains(hasProperty("id", is(gatewayAccountId_3))));
+
+            assertThat(gatewayAccountDao.searchPage(params, gatewayAccountId_3, 2), is(empty()));
+        }
+
+        @Test
+        void shouldApplyFiltersTogetherWithTheGivenId() {
+            long gatewayAccountId_1 = secureRandomLong(1, Long.MAX_VALUE - 3);
+            long gatewayAccountId_2 = gatewayAccountId_1 + 1;
+            long gatewayAccountId_3 = gatewayAccountId_2 + 1;
+            app.getDatabaseTestHelper().addGatewayAccount(anAddGatewayAccountParams()
+                    .withAccountId(String.valueOf(gatewayAccountId_1))
+                    .withType(LIVE)
+                    .build());
+            app.getDatabaseTestHelper().addGatewayAccount(anAddGatewayAccountParams()
+                    .withAccountId(String.valueOf(gatewayAccountId_2))
+                    .withType(TEST)
+                    .build());
+            app.getDatabaseTestHelper().addGatewayAccount(anAddGatewayAccountParams()
+                    .withAccountId(String.valueOf(gatewayAccountId_3))
+                    .withType(LIVE)
+                    .build());
+
+            var params = new GatewayAccountSearchParams();
+            params.setType("live");
+
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, gatewayAccountId_1, PAGE_SIZE);
+            assertThat(gatewayAccounts, contains(hasProperty("id", is(gatewayAccountId_3))));
+        }
+
+        @Test
+        void shouldLoadCredentialsEmailNotificationsAndWorldpay3dsFlexCredentialsForTheWholePageAtOnce() {
+            long firstPageStartId = secureRandomLong(1, Long.MAX_VALUE - 10);
+            insertAccountsWithAssociations(firstPageStartId, 2);
+            long secondPageStartId = firstPageStartId + 5;
+            insertAccountsWithAssociations(secondPageStartId, 4);
+
+            var params = new GatewayAccountSearchParams();
+
+            List<GatewayAccountEntity> smallPage = new ArrayList<>();
+            int statementsForSmallPage = statementsRunBy(() ->
+                    smallPage.addAll(gatewayAccountDao.searchPage(params, firstPageStartId - 1, 2)));
+            List<GatewayAccountEntity> largePage = new ArrayList<>();
+            int statementsForLargePage = statementsRunBy(() ->
+                    largePage.addAll(gatewayAccountDao.searchPage(params, secondPageStartId - 1, 4)));
+
+            assertThat(smallPage, hasSize(2));
+            assertThat(largePage, hasSize(4));
+            assertThat(statementsForLargePage, is(statementsForSmallPage));
+            largePage.forEach(account -> {
+                assertThat(account.getGatewayAccountCredentials(), hasSize(1));
+                assertThat(account.getEmailNotifications().keySet(), contains(PAYMENT_CONFIRMED));
+                assertThat(account.getWorldpay3dsFlexCredentialsEntity().isPresent(), is(true));
+            });
+        }
+
+        private void insertAccountsWithAssociations(long firstId, int count) {
+            for (long id = firstId; id < firstId + count; id++) {
+                app.getDatabaseTestHelper().addGatewayAccount(anAddGatewayAccountParams()
+                        .withAccountId(String.valueOf(id))
+                        .withPaymentGateway(WORLDPAY.getName())
+                        .withGatewayAccountCredentials(List.of(anAddGatewayAccountCredentialsParams()
+                                .withPaymentProvider(WORLDPAY.getName())
+                                .withState(ACTIVE)
+                                .withGatewayAccountId(id)
+                                .build()))
+                        .build());
+                app.getDatabaseTestHelper().addEmailNotification(id, "a template", true, PAYMENT_CONFIRMED);
+                app.getDatabaseTestHelper().insertWorldpay3dsFlexCredential(id, "macKey", "issuer", "orgUnitId", 2L);
+            }
+        }
+
+        private int statementsRunBy(Runnable work) {
+            DatabaseActivity activity = DatabaseActivity.begin();
+            try {
+                work.run();
+                return activity.getStatements();
+            } finally {
+                activity.end(DatabaseActivity.JOB, "gateway-account-dao-it");
+            }
+        }
+
         @Test
         void shouldSearchForAccountsById() {
             long gatewayAccountId_1 = secureRandomLong();
@@ -251,7 +360,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setAccountIds(gatewayAccountId_1 + "," + gatewayAccountId_2);
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(2));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_1));
             assertThat(gatewayAccounts.getFirst().getExternalId(), is(externalId_1));
@@ -275,7 +384,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setMotoEnabled("true");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_2));
         }
@@ -296,7 +405,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setApplePayEnabled("true");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_2));
         }
@@ -317,7 +426,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setGooglePayEnabled("true");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_2));
         }
@@ -338,7 +447,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setRequires3ds("true");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_2));
         }
@@ -359,7 +468,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setType("live");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_2));
         }
@@ -405,7 +514,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setPaymentProvider("worldpay");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(2));
             assertThat(gatewayAccounts, containsInAnyOrder(
                     hasProperty("id", is(gatewayAccountId2)),
@@ -431,7 +540,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setProviderSwitchEnabled("true");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId_1));
         }
@@ -448,7 +557,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setPaymentProviderAccountId("acc123");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId));
         }
@@ -465,7 +574,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setPaymentProviderAccountId("acc123");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId));
         }
@@ -482,7 +591,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setPaymentProviderAccountId("acc123");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId));
         }
@@ -499,7 +608,7 @@ public class GatewayAccountDaoIT {
             var params = new GatewayAccountSearchParams();
             params.setPaymentProviderAccountId("acc123");
 
-            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.search(params);
+            List<GatewayAccountEntity> gatewayAccounts = gatewayAccountDao.searchPage(params, 0L, PAGE_SIZE);
             assertThat(gatewayAccounts, hasSize(1));
             assertThat(gatewayAccounts.getFirst().getId(), is(gatewayAccountId));
         }
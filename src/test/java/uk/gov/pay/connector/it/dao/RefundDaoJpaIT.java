@@ -11,18 +11,24 @@ import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
+import uk.gov.pay.connector.util.RandomIdGenerator;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.now;
 import static java.time.temporal.ChronoUnit.MICROS;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.oneOf;
@@ -195,6 +201,36 @@ public class RefundDaoJpaIT {
         assertThat(refundHistoryList.size(), is(2));
     }
 
+    @Test
+    void searchAllHistoryByChargeExternalIds_shouldReturnTheHistoryOfEveryGivenCharge() {
+        DatabaseFixtures.TestCharge otherCharge = insertCapturedCharge();
+        DatabaseFixtures.TestCharge chargeNotAskedFor = insertCapturedCharge();
+        persistSubmittedRefund(chargeTestRecord.getExternalChargeId());
+        persistSubmittedRefund(otherCharge.getExternalChargeId());
+        RefundEntity refundNotAskedFor = persistSubmittedRefund(chargeNotAskedFor.getExternalChargeId());
+
+        List<RefundHistory> refundHistoryList = refundDao.searchAllHistoryByChargeExternalIds(
+                List.of(chargeTestRecord.getExternalChargeId(), otherCharge.getExternalChargeId()));
+
+        List<String> expected = Stream.concat(
+                        refundDao.searchAllHistoryByChargeExternalId(chargeTestRecord.getExternalChargeId()).stream(),
+                        refundDao.searchAllHistoryByChargeExternalId(otherCharge.getExternalChargeId()).stream())
+                .map(RefundDaoJpaIT::historyKey)
+                .toList();
+        assertThat(expected.size(), is(4));
+        assertThat(refundHistoryList.stream().map(RefundDaoJpaIT::historyKey).toList(),
+                containsInAnyOrder(expected.toArray()));
+        assertThat(refundHistoryList.stream().map(RefundEntity::getExternalId).toList(),
+                not(hasItem(refundNotAskedFor.getExternalId())));
+    }
+
+    @Test
+    void searchAllHistoryByChargeExternalIds_shouldReturnNothingForNoCharges() {
+        persistSubmittedRefund(chargeTestRecord.getExternalChargeId());
+
+        assertThat(refundDao.searchAllHistoryByChargeExternalIds(List.of()), is(empty()));
+    }
+
     // CREATED to REFUND_SUBMITTED happens synchronously so not needed to return history for CREATED status
     // Causing issues since gateway transaction id is not populated for CREATED is also being removed as is detected as
     // duplicated.
@@ -471,4 +507,29 @@ public class RefundDaoJpaIT {
         assertThat(refunds.size(), Matchers.is(1));
         assertThat(refunds.getFirst().getParityCheckStatus(), Matchers.is(ParityCheckStatus.MISSING_IN_LEDGER));
     }
+
+    private DatabaseFixtures.TestCharge insertCapturedCharge() {
+        return app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(sandboxAccount)
+                .withChargeId(secureRandomLong())
+                .withExternalChargeId(RandomIdGenerator.newId())
+                .withChargeStatus(ChargeStatus.CAPTURED)
+                .insert();
+    }
+
+    private RefundEntity persistSubmittedRefund(String chargeExternalId) {
+        RefundEntity refundEntity = new RefundEntity(100L, userExternalId, userEmail, chargeExternalId);
+        refundEntity.setGatewayTransactionId(randomAlphanumeric(30));
+        refundEntity.setStatus(CREATED);
+        refundDao.persist(refundEntity);
+
+        refundEntity.setStatus(REFUND_SUBMITTED);
+        refundDao.merge(refundEntity);
+        return refundEntity;
+    }
+
+    private static String historyKey(RefundHistory refundHistory) {
+        return refundHistory.getExternalId() + ":" + refundHistory.getStatus() + ":" + refundHistory.getChargeExternalId();
+    }
 }
@@ -0,0 +1,134 @@
+package uk.gov.pay.connector.it.events;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.it.base.ITestBaseExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.SYSTEM_CANCELLED;
+import static uk.gov.pay.connector.it.base.AddChargeParameters.Builder.anAddChargeParameters;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.AMOUNT;
+
+/**
+ * Runs state transitions through the emitted_events outbox, as deployed, rather than the in-memory queue which
+ * {@link StateTransitionsIT} covers.
+ */
+public class StateTransitionsOutboxIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension(
+            config("captureProcessConfig.backgroundProcessingEnabled", "true"),
+            config("eventQueue.eventQueueEnabled", "true"),
+            config("eventQueue.stateTransitionOutboxEnabled", "true")
+    );
+    @RegisterExtension
+    static ITestBaseExtension testBaseExtension = new ITestBaseExtension("sandbox", app.getLocalPort(), app.getDatabaseTestHelper());
+
+    @BeforeEach
+    void setUp() {
+        app.purgeEventQueue();
+    }
+
+    @Test
+    void shouldEmitPaymentStateTransitionsFromTheOutboxGivenAuthCancel() {
+        String chargeId = testBaseExtension.addCharge(
+                anAddChargeParameters().withChargeStatus(AUTHORISATION_SUCCESS)
+                        .withCreatedDate(Instant.now().minus(1, HOURS))
+                        .withTransactionId("transaction-id-outbox-it")
+                        .build());
+
+        testBaseExtension.cancelChargeAndCheckApiStatus(chargeId, SYSTEM_CANCELLED, 204);
+
+        List<JsonObject> messages = awaitMessagesFromEventQueue(2);
+
+        assertThat(messages.stream().map(m -> m.get("event_type").getAsString()).toList(),
+                containsInAnyOrder("CANCELLED_BY_EXTERNAL_SERVICE", "REFUND_AVAILABILITY_UPDATED"));
+        assertThat(messages.stream().map(m -> m.get("resource_external_id").getAsString()).toList(),
+                everyItem(is(chargeId)));
+        assertStateTransitionsAllMarkedAsEmitted();
+    }
+
+    @Test
+    void shouldEmitRefundStateTransitionsFromTheOutbox() {
+        String chargeId = testBaseExtension.addCharge(
+                anAddChargeParameters().withChargeStatus(CAPTURED)
+                        .withCreatedDate(Instant.now().minus(1, HOURS))
+                        .withTransactionId("transaction-id-outbox-it")
+                        .build());
+        String refundPayload = new Gson().toJson(ImmutableMap.of("amount", 50L, "refund_amount_available", AMOUNT));
+
+        String refundId = app.givenSetup()
+                .body(refundPayload)
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .post("/v1/api/accounts/{accountId}/charges/{chargeId}/refunds"
+                        .replace("{accountId}", testBaseExtension.getAccountId())
+                        .replace("{chargeId}", chargeId))
+                .then()
+                .statusCode(202)
+                .extract().response().jsonPath().get("refund_id");
+
+        List<JsonObject> messages = awaitMessagesFromEventQueue(4);
+
+        assertThat(messages.stream().map(m -> m.get("event_type").getAsString()).toList(), containsInAnyOrder(
+                "REFUND_CREATED_BY_SERVICE", "REFUND_AVAILABILITY_UPDATED", "REFUND_SUBMITTED", "REFUND_SUCCEEDED"));
+        assertThat(messages.stream()
+                .filter(m -> !"REFUND_AVAILABILITY_UPDATED".equals(m.get("event_type").getAsString()))
+                .map(m -> m.get("resource_external_id").getAsString()).toList(), everyItem(is(refundId)));
+        assertStateTransitionsAllMarkedAsEmitted();
+    }
+
+    private void assertStateTransitionsAllMarkedAsEmitted() {
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            List<Map<String, Object>> stateTransitions = app.getDatabaseTestHelper().readEmittedEvents().stream()
+                    .filter(row -> row.get("state_transition_event_class") != null)
+                    .toList();
+            assertThat(stateTransitions.isEmpty(), is(false));
+            assertThat(stateTransitions.stream().map(row -> row.get("emitted_date")).toList(), everyItem(is(notNullValue())));
+            assertThat(stateTransitions.stream().map(row -> row.get("outbox_claimed_until")).toList(), everyItem(is(nullValue())));
+        });
+    }
+
+    private List<JsonObject> awaitMessagesFromEventQueue(int expected) {
+        SqsClient sqsClient = app.getInstanceFromGuiceContainer(SqsClient.class);
+        List<JsonObject> messages = new ArrayList<>();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            List<Message> received = sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                    .queueUrl(app.getEventQueueUrl())
+                    .waitTimeSeconds(1)
+                    .maxNumberOfMessages(10)
+                    .build()).messages();
+            received.forEach(m -> messages.add(JsonParser.parseString(m.body()).getAsJsonObject()));
+            return messages.size() >= expected;
+        });
+
+        assertThat(messages.size(), is(expected));
+        return messages;
+    }
+}
@@ -61,6 +61,32 @@ class GatewayAccountResourceTest {
                 .contains("Parameter [accountIds] must be a comma separated list of numbers"));
     }
 
+    @Test
+    void searchGatewayAccount_afterIdTooLongForAnAccountId_shouldReturn422() {
+        var response = resources.target("/v1/api/accounts")
+                .queryParam("after_id", "99999999999999999999")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(422));
+
+        assertTrue(response.readEntity(ErrorResponse.class).messages()
+                .contains("Parameter [after_id] must be a number of at most 18 digits"));
+    }
+
+    @Test
+    void searchGatewayAccount_limitTooLongForANumber_shouldReturn422() {
+        var response = resources.target("/v1/api/accounts")
+                .queryParam("limit", "99999999999999999999")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(422));
+
+        assertTrue(response.readEntity(ErrorResponse.class).messages()
+                .contains("Parameter [limit] must be a positive number of at most 18 digits"));
+    }
+
     @Test
     void should_create_gateway_account_on_create_gateway_account_request() {
         given(gatewayAccountService.createGatewayAccount(any(), any()))
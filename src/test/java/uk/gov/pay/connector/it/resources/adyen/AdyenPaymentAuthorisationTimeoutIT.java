@@ -20,6 +20,7 @@ import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
 import uk.gov.pay.connector.gateway.ClientFactory;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
+import uk.gov.pay.connector.gateway.GatewayConcurrencyLimiters;
 import uk.gov.pay.connector.gateway.GatewayException;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
 import uk.gov.pay.connector.gateway.model.request.GatewayClientPostRequest;
@@ -105,7 +106,7 @@ public class AdyenPaymentAuthorisationTimeoutIT {
 
         @Provides
         public GatewayClientFactory provideGatewayClientFactory(ClientFactory clientFactory) {
-            return new GatewayClientFactory(clientFactory) {
+            return new GatewayClientFactory(clientFactory, GatewayConcurrencyLimiters.unlimited()) {
                 @Override
                 public GatewayClient createGatewayClient(PaymentGatewayName gateway, MetricRegistry metricRegistry) {
                     return new GatewayClient(null, null) {
@@ -48,6 +48,7 @@ import static uk.gov.service.payments.commons.model.CommonDateTimeFormatters.ISO
 
 public class LedgerTransactionFixture {
     private String status = "created";
+    private boolean finished;
     private String externalId;
     private Long amount;
     private String description;
@@ -201,7 +202,7 @@ public class LedgerTransactionFixture {
 
     public LedgerTransaction build() {
         var ledgerTransaction = new LedgerTransaction();
-        ledgerTransaction.setState(new TransactionState(status));
+        ledgerTransaction.setState(new TransactionState(status, finished));
         ledgerTransaction.setTransactionId(externalId);
         ledgerTransaction.setServiceId(serviceId);
         ledgerTransaction.setAmount(amount);
@@ -264,6 +265,11 @@ public class LedgerTransactionFixture {
         return this;
     }
 
+    public LedgerTransactionFixture withFinished(boolean finished) {
+        this.finished = finished;
+        return this;
+    }
+
     public LedgerTransactionFixture withExternalId(String externalId) {
         this.externalId = externalId;
         return this;
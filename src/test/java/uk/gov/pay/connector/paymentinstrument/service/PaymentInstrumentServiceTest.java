@@ -8,7 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
-import uk.gov.pay.connector.client.ledger.service.LedgerService;
+import uk.gov.pay.connector.client.ledger.service.LedgerEventPublisher;
 import uk.gov.pay.connector.paymentinstrument.dao.PaymentInstrumentDao;
 import uk.gov.pay.connector.paymentinstrument.model.PaymentInstrumentEntity;
 import uk.gov.pay.connector.paymentinstrument.model.PaymentInstrumentStatus;
@@ -35,11 +35,11 @@ class PaymentInstrumentServiceTest {
     private PaymentInstrumentService paymentInstrumentService;
 
     @Mock
-    private LedgerService ledgerService;
+    private LedgerEventPublisher ledgerEventPublisher;
 
     @BeforeEach
     void setUp() {
-        paymentInstrumentService = new PaymentInstrumentService(mockPaymentInstrumentDao, ledgerService, InstantSource.fixed(NOW));
+        paymentInstrumentService = new PaymentInstrumentService(mockPaymentInstrumentDao, ledgerEventPublisher, InstantSource.fixed(NOW));
     }
 
     @Test
@@ -127,7 +127,7 @@ public class Card3dsResponseAuthServiceTest extends CardServiceTest {
         when(mockAuthorisationConfig.getAsynchronousAuthTimeoutInMilliseconds()).thenReturn(1000);
 
         chargeService = new ChargeService(null, mockedChargeDao, mockedChargeEventDao, null,
-                null, null, mockConfiguration, null, mockStateTransitionService, ledgerService,
+                null, null, mockConfiguration, null, mockStateTransitionService, ledgerService, null,
                 mockedRefundService, mockEventService, mockPaymentInstrumentService, mockGatewayAccountCredentialsService,
                 mockAuthCardDetailsToCardDetailsEntityConverter, mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao,
                 mockExternalTransactionStateFactory, objectMapper, null, fixedInstantSource);
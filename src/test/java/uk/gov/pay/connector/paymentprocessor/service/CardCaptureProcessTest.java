@@ -1,11 +1,17 @@
 package uk.gov.pay.connector.paymentprocessor.service;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.CaptureProcessConfig;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.ChargesAwaitingCaptureMetricEmitter;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.common.exception.IllegalStateRuntimeException;
 import uk.gov.pay.connector.gateway.CaptureResponse;
@@ -15,15 +21,25 @@ import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture.aValidChargeEntity;
 
 @ExtendWith(MockitoExtension.class)
 class CardCaptureProcessTest {
 
     private static final String chargeExternalId = "some-charge-id";
+    private static final long WORKER_TIMEOUT_MILLIS = 2000;
     @Mock
     CaptureQueue captureQueue;
     @Mock
@@ -36,6 +52,13 @@ class CardCaptureProcessTest {
     ChargeService chargeService;
     @Mock
     ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter;
+    @Mock
+    ConnectorConfiguration connectorConfiguration;
+    @Mock
+    CaptureProcessConfig captureProcessConfig;
+    @Mock
+    Environment environment;
+    MetricRegistry metricRegistry = new MetricRegistry();
     CardCaptureProcess cardCaptureProcess;
 
     @BeforeEach
@@ -43,11 +66,23 @@ class CardCaptureProcessTest {
         List<ChargeCaptureMessage> messages = Arrays.asList(chargeCaptureMessage);
 
         when(chargeCaptureMessage.getChargeId()).thenReturn(chargeExternalId);
+        when(chargeCaptureMessage.getPaymentProvider()).thenReturn("worldpay");
         when(captureQueue.retrieveChargesForCapture()).thenReturn(messages);
         when(cardCaptureService.doCapture(anyString())).thenReturn(captureResponse);
+        when(connectorConfiguration.getCaptureProcessConfig()).thenReturn(captureProcessConfig);
+        when(captureProcessConfig.getWorkerThreadsPerGateway()).thenReturn(2);
+        when(captureProcessConfig.getWorkerQueueCapacityPerGateway()).thenReturn(10);
+        when(captureProcessConfig.getMaximumCapturesInFlight()).thenReturn(10);
+        when(captureProcessConfig.getMaximumQueuedTimeInMilliseconds()).thenReturn(10000);
+        when(environment.metrics()).thenReturn(metricRegistry);
 
         cardCaptureProcess = new CardCaptureProcess(captureQueue, cardCaptureService,
-                chargeService, chargesAwaitingCaptureMetricEmitter);
+                chargeService, chargesAwaitingCaptureMetricEmitter, connectorConfiguration, environment);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        cardCaptureProcess.shutdownWorkers(1, TimeUnit.SECONDS);
     }
 
     @Test
@@ -56,7 +91,7 @@ class CardCaptureProcessTest {
 
         cardCaptureProcess.handleCaptureMessages();
 
-        verify(captureQueue).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+        verify(captureQueue, timeout(WORKER_TIMEOUT_MILLIS)).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
     }
 
     @Test
@@ -66,7 +101,7 @@ class CardCaptureProcessTest {
 
         cardCaptureProcess.handleCaptureMessages();
 
-        verify(captureQueue).scheduleMessageForRetry(chargeCaptureMessage.getQueueMessage());
+        verify(captureQueue, timeout(WORKER_TIMEOUT_MILLIS)).scheduleMessageForRetry(chargeCaptureMessage.getQueueMessage());
     }
 
     @Test
@@ -76,8 +111,8 @@ class CardCaptureProcessTest {
 
         cardCaptureProcess.handleCaptureMessages();
 
-        verify(cardCaptureService).markChargeAsCaptureError(chargeExternalId);
-        verify(captureQueue).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+        verify(cardCaptureService, timeout(WORKER_TIMEOUT_MILLIS)).markChargeAsCaptureError(chargeExternalId);
+        verify(captureQueue, timeout(WORKER_TIMEOUT_MILLIS)).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
     }
 
     @Test
@@ -87,6 +122,73 @@ class CardCaptureProcessTest {
 
         cardCaptureProcess.handleCaptureMessages();
 
-        verify(captureQueue).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+        verify(captureQueue, timeout(WORKER_TIMEOUT_MILLIS)).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+    }
+
+    @Test
+    void shouldLookUpPaymentGatewayFromChargeGivenMessageWithoutPaymentProvider() throws QueueException {
+        ChargeEntity chargeEntity = aValidChargeEntity().withPaymentProvider("stripe").build();
+        when(chargeCaptureMessage.getPaymentProvider()).thenReturn(null);
+        when(chargeService.findChargeByExternalId(chargeExternalId)).thenReturn(chargeEntity);
+        when(captureResponse.isSuccessful()).thenReturn(true);
+
+        cardCaptureProcess.handleCaptureMessages();
+
+        verify(captureQueue, timeout(WORKER_TIMEOUT_MILLIS)).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+        assertThat(metricRegistry.getMeters().get("gateway-operations.capture-process.stripe.captures").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldNotPollCaptureQueueWhileMaximumCapturesAreInFlight() throws Exception {
+        when(captureProcessConfig.getMaximumCapturesInFlight()).thenReturn(1);
+        cardCaptureProcess.shutdownWorkers(1, TimeUnit.SECONDS);
+        cardCaptureProcess = new CardCaptureProcess(captureQueue, cardCaptureService,
+                chargeService, chargesAwaitingCaptureMetricEmitter, connectorConfiguration, environment);
+
+        CountDownLatch captureStarted = new CountDownLatch(1);
+        CountDownLatch releaseCapture = new CountDownLatch(1);
+        when(cardCaptureService.doCapture(anyString())).thenAnswer(invocation -> {
+            captureStarted.countDown();
+            releaseCapture.await(WORKER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return captureResponse;
+        });
+        when(captureResponse.isSuccessful()).thenReturn(true);
+
+        cardCaptureProcess.handleCaptureMessages();
+        assertThat(captureStarted.await(WORKER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is(true));
+        assertThat(cardCaptureProcess.getCapturesInFlight(), is(1));
+
+        cardCaptureProcess.handleCaptureMessages();
+        verify(captureQueue, times(1)).retrieveChargesForCapture();
+
+        releaseCapture.countDown();
+        verify(captureQueue, timeout(WORKER_TIMEOUT_MILLIS)).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+    }
+
+    @Test
+    void shouldLeaveMessageForRedeliveryGivenItWaitedTooLongForAWorker() throws Exception {
+        when(captureProcessConfig.getWorkerThreadsPerGateway()).thenReturn(1);
+        when(captureProcessConfig.getMaximumQueuedTimeInMilliseconds()).thenReturn(50);
+        cardCaptureProcess.shutdownWorkers(1, TimeUnit.SECONDS);
+        cardCaptureProcess = new CardCaptureProcess(captureQueue, cardCaptureService,
+                chargeService, chargesAwaitingCaptureMetricEmitter, connectorConfiguration, environment);
+
+        ChargeCaptureMessage waitingMessage = mock(ChargeCaptureMessage.class);
+        when(waitingMessage.getChargeId()).thenReturn("waiting-charge-id");
+        when(waitingMessage.getPaymentProvider()).thenReturn("worldpay");
+        when(captureQueue.retrieveChargesForCapture()).thenReturn(List.of(chargeCaptureMessage, waitingMessage));
+        when(cardCaptureService.doCapture(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return captureResponse;
+        });
+        when(captureResponse.isSuccessful()).thenReturn(true);
+
+        cardCaptureProcess.handleCaptureMessages();
+
+        assertThat(cardCaptureProcess.shutdownWorkers(WORKER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is(true));
+        verify(cardCaptureService).doCapture(chargeExternalId);
+        verify(cardCaptureService, never()).doCapture("waiting-charge-id");
+        assertThat(cardCaptureProcess.getCapturesInFlight(), is(0));
+        assertThat(metricRegistry.getMeters().get("gateway-operations.capture-process.worldpay.expired_before_capture").getCount(), is(1L));
     }
 }
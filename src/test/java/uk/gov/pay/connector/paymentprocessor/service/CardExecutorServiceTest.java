@@ -0,0 +1,152 @@
+package uk.gov.pay.connector.paymentprocessor.service;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.ExecutorServiceConfig;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutionMode.PLATFORM_THREADS;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutionMode.VIRTUAL_THREADS;
+import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.COMPLETED;
+import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.IN_PROGRESS;
+
+@ExtendWith(MockitoExtension.class)
+class CardExecutorServiceTest {
+
+    private static final int SHORT_TIMEOUT_MILLIS = 200;
+    private static final int LONG_TIMEOUT_MILLIS = 5000;
+
+    @Mock
+    private ConnectorConfiguration connectorConfiguration;
+    @Mock
+    private ExecutorServiceConfig executorServiceConfig;
+    @Mock
+    private Environment environment;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final CountDownLatch releaseBlockedTask = new CountDownLatch(1);
+    private CardExecutorService cardExecutorService;
+
+    @BeforeEach
+    void setUp() {
+        when(connectorConfiguration.getExecutorServiceConfig()).thenReturn(executorServiceConfig);
+        when(environment.metrics()).thenReturn(metricRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseBlockedTask.countDown();
+        cardExecutorService.getExecutor().shutdownNow();
+    }
+
+    @Test
+    void shouldRunTaskOnPlatformThreadPoolWithCallersMdc() {
+        when(executorServiceConfig.getExecutionMode()).thenReturn(PLATFORM_THREADS);
+        when(executorServiceConfig.getThreadsPerCpu()).thenReturn(1);
+        cardExecutorService = new CardExecutorService(connectorConfiguration, environment);
+
+        MDC.put("chargeId", "charge-1");
+        try {
+            Pair<CardExecutorService.ExecutionStatus, String> result =
+                    cardExecutorService.execute(() -> MDC.get("chargeId"), LONG_TIMEOUT_MILLIS);
+
+            assertThat(result.getLeft(), is(COMPLETED));
+            assertThat(result.getRight(), is("charge-1"));
+        } finally {
+            MDC.remove("chargeId");
+        }
+    }
+
+    @Test
+    void shouldRunTaskOnVirtualThreadWithCallersMdc() {
+        givenVirtualThreadModeWithPermitsPerGateway(1);
+
+        MDC.put("chargeId", "charge-1");
+        try {
+            Pair<CardExecutorService.ExecutionStatus, Boolean> result =
+                    cardExecutorService.execute(() -> "charge-1".equals(MDC.get("chargeId")) && Thread.currentThread().isVirtual(),
+                            LONG_TIMEOUT_MILLIS);
+
+            assertThat(result.getLeft(), is(COMPLETED));
+            assertThat(result.getRight(), is(true));
+        } finally {
+            MDC.remove("chargeId");
+        }
+    }
+
+    @Test
+    void shouldHoldTaskUntilPermitForItsGatewayIsReleasedAndReportItInProgress() {
+        givenVirtualThreadModeWithPermitsPerGateway(1);
+
+        assertThat(cardExecutorService.execute(() -> blockUntilReleased("worldpay"), SHORT_TIMEOUT_MILLIS).getLeft(), is(IN_PROGRESS));
+        Pair<CardExecutorService.ExecutionStatus, String> secondResult = cardExecutorService.execute(() -> done("worldpay"), SHORT_TIMEOUT_MILLIS);
+
+        assertThat(secondResult.getLeft(), is(IN_PROGRESS));
+        assertThat(secondResult.getRight(), is(nullValue()));
+        assertThat(cardExecutorService.getActiveTaskCount(), is(1));
+        assertThat(cardExecutorService.getWaitingTaskCount(), is(1));
+        assertThat(metricRegistry.getGauges().get("card-executor.worldpay.available-permits").getValue(), is(0));
+
+        releaseBlockedTask.countDown();
+
+        assertThat(cardExecutorService.execute(() -> done("worldpay"), LONG_TIMEOUT_MILLIS).getLeft(), is(COMPLETED));
+    }
+
+    @Test
+    void shouldNotHoldTaskForAnotherGatewaysPermit() {
+        givenVirtualThreadModeWithPermitsPerGateway(1);
+
+        assertThat(cardExecutorService.execute(() -> blockUntilReleased("worldpay"), SHORT_TIMEOUT_MILLIS).getLeft(), is(IN_PROGRESS));
+        Pair<CardExecutorService.ExecutionStatus, String> result = cardExecutorService.execute(() -> done("stripe"), LONG_TIMEOUT_MILLIS);
+
+        assertThat(result.getLeft(), is(COMPLETED));
+        assertThat(result.getRight(), is("done"));
+    }
+
+    @Test
+    void shouldReleasePermitWhenTaskFinishes() {
+        givenVirtualThreadModeWithPermitsPerGateway(1);
+
+        assertThat(cardExecutorService.execute(() -> done("worldpay"), LONG_TIMEOUT_MILLIS).getLeft(), is(COMPLETED));
+        assertThat(cardExecutorService.execute(() -> done("worldpay"), LONG_TIMEOUT_MILLIS).getLeft(), is(COMPLETED));
+
+        assertThat(cardExecutorService.getActiveTaskCount(), is(0));
+        assertThat(cardExecutorService.getWaitingTaskCount(), is(0));
+    }
+
+    private void givenVirtualThreadModeWithPermitsPerGateway(int permits) {
+        when(executorServiceConfig.getExecutionMode()).thenReturn(VIRTUAL_THREADS);
+        when(executorServiceConfig.getMaximumConcurrentAuthorisationsPerGateway()).thenReturn(permits);
+        cardExecutorService = new CardExecutorService(connectorConfiguration, environment);
+    }
+
+    private String done(String paymentProvider) {
+        cardExecutorService.awaitGatewayPermit(paymentProvider);
+        return "done";
+    }
+
+    private String blockUntilReleased(String paymentProvider) {
+        cardExecutorService.awaitGatewayPermit(paymentProvider);
+        try {
+            releaseBlockedTask.await(LONG_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
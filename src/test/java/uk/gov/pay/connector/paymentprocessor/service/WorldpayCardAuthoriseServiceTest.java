@@ -144,7 +144,7 @@ class WorldpayCardAuthoriseServiceTest extends CardServiceTest {
         when(mockedChargeDao.findByExternalId(charge.getExternalId())).thenReturn(Optional.of(charge));
         ChargeService chargeService = new ChargeService(null, mockedChargeDao, mockedChargeEventDao,
                 null, mock(AgreementDao.class), null, mock(ConnectorConfiguration.class), null,
-                mock(StateTransitionService.class), mock(LedgerService.class), mock(RefundService.class),
+                mock(StateTransitionService.class), mock(LedgerService.class), null, mock(RefundService.class),
                 mockEventService, mock(PaymentInstrumentService.class), mock(GatewayAccountCredentialsService.class),
                 mock(AuthCardDetailsToCardDetailsEntityConverter.class), mockTaskQueueService, mockWorldpay3dsFlexJwtService, mock(IdempotencyDao.class),
                 mock(ExternalTransactionStateFactory.class), objectMapper, null, fixedInstantSource);
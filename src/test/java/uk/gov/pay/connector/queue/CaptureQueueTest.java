@@ -65,6 +65,18 @@ class CaptureQueueTest {
         assertEquals("my-charge-id", chargeCaptureMessages.getFirst().getChargeId());
     }
 
+    @Test
+    void shouldParsePaymentProviderReceivedFromQueueWhenPresent() throws QueueException {
+        String validJsonMessage = "{ \"chargeId\": \"my-charge-id\", \"paymentProvider\": \"worldpay\"}";
+        SendMessageResponse messageResult = mock(SendMessageResponse.class);
+
+        when(sqsQueueService.receiveMessages(anyString(), anyString())).thenReturn(List.of(QueueMessage.of(messageResult, validJsonMessage)));
+        CaptureQueue queue = new CaptureQueue(sqsQueueService, connectorConfiguration, objectMapper);
+        List<ChargeCaptureMessage> chargeCaptureMessages = queue.retrieveChargesForCapture();
+
+        assertEquals("worldpay", chargeCaptureMessages.getFirst().getPaymentProvider());
+    }
+
     @Test
     void shouldSendValidSerialisedChargeToQueue() throws QueueException {
         ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity().withExternalId("charge-id").build();
@@ -74,6 +86,6 @@ class CaptureQueueTest {
         queue.sendForCapture(chargeEntity);
 
         verify(sqsQueueService).sendMessage(connectorConfiguration.getSqsConfig().getCaptureQueueUrl(),
-                "{\"chargeId\":\"charge-id\"}");
+                "{\"chargeId\":\"charge-id\",\"paymentProvider\":\"sandbox\"}");
     }
 }
@@ -11,6 +11,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
@@ -36,8 +38,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -70,11 +75,16 @@ class StateTransitionServiceTest {
     Counter counter;
     @Mock
     Meter meter;
+    @Mock
+    ConnectorConfiguration connectorConfiguration;
+    @Mock
+    EventQueueConfig eventQueueConfig;
 
     @BeforeEach
     void setUp() {
         when(environment.metrics()).thenReturn(metricRegistry);
-        stateTransitionService = new StateTransitionService(mockStateTransitionQueue, mockEventService, environment);
+        when(connectorConfiguration.getEventQueueConfig()).thenReturn(eventQueueConfig);
+        stateTransitionService = new StateTransitionService(mockStateTransitionQueue, mockEventService, environment, connectorConfiguration);
     }
 
     @Test
@@ -94,7 +104,8 @@ class StateTransitionServiceTest {
         assertThat(paymentStateTransitionArgumentCaptor.getValue().getChargeEventId(), is(100L));
         assertThat(paymentStateTransitionArgumentCaptor.getValue().getStateTransitionEventClass(), is(PaymentStarted.class));
 
-        verify(mockEventService).recordOfferedEvent(PAYMENT, "external-id", "PAYMENT_STARTED", chargeEvent.getUpdated().toInstant());
+        verify(mockEventService).recordOfferedStateTransition(paymentStateTransitionArgumentCaptor.getValue(), PAYMENT,
+                "external-id", "PAYMENT_STARTED", chargeEvent.getUpdated().toInstant());
 
         double counterAfter = getMetricSample("state_transition_total", new String[]{"sandbox", "test", "entering card details"});
         assertThat(counterAfter, is(counterBefore + 1.0));
@@ -129,8 +140,8 @@ class StateTransitionServiceTest {
         ArgumentCaptor<String> externalIdCaptor = forClass(String.class);
         ArgumentCaptor<String> eventTypeCaptor = forClass(String.class);
 
-        verify(mockEventService).recordOfferedEvent(resourceTypeCaptor.capture(), externalIdCaptor.capture(),
-                eventTypeCaptor.capture(), eventDateArgumentCaptor.capture());
+        verify(mockEventService).recordOfferedStateTransition(eq(refundStateTransitionArgumentCaptor.getValue()),
+                resourceTypeCaptor.capture(), externalIdCaptor.capture(), eventTypeCaptor.capture(), eventDateArgumentCaptor.capture());
 
         assertThat(resourceTypeCaptor.getValue(), is(REFUND));
         assertThat(externalIdCaptor.getValue(), is("external-id"));
@@ -157,10 +168,29 @@ class StateTransitionServiceTest {
         assertThat(refundStateTransitionArgumentCaptor.getValue().getRefundExternalId(), is(refundHistory.getExternalId()));
         assertThat(refundStateTransitionArgumentCaptor.getValue().getStateTransitionEventClass(), is(RefundCreatedByUser.class));
 
-        verify(mockEventService).recordOfferedEvent(REFUND, refundHistory.getExternalId(),
+        verify(mockEventService).recordOfferedStateTransition(refundStateTransition, REFUND, refundHistory.getExternalId(),
                 "REFUND_CREATED_BY_USER", refundHistory.getHistoryStartDate().toInstant(), doNotEmitRetryUntil);
     }
 
+    @Test
+    void shouldOnlyRecordPaymentStateTransitionWhenOutboxIsEnabled() {
+        when(eventQueueConfig.isStateTransitionOutboxEnabled()).thenReturn(true);
+        stateTransitionService = new StateTransitionService(mockStateTransitionQueue, mockEventService, environment, connectorConfiguration);
+        when(metricRegistry.counter(anyString())).thenReturn(counter);
+        when(metricRegistry.meter(anyString())).thenReturn(meter);
+        ChargeEventEntity chargeEvent = aValidChargeEventEntity()
+                .withId(100L)
+                .build();
+
+        stateTransitionService.offerPaymentStateTransition("external-id", ChargeStatus.CREATED, ENTERING_CARD_DETAILS, chargeEvent);
+
+        verify(mockStateTransitionQueue, never()).offer(any());
+        ArgumentCaptor<PaymentStateTransition> paymentStateTransitionArgumentCaptor = ArgumentCaptor.forClass(PaymentStateTransition.class);
+        verify(mockEventService).recordOfferedStateTransition(paymentStateTransitionArgumentCaptor.capture(), eq(PAYMENT),
+                eq("external-id"), eq("PAYMENT_STARTED"), eq(chargeEvent.getUpdated().toInstant()));
+        assertThat(paymentStateTransitionArgumentCaptor.getValue().getChargeEventId(), is(100L));
+    }
+
     private double getMetricSample(String name, String[] labelValues) {
         return Optional.ofNullable(collectorRegistry.getSampleValue(name, labelNames, labelValues)).orElse(0.0);
     }
@@ -0,0 +1,134 @@
+package uk.gov.pay.connector.queue.tasks;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.TaskQueueConfig;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+import static uk.gov.pay.connector.queue.tasks.TaskType.AUTHORISE_WITH_USER_NOT_PRESENT;
+import static uk.gov.pay.connector.queue.tasks.TaskType.HANDLE_STRIPE_WEBHOOK_NOTIFICATION;
+
+@ExtendWith(MockitoExtension.class)
+class TaskQueueExecutorsTest {
+
+    private static final String AUTHORISE_METRIC_PREFIX = "task-queue." + AUTHORISE_WITH_USER_NOT_PRESENT.getName();
+
+    @Mock
+    private Environment environment;
+    @Mock
+    private ConnectorConfiguration connectorConfiguration;
+    @Mock
+    private TaskQueueConfig taskQueueConfig;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final LifecycleEnvironment lifecycleEnvironment = new LifecycleEnvironment(metricRegistry);
+    private final CountDownLatch releaseBlockedTasks = new CountDownLatch(1);
+    private TaskQueueExecutors taskQueueExecutors;
+
+    @BeforeEach
+    void setUp() {
+        when(environment.metrics()).thenReturn(metricRegistry);
+        when(environment.lifecycle()).thenReturn(lifecycleEnvironment);
+        when(connectorConfiguration.getTaskQueueConfig()).thenReturn(taskQueueConfig);
+        when(taskQueueConfig.getConcurrencyPerTaskType()).thenReturn(Map.of(AUTHORISE_WITH_USER_NOT_PRESENT.getName(), 1));
+        when(taskQueueConfig.getDefaultConcurrencyPerTaskType()).thenReturn(2);
+        when(taskQueueConfig.getQueueSchedulerShutdownTimeoutInSeconds()).thenReturn(1);
+        taskQueueExecutors = new TaskQueueExecutors(environment, connectorConfiguration);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        releaseBlockedTasks.countDown();
+        for (LifeCycle managedObject : lifecycleEnvironment.getManagedObjects()) {
+            managedObject.stop();
+        }
+    }
+
+    @Test
+    void shouldRunTaskAndRecordQueueDelayAndDuration() throws Exception {
+        var taskRan = new CountDownLatch(1);
+
+        boolean accepted = taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, () -> {
+            taskRan.countDown();
+            return true;
+        });
+
+        assertThat(accepted, is(true));
+        assertThat(taskRan.await(5, TimeUnit.SECONDS), is(true));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> metricRegistry.timer(AUTHORISE_METRIC_PREFIX + ".duration").getCount(), is(1L));
+        assertThat(metricRegistry.timer(AUTHORISE_METRIC_PREFIX + ".queue-delay").getCount(), is(1L));
+        assertThat(metricRegistry.meter(AUTHORISE_METRIC_PREFIX + ".failed").getCount(), is(0L));
+    }
+
+    @Test
+    void shouldRecordFailedTask() {
+        taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, () -> false);
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> metricRegistry.meter(AUTHORISE_METRIC_PREFIX + ".failed").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldRejectTaskWhenAllWorkersForItsTypeAreBusy() throws Exception {
+        var blockedTaskStarted = new CountDownLatch(1);
+        taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, () -> {
+            blockedTaskStarted.countDown();
+            return awaitRelease();
+        });
+        assertThat(blockedTaskStarted.await(5, TimeUnit.SECONDS), is(true));
+
+        assertThat(taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, () -> true), is(false));
+        assertThat(metricRegistry.meter(AUTHORISE_METRIC_PREFIX + ".rejected").getCount(), is(1L));
+        assertThat(taskQueueExecutors.submit(HANDLE_STRIPE_WEBHOOK_NOTIFICATION, () -> true), is(true));
+    }
+
+    @Test
+    void shouldAcceptTaskOnceAWorkerForItsTypeIsFree() {
+        taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, this::awaitRelease);
+        assertThat(taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, () -> true), is(false));
+
+        releaseBlockedTasks.countDown();
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> taskQueueExecutors.submit(AUTHORISE_WITH_USER_NOT_PRESENT, () -> true));
+    }
+
+    @Test
+    void shouldHaveNoFreeWorkerWhenAllWorkersForEveryTypeAreBusy() {
+        for (TaskType taskType : TaskType.values()) {
+            assertThat(taskQueueExecutors.hasFreeWorker(), is(true));
+            while (taskQueueExecutors.submit(taskType, this::awaitRelease)) {
+                // keep every worker for this type busy
+            }
+        }
+
+        assertThat(taskQueueExecutors.hasFreeWorker(), is(false));
+    }
+
+    private boolean awaitRelease() {
+        try {
+            return releaseBlockedTasks.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -27,13 +27,21 @@ import uk.gov.pay.connector.queue.tasks.model.Task;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 import uk.gov.service.payments.commons.queue.model.QueueMessage;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.connector.usernotification.model.domain.EmailNotificationType.PAYMENT_CONFIRMED;
 
@@ -66,6 +74,8 @@ class TaskQueueMessageHandlerTest {
     private QueryAndUpdatePaymentInSubmittedStateTaskHandler mockQueryAndUpdatePaymentInSubmittedStateTaskHandler;
     @Mock
     private ServiceArchivedTaskHandler mockServiceArchivedTaskHandler;
+    @Mock
+    private TaskQueueExecutors mockTaskQueueExecutors;
 
     @Captor
     ArgumentCaptor<RetryPaymentOrRefundEmailTaskData> retryPaymentOrRefundEmailTaskDataArgumentCaptor;
@@ -82,8 +92,17 @@ class TaskQueueMessageHandlerTest {
 
     private final String chargeExternalId = "a-charge-external-id";
 
+    private final List<Boolean> taskResults = new ArrayList<>();
+
     @BeforeEach
     void setup() {
+        lenient().when(mockTaskQueueExecutors.hasFreeWorker()).thenReturn(true);
+        lenient().when(mockTaskQueueExecutors.submit(any(TaskType.class), any(BooleanSupplier.class)))
+                .thenAnswer(invocation -> {
+                    taskResults.add(invocation.getArgument(1, BooleanSupplier.class).getAsBoolean());
+                    return true;
+                });
+
         taskQueueMessageHandler = new TaskQueueMessageHandler(
                 taskQueue,
                 collectFeesForFailedPaymentsTaskHandler,
@@ -94,7 +113,8 @@ class TaskQueueMessageHandlerTest {
                 mockRetryPaymentOrRefundEmailTaskHandler,
                 mockServiceArchivedTaskHandler,
                 mockQueryAndUpdatePaymentInSubmittedStateTaskHandler,
-                objectMapper);
+                objectMapper,
+                mockTaskQueueExecutors);
     }
 
     @Test
@@ -200,6 +220,46 @@ class TaskQueueMessageHandlerTest {
         logs.assertContains("Processing [handle_adyen_token_webhook_notification] task.");
     }
 
+    @Test
+    void shouldHandTasksToTheWorkersForTheirTaskType() throws QueueException {
+        setupQueueMessage("{ \"payment_external_id\": \"external-charge-id\"}", TaskType.AUTHORISE_WITH_USER_NOT_PRESENT);
+        taskQueueMessageHandler.processMessages();
+        verify(mockTaskQueueExecutors).submit(eq(TaskType.AUTHORISE_WITH_USER_NOT_PRESENT), any(BooleanSupplier.class));
+        assertThat(taskResults, is(List.of(true)));
+    }
+
+    @Test
+    void shouldReportFailedTaskToWorkersAndLeaveMessageOnQueue() throws Exception {
+        TaskMessage taskMessage = setupQueueMessage("{ \"payment_external_id\": \"external-charge-id\"}", TaskType.AUTHORISE_WITH_USER_NOT_PRESENT);
+        doThrow(new RuntimeException("gateway unavailable")).when(authoriseWithUserNotPresentHandler).process("external-charge-id");
+
+        taskQueueMessageHandler.processMessages();
+
+        assertThat(taskResults, is(List.of(false)));
+        verify(taskQueue, never()).markMessageAsProcessed(taskMessage.getQueueMessage());
+    }
+
+    @Test
+    void shouldLeaveMessageOnQueueWhenWorkersForItsTaskTypeAreBusy() throws Exception {
+        TaskMessage taskMessage = setupQueueMessage("{ \"payment_external_id\": \"external-charge-id\"}", TaskType.AUTHORISE_WITH_USER_NOT_PRESENT);
+        doReturn(false).when(mockTaskQueueExecutors).submit(any(TaskType.class), any(BooleanSupplier.class));
+
+        taskQueueMessageHandler.processMessages();
+
+        verifyNoInteractions(authoriseWithUserNotPresentHandler);
+        verify(taskQueue, never()).markMessageAsProcessed(taskMessage.getQueueMessage());
+        logs.assertContains("Workers for [authorise_with_user_not_present] tasks are busy, leaving message on the queue");
+    }
+
+    @Test
+    void shouldNotRetrieveMessagesWhenNoWorkersAreFree() throws Exception {
+        when(mockTaskQueueExecutors.hasFreeWorker()).thenReturn(false);
+
+        taskQueueMessageHandler.processMessages();
+
+        verify(taskQueue, never()).retrieveTaskQueueMessages();
+    }
+
     private TaskMessage setupQueueMessage(String data, TaskType taskType) throws QueueException {
         Task paymentTask = new Task(data, taskType);
         QueueMessage mockQueueMessage = mock(QueueMessage.class);
@@ -24,6 +24,7 @@ import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsHistoryDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsLookupService;
 import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsService;
 
 import java.util.List;
@@ -77,7 +78,8 @@ class GatewayAccountServiceDisableGatewayAccountTest {
     void setUp() {
         gatewayAccountService = new GatewayAccountService(mockGatewayAccountDao, mock(CardTypeDao.class),
                 mock(GatewayAccountCredentialsService.class), mockGatewayAccountCredentialsHistoryDao,
-                mockGatewayAccountCredentialsDao, mock(UnitOfWork.class));
+                mockGatewayAccountCredentialsDao, mock(GatewayAccountCredentialsLookupService.class),
+                mock(UnitOfWork.class));
     }
 
     @Test
@@ -28,6 +28,7 @@ import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsHistoryDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsLookupService;
 import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsService;
 import uk.gov.service.payments.commons.model.jsonpatch.JsonPatchRequest;
 
@@ -94,7 +95,8 @@ class GatewayAccountServiceTest {
     @BeforeEach
     void setUp() {
         gatewayAccountService = new GatewayAccountService(mockGatewayAccountDao, mockCardTypeDao,
-                mockGatewayAccountCredentialsService, mock(GatewayAccountCredentialsHistoryDao.class), mock(GatewayAccountCredentialsDao.class), mock(UnitOfWork.class));
+                mockGatewayAccountCredentialsService, mock(GatewayAccountCredentialsHistoryDao.class), mock(GatewayAccountCredentialsDao.class),
+                mock(GatewayAccountCredentialsLookupService.class), mock(UnitOfWork.class));
         lenient().when(mockGatewayAccountEntity.getType()).thenReturn("test");
         lenient().when(getMockGatewayAccountEntity1.getType()).thenReturn("test");
         lenient().when(getMockGatewayAccountEntity1.getServiceName()).thenReturn("service one");
@@ -201,16 +203,33 @@ class GatewayAccountServiceTest {
     @Test
     void shouldSearchGatewayAccounts() {
         GatewayAccountSearchParams gatewayAccountSearchParams = new GatewayAccountSearchParams();
-        when(mockGatewayAccountDao.search(gatewayAccountSearchParams))
+        when(getMockGatewayAccountEntity2.getId()).thenReturn(2L);
+        when(mockGatewayAccountDao.searchPage(gatewayAccountSearchParams, 0L, 500))
                 .thenReturn(Arrays.asList(getMockGatewayAccountEntity1, getMockGatewayAccountEntity2));
 
-        List<GatewayAccountResponse> gatewayAccounts = gatewayAccountService.searchGatewayAccounts(gatewayAccountSearchParams);
+        List<GatewayAccountResponse> gatewayAccounts = gatewayAccountService.searchGatewayAccounts(gatewayAccountSearchParams).toList();
 
         assertThat(gatewayAccounts, hasSize(2));
         assertThat(gatewayAccounts.getFirst().getServiceName(), is("service one"));
         assertThat(gatewayAccounts.get(1).getServiceName(), is("service two"));
     }
 
+    @Test
+    void shouldSearchGatewayAccountsAfterIdUpToLimit() {
+        GatewayAccountSearchParams gatewayAccountSearchParams = new GatewayAccountSearchParams();
+        gatewayAccountSearchParams.setAfterId("5");
+        gatewayAccountSearchParams.setLimit("1");
+        when(getMockGatewayAccountEntity1.getId()).thenReturn(6L);
+        when(mockGatewayAccountDao.searchPage(gatewayAccountSearchParams, 5L, 1))
+                .thenReturn(List.of(getMockGatewayAccountEntity1));
+
+        List<GatewayAccountResponse> gatewayAccounts = gatewayAccountService.searchGatewayAccounts(gatewayAccountSearchParams).toList();
+
+        assertThat(gatewayAccounts, hasSize(1));
+        assertThat(gatewayAccounts.getFirst().getServiceName(), is("service one"));
+        verify(mockGatewayAccountDao).searchPage(gatewayAccountSearchParams, 5L, 1);
+    }
+
     @Test
     void shouldUpdateNotifySettingsWhenUpdate() {
         Map<String, String> settings = Map.of(
@@ -9,6 +9,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.gateway.ClientFactory;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
+import uk.gov.pay.connector.gateway.GatewayConcurrencyLimiters;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -25,6 +26,8 @@ class GatewayClientFactoryTest {
     ClientFactory mockClientFactory;
     @Mock
     MetricRegistry mockMetricRegistry;
+    @Mock
+    GatewayConcurrencyLimiters mockConcurrencyLimiters;
     @Test
     void shouldBuildGatewayClient() {
         GatewayClient gatewayClient = gatewayClientFactory.createGatewayClient(PaymentGatewayName.WORLDPAY, AUTHORISE, mockMetricRegistry);
@@ -19,7 +19,9 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.GatewayConcurrencyLimitConfig;
 import uk.gov.pay.connector.gateway.GatewayClient;
+import uk.gov.pay.connector.gateway.GatewayConcurrencyLimiters;
 import uk.gov.pay.connector.gateway.GatewayException;
 import uk.gov.pay.connector.gateway.GatewayOrder;
 import uk.gov.pay.connector.gateway.model.OrderRequestType;
@@ -38,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -137,6 +140,29 @@ public class GatewayClientTest {
         assertEquals(histogramCountBefore + 1, histogramCountAfter);
     }
 
+    @Test
+    void shouldRejectRequestWithoutSendingItWhenConcurrencyLimitIsReached() throws Exception {
+        setupPostRequestMocks();
+        when(mockResponse.getStatus()).thenReturn(200);
+        when(mockMetricRegistry.counter("gateway-operations.worldpay.test.authorise.rejections")).thenReturn(mockFailureCounter);
+        GatewayConcurrencyLimiters concurrencyLimiters = new GatewayConcurrencyLimiters(concurrencyLimitConfigWithLimitOfOne());
+        gatewayClient = new GatewayClient(mockClient, mockMetricRegistry, concurrencyLimiters);
+        double rejectionsBefore = Optional.ofNullable(collectorRegistry.getSampleValue("gateway_operations_rejections_total",
+                new String[]{"gatewayName", "requestType"}, new String[]{"worldpay", "authorise"})).orElse(0.0);
+
+        gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", mockGatewayOrder, emptyMap());
+        concurrencyLimiters.limiterFor(WORLDPAY, OrderRequestType.AUTHORISE).orElseThrow().tryAcquire();
+
+        assertThrows(GatewayException.GatewayConnectionTimeoutException.class,
+                () -> gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", mockGatewayOrder, emptyMap()));
+
+        double rejectionsAfter = collectorRegistry.getSampleValue("gateway_operations_rejections_total",
+                new String[]{"gatewayName", "requestType"}, new String[]{"worldpay", "authorise"});
+        assertEquals(rejectionsBefore + 1, rejectionsAfter);
+        verify(mockBuilder, times(1)).post(Entity.entity(orderPayload, mediaType));
+        verify(mockFailureCounter).inc();
+    }
+
     @Test
     public void getRequestShouldReturnGatewayErrorWhenProviderFails() {
         setupGetRequestMocks();
@@ -294,6 +320,17 @@ public class GatewayClientTest {
         when(mockBuilder.delete()).thenReturn(mockResponse);
     }
 
+    private static GatewayConcurrencyLimitConfig concurrencyLimitConfigWithLimitOfOne() {
+        GatewayConcurrencyLimitConfig config = mock(GatewayConcurrencyLimitConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getInitialLimit()).thenReturn(1);
+        when(config.getMinimumLimit()).thenReturn(1);
+        when(config.getMaximumLimit()).thenReturn(1);
+        when(config.getBackoffRatio()).thenReturn(0.9);
+        when(config.getSlowResponseThresholdInMilliseconds()).thenReturn(20000L);
+        return config;
+    }
+
     private double getMetricSample(String name, String[] labelValues) {
         return Optional.ofNullable(collectorRegistry.getSampleValue(name, labelNames, labelValues)).orElse(0.0);
     }
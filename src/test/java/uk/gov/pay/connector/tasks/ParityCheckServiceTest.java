@@ -30,6 +30,7 @@ import uk.gov.pay.connector.tasks.service.ParityCheckService;
 import uk.gov.pay.connector.tasks.service.RefundParityChecker;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.time.ZonedDateTime.parse;
@@ -47,6 +48,7 @@ import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_SUBM
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
 import static uk.gov.pay.connector.charge.model.domain.ParityCheckStatus.DATA_MISMATCH;
 import static uk.gov.pay.connector.charge.model.domain.ParityCheckStatus.EXISTS_IN_LEDGER;
+import static uk.gov.pay.connector.charge.model.domain.ParityCheckStatus.MISSING_IN_LEDGER;
 import static uk.gov.pay.connector.model.domain.LedgerTransactionFixture.from;
 import static uk.gov.pay.connector.pact.ChargeEventEntityFixture.aValidChargeEventEntity;
 import static uk.gov.pay.connector.refund.model.domain.RefundStatus.REFUNDED;
@@ -153,6 +155,23 @@ public class ParityCheckServiceTest {
         verify(mockChargeService, never()).updateChargeParityStatus(chargeEntity.getExternalId(), DATA_MISMATCH);
     }
 
+    @Test
+    void parityCheckChargesForExpunger_shouldReturnOnlyChargesMatchingLedgerAndBackfillTheRest() {
+        ChargeEntity chargeMissingInLedger = aValidChargeEntity().withStatus(CAPTURED).build();
+        LedgerTransaction transaction = from(chargeEntity, refundEntities)
+                .build();
+        when(mockLedgerService.getTransactions(List.of(chargeEntity.getExternalId(), chargeMissingInLedger.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), transaction));
+        when(mockProviders.byName(any())).thenReturn(new SandboxPaymentProvider(mockRefundEntityFactory));
+
+        List<ChargeEntity> matchingCharges = parityCheckService.parityCheckChargesForExpunger(List.of(chargeEntity, chargeMissingInLedger));
+
+        assertThat(matchingCharges, is(List.of(chargeEntity)));
+        verify(mockHistoricalEventEmitter).processPaymentEvents(chargeMissingInLedger, true);
+        verify(mockChargeService).updateChargeParityStatus(chargeMissingInLedger.getExternalId(), MISSING_IN_LEDGER);
+        verify(mockLedgerService, never()).getTransaction(any());
+    }
+
     @Test
     void parityCheckRefundForExpunger_shouldBackfillRefundIfParityCheckFails() {
         LedgerTransaction transaction = from(secureRandomLong(), refundEntity)
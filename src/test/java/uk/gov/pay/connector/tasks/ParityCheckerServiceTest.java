@@ -2,10 +2,14 @@ package uk.gov.pay.connector.tasks;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.google.inject.persist.UnitOfWork;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ParityCheckerConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
@@ -29,8 +33,12 @@ import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
 import uk.gov.pay.connector.refund.service.RefundEntityFactory;
 import uk.gov.pay.connector.refund.service.RefundService;
+import uk.gov.pay.connector.tasks.dao.ShardCheckpointDao;
 import uk.gov.pay.connector.tasks.service.ChargeParityChecker;
+import uk.gov.pay.connector.tasks.service.IdRangeShard;
+import uk.gov.pay.connector.tasks.service.IdRangeShardRunner;
 import uk.gov.pay.connector.tasks.service.ParityCheckService;
+import uk.gov.pay.connector.tasks.service.ParityCheckerProgress;
 import uk.gov.pay.connector.tasks.service.ParityCheckerService;
 import uk.gov.pay.connector.tasks.service.RefundParityChecker;
 
@@ -38,13 +46,20 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -61,6 +76,7 @@ import static uk.gov.pay.connector.model.domain.LedgerTransactionFixture.from;
 import static uk.gov.pay.connector.model.domain.RefundEntityFixture.aValidRefundEntity;
 import static uk.gov.pay.connector.pact.RefundHistoryEntityFixture.aValidRefundHistoryEntity;
 import static uk.gov.pay.connector.refund.model.domain.RefundStatus.CREATED;
+import static uk.gov.pay.connector.tasks.ShardedTask.PARITY_CHECK_CHARGES;
 import static uk.gov.pay.connector.wallets.WalletType.APPLE_PAY;
 import static uk.gov.service.payments.commons.model.Source.CARD_PAYMENT_LINK;
 
@@ -92,6 +108,12 @@ class ParityCheckerServiceTest {
     private HistoricalEventEmitter historicalEventEmitter;
     @Mock
     private RefundEntityFactory refundEntityFactory;
+    @Mock
+    private ShardCheckpointDao shardCheckpointDao;
+    @Mock
+    private UnitOfWork unitOfWork;
+    @Mock
+    private ConnectorConfiguration configuration;
     @InjectMocks
     ChargeParityChecker chargeParityChecker;
 
@@ -110,9 +132,12 @@ class ParityCheckerServiceTest {
         parityCheckService = new ParityCheckService(ledgerService, chargeService, historicalEventEmitter,
                 chargeParityChecker, refundParityChecker, refundService);
 
+        when(configuration.getParityCheckerConfig()).thenReturn(new ParityCheckerConfig());
         parityCheckerService = new ParityCheckerService(chargeDao, chargeService, emittedEventDao,
-                stateTransitionService, eventService, refundService, refundDao, parityCheckService);
+                stateTransitionService, eventService, refundService, refundDao, parityCheckService,
+                ledgerService, shardCheckpointDao, new IdRangeShardRunner(shardCheckpointDao), unitOfWork, configuration);
         chargeEntity = aValidChargeEntity()
+                .withId(1L)
                 .withCardDetails(defaultCardDetails())
                 .withGatewayAccountEntity(defaultGatewayAccountEntity())
                 .withMoto(true)
@@ -145,7 +170,7 @@ class ParityCheckerServiceTest {
     void executeSkipsParityCheckForAlreadyCheckedChargesExistingInLedger() {
         chargeEntity.updateParityCheck(ParityCheckStatus.EXISTS_IN_LEDGER);
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
 
         parityCheckerService.checkParity(1L, Optional.empty(), true,
                 emptyParityCheckStatus, null);
@@ -153,21 +178,24 @@ class ParityCheckerServiceTest {
         verify(chargeService, never()).updateChargeParityStatus(any(), any());
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
         verify(emittedEventDao, never()).recordEmission(any(), any());
-        verify(chargeDao, never()).findById(2L);
+        verify(ledgerService, never()).getTransactions(anyList());
+        verify(chargeDao, never()).findById(any());
     }
 
     @Test
     void executeRecordsParityStatusForChargesExistingInLedger() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), from(chargeEntity, null).build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), ParityCheckStatus.EXISTS_IN_LEDGER);
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
         verify(emittedEventDao, never()).recordEmission(any(), any());
-        verify(chargeDao, never()).findById(2L);
+        verify(ledgerService, never()).getTransaction(any());
+        verify(chargeDao, never()).findById(any());
     }
 
     @Test
@@ -175,10 +203,11 @@ class ParityCheckerServiceTest {
         RefundEntity refundEntity = aValidRefundEntity().build();
         chargeEntity.setStatus(ChargeStatus.EXPIRED);
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(refundService.findNotExpungedRefunds(chargeEntity.getExternalId())).thenReturn(List.of(refundEntity));
         when(refundService.findRefunds(Charge.from(chargeEntity))).thenReturn(List.of(Refund.from(refundEntity)));
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), from(chargeEntity, null).build()));
         LedgerTransaction refundTransaction = from(chargeEntity.getGatewayAccount().getId(), refundEntity).build();
         when(ledgerService.getTransaction(refundEntity.getExternalId()))
                 .thenReturn(Optional.of(refundTransaction));
@@ -191,24 +220,26 @@ class ParityCheckerServiceTest {
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), ParityCheckStatus.EXISTS_IN_LEDGER);
-        verify(ledgerService, times(2)).getTransaction(any());
-        verify(ledgerService, times(1)).getTransaction(chargeEntity.getExternalId());
+        verify(ledgerService, times(1)).getTransactions(anyList());
+        verify(ledgerService, times(1)).getTransaction(any());
+        verify(ledgerService, times(1)).getTransaction(refundEntity.getExternalId());
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
         verify(emittedEventDao, never()).recordEmission(any(), any());
-        verify(chargeDao, never()).findById(2L);
+        verify(chargeDao, never()).findById(any());
     }
 
     @Test
     void executeRecordsParityStatusForChargeWithDifferentStatusInLedger() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(aValidLedgerTransaction().withStatus("started").build()));
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), aValidLedgerTransaction().withStatus("started").build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), DATA_MISMATCH);
-        verify(ledgerService, times(1)).getTransaction(any());
-        verify(ledgerService, times(1)).getTransaction(chargeEntity.getExternalId());
+        verify(ledgerService, times(1)).getTransactions(List.of(chargeEntity.getExternalId()));
+        verify(ledgerService, never()).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
@@ -217,14 +248,15 @@ class ParityCheckerServiceTest {
         when(chargeDao.findMaxId()).thenReturn(1L);
         when(refundService.findNotExpungedRefunds(chargeEntity.getExternalId()))
                 .thenReturn(List.of(aValidRefundEntity().build(), aValidRefundEntity().build()));
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(any())).thenReturn(Optional.empty());
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), from(chargeEntity, null).build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
-        verify(ledgerService, times(2)).getTransaction(any());
+        verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
@@ -233,45 +265,116 @@ class ParityCheckerServiceTest {
         when(chargeDao.findMaxId()).thenReturn(1L);
         when(refundService.findNotExpungedRefunds(chargeEntity.getExternalId()))
                 .thenReturn(List.of(aValidRefundEntity().build(), aValidRefundEntity().build()));
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(any())).thenReturn(Optional.of(
                 aValidLedgerTransaction().withStatus("failed").build()));
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), from(chargeEntity, null).build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), DATA_MISMATCH);
-        verify(ledgerService, times(2)).getTransaction(any());
+        verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
     @Test
     void executeEmitsEventAndRecordsEmission() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.empty());
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId()))).thenReturn(Map.of());
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus,
                 120L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(),
                 MISSING_IN_LEDGER);
-        verify(ledgerService, times(1)).getTransaction(any());
+        verify(ledgerService, times(1)).getTransactions(anyList());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
     @Test
     void executeShouldEmitEventIfEmittedPreviously() {
-        when(chargeDao.findById((any()))).thenReturn(Optional.of(chargeEntity));
-        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.empty());
+        when(chargeDao.findByIdRange(any(), any(), anyInt())).thenReturn(List.of(chargeEntity), List.of());
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId()))).thenReturn(Map.of());
 
         parityCheckerService.checkParity(1L, Optional.of(1L), doNotReprocessValidRecords, emptyParityCheckStatus, 120L);
 
         verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
-        verify(ledgerService, times(1)).getTransaction(any());
+        verify(ledgerService, times(1)).getTransactions(anyList());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
+    @Test
+    void checkParityForIdRange_shouldProcessEachShardInKeysetPagesAndCheckpointProgress() {
+        ChargeEntity firstCharge = aValidChargeEntity().withId(10L).withStatus(ChargeStatus.CREATED).build();
+        firstCharge.updateParityCheck(EXISTS_IN_LEDGER);
+        ChargeEntity secondCharge = aValidChargeEntity().withId(150_001L).withStatus(ChargeStatus.CREATED).build();
+        secondCharge.updateParityCheck(EXISTS_IN_LEDGER);
+        when(chargeDao.findByIdRange(0L, 100_000L, 100)).thenReturn(List.of(firstCharge));
+        when(chargeDao.findByIdRange(100_000L, 200_000L, 100)).thenReturn(List.of(secondCharge));
+
+        parityCheckerService.checkParity(1L, Optional.of(200_000L), true, emptyParityCheckStatus, null);
+
+        IdRangeShard firstShard = new IdRangeShard(1L, 100_000L);
+        IdRangeShard secondShard = new IdRangeShard(100_001L, 200_000L);
+        verify(shardCheckpointDao).deleteCheckpointsWithin(PARITY_CHECK_CHARGES, 1L, 200_000L);
+        verify(shardCheckpointDao).saveLastProcessedId(PARITY_CHECK_CHARGES, firstShard, 10L);
+        verify(shardCheckpointDao).saveLastProcessedId(PARITY_CHECK_CHARGES, firstShard, 100_000L);
+        verify(shardCheckpointDao).saveLastProcessedId(PARITY_CHECK_CHARGES, secondShard, 150_001L);
+        verify(shardCheckpointDao).saveLastProcessedId(PARITY_CHECK_CHARGES, secondShard, 200_000L);
+        verify(chargeDao, never()).findById(any());
+
+        ParityCheckerProgress progress = parityCheckerService.getProgress().orElseThrow();
+        assertThat(progress.getTotalShards(), is(2));
+        assertThat(progress.getCompletedShards(), is(2L));
+        assertThat(progress.getRecordsSkipped(), is(2L));
+        assertThat(progress.isRunning(), is(false));
+    }
+
+    @Test
+    void checkParityForIdRange_shouldResumeShardFromLastCheckpoint() {
+        when(shardCheckpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1L, 100_000L))).thenReturn(Optional.of(5_000L));
+
+        parityCheckerService.checkParity(1L, Optional.of(100_000L), false, emptyParityCheckStatus, null, true);
+
+        verify(shardCheckpointDao, never()).deleteCheckpointsWithin(any(), anyLong(), anyLong());
+        verify(chargeDao).findByIdRange(5_000L, 100_000L, 100);
+        verify(chargeDao, never()).findByIdRange(0L, 100_000L, 100);
+    }
+
+    @Test
+    void checkParityForIdRange_shouldCallLedgerBeforeRecordingEachPageWithItsCheckpoint() {
+        when(chargeDao.findMaxId()).thenReturn(1L);
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId()))).thenReturn(Map.of());
+
+        parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
+
+        InOrder inOrder = inOrder(unitOfWork, chargeDao, ledgerService, chargeService, shardCheckpointDao);
+        inOrder.verify(unitOfWork).begin();
+        inOrder.verify(chargeDao).findByIdRange(0L, 1L, 100);
+        inOrder.verify(ledgerService).getTransactions(List.of(chargeEntity.getExternalId()));
+        inOrder.verify(chargeService).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
+        inOrder.verify(shardCheckpointDao).saveLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1L, 1L), 1L);
+        inOrder.verify(unitOfWork).end();
+    }
+
+    @Test
+    void checkParityForIdRange_shouldNotCheckpointPageWhenACheckFails() {
+        when(chargeDao.findMaxId()).thenReturn(1L);
+        when(chargeDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
+        when(ledgerService.getTransactions(List.of(chargeEntity.getExternalId()))).thenReturn(Map.of());
+        doThrow(new RuntimeException("database unavailable"))
+                .when(chargeService).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
+
+        parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
+
+        verify(shardCheckpointDao, never()).saveLastProcessedId(any(), any(), anyLong());
+        verify(unitOfWork).end();
+        assertThat(parityCheckerService.getProgress().orElseThrow().getFailedShards(), is(1L));
+    }
+
     @Test
     void executeForParityCheckStatusShouldEmitEventsOnlyForStatus() {
         when(chargeDao.findByParityCheckStatus(DATA_MISMATCH, 100, chargeEntity.getId())).thenReturn(List.of());
@@ -0,0 +1,79 @@
+package uk.gov.pay.connector.tasks.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.tasks.service.IdRangeShard;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.tasks.ShardedTask.HISTORICAL_EVENT_EMITTER;
+import static uk.gov.pay.connector.tasks.ShardedTask.PARITY_CHECK_CHARGES;
+
+public class ShardCheckpointDaoIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension();
+    private ShardCheckpointDao checkpointDao;
+
+    @BeforeEach
+    void setUp() {
+        checkpointDao = app.getInstanceFromGuiceContainer(ShardCheckpointDao.class);
+        checkpointDao.deleteCheckpointsWithin(PARITY_CHECK_CHARGES, 0, Long.MAX_VALUE);
+        checkpointDao.deleteCheckpointsWithin(HISTORICAL_EVENT_EMITTER, 0, Long.MAX_VALUE);
+    }
+
+    @Test
+    void shouldUpdateCheckpointForShard() {
+        checkpointDao.saveLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1, 100), 10);
+        checkpointDao.saveLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1, 100), 20);
+
+        assertThat(checkpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1, 100)), is(Optional.of(20L)));
+        assertThat(checkpointDao.findLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(1, 100)), is(Optional.empty()));
+        assertThat(app.getJdbi().withHandle(handle -> handle
+                .createQuery("SELECT count(*) FROM shard_checkpoints WHERE shard_start_id = 1 AND shard_end_id = 100")
+                .mapTo(Integer.class)
+                .one()), is(1));
+    }
+
+    @Test
+    void shouldResumeFromCheckpointsSavedWithASmallerShardSize() {
+        checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(1, 100), 100);
+        checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(101, 200), 150);
+
+        assertThat(checkpointDao.findLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(1, 1000)), is(Optional.of(150L)));
+    }
+
+    @Test
+    void shouldResumeFromCheckpointSavedWithALargerShardSize() {
+        checkpointDao.saveLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1, 1000), 150);
+
+        assertThat(checkpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1, 100)), is(Optional.of(100L)));
+        assertThat(checkpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(101, 200)), is(Optional.of(150L)));
+        assertThat(checkpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(201, 300)), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldNotResumeWhenStartOfShardHasNotBeenProcessed() {
+        checkpointDao.saveLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(1, 100), 40);
+
+        assertThat(checkpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(50, 100)), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldOnlyDeleteCheckpointsForTheTaskAndShardsWithinTheRange() {
+        checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(1, 100), 100);
+        checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(101, 200), 150);
+        checkpointDao.saveLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(201, 300), 250);
+        checkpointDao.saveLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(101, 200), 150);
+
+        int deleted = checkpointDao.deleteCheckpointsWithin(HISTORICAL_EVENT_EMITTER, 101, 300);
+
+        assertThat(deleted, is(2));
+        assertThat(checkpointDao.findLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(1, 100)), is(Optional.of(100L)));
+        assertThat(checkpointDao.findLastProcessedId(HISTORICAL_EVENT_EMITTER, new IdRangeShard(101, 200)), is(Optional.empty()));
+        assertThat(checkpointDao.findLastProcessedId(PARITY_CHECK_CHARGES, new IdRangeShard(101, 200)), is(Optional.of(150L)));
+    }
+}
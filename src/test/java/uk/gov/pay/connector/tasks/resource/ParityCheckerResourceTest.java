@@ -7,11 +7,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Response;
+import uk.gov.pay.connector.tasks.service.ParityCheckerProgress;
 import uk.gov.pay.connector.tasks.service.ParityCheckerService;
 
+import java.util.Map;
+import java.util.Optional;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(DropwizardExtensionsSupport.class)
 class ParityCheckerResourceTest {
@@ -82,4 +87,31 @@ class ParityCheckerResourceTest {
         assertThat(response.getStatus(), is(Response.Status.NOT_FOUND.getStatusCode()));
     }
 
+    @Test
+    void parityCheckProgressReturnsNotFoundWhenNoRunHasStarted() {
+        when(parityCheckerService.getProgress()).thenReturn(Optional.empty());
+
+        Response response = resources
+                .target("/v1/tasks/parity-checker")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(Response.Status.NOT_FOUND.getStatusCode()));
+    }
+
+    @Test
+    void parityCheckProgressReturnsCountersForLatestRun() {
+        when(parityCheckerService.getProgress()).thenReturn(Optional.of(new ParityCheckerProgress(1L, 1000L, 10, 4)));
+
+        Response response = resources
+                .target("/v1/tasks/parity-checker")
+                .request()
+                .get();
+
+        assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+        Map<String, Object> progress = response.readEntity(Map.class);
+        assertThat(progress.get("max_id"), is(1000));
+        assertThat(progress.get("total_shards"), is(10));
+        assertThat(progress.get("running"), is(true));
+    }
 }
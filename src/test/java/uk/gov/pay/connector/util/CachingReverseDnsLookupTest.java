@@ -0,0 +1,136 @@
+package uk.gov.pay.connector.util;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CachingReverseDnsLookupTest {
+
+    private static final DnsPointerResourceRecord WORLDPAY_IP = new DnsPointerResourceRecord("195.35.90.1");
+    private static final DnsPointerResourceRecord UNKNOWN_IP = new DnsPointerResourceRecord("10.0.0.1");
+
+    private final FakeTicker ticker = new FakeTicker();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private StandInResolver resolver;
+    private CachingReverseDnsLookup cachingReverseDnsLookup;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new StandInResolver(Map.of(WORLDPAY_IP, "hello.worldpay.com."));
+        cachingReverseDnsLookup = new CachingReverseDnsLookup(resolver, new ReverseDnsCacheConfig(), metricRegistry, ticker);
+    }
+
+    @Test
+    void shouldResolveEachAddressOnceWhileCached() {
+        assertThat(cachingReverseDnsLookup.lookup(WORLDPAY_IP), is(Optional.of("hello.worldpay.com.")));
+        assertThat(cachingReverseDnsLookup.lookup(WORLDPAY_IP), is(Optional.of("hello.worldpay.com.")));
+
+        assertThat(resolver.queries.get(), is(1));
+        assertThat(metricRegistry.counter("reverse-dns-lookup.cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.counter("reverse-dns-lookup.cache.misses").getCount(), is(1L));
+        assertThat(metricRegistry.timer("reverse-dns-lookup.response_time").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldResolveAgainOnceTimeToLiveHasPassed() {
+        cachingReverseDnsLookup.lookup(WORLDPAY_IP);
+        ticker.advance(299, TimeUnit.SECONDS);
+        cachingReverseDnsLookup.lookup(WORLDPAY_IP);
+        ticker.advance(1, TimeUnit.SECONDS);
+        cachingReverseDnsLookup.lookup(WORLDPAY_IP);
+
+        assertThat(resolver.queries.get(), is(2));
+    }
+
+    @Test
+    void shouldCacheFailedLookupsForNegativeTimeToLive() {
+        assertThat(cachingReverseDnsLookup.lookup(UNKNOWN_IP), is(Optional.empty()));
+        ticker.advance(29, TimeUnit.SECONDS);
+        assertThat(cachingReverseDnsLookup.lookup(UNKNOWN_IP), is(Optional.empty()));
+        assertThat(resolver.queries.get(), is(1));
+
+        ticker.advance(1, TimeUnit.SECONDS);
+        assertThat(cachingReverseDnsLookup.lookup(UNKNOWN_IP), is(Optional.empty()));
+        assertThat(resolver.queries.get(), is(2));
+    }
+
+    @Test
+    void shouldShareOneQueryBetweenConcurrentLookupsOfTheSameAddress() throws Exception {
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        resolver.blockUntil(releaseQuery);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<String>>> lookups = List.of(
+                    executor.submit(() -> cachingReverseDnsLookup.lookup(WORLDPAY_IP)),
+                    executor.submit(() -> cachingReverseDnsLookup.lookup(WORLDPAY_IP)),
+                    executor.submit(() -> cachingReverseDnsLookup.lookup(WORLDPAY_IP)),
+                    executor.submit(() -> cachingReverseDnsLookup.lookup(WORLDPAY_IP)));
+            assertThat(resolver.queryStarted.await(5, TimeUnit.SECONDS), is(true));
+            releaseQuery.countDown();
+
+            for (Future<Optional<String>> lookup : lookups) {
+                assertThat(lookup.get(5, TimeUnit.SECONDS), is(Optional.of("hello.worldpay.com.")));
+            }
+            assertThat(resolver.queries.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class StandInResolver extends ReverseDnsLookup {
+        private final Map<DnsPointerResourceRecord, String> hosts = new ConcurrentHashMap<>();
+        private final AtomicInteger queries = new AtomicInteger();
+        private final CountDownLatch queryStarted = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        StandInResolver(Map<DnsPointerResourceRecord, String> hosts) {
+            this.hosts.putAll(hosts);
+        }
+
+        void blockUntil(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public Optional<String> lookup(DnsPointerResourceRecord pointerRecord) {
+            queries.incrementAndGet();
+            queryStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.ofNullable(hosts.get(pointerRecord));
+        }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package uk.gov.pay.connector.util;
+
+import io.prometheus.client.CollectorRegistry;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseActivityProfilerTest {
+
+    private final DatabaseActivityProfiler profiler = new DatabaseActivityProfiler();
+
+    @Mock
+    private AbstractSession session;
+
+    @Test
+    void shouldCountStatementsAndRowsForActivityOnCurrentThread() {
+        var query = new ReadAllQuery();
+        when(session.internalExecuteQuery(any(), any())).thenAnswer(invocation -> {
+            runStatement(invocation.getArgument(0));
+            return List.of("a", "b", "c");
+        });
+        double countBefore = sampleValue("connector_db_statements_count");
+        double statementsBefore = sampleValue("connector_db_statements_sum");
+
+        DatabaseActivity activity = DatabaseActivity.begin();
+        profiler.profileExecutionOfQuery(query, null, session);
+        runStatement(null);
+        activity.end(DatabaseActivity.JOB, "test");
+
+        assertThat(activity.getStatements(), is(2));
+        assertThat(activity.getRows(), is(3L));
+        assertThat(sampleValue("connector_db_statements_count"), is(countBefore + 1));
+        assertThat(sampleValue("connector_db_statements_sum"), is(statementsBefore + 2));
+    }
+
+    @Test
+    void shouldNotCountRowsFoundWithoutRunningAStatement() {
+        var query = new ReadObjectQuery();
+        when(session.internalExecuteQuery(any(), any())).thenReturn("cached");
+
+        DatabaseActivity activity = DatabaseActivity.begin();
+        profiler.profileExecutionOfQuery(query, null, session);
+        activity.end(DatabaseActivity.JOB, "test");
+
+        assertThat(activity.getStatements(), is(0));
+        assertThat(activity.getRows(), is(0L));
+    }
+
+    @Test
+    void shouldNotCountStatementsWithNoActivityBegun() {
+        DatabaseActivity activity = DatabaseActivity.begin();
+        activity.end(DatabaseActivity.JOB, "test");
+
+        runStatement(null);
+
+        assertThat(activity.getStatements(), is(0));
+    }
+
+    private void runStatement(DatabaseQuery query) {
+        profiler.startOperationProfile(SessionProfiler.StatementExecute, query, SessionProfiler.ALL);
+        profiler.endOperationProfile(SessionProfiler.StatementExecute, query, SessionProfiler.ALL);
+    }
+
+    private static double sampleValue(String name) {
+        Double value = CollectorRegistry.defaultRegistry.getSampleValue(name,
+                new String[]{"type", "name"}, new String[]{DatabaseActivity.JOB, "test"});
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.pay.connector.util;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class DatabaseActivityTest {
+
+    private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        otherThread.shutdownNow();
+    }
+
+    @Test
+    void shouldAddWorkCarriedOverToAnotherThreadToTheActivityThatHandedItOver() throws Exception {
+        DatabaseActivity activity = DatabaseActivity.begin();
+        DatabaseActivity.current().recordStatement(1000);
+        Future<String> result = otherThread.submit(DatabaseActivity.carriedOver("carried-over", () -> {
+            DatabaseActivity.current().recordStatement(2000);
+            DatabaseActivity.current().recordRows(5);
+            return "done";
+        }));
+
+        assertThat(result.get(), is("done"));
+        activity.end(DatabaseActivity.JOB, "test");
+
+        assertThat(activity.getStatements(), is(2));
+        assertThat(activity.getRows(), is(5L));
+        assertThat(activity.getDatabaseTime().toNanos(), is(3000L));
+        assertThat(otherThread.submit(DatabaseActivity::current).get(), is(nullValue()));
+    }
+
+    @Test
+    void shouldRecordWorkThatFinishesAfterTheActivityThatHandedItOverHasEndedOnItsOwn() throws Exception {
+        double countBefore = sampleValue("connector_db_statements_count", "carried-over-late");
+        var handedOver = new CountDownLatch(1);
+        DatabaseActivity activity = DatabaseActivity.begin();
+        Future<Void> result = otherThread.submit(DatabaseActivity.carriedOver("carried-over-late", () -> {
+            handedOver.await();
+            DatabaseActivity.current().recordStatement(1000);
+            return null;
+        }));
+
+        activity.end(DatabaseActivity.JOB, "test");
+        handedOver.countDown();
+        result.get();
+
+        assertThat(activity.getStatements(), is(0));
+        assertThat(sampleValue("connector_db_statements_count", "carried-over-late"), is(countBefore + 1));
+    }
+
+    @Test
+    void shouldRecordWorkHandedOverWithNoActivityBegunOnItsOwn() throws Exception {
+        double countBefore = sampleValue("connector_db_statements_count", "carried-over-alone");
+        Callable<Void> work = DatabaseActivity.carriedOver("carried-over-alone", () -> {
+            DatabaseActivity.current().recordStatement(1000);
+            return null;
+        });
+
+        otherThread.submit(work).get();
+
+        assertThat(sampleValue("connector_db_statements_count", "carried-over-alone"), is(countBefore + 1));
+    }
+
+    private static double sampleValue(String name, String activityName) {
+        Double value = CollectorRegistry.defaultRegistry.getSampleValue(name,
+                new String[]{"type", "name"}, new String[]{DatabaseActivity.JOB, activityName});
+        return value == null ? 0 : value;
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -36,6 +37,20 @@ class JsonObjectMapperTest {
         assertThrows(WebApplicationException.class, () -> jsonObjectMapper.getObject(jsonString, LocalTestObject.class));
     }
 
+    @Test
+    void shouldMapBytesToObject() {
+        byte[] json = "{\"id\":1}".getBytes(UTF_8);
+        LocalTestObject fromJson = jsonObjectMapper.getObject(json, LocalTestObject.class);
+        assertNotNull(fromJson);
+        assertEquals(1, fromJson.getId());
+    }
+
+    @Test
+    void shouldThrowExceptionForInvalidBytes() {
+        byte[] json = "{\"id\":\"abc\"}".getBytes(UTF_8);
+        assertThrows(WebApplicationException.class, () -> jsonObjectMapper.getObject(json, LocalTestObject.class));
+    }
+
     @Nested
     @DisplayName("ObjectToString")
     class TestObjectToString {
@@ -0,0 +1,28 @@
+package uk.gov.pay.connector.util;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.util.LoggablePayload.MAX_LOGGED_BYTES;
+
+class LoggablePayloadTest {
+
+    @Test
+    void shouldShowWholePayloadWhenItIsSmall() {
+        assertThat(LoggablePayload.of("<reply/>".getBytes(UTF_8)).toString(), is("<reply/>"));
+    }
+
+    @Test
+    void shouldTruncateLargePayload() {
+        byte[] payload = "a".repeat(MAX_LOGGED_BYTES + 10).getBytes(UTF_8);
+
+        assertThat(LoggablePayload.of(payload).toString(), is("a".repeat(MAX_LOGGED_BYTES) + "... [10 more bytes]"));
+    }
+
+    @Test
+    void shouldShowNothingForMissingPayload() {
+        assertThat(LoggablePayload.of(null).toString(), is(""));
+    }
+}
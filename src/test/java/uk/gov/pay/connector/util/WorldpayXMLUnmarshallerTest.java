@@ -12,6 +12,11 @@ import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayRefundResponse;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -229,4 +234,26 @@ class WorldpayXMLUnmarshallerTest {
         assertThat(response.getErrorCode(), is(nullValue()));
         assertThat(response.getErrorMessage(), is(nullValue()));
     }
+
+    @Test
+    void shouldUnmarshallDifferentResponseTypesConcurrently() throws Exception {
+        String capturePayload = TestTemplateResourceLoader.load(WORLDPAY_CAPTURE_SUCCESS_RESPONSE);
+        String cancelErrorPayload = TestTemplateResourceLoader.load(WORLDPAY_CANCEL_ERROR_RESPONSE);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                if (i % 2 == 0) {
+                    results.add(executorService.submit(() -> XMLUnmarshaller.unmarshall(capturePayload, WorldpayCaptureResponse.class).getTransactionId()));
+                } else {
+                    results.add(executorService.submit(() -> XMLUnmarshaller.unmarshall(cancelErrorPayload, WorldpayCancelResponse.class).getErrorMessage()));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get(), is(i % 2 == 0 ? "transaction-id" : "Something went wrong."));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 }
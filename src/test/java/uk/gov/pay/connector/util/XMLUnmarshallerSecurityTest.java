@@ -79,4 +79,31 @@ class XMLUnmarshallerSecurityTest {
 
         assertThrows(XMLUnmarshallerException.class, () -> XMLUnmarshaller.unmarshall(xmlData, XMLUnmarshallingAttackTest.class));
     }
+
+    @Test
+    void preventXEE_shouldStillFailUnmarshallingWithReusedParserAfterPreviousPayloadsSucceeded() throws Exception {
+
+        XMLUnmarshaller.unmarshall("<foo>hola</foo>", XMLUnmarshallingAttackTest.class);
+
+        String xmlData = "<!DOCTYPE foo [" +
+                "<!ENTITY a \"1234567890\" >" +
+                "<!ENTITY b \"&a;&a;&a;&a;&a;&a;&a;&a;&a;&a;\" >" +
+                "]> " +
+                "<foo>&b;</foo>";
+
+        var exception = assertThrows(XMLUnmarshallerException.class, () -> XMLUnmarshaller.unmarshall(xmlData, XMLUnmarshallingAttackTest.class));
+
+        assertThat(exception.getCause().toString(),
+                containsString("JAXP00010001: The parser has encountered more than \"1\" entity expansions in this document;"));
+    }
+
+    @Test
+    void shouldUnmarshallSuccessfully_afterPreviousPayloadFailedToUnmarshall() throws Exception {
+
+        assertThrows(XMLUnmarshallerException.class, () -> XMLUnmarshaller.unmarshall("<foo>asd<</foo>", XMLUnmarshallingAttackTest.class));
+
+        XMLUnmarshallingAttackTest unmarshall = XMLUnmarshaller.unmarshall("<foo>hola</foo>", XMLUnmarshallingAttackTest.class);
+
+        assertThat(unmarshall.getValue(), is("hola"));
+    }
 }
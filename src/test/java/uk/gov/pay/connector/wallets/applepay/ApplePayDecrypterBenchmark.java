@@ -0,0 +1,85 @@
+package uk.gov.pay.connector.wallets.applepay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.app.ApplePayConfig;
+import uk.gov.pay.connector.app.WorldpayConfig;
+import uk.gov.pay.connector.wallets.applepay.api.ApplePayAuthRequest;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.wallets.applepay.ApplePayAuthRequestBuilder.anApplePayToken;
+import static uk.gov.pay.connector.wallets.applepay.ApplePayDecrypterTest.ENCODED_PRIMARY_PRIVATE_KEY;
+import static uk.gov.pay.connector.wallets.applepay.ApplePayDecrypterTest.ENCODED_PRIMARY_PUBLIC_CERTIFICATE;
+import static uk.gov.pay.connector.wallets.applepay.ApplePayDecrypterTest.ENCODED_SECONDARY_PRIVATE_KEY;
+import static uk.gov.pay.connector.wallets.applepay.ApplePayDecrypterTest.ENCODED_SECONDARY_PUBLIC_CERTIFICATE;
+
+/**
+ * Decrypts the recorded Apple Pay test token. With keyPairForToken=SECONDARY the token can only be decrypted with the
+ * secondary key pair, as during a key rotation; before the decrypter remembered the last key pair that worked, every
+ * one of these payments paid for a failed attempt with the primary key pair first. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=uk.gov.pay.connector.wallets.applepay.ApplePayDecrypterBenchmark}
+ * and add {@code -prof gc} to the JMH options to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ApplePayDecrypterBenchmark {
+
+    @Param({"PRIMARY", "SECONDARY"})
+    public String keyPairForToken;
+
+    private ApplePayDecrypter applePayDecrypter;
+    private ApplePayAuthRequest applePayAuthRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        boolean tokenForPrimary = keyPairForToken.equals("PRIMARY");
+        ApplePayConfig applePayConfig = mock(ApplePayConfig.class);
+        when(applePayConfig.getPrimaryPrivateKey())
+                .thenReturn(tokenForPrimary ? ENCODED_PRIMARY_PRIVATE_KEY : ENCODED_SECONDARY_PRIVATE_KEY);
+        when(applePayConfig.getPrimaryPublicCertificate())
+                .thenReturn(tokenForPrimary ? ENCODED_PRIMARY_PUBLIC_CERTIFICATE : ENCODED_SECONDARY_PUBLIC_CERTIFICATE);
+        when(applePayConfig.getSecondaryPrivateKey())
+                .thenReturn(Optional.of(tokenForPrimary ? ENCODED_SECONDARY_PRIVATE_KEY : ENCODED_PRIMARY_PRIVATE_KEY));
+        when(applePayConfig.getSecondaryPublicCertificate())
+                .thenReturn(Optional.of(tokenForPrimary ? ENCODED_SECONDARY_PUBLIC_CERTIFICATE : ENCODED_PRIMARY_PUBLIC_CERTIFICATE));
+        WorldpayConfig worldpayConfig = mock(WorldpayConfig.class);
+        when(worldpayConfig.getApplePayConfig()).thenReturn(applePayConfig);
+
+        applePayDecrypter = new ApplePayDecrypter(worldpayConfig, new ObjectMapper());
+        applePayAuthRequest = anApplePayToken().build();
+    }
+
+    @Benchmark
+    public AppleDecryptedPaymentData decryptRecordedToken() {
+        return applePayDecrypter.performDecryptOperation(applePayAuthRequest);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ApplePayDecrypterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}